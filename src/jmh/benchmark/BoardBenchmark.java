@@ -0,0 +1,138 @@
+package benchmark;
+
+import model.BasePiece;
+import model.BasePiece.Position;
+import model.Board;
+import model.MoveList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BoardBenchmark measures the rule queries of {@link Board} on every position of {@link MidGamePositions}. One
+ * operation is one query on one position, always for the player to move.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardBenchmark {
+
+    private Board[] boards;
+
+    /**
+     * The pieces of player to move on each board.
+     */
+    private BasePiece[][] pieces;
+
+    /**
+     * One legal move on each board, as the piece and its target position.
+     */
+    private BasePiece[] movers;
+    private Position[] targets;
+
+    private final MoveList moves = new MoveList();
+
+    @Setup
+    public void setUp() {
+        boards = MidGamePositions.create();
+        pieces = new BasePiece[boards.length][];
+        movers = new BasePiece[boards.length];
+        targets = new Position[boards.length];
+        for (int i = 0; i < boards.length; i++) {
+            Board board = boards[i];
+            List<BasePiece> playerPieces = board.getPlayerAllPieces(board.isWhiteToMove());
+            pieces[i] = playerPieces.toArray(new BasePiece[0]);
+            for (BasePiece piece : pieces[i]) {
+                if (movers[i] == null && !board.getLegalMoves(piece).isEmpty()) {
+                    movers[i] = piece;
+                    targets[i] = board.getLegalMoves(piece).iterator().next();
+                }
+            }
+        }
+    }
+
+    /**
+     * Legal moves of every piece of the player to move, one piece at a time as the GUI asks for them.
+     */
+    @Benchmark
+    @OperationsPerInvocation(MidGamePositions.SIZE)
+    public void getLegalMoves(Blackhole blackhole) {
+        for (int i = 0; i < boards.length; i++) {
+            for (BasePiece piece : pieces[i]) {
+                blackhole.consume(boards[i].getLegalMoves(piece));
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MidGamePositions.SIZE)
+    public void generateLegalMoves(Blackhole blackhole) {
+        for (Board board : boards) {
+            moves.clear();
+            board.generateLegalMoves(board.isWhiteToMove(), moves);
+            blackhole.consume(moves.size());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MidGamePositions.SIZE)
+    public void inCheck(Blackhole blackhole) {
+        for (Board board : boards) {
+            blackhole.consume(board.inCheck(board.isWhiteToMove()));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MidGamePositions.SIZE)
+    public void inCheckmate(Blackhole blackhole) {
+        for (Board board : boards) {
+            blackhole.consume(board.inCheckmate(board.isWhiteToMove()));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MidGamePositions.SIZE)
+    public void inStaleMate(Blackhole blackhole) {
+        for (Board board : boards) {
+            blackhole.consume(board.inStaleMate(board.isWhiteToMove()));
+        }
+    }
+
+    /**
+     * A checked move followed by its undo.
+     */
+    @Benchmark
+    @OperationsPerInvocation(MidGamePositions.SIZE)
+    public void movePieceAndUndoMove(Blackhole blackhole) {
+        for (int i = 0; i < boards.length; i++) {
+            blackhole.consume(boards[i].movePiece(movers[i], targets[i]));
+            blackhole.consume(boards[i].undoMove());
+        }
+    }
+
+    /**
+     * The deep copy that replaced the old cloneBoard.
+     */
+    @Benchmark
+    @OperationsPerInvocation(MidGamePositions.SIZE)
+    public void copy(Blackhole blackhole) {
+        for (Board board : boards) {
+            blackhole.consume(board.copy());
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package benchmark;
+
+import model.Board;
+import model.Evaluator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * EvaluatorBenchmark measures the {@link Evaluator} on every position of {@link MidGamePositions}, against summing
+ * the material and piece-square scores from scratch. One operation is one position.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EvaluatorBenchmark {
+
+    private Board[] boards;
+    private final Evaluator evaluator = new Evaluator();
+
+    @Setup
+    public void setUp() {
+        boards = MidGamePositions.create();
+    }
+
+    /**
+     * The full evaluation, with the incremental material and piece-square score.
+     */
+    @Benchmark
+    @OperationsPerInvocation(MidGamePositions.SIZE)
+    public void evaluate(Blackhole blackhole) {
+        for (Board board : boards) {
+            blackhole.consume(evaluator.evaluate(board));
+        }
+    }
+
+    /**
+     * The material and piece-square score summed over the board, as it would cost without incremental updates.
+     */
+    @Benchmark
+    @OperationsPerInvocation(MidGamePositions.SIZE)
+    public void computePieceScore(Blackhole blackhole) {
+        for (Board board : boards) {
+            blackhole.consume(board.computePieceScore());
+        }
+    }
+}
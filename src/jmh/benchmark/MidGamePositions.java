@@ -0,0 +1,56 @@
+package benchmark;
+
+import model.Board;
+import model.MoveList;
+
+import java.util.Random;
+
+/**
+ * MidGamePositions is the fixed corpus of positions that the benchmarks run on. Each position is reached by random
+ * legal moves from the starting position with a fixed seed, so the corpus is the same in every run and the numbers can
+ * be compared over time.
+ */
+public class MidGamePositions {
+
+    /**
+     * The number of positions in corpus.
+     */
+    public static final int SIZE = 32;
+
+    private static final long SEED = 20190101L;
+    private static final int MIN_PLIES = 16;
+    private static final int MAX_PLIES = 40;
+
+    /**
+     * Creates the positions of corpus. Every position has legal moves for the player to move.
+     *
+     * @return the new boards
+     */
+    public static Board[] create() {
+        Random random = new Random(SEED);
+        MoveList moves = new MoveList();
+        Board[] boards = new Board[SIZE];
+        int count = 0;
+        while (count < SIZE) {
+            Board board = Board.createStartingBoard();
+            int plies = MIN_PLIES + random.nextInt(MAX_PLIES - MIN_PLIES + 1);
+            boolean finished = true;
+            for (int ply = 0; ply <= plies; ply++) {
+                moves.clear();
+                board.generateLegalMoves(board.isWhiteToMove(), moves);
+                if (moves.isEmpty()) {
+                    finished = false;
+                    break;
+                }
+                if (ply < plies) {
+                    board.makeMove(moves.get(random.nextInt(moves.size())));
+                }
+            }
+            if (finished) {
+                // Drops the move history, so that the positions do not keep the undo records
+                boards[count++] = board.copy();
+            }
+        }
+        return boards;
+    }
+}
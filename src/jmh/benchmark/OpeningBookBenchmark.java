@@ -0,0 +1,106 @@
+package benchmark;
+
+import engine.OpeningBook;
+import engine.OpeningBookBuilder;
+import model.Board;
+import model.MoveList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * OpeningBookBenchmark measures looking up positions in an {@link OpeningBook} built from random games. One operation
+ * is one lookup.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OpeningBookBenchmark {
+
+    private static final int GAMES = 20000;
+    private static final int PLIES = 12;
+    private static final int KEYS = 1024;
+
+    private Path file;
+    private OpeningBook book;
+    private final long[] hitKeys = new long[KEYS];
+    private final long[] missKeys = new long[KEYS];
+
+    @Setup
+    public void setUp() throws IOException {
+        Random random = new Random(20190101L);
+        OpeningBookBuilder builder = new OpeningBookBuilder(PLIES, 1);
+        MoveList moves = new MoveList();
+        int[] game = new int[PLIES];
+        for (int i = 0; i < GAMES; i++) {
+            Board board = Board.createStartingBoard();
+            int plies = 0;
+            for (; plies < PLIES; plies++) {
+                moves.clear();
+                board.generateLegalMoves(board.isWhiteToMove(), moves);
+                if (moves.isEmpty()) {
+                    break;
+                }
+                game[plies] = moves.get(random.nextInt(moves.size()));
+                board.makeMove(game[plies]);
+            }
+            builder.addGame(game, plies, random.nextInt(3));
+        }
+        file = Files.createTempFile("book", ".bin");
+        builder.write(file);
+        book = OpeningBook.open(file);
+        for (int i = 0; i < KEYS; i++) {
+            hitKeys[i] = book.getKey(random.nextInt(book.getEntryCount()));
+            missKeys[i] = random.nextLong();
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        book.close();
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(KEYS)
+    public void getBestMoveHit(Blackhole blackhole) {
+        for (long key : hitKeys) {
+            blackhole.consume(book.getBestMove(key));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(KEYS)
+    public void getBestMoveMiss(Blackhole blackhole) {
+        for (long key : missKeys) {
+            blackhole.consume(book.getBestMove(key));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(KEYS)
+    public void chooseMoveHit(Blackhole blackhole) {
+        for (int i = 0; i < KEYS; i++) {
+            blackhole.consume(book.chooseMove(hitKeys[i], i));
+        }
+    }
+}
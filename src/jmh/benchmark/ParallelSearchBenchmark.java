@@ -0,0 +1,65 @@
+package benchmark;
+
+import engine.ParallelSearcher;
+import engine.SearchLimits;
+import engine.SearchResult;
+import model.Board;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ParallelSearchBenchmark measures the time to depth of a {@link ParallelSearcher} on the starting position with a
+ * growing number of threads, so that the speed-up of the shared transposition table can be read off the scores. One
+ * operation is one search to {@link #DEPTH}, always with an empty table.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParallelSearchBenchmark {
+
+    private static final int DEPTH = 5;
+
+    @Param({"1", "2", "4"})
+    private int threads;
+
+    private ParallelSearcher searcher;
+
+    @Setup
+    public void setUp() {
+        searcher = new ParallelSearcher(Board.createStartingBoard(), threads);
+    }
+
+    /**
+     * Empties the table, so that a search does not start from the results of the one before.
+     */
+    @Setup(Level.Invocation)
+    public void clearTable() {
+        searcher.getTranspositionTable().clear();
+    }
+
+    @TearDown
+    public void tearDown() {
+        searcher.shutdown();
+    }
+
+    @Benchmark
+    public SearchResult searchToDepth() {
+        return searcher.search(SearchLimits.depth(DEPTH));
+    }
+}
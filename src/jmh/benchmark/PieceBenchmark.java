@@ -0,0 +1,73 @@
+package benchmark;
+
+import model.BasePiece;
+import model.Board;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PieceBenchmark measures {@link BasePiece#getPossibleLegalMoves(BasePiece[][])} of one piece class, for every piece
+ * of that class of both players in {@link MidGamePositions}. One operation is one call for each of those pieces, whose
+ * number is fixed by the corpus.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PieceBenchmark {
+
+    /**
+     * The piece class names indexed by {@link BasePiece#getType()}.
+     */
+    private static final List<String> TYPE_NAMES = Arrays.asList("pawn", "knight", "bishop", "rook", "queen", "king"
+            , "soldier", "elephant");
+
+    @Param({"pawn", "knight", "bishop", "rook", "queen", "king", "soldier", "elephant"})
+    public String pieceType;
+
+    private BasePiece[] pieces;
+    private BasePiece[][][] chessboards;
+
+    @Setup
+    public void setUp() {
+        int type = TYPE_NAMES.indexOf(pieceType);
+        List<BasePiece> piecesOfType = new ArrayList<BasePiece>();
+        List<BasePiece[][]> chessboardsOfType = new ArrayList<BasePiece[][]>();
+        for (Board board : MidGamePositions.create()) {
+            for (BasePiece[] rank : board.getChessBoard()) {
+                for (BasePiece piece : rank) {
+                    if (piece != null && piece.getType() == type) {
+                        piecesOfType.add(piece);
+                        chessboardsOfType.add(board.getChessBoard());
+                    }
+                }
+            }
+        }
+        pieces = piecesOfType.toArray(new BasePiece[0]);
+        chessboards = chessboardsOfType.toArray(new BasePiece[0][][]);
+    }
+
+    @Benchmark
+    public void getPossibleLegalMoves(Blackhole blackhole) {
+        for (int i = 0; i < pieces.length; i++) {
+            blackhole.consume(pieces[i].getPossibleLegalMoves(chessboards[i]));
+        }
+    }
+}
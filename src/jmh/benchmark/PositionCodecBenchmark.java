@@ -0,0 +1,82 @@
+package benchmark;
+
+import model.Board;
+import model.PositionCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PositionCodecBenchmark measures writing and reading the positions of {@link MidGamePositions} with
+ * {@link PositionCodec}. One operation is one position.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PositionCodecBenchmark {
+
+    private Board[] boards;
+    private String[] texts;
+    private byte[][] binaries;
+    private final StringBuilder builder = new StringBuilder(128);
+    private final byte[] buffer = new byte[PositionCodec.MAX_BINARY_LENGTH];
+
+    @Setup
+    public void setUp() {
+        boards = MidGamePositions.create();
+        texts = new String[boards.length];
+        binaries = new byte[boards.length][PositionCodec.MAX_BINARY_LENGTH];
+        for (int i = 0; i < boards.length; i++) {
+            texts[i] = PositionCodec.toText(boards[i]);
+            PositionCodec.toBytes(boards[i], binaries[i], 0);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MidGamePositions.SIZE)
+    public void appendText(Blackhole blackhole) {
+        for (Board board : boards) {
+            builder.setLength(0);
+            PositionCodec.appendText(board, builder);
+            blackhole.consume(builder.length());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MidGamePositions.SIZE)
+    public void fromText(Blackhole blackhole) {
+        for (String text : texts) {
+            blackhole.consume(PositionCodec.fromText(text));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MidGamePositions.SIZE)
+    public void toBytes(Blackhole blackhole) {
+        for (Board board : boards) {
+            blackhole.consume(PositionCodec.toBytes(board, buffer, 0));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MidGamePositions.SIZE)
+    public void fromBytes(Blackhole blackhole) {
+        for (byte[] binary : binaries) {
+            blackhole.consume(PositionCodec.fromBytes(binary, 0));
+        }
+    }
+}
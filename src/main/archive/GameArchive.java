@@ -0,0 +1,389 @@
+package archive;
+
+import model.Board;
+import model.Move;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * GameArchive is an append-only store of finished games on disk, read through memory-mapped buffers so that any game
+ * can be found by its id and read without copying. A directory holds two files:
+ * <ul>
+ * <li>{@value #DATA_FILE}: a {@value #FILE_HEADER_SIZE}-byte file header, then one record per game: a
+ * {@value #RECORD_HEADER_SIZE}-byte header (int move count, byte result, three reserved bytes, long timestamp) followed
+ * by two bytes per move, the original and target position indices as packed by {@link Move} without flags</li>
+ * <li>{@value #INDEX_FILE}: a {@value #FILE_HEADER_SIZE}-byte file header, then the long offset of each record in the
+ * data file, so game id n is found at a fixed place in the index</li>
+ * </ul>
+ * A record is written before its index entry, so a crash during an append never exposes a partial game, and the
+ * unindexed tail of the data file is dropped when the archive is opened again. All numbers are big-endian.
+ * <p>
+ * Only one archive at a time can have a directory open, see {@link #open(Path)}.
+ */
+public class GameArchive implements AutoCloseable {
+
+    /**
+     * The results of a game.
+     */
+    public static final int WHITE_WIN = 0;
+    public static final int BLACK_WIN = 1;
+    public static final int TIE = 2;
+
+    /**
+     * The most moves one game can hold.
+     */
+    public static final int MAX_MOVES = 0xFFFF;
+
+    static final String DATA_FILE = "games.dat";
+    static final String INDEX_FILE = "games.idx";
+    static final int FILE_HEADER_SIZE = 16;
+    static final int RECORD_HEADER_SIZE = 16;
+
+    private static final int DATA_MAGIC = 0x43484744;
+    private static final int INDEX_MAGIC = 0x43484749;
+    private static final int VERSION = 1;
+    private static final int MAX_RECORD_SIZE = RECORD_HEADER_SIZE + 2 * MAX_MOVES;
+
+    private final MappedFile data;
+    private final MappedFile index;
+
+    /**
+     * The number of games and the size of data file, including appended games that are not mapped yet.
+     */
+    private volatile long gameCount;
+    private long dataSize;
+
+    private GameArchive(MappedFile data, MappedFile index) {
+        this.data = data;
+        this.index = index;
+    }
+
+    /**
+     * Opens the archive in the given directory, creating it if it does not exist. The directory is locked until the
+     * archive is closed.
+     *
+     * @param directory the directory of archive files
+     * @return the open archive
+     * @throws IOException if the files cannot be read, are not archive files, or the directory is open by another
+     *                     archive
+     */
+    public static GameArchive open(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        MappedFile index = new MappedFile(directory.resolve(INDEX_FILE), 0);
+        MappedFile data;
+        try {
+            lock(index);
+            data = new MappedFile(directory.resolve(DATA_FILE), MAX_RECORD_SIZE);
+        } catch (IOException | RuntimeException e) {
+            index.channel.close();
+            throw e;
+        }
+        GameArchive archive = new GameArchive(data, index);
+        try {
+            archive.recover();
+        } catch (IOException | RuntimeException e) {
+            archive.close();
+            throw e;
+        }
+        return archive;
+    }
+
+    /**
+     * Takes the lock of the index file, which is held until the archive is closed. Each writer appends at the sizes
+     * it read when it opened the archive, so a second writer would overwrite the games of the first.
+     *
+     * @throws IOException if another archive, in this or another process, has the directory open
+     */
+    private static void lock(MappedFile index) throws IOException {
+        FileLock lock;
+        try {
+            lock = index.channel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            lock = null;
+        }
+        if (lock == null) {
+            throw new IOException("Game archive is in use: " + index.path);
+        }
+    }
+
+    /**
+     * Checks the file headers, writes them to new files, and drops anything after the last complete game.
+     */
+    private void recover() throws IOException {
+        long indexSize = checkHeader(index, INDEX_MAGIC);
+        long dataFileSize = checkHeader(data, DATA_MAGIC);
+        gameCount = (indexSize - FILE_HEADER_SIZE) / 8;
+        index.truncate(FILE_HEADER_SIZE + gameCount * 8);
+        index.map();
+        dataSize = FILE_HEADER_SIZE;
+        if (gameCount > 0) {
+            long lastOffset = index.getLong(FILE_HEADER_SIZE + (gameCount - 1) * 8);
+            dataSize = lastOffset + recordSize(readMoveCount(lastOffset, dataFileSize));
+        }
+        data.truncate(dataSize);
+        data.map();
+    }
+
+    private int readMoveCount(long offset, long dataFileSize) throws IOException {
+        if (offset + RECORD_HEADER_SIZE > dataFileSize) {
+            throw new IOException("Archive index points beyond data file");
+        }
+        ByteBuffer header = ByteBuffer.allocate(4);
+        data.channel.read(header, offset);
+        return header.getInt(0);
+    }
+
+    private static long checkHeader(MappedFile file, int magic) throws IOException {
+        long size = file.channel.size();
+        if (size == 0) {
+            ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_SIZE);
+            header.putInt(magic).putInt(VERSION).putLong(0).flip();
+            file.channel.write(header, 0);
+            return FILE_HEADER_SIZE;
+        }
+        ByteBuffer header = ByteBuffer.allocate(8);
+        file.channel.read(header, 0);
+        if (size < FILE_HEADER_SIZE || header.getInt(0) != magic || header.getInt(4) != VERSION) {
+            throw new IOException("Not a game archive file: " + file.path);
+        }
+        return size;
+    }
+
+    private static long recordSize(int moveCount) {
+        return RECORD_HEADER_SIZE + 2L * moveCount;
+    }
+
+    /**
+     * Appends the moves made on the board as a finished game.
+     *
+     * @param board  the board whose move history is stored, see {@link Board#getMove(int)}
+     * @param result the result, one of {@link #WHITE_WIN}, {@link #BLACK_WIN} or {@link #TIE}
+     * @return the id of stored game
+     * @throws IOException if the game cannot be written
+     */
+    public long append(Board board, int result) throws IOException {
+        int[] moves = new int[board.getMoveCount()];
+        for (int i = 0; i < moves.length; i++) {
+            moves[i] = board.getMove(i);
+        }
+        return append(moves, moves.length, result, System.currentTimeMillis());
+    }
+
+    /**
+     * Appends a finished game.
+     *
+     * @param moves     the packed moves, see {@link Move}
+     * @param count     the number of moves to store from the array
+     * @param result    the result, one of {@link #WHITE_WIN}, {@link #BLACK_WIN} or {@link #TIE}
+     * @param timestamp the time the game finished in milliseconds since the epoch
+     * @return the id of stored game
+     * @throws IOException if the game cannot be written
+     */
+    public synchronized long append(int[] moves, int count, int result, long timestamp) throws IOException {
+        if (count > MAX_MOVES) {
+            throw new IllegalArgumentException("A game holds at most " + MAX_MOVES + " moves");
+        }
+        if (result < WHITE_WIN || result > TIE) {
+            throw new IllegalArgumentException("Unknown result " + result);
+        }
+        ByteBuffer record = ByteBuffer.allocate((int) recordSize(count));
+        record.putInt(count).put((byte) result).put((byte) 0).putShort((short) 0).putLong(timestamp);
+        for (int i = 0; i < count; i++) {
+            record.putShort((short) ((Move.getFromIndex(moves[i]) << 8) | Move.getToIndex(moves[i])));
+        }
+        record.flip();
+        writeFully(data.channel, record, dataSize);
+
+        ByteBuffer entry = ByteBuffer.allocate(8);
+        entry.putLong(dataSize).flip();
+        writeFully(index.channel, entry, FILE_HEADER_SIZE + gameCount * 8);
+
+        dataSize += recordSize(count);
+        return gameCount++;
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    /**
+     * Returns the number of games, which is also the id of the next game.
+     *
+     * @return the number of games
+     */
+    public long size() {
+        return gameCount;
+    }
+
+    public int getResult(long id) {
+        return data.get(recordOffset(id) + 4);
+    }
+
+    public long getTimestamp(long id) {
+        return data.getLong(recordOffset(id) + 8);
+    }
+
+    public int getMoveCount(long id) {
+        return data.getInt(recordOffset(id));
+    }
+
+    /**
+     * Returns a move of a stored game, packed by {@link Move} without flags.
+     *
+     * @param id    the id of game
+     * @param index the index of move, from 0 for the first move
+     * @return the packed move
+     */
+    public int getMove(long id, int index) {
+        long offset = recordOffset(id);
+        if (index < 0 || index >= data.getInt(offset)) {
+            throw new IndexOutOfBoundsException("Move " + index + " of game " + id);
+        }
+        int packed = data.getShort(offset + RECORD_HEADER_SIZE + 2L * index) & 0xFFFF;
+        return Move.of(packed >>> 8, packed & 0xFF, 0);
+    }
+
+    /**
+     * Plays a stored game from the starting position.
+     *
+     * @param id the id of game
+     * @return the board after all moves of game, whose move history holds the game
+     */
+    public Board replay(long id) {
+        Board board = Board.createStartingBoard();
+        int moveCount = getMoveCount(id);
+        for (int i = 0; i < moveCount; i++) {
+            board.makeMove(getMove(id, i));
+        }
+        return board;
+    }
+
+    /**
+     * Returns the offset of a record in the data file, mapping the games appended since the last mapping.
+     */
+    private long recordOffset(long id) {
+        if (id < 0 || id >= gameCount) {
+            throw new IndexOutOfBoundsException("Game " + id + " of " + gameCount);
+        }
+        long indexPosition = FILE_HEADER_SIZE + id * 8;
+        if (indexPosition + 8 > index.mappedSize) {
+            remap();
+        }
+        long offset = index.getLong(indexPosition);
+        if (offset + RECORD_HEADER_SIZE > data.mappedSize) {
+            remap();
+        }
+        return offset;
+    }
+
+    private synchronized void remap() {
+        try {
+            index.map();
+            data.map();
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot map game archive", e);
+        }
+    }
+
+    /**
+     * Forces the appended games to the storage device.
+     *
+     * @throws IOException if the files cannot be written
+     */
+    public void flush() throws IOException {
+        data.channel.force(false);
+        index.channel.force(false);
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            data.channel.close();
+        } finally {
+            index.channel.close();
+        }
+    }
+
+    /**
+     * MappedFile maps a growing file as read-only segments of {@link #SEGMENT_SIZE} bytes. Each segment also maps the
+     * given overlap past its end, so that any record of at most that size which starts in a segment can be read from
+     * that segment alone.
+     */
+    private static class MappedFile {
+        private static final int SEGMENT_SHIFT = 30;
+        private static final long SEGMENT_SIZE = 1L << SEGMENT_SHIFT;
+
+        private final Path path;
+        private final FileChannel channel;
+        private final int overlap;
+        private final List<MappedByteBuffer> segments = new ArrayList<MappedByteBuffer>();
+        private volatile MappedByteBuffer[] segmentArray = new MappedByteBuffer[0];
+        private volatile long mappedSize;
+
+        private MappedFile(Path path, int overlap) throws IOException {
+            this.path = path;
+            this.overlap = overlap;
+            channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ
+                    , StandardOpenOption.WRITE);
+        }
+
+        private void truncate(long size) throws IOException {
+            if (channel.size() > size) {
+                channel.truncate(size);
+            }
+        }
+
+        /**
+         * Maps the file up to its current size. Segments that are already fully mapped are kept.
+         */
+        private void map() throws IOException {
+            long size = channel.size();
+            // The last segment may have grown, so it is mapped again
+            if (!segments.isEmpty() && segments.get(segments.size() - 1).capacity() < SEGMENT_SIZE + overlap) {
+                segments.remove(segments.size() - 1);
+            }
+            for (long start = segments.size() * SEGMENT_SIZE; start < size; start += SEGMENT_SIZE) {
+                long length = Math.min(size - start, SEGMENT_SIZE + overlap);
+                segments.add(channel.map(FileChannel.MapMode.READ_ONLY, start, length));
+            }
+            segmentArray = segments.toArray(new MappedByteBuffer[0]);
+            mappedSize = size;
+        }
+
+        private MappedByteBuffer segment(long position) {
+            return segmentArray[(int) (position >>> SEGMENT_SHIFT)];
+        }
+
+        private int offsetInSegment(long position) {
+            return (int) (position & (SEGMENT_SIZE - 1));
+        }
+
+        private byte get(long position) {
+            return segment(position).get(offsetInSegment(position));
+        }
+
+        private short getShort(long position) {
+            return segment(position).getShort(offsetInSegment(position));
+        }
+
+        private int getInt(long position) {
+            return segment(position).getInt(offsetInSegment(position));
+        }
+
+        private long getLong(long position) {
+            return segment(position).getLong(offsetInSegment(position));
+        }
+    }
+}
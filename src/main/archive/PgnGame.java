@@ -0,0 +1,144 @@
+package archive;
+
+import model.Board;
+import model.PositionCodec;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * PgnGame is one game of a PGN file: its tag pairs, its moves packed by {@link model.Move}, and its result. The moves
+ * are legal moves from the starting board, or from the position of the "FEN" tag in the text form of
+ * {@link PositionCodec} if there is one.
+ */
+public class PgnGame {
+
+    /**
+     * The result tokens of PGN.
+     */
+    public static final String WHITE_WIN = "1-0";
+    public static final String BLACK_WIN = "0-1";
+    public static final String DRAW = "1/2-1/2";
+    public static final String UNKNOWN = "*";
+
+    /**
+     * The tag of the position before the first move.
+     */
+    public static final String FEN_TAG = "FEN";
+
+    private final Map<String, String> tags = new LinkedHashMap<String, String>();
+    private int[] moves = new int[64];
+    private int moveCount;
+    private String result = UNKNOWN;
+
+    public PgnGame() {
+    }
+
+    /**
+     * Creates a game from the move history of a board, see {@link Board#getMove(int)}. The board must have started
+     * from {@link Board#createStartingBoard()}.
+     *
+     * @param board  the board after the game
+     * @param result the result token
+     * @return the game
+     */
+    public static PgnGame fromBoard(Board board, String result) {
+        PgnGame game = new PgnGame();
+        for (int i = 0; i < board.getMoveCount(); i++) {
+            game.addMove(board.getMove(i));
+        }
+        game.setResult(result);
+        return game;
+    }
+
+    public String getTag(String name) {
+        return tags.get(name);
+    }
+
+    public void setTag(String name, String value) {
+        tags.put(name, value);
+    }
+
+    public int getTagCount() {
+        return tags.size();
+    }
+
+    /**
+     * Returns the tag pairs in the order they were set.
+     *
+     * @return the unmodifiable tag pairs
+     */
+    public Map<String, String> getTags() {
+        return Collections.unmodifiableMap(tags);
+    }
+
+    public void addMove(int move) {
+        if (moveCount == moves.length) {
+            moves = Arrays.copyOf(moves, moves.length * 2);
+        }
+        moves[moveCount++] = move;
+    }
+
+    public int getMove(int index) {
+        if (index < 0 || index >= moveCount) {
+            throw new IndexOutOfBoundsException("Move " + index + " of " + moveCount);
+        }
+        return moves[index];
+    }
+
+    public int getMoveCount() {
+        return moveCount;
+    }
+
+    /**
+     * Returns the moves in a new array.
+     *
+     * @return the packed moves
+     */
+    public int[] getMoves() {
+        return Arrays.copyOf(moves, moveCount);
+    }
+
+    public String getResult() {
+        return result;
+    }
+
+    public void setResult(String result) {
+        this.result = result;
+    }
+
+    /**
+     * Returns whether the game started from the starting board.
+     *
+     * @return true if there is no "FEN" tag
+     */
+    public boolean hasStandardStart() {
+        return !tags.containsKey(FEN_TAG);
+    }
+
+    /**
+     * Returns a new board of the position before the first move.
+     *
+     * @return the board
+     * @throws IllegalArgumentException if the "FEN" tag is not a valid position
+     */
+    public Board createStartBoard() {
+        String fen = tags.get(FEN_TAG);
+        return fen == null ? Board.createStartingBoard() : PositionCodec.fromText(fen);
+    }
+
+    /**
+     * Plays the game on a new board.
+     *
+     * @return the board after all moves, whose move history holds the game
+     */
+    public Board replay() {
+        Board board = createStartBoard();
+        for (int i = 0; i < moveCount; i++) {
+            board.makeMove(moves[i]);
+        }
+        return board;
+    }
+}
@@ -0,0 +1,289 @@
+package archive;
+
+import model.Board;
+import model.Move;
+import model.MoveList;
+import model.San;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * PgnParser reads the games of a PGN file one at a time. It reads characters through its own fixed buffer and never
+ * keeps more than one game, so the memory it uses does not depend on the size of file: comments and variations are
+ * skipped without being stored, tag values are cut at {@link #MAX_TAG_LENGTH} characters, and at most
+ * {@link #MAX_TAGS} tags are kept per game.
+ * <p>
+ * Moves are read in the notation of {@link San} and checked against the rules as they are read. A game with an
+ * illegal or unreadable move, more than {@link GameArchive#MAX_MOVES} moves, or an invalid "FEN" tag is skipped and
+ * counted by {@link #getSkippedCount()}. A game without a result token ends at the next tag or at the end of file,
+ * with the result {@link PgnGame#UNKNOWN}.
+ */
+public class PgnParser implements Closeable {
+
+    /**
+     * The most characters kept of a tag value or a move.
+     */
+    public static final int MAX_TAG_LENGTH = 255;
+
+    /**
+     * The most tags kept of a game.
+     */
+    public static final int MAX_TAGS = 64;
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * The outcomes of reading one game.
+     */
+    private static final int GAME_VALID = 0;
+    private static final int GAME_INVALID = 1;
+    private static final int NO_GAME = 2;
+
+    private final Reader reader;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int position;
+    private int limit;
+    private boolean lineStart = true;
+
+    private final StringBuilder token = new StringBuilder(MAX_TAG_LENGTH);
+    private final StringBuilder tagName = new StringBuilder(MAX_TAG_LENGTH);
+    private final MoveList moves = new MoveList();
+    private long skippedCount;
+
+    public PgnParser(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Returns the number of games skipped so far because they could not be read.
+     *
+     * @return the number of skipped games
+     */
+    public long getSkippedCount() {
+        return skippedCount;
+    }
+
+    /**
+     * Reads the next valid game.
+     *
+     * @return the game, or null at the end of file
+     * @throws IOException if the file cannot be read
+     */
+    public PgnGame next() throws IOException {
+        while (true) {
+            PgnGame game = new PgnGame();
+            int state = readGame(game);
+            if (state == GAME_VALID) {
+                return game;
+            } else if (state == GAME_INVALID) {
+                skippedCount++;
+            } else {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Reads one game into the given game, returning {@link #GAME_VALID}, {@link #GAME_INVALID} or {@link #NO_GAME} if
+     * the end of file is reached before any tag or move.
+     */
+    private int readGame(PgnGame game) throws IOException {
+        Board board = null;
+        boolean valid = true;
+        boolean empty = true;
+        boolean inMoveText = false;
+        int variationDepth = 0;
+        while (true) {
+            boolean atLineStart = lineStart;
+            int c = read();
+            if (c < 0) {
+                return empty ? NO_GAME : valid ? GAME_VALID : GAME_INVALID;
+            }
+            if (Character.isWhitespace(c)) {
+                continue;
+            }
+            switch (c) {
+                case '[':
+                    if (inMoveText) {
+                        // A tag after the moves starts the next game
+                        position--;
+                        return valid ? GAME_VALID : GAME_INVALID;
+                    }
+                    readTag(game);
+                    empty = false;
+                    break;
+                case '{':
+                    skipUntil('}');
+                    break;
+                case ';':
+                    skipUntil('\n');
+                    break;
+                case '%':
+                    if (atLineStart) {
+                        skipUntil('\n');
+                    }
+                    break;
+                case '(':
+                    variationDepth++;
+                    break;
+                case ')':
+                    if (variationDepth > 0) {
+                        variationDepth--;
+                    }
+                    break;
+                default:
+                    readSymbol(c);
+                    if (variationDepth > 0 || token.length() == 0 || token.charAt(0) == '$') {
+                        break;
+                    }
+                    empty = false;
+                    if (isResult(token)) {
+                        game.setResult(token.toString());
+                        return valid ? GAME_VALID : GAME_INVALID;
+                    }
+                    inMoveText = true;
+                    int moveStart = skipMoveNumber(token);
+                    if (!valid || moveStart == token.length()) {
+                        break;
+                    }
+                    if (board == null) {
+                        try {
+                            board = game.createStartBoard();
+                        } catch (IllegalArgumentException e) {
+                            valid = false;
+                            break;
+                        }
+                    }
+                    int move = token.length() > MAX_TAG_LENGTH || game.getMoveCount() >= GameArchive.MAX_MOVES
+                            ? Move.NONE : San.fromSan(board, token.subSequence(moveStart, token.length()), moves);
+                    if (move == Move.NONE) {
+                        valid = false;
+                    } else {
+                        board.makeMove(move);
+                        game.addMove(move);
+                    }
+            }
+        }
+    }
+
+    private static boolean isResult(CharSequence symbol) {
+        String text = symbol.toString();
+        return text.equals(PgnGame.WHITE_WIN) || text.equals(PgnGame.BLACK_WIN) || text.equals(PgnGame.DRAW)
+                || text.equals(PgnGame.UNKNOWN);
+    }
+
+    /**
+     * Returns the index after a leading move number such as "12." or "12...", or 0 if there is none.
+     */
+    private static int skipMoveNumber(CharSequence symbol) {
+        int index = 0;
+        while (index < symbol.length() && Character.isDigit(symbol.charAt(index))) {
+            index++;
+        }
+        if (index == symbol.length()) {
+            return index;
+        }
+        int digitsEnd = index;
+        while (index < symbol.length() && symbol.charAt(index) == '.') {
+            index++;
+        }
+        return index > digitsEnd || digitsEnd == 0 ? index : 0;
+    }
+
+    /**
+     * Reads a tag pair after its "[", e.g. {@code Event "Casual game"]}.
+     */
+    private void readTag(PgnGame game) throws IOException {
+        tagName.setLength(0);
+        int c = read();
+        while (c >= 0 && Character.isWhitespace(c)) {
+            c = read();
+        }
+        while (c >= 0 && c != '"' && c != ']' && !Character.isWhitespace(c)) {
+            if (tagName.length() < MAX_TAG_LENGTH) {
+                tagName.append((char) c);
+            }
+            c = read();
+        }
+        while (c >= 0 && c != '"' && c != ']') {
+            c = read();
+        }
+        token.setLength(0);
+        if (c == '"') {
+            for (c = read(); c >= 0 && c != '"'; c = read()) {
+                if (c == '\\') {
+                    c = read();
+                    if (c < 0) {
+                        break;
+                    }
+                }
+                if (token.length() < MAX_TAG_LENGTH) {
+                    token.append((char) c);
+                }
+            }
+            skipUntil(']');
+        }
+        if (tagName.length() > 0 && (game.getTagCount() < MAX_TAGS || game.getTag(tagName.toString()) != null)) {
+            game.setTag(tagName.toString(), token.toString());
+        }
+    }
+
+    /**
+     * Reads a symbol starting with the given character into {@link #token}, keeping at most one character more than
+     * {@link #MAX_TAG_LENGTH} so that longer symbols are known to be too long.
+     */
+    private void readSymbol(int first) throws IOException {
+        token.setLength(0);
+        token.append((char) first);
+        while (true) {
+            int c = read();
+            if (c < 0) {
+                return;
+            }
+            if (Character.isWhitespace(c) || "[]{}();".indexOf(c) >= 0) {
+                position--;
+                return;
+            }
+            if (token.length() <= MAX_TAG_LENGTH) {
+                token.append((char) c);
+            }
+        }
+    }
+
+    private void skipUntil(char end) throws IOException {
+        int c;
+        do {
+            c = read();
+        } while (c >= 0 && c != end);
+    }
+
+    /**
+     * Returns the next character, or -1 at the end of file. After a character is read, {@code position--} puts it
+     * back.
+     */
+    private int read() throws IOException {
+        if (position == limit) {
+            // Keeps the last character so that it can be put back
+            if (limit > 0) {
+                buffer[0] = buffer[limit - 1];
+                position = 1;
+                limit = 1;
+            }
+            int count = reader.read(buffer, limit, buffer.length - limit);
+            if (count <= 0) {
+                return -1;
+            }
+            limit += count;
+        }
+        char c = buffer[position++];
+        lineStart = c == '\n';
+        return c;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,150 @@
+package archive;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.function.Consumer;
+
+/**
+ * PgnReader parses a PGN file with a {@link PgnParser} on its own thread and hands the games to the consumer through a
+ * bounded queue. Parsing overlaps with whatever the consumer does with the games, and the parser waits when the queue
+ * is full, so at most {@code capacity} games are held however large the file is.
+ */
+public class PgnReader implements AutoCloseable {
+
+    public static final int DEFAULT_CAPACITY = 256;
+
+    /**
+     * The marker put after the last game.
+     */
+    private static final PgnGame END = new PgnGame();
+
+    private final PgnParser parser;
+    private final BlockingQueue<PgnGame> queue;
+    private final Thread thread;
+    private volatile IOException failure;
+    private boolean ended;
+
+    /**
+     * Creates a reader of the given characters. Parsing starts with the first {@link #take()}.
+     *
+     * @param source   the PGN text, closed by {@link #close()}
+     * @param capacity the most parsed games waiting for the consumer
+     */
+    public PgnReader(Reader source, int capacity) {
+        parser = new PgnParser(source);
+        queue = new ArrayBlockingQueue<PgnGame>(capacity);
+        thread = new Thread(this::parse, "pgn-reader");
+        thread.setDaemon(true);
+    }
+
+    /**
+     * Opens a PGN file in UTF-8.
+     *
+     * @param file     the PGN file
+     * @param capacity the most parsed games waiting for the consumer
+     * @return the reader
+     * @throws IOException if the file cannot be opened
+     */
+    public static PgnReader open(Path file, int capacity) throws IOException {
+        return new PgnReader(new InputStreamReader(Files.newInputStream(file), StandardCharsets.UTF_8), capacity);
+    }
+
+    private void parse() {
+        try {
+            try {
+                PgnGame game;
+                while ((game = parser.next()) != null) {
+                    queue.put(game);
+                }
+            } catch (IOException e) {
+                failure = e;
+            } catch (RuntimeException e) {
+                failure = new IOException("Cannot parse PGN", e);
+            }
+            queue.put(END);
+        } catch (InterruptedException e) {
+            // Closed by the consumer
+        }
+    }
+
+    /**
+     * Waits for the next game.
+     *
+     * @return the game, or null after the last game
+     * @throws IOException          if the file cannot be read
+     * @throws InterruptedException if the calling thread is interrupted while waiting
+     */
+    public PgnGame take() throws IOException, InterruptedException {
+        if (ended) {
+            return null;
+        }
+        if (thread.getState() == Thread.State.NEW) {
+            thread.start();
+        }
+        PgnGame game = queue.take();
+        if (game == END) {
+            ended = true;
+            if (failure != null) {
+                throw failure;
+            }
+            return null;
+        }
+        return game;
+    }
+
+    /**
+     * Passes every remaining game to the consumer on the calling thread.
+     *
+     * @param consumer the consumer of games
+     * @return the number of games passed
+     * @throws IOException          if the file cannot be read
+     * @throws InterruptedException if the calling thread is interrupted while waiting
+     */
+    public long forEach(Consumer<PgnGame> consumer) throws IOException, InterruptedException {
+        long count = 0;
+        PgnGame game;
+        while ((game = take()) != null) {
+            consumer.accept(game);
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Returns the number of games skipped because they could not be read, see {@link PgnParser#getSkippedCount()}.
+     * The count is final once {@link #take()} has returned null.
+     *
+     * @return the number of skipped games
+     */
+    public long getSkippedCount() {
+        return parser.getSkippedCount();
+    }
+
+    /**
+     * Stops parsing and closes the file.
+     *
+     * @throws IOException if the file cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        thread.interrupt();
+        boolean interrupted = false;
+        while (thread.isAlive()) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        parser.close();
+    }
+}
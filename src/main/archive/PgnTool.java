@@ -0,0 +1,119 @@
+package archive;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+
+/**
+ * PgnTool moves games between PGN files and a {@link GameArchive} in bulk:
+ * <pre>
+ * PgnTool import &lt;file.pgn&gt; &lt;archive directory&gt;
+ * PgnTool export &lt;archive directory&gt; &lt;file.pgn&gt;
+ * </pre>
+ * Only finished games from the starting board can be stored in the archive, so games with a "FEN" tag or an unknown
+ * result are left out of an import.
+ */
+public class PgnTool {
+
+    /**
+     * Appends the finished games of a PGN file to the archive.
+     *
+     * @param file    the PGN file
+     * @param archive the archive
+     * @return the number of imported games
+     * @throws IOException          if a file cannot be read or written
+     * @throws InterruptedException if the calling thread is interrupted
+     */
+    public static long importGames(Path file, GameArchive archive) throws IOException, InterruptedException {
+        long now = System.currentTimeMillis();
+        long imported = 0;
+        try (PgnReader reader = PgnReader.open(file, PgnReader.DEFAULT_CAPACITY)) {
+            PgnGame game;
+            while ((game = reader.take()) != null) {
+                int result = toArchiveResult(game.getResult());
+                if (result >= 0 && game.hasStandardStart()) {
+                    archive.append(game.getMoves(), game.getMoveCount(), result, now);
+                    imported++;
+                }
+            }
+        }
+        return imported;
+    }
+
+    /**
+     * Writes all games of the archive to a PGN file, dated by the time they finished.
+     *
+     * @param archive the archive
+     * @param file    the PGN file, replaced if it exists
+     * @return the number of exported games
+     * @throws IOException if a file cannot be read or written
+     */
+    public static long exportGames(GameArchive archive, Path file) throws IOException {
+        SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy.MM.dd");
+        long size = archive.size();
+        try (PgnWriter writer = PgnWriter.open(file)) {
+            for (long id = 0; id < size; id++) {
+                PgnGame game = new PgnGame();
+                game.setTag("Date", dateFormat.format(new Date(archive.getTimestamp(id))));
+                game.setTag("Round", Long.toString(id + 1));
+                int moveCount = archive.getMoveCount(id);
+                for (int i = 0; i < moveCount; i++) {
+                    game.addMove(archive.getMove(id, i));
+                }
+                game.setResult(toPgnResult(archive.getResult(id)));
+                writer.write(game);
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Returns the archive result of a PGN result token, or -1 if the game is not finished.
+     */
+    static int toArchiveResult(String result) {
+        switch (result) {
+            case PgnGame.WHITE_WIN:
+                return GameArchive.WHITE_WIN;
+            case PgnGame.BLACK_WIN:
+                return GameArchive.BLACK_WIN;
+            case PgnGame.DRAW:
+                return GameArchive.TIE;
+            default:
+                return -1;
+        }
+    }
+
+    static String toPgnResult(int result) {
+        switch (result) {
+            case GameArchive.WHITE_WIN:
+                return PgnGame.WHITE_WIN;
+            case GameArchive.BLACK_WIN:
+                return PgnGame.BLACK_WIN;
+            default:
+                return PgnGame.DRAW;
+        }
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length != 3 || !(args[0].equals("import") || args[0].equals("export"))) {
+            System.err.println("Usage: PgnTool import <file.pgn> <archive directory>");
+            System.err.println("       PgnTool export <archive directory> <file.pgn>");
+            System.exit(2);
+        }
+        long start = System.nanoTime();
+        if (args[0].equals("import")) {
+            try (GameArchive archive = GameArchive.open(Paths.get(args[2]))) {
+                long count = importGames(Paths.get(args[1]), archive);
+                archive.flush();
+                System.out.println("Imported " + count + " games");
+            }
+        } else {
+            try (GameArchive archive = GameArchive.open(Paths.get(args[1]))) {
+                System.out.println("Exported " + exportGames(archive, Paths.get(args[2])) + " games");
+            }
+        }
+        System.out.println("Time " + (System.nanoTime() - start) / 1000000 + " ms");
+    }
+}
@@ -0,0 +1,202 @@
+package controller;
+
+import model.BasePiece;
+import model.Board;
+import model.Evaluator;
+
+import javax.swing.*;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+import static model.BasePiece.Position;
+
+/**
+ * BackgroundAnalyzer works out what the GUI needs to know about a position off the Event Dispatch Thread (EDT): the
+ * legal moves of every piece of the player to move, whether that player is in check, checkmate or stalemate, and the
+ * static score of the position by {@link Evaluator}.
+ * {@link #analyze(Board, Consumer)} starts on a snapshot of the board as soon as a move is made, and cancels the
+ * analysis of the previous position if it is still running. The GUI then reads the cached {@link Analysis} on click
+ * instead of generating moves itself.
+ * <p>
+ * The analysis runs on one daemon thread, so it never keeps the application alive. All other methods are meant to be
+ * called on the EDT.
+ */
+public class BackgroundAnalyzer {
+
+    /**
+     * The legal moves, the check state and the score of one player in one position. Immutable, so it can be handed
+     * from the analysis thread to the EDT.
+     */
+    public static class Analysis {
+        private final long hashKey;
+        private final boolean whitePlayer;
+        private final boolean whiteToMove;
+        private final Map<Position, Set<Position>> legalMoves;
+        private final boolean inCheck;
+        private final boolean noLegalMoves;
+        private final int score;
+
+        private Analysis(Board board, boolean whitePlayer, Map<Position, Set<Position>> legalMoves, int score) {
+            this.hashKey = board.getHashKey();
+            this.whitePlayer = whitePlayer;
+            this.whiteToMove = board.isWhiteToMove();
+            this.legalMoves = legalMoves;
+            this.inCheck = board.inCheck(whitePlayer);
+            this.noLegalMoves = legalMoves.isEmpty();
+            this.score = score;
+        }
+
+        /**
+         * Analyzes the position for the given player, who need not be the player to move. Returns null if the
+         * current thread is interrupted before it is done.
+         *
+         * @param board       the board, which is not changed
+         * @param whitePlayer the player
+         * @return the analysis, or null if interrupted
+         */
+        public static Analysis of(Board board, boolean whitePlayer) {
+            Map<Position, Set<Position>> legalMoves = new HashMap<Position, Set<Position>>();
+            for (BasePiece[] rank : board.getChessBoard()) {
+                for (BasePiece piece : rank) {
+                    if (piece != null && piece.getWhitePlayer() == whitePlayer) {
+                        if (Thread.currentThread().isInterrupted()) {
+                            return null;
+                        }
+                        HashSet<Position> moves = board.getLegalMoves(piece);
+                        if (!moves.isEmpty()) {
+                            legalMoves.put(piece.getPosition(), Collections.unmodifiableSet(moves));
+                        }
+                    }
+                }
+            }
+            int score = new Evaluator().evaluate(board, whitePlayer);
+            return new Analysis(board, whitePlayer, Collections.unmodifiableMap(legalMoves), score);
+        }
+
+        /**
+         * Returns whether this is the analysis of the board's current position for the player to move.
+         *
+         * @param board the board
+         * @return true if the analysis holds for board now
+         */
+        public boolean isFor(Board board) {
+            return hashKey == board.getHashKey() && whiteToMove == board.isWhiteToMove()
+                    && whitePlayer == whiteToMove;
+        }
+
+        public boolean isWhitePlayer() {
+            return whitePlayer;
+        }
+
+        /**
+         * Returns the legal moves of the player's piece on the given position.
+         *
+         * @param position the position of piece
+         * @return the target positions, empty if there is no such piece or it cannot move
+         */
+        public Set<Position> getLegalMoves(Position position) {
+            Set<Position> moves = legalMoves.get(position);
+            return moves != null ? moves : Collections.<Position>emptySet();
+        }
+
+        /**
+         * Returns the static score of the position, see {@link Evaluator#evaluate(Board, boolean)}.
+         *
+         * @return the score in centipawns, positive if the analyzed player is better
+         */
+        public int getScore() {
+            return score;
+        }
+
+        public boolean inCheck() {
+            return inCheck;
+        }
+
+        public boolean inCheckmate() {
+            return inCheck && noLegalMoves;
+        }
+
+        public boolean inStaleMate() {
+            return !inCheck && noLegalMoves;
+        }
+    }
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "position-analyzer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * The running or last analysis task, cancelled when a newer one starts.
+     */
+    private Future<?> pending;
+
+    /**
+     * The number of analyses started, so that a finished analysis of an older position is not reported.
+     */
+    private long generation;
+
+    /**
+     * The last finished analysis, written by the analysis thread.
+     */
+    private volatile Analysis latest;
+
+    /**
+     * Starts analyzing the current position of board for the player to move, and cancels the analysis started before.
+     * The board is copied first, so it can be changed right away.
+     *
+     * @param board    the board
+     * @param listener called on the EDT with the analysis once it is done, unless another analysis was started since;
+     *                 may be null
+     */
+    public void analyze(Board board, Consumer<Analysis> listener) {
+        cancel();
+        final Board snapshot = board.copy();
+        final long started = ++generation;
+        pending = executor.submit(() -> {
+            Analysis analysis = Analysis.of(snapshot, snapshot.isWhiteToMove());
+            if (analysis == null) {
+                return;
+            }
+            latest = analysis;
+            if (listener != null) {
+                SwingUtilities.invokeLater(() -> {
+                    if (started == generation) {
+                        listener.accept(analysis);
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * Cancels the running analysis, if any, and forgets the last one.
+     */
+    public void cancel() {
+        generation++;
+        if (pending != null) {
+            pending.cancel(true);
+            pending = null;
+        }
+        latest = null;
+    }
+
+    /**
+     * Returns the last finished analysis if it is of the board's current position.
+     *
+     * @param board the board
+     * @return the analysis, or null if there is none for the position yet
+     */
+    public Analysis getAnalysis(Board board) {
+        Analysis analysis = latest;
+        return analysis != null && analysis.isFor(board) ? analysis : null;
+    }
+}
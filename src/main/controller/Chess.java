@@ -1,5 +1,7 @@
 package controller;
 
+import archive.GameArchive;
+import controller.BackgroundAnalyzer.Analysis;
 import model.*;
 import viewer.ChessGUI;
 import viewer.ChessGUI.BoardPanel;
@@ -9,23 +11,38 @@ import javax.swing.*;
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseListener;
 import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Set;
+import java.util.function.Consumer;
 
 import static javax.swing.SwingUtilities.isLeftMouseButton;
 import static model.BasePiece.Position;
 
 public class Chess {
-    private Board chessboard;
+    /**
+     * The game played in this window, which holds the board, the turn and the results
+     */
+    private final GameSession session = new GameSession(0);
+    /**
+     * The archive of finished games shown in the game history, or null if it cannot be opened
+     */
+    private GameArchive archive;
+    /**
+     * Finds the legal moves and the check state of each new position off the Event Dispatch Thread
+     */
+    private final BackgroundAnalyzer analyzer = new BackgroundAnalyzer();
+    /**
+     * The legal moves of the pieces selected so far, for highlighting
+     */
+    private final LegalMoveCache legalMoveCache = new LegalMoveCache(LegalMoveCache.DEFAULT_CAPACITY);
     private ChessGUI chessGUI;
     private BoardPanel boardPanel;
     /**
      * The current selected piece by user on chessboard
      */
     private BasePiece selectPiece;
-    /**
-     * If the current selected piece is white piece
-     */
-    private boolean currentPlayerIsWhite;
 
     /**
      * The string for win record on game history
@@ -39,6 +56,10 @@ public class Chess {
      * The string for tie record on game history
      */
     private static String TIE = "Tie";
+    /**
+     * The system property of archive directory, which is ".chess" in the home directory by default
+     */
+    public static final String ARCHIVE_DIRECTORY_PROPERTY = "chess.archive.dir";
 
     public Chess() {
     }
@@ -50,7 +71,7 @@ public class Chess {
     public void initialize() throws IOException {
         setChessPieces();
 
-        chessGUI = new ChessGUI(chessboard);
+        chessGUI = new ChessGUI(session.getBoard());
         chessGUI.initialize(this);
 
         boardPanel = chessGUI.getChessPanel();
@@ -59,84 +80,33 @@ public class Chess {
         addForfeitButtonMouseListener(chessGUI.getControlPanel().getWhiteForfeitButton(), true);
         addForfeitButtonMouseListener(chessGUI.getControlPanel().getBlackForfeitButton(), false);
         addUndoButtonMouseListener(chessGUI.getControlPanel().getUndoButton());
+        openArchive();
     }
 
     /**
-     * Generates all pieces on board. This function decides the piece alignments on board.
+     * Opens the game archive and shows its games in the game history.
+     * Without an archive, the history only holds the games of this window. This is also the case when another window
+     * already has the archive open, since only one can write to it.
      */
-    private void setChessPieces() {
-        chessboard = new Board(8, 8);
-        generatePiece(0, 4, "king", true);
-        generatePiece(0, 3, "queen", true);
-        generatePiece(0, 2, "bishop", true);
-        generatePiece(0, 5, "bishop", true);
-        generatePiece(0, 1, "knight", true);
-        generatePiece(0, 6, "knight", true);
-        generatePiece(0, 0, "rook", true);
-        generatePiece(0, 7, "rook", true);
-
-        generatePiece(7, 4, "king", false);
-        generatePiece(7, 3, "queen", false);
-        generatePiece(7, 2, "bishop", false);
-        generatePiece(7, 5, "bishop", false);
-        generatePiece(7, 1, "knight", false);
-        generatePiece(7, 6, "knight", false);
-        generatePiece(7, 0, "rook", false);
-        generatePiece(7, 7, "rook", false);
-
-        for (int i = 0; i < 8; i++) {
-            generatePiece(1, i, "pawn", true);
-            generatePiece(6, i, "pawn", false);
+    private void openArchive() {
+        Path directory = Paths.get(System.getProperty(ARCHIVE_DIRECTORY_PROPERTY,
+                Paths.get(System.getProperty("user.home"), ".chess").toString()));
+        try {
+            archive = GameArchive.open(directory);
+            chessGUI.getControlPanel().setArchive(archive);
+        } catch (IOException e) {
+            System.err.println("Cannot open game archive " + directory + ": " + e.getMessage());
+            archive = null;
         }
-
-        // Generates special added pieces
-        generatePiece(2, 0, "soldier", true);
-        generatePiece(5, 0, "soldier", false);
-        generatePiece(2, 7, "elephant", true);
-        generatePiece(5, 7, "elephant", false);
-        selectPiece = null;
-        currentPlayerIsWhite = true;
     }
 
     /**
-     * Generates the piece with given type and position on board
-     *
-     * @param rank          the rank of piece
-     * @param file          the file of piece
-     * @param pieceType     the type of piece
-     * @param isWhitePlayer the owner of board
+     * Starts a new game. The piece alignments are decided by {@link Board#createStartingBoard()}.
      */
-    private void generatePiece(int rank, int file, String pieceType
-            , boolean isWhitePlayer) {
-        Position position = new Position(rank, file);
-        BasePiece piece = null;
-        switch (pieceType) {
-            case "king":
-                piece = new King(position, isWhitePlayer);
-                break;
-            case "queen":
-                piece = new Queen(position, isWhitePlayer);
-                break;
-            case "bishop":
-                piece = new Bishop(position, isWhitePlayer);
-                break;
-            case "rook":
-                piece = new Rook(position, isWhitePlayer);
-                break;
-            case "knight":
-                piece = new Knight(position, isWhitePlayer);
-                break;
-            case "pawn":
-                piece = new Pawn(position, isWhitePlayer);
-                break;
-            case "soldier":
-                piece = new Soldier(position, isWhitePlayer);
-                break;
-            case "elephant":
-                piece = new Elephant(position, isWhitePlayer);
-                break;
-        }
-        chessboard.setPiece(piece);
+    private void setChessPieces() {
+        session.restart();
+        selectPiece = null;
+        positionChanged(null);
     }
 
     /**
@@ -149,16 +119,16 @@ public class Chess {
             @Override
             public void mouseClicked(MouseEvent e) {
                 if (isLeftMouseButton(e)) {
-                    if (chessboard.undoMove()) {
-                        // Switch player
-                        currentPlayerIsWhite = !currentPlayerIsWhite;
+                    if (session.undo()) {
+                        // The turn is switched back by the undo
                         selectPiece = null;
                         resetCurrentPlayernameOnGUI();
+                        positionChanged(null);
                     }
                     SwingUtilities.invokeLater(new Runnable() {
                         @Override
                         public void run() {
-                            boardPanel.drawBoard(chessboard);
+                            boardPanel.drawBoard(session.getBoard());
                         }
                     });
                 }
@@ -196,7 +166,7 @@ public class Chess {
                     SwingUtilities.invokeLater(new Runnable() {
                         @Override
                         public void run() {
-                            boardPanel.drawBoard(chessboard);
+                            boardPanel.drawBoard(session.getBoard());
                         }
                     });
                 }
@@ -230,17 +200,15 @@ public class Chess {
             @Override
             public void mouseClicked(MouseEvent e) {
                 if (isLeftMouseButton(e)) {
-                    if (isWhiteButton) {
-                        chessGUI.getControlPanel().addHistory(LOSE, WIN);
-                    } else {
-                        chessGUI.getControlPanel().addHistory(WIN, LOSE);
+                    if (session.forfeit(isWhiteButton)) {
+                        addHistory(session.getLastResult());
                     }
 
                     setChessPieces();
                     SwingUtilities.invokeLater(new Runnable() {
                         @Override
                         public void run() {
-                            boardPanel.drawBoard(chessboard);
+                            boardPanel.drawBoard(session.getBoard());
                         }
                     });
                 }
@@ -280,8 +248,7 @@ public class Chess {
                         SwingUtilities.invokeLater(new Runnable() {
                             @Override
                             public void run() {
-                                boardPanel.drawBoard(chessboard);
-                                checkAndInformGameEnd(chessboard.getPiece(piecePanel.getPosition()));
+                                boardPanel.drawBoard(session.getBoard());
                             }
                         });
                     }
@@ -314,35 +281,105 @@ public class Chess {
      * @param piece the rank of piece
      */
     public void checkAndInformGameEnd(BasePiece piece) {
-        // Checks if the opponent is in check/checkmate/stalemate
         if (piece != null) {
-            String[] playerNames = chessGUI.getControlPanel().getPlayerNames();
-            String whitePlayerName = playerNames[0];
-            String blackPlayerName = playerNames[1];
-
-            if (chessboard.inCheckmate(!piece.getWhitePlayer())) {
-                String first = piece.getWhitePlayer() ? LOSE : WIN;
-                String second = piece.getWhitePlayer() ? WIN : LOSE;
-                JOptionPane.showOptionDialog(null, "Player " +
-                                (piece.getWhitePlayer() ? blackPlayerName : whitePlayerName) + " has no legal moves, " +
-                                (piece.getWhitePlayer() ? whitePlayerName : blackPlayerName) + " wins!",
-                        "CAUTION", JOptionPane.DEFAULT_OPTION, JOptionPane.INFORMATION_MESSAGE,
-                        null, new Object[]{}, null);
-                chessGUI.getControlPanel().addHistory(first, second);
-                setChessPieces();
-            } else if (chessboard.inStaleMate(!piece.getWhitePlayer())) {
-                JOptionPane.showOptionDialog(null, "Stalemate! Game Ends!",
-                        "CAUTION", JOptionPane.DEFAULT_OPTION, JOptionPane.INFORMATION_MESSAGE,
-                        null, new Object[]{}, null);
-                chessGUI.getControlPanel().addHistory(TIE, TIE);
-                setChessPieces();
-            } else if (chessboard.inCheck(!piece.getWhitePlayer())) {
-                JOptionPane.showOptionDialog(null, (piece.getWhitePlayer() ? blackPlayerName : whitePlayerName)
-                                + " is in Check!",
-                        "CAUTION", JOptionPane.DEFAULT_OPTION, JOptionPane.INFORMATION_MESSAGE,
-                        null, new Object[]{}, null);
-            }
+            informGameEnd(getAnalysis(!piece.getWhitePlayer()));
+        }
+    }
+
+    /**
+     * Pops up the check/checkmate/stalemate caution of the analyzed player, whose opponent made the last move.
+     * End game and update game history if checkmake/stalemate.
+     *
+     * @param analysis the analysis of the opponent of the piece's owner
+     * @return true if the game ended and a new one was started
+     */
+    private boolean informGameEnd(Analysis analysis) {
+        // The owner of the piece that moved last
+        boolean white = !analysis.isWhitePlayer();
+        String[] playerNames = chessGUI.getControlPanel().getPlayerNames();
+        String whitePlayerName = playerNames[0];
+        String blackPlayerName = playerNames[1];
+
+        if (analysis.inCheckmate()) {
+            JOptionPane.showOptionDialog(null, "Player " +
+                            (white ? blackPlayerName : whitePlayerName) + " has no legal moves, " +
+                            (white ? whitePlayerName : blackPlayerName) + " wins!",
+                    "CAUTION", JOptionPane.DEFAULT_OPTION, JOptionPane.INFORMATION_MESSAGE,
+                    null, new Object[]{}, null);
+            session.endGame(white ? GameSession.Result.WHITE_WIN : GameSession.Result.BLACK_WIN);
+            addHistory(session.getLastResult());
+            setChessPieces();
+            return true;
+        } else if (analysis.inStaleMate()) {
+            JOptionPane.showOptionDialog(null, "Stalemate! Game Ends!",
+                    "CAUTION", JOptionPane.DEFAULT_OPTION, JOptionPane.INFORMATION_MESSAGE,
+                    null, new Object[]{}, null);
+            session.endGame(GameSession.Result.TIE);
+            addHistory(session.getLastResult());
+            setChessPieces();
+            return true;
+        } else if (analysis.inCheck()) {
+            JOptionPane.showOptionDialog(null, (white ? blackPlayerName : whitePlayerName)
+                            + " is in Check!",
+                    "CAUTION", JOptionPane.DEFAULT_OPTION, JOptionPane.INFORMATION_MESSAGE,
+                    null, new Object[]{}, null);
+        }
+        return false;
+    }
+
+    /**
+     * Returns the analysis of the current position for the given player: the one made in the background if it is ready,
+     * otherwise a new one made now.
+     *
+     * @param whitePlayer the player
+     * @return the analysis
+     */
+    private Analysis getAnalysis(boolean whitePlayer) {
+        Analysis analysis = analyzer.getAnalysis(session.getBoard());
+        if (analysis != null && analysis.isWhitePlayer() == whitePlayer) {
+            return analysis;
+        }
+        return Analysis.of(session.getBoard(), whitePlayer);
+    }
+
+    /**
+     * Returns the legal moves of a piece on the current board. They are cached, and taken from the background analysis
+     * if it is ready.
+     *
+     * @param piece the piece
+     * @return the target positions of its legal moves
+     */
+    public Set<Position> getLegalMoves(BasePiece piece) {
+        Board board = session.getBoard();
+        Set<Position> moves = legalMoveCache.get(board.getHashKey(), piece.getPosition());
+        if (moves == null) {
+            Analysis analysis = analyzer.getAnalysis(board);
+            moves = analysis != null && analysis.isWhitePlayer() == piece.getWhitePlayer()
+                    ? analysis.getLegalMoves(piece.getPosition()) : board.getLegalMoves(piece);
+            legalMoveCache.put(board.getHashKey(), piece.getPosition(), moves);
+        }
+        return moves;
+    }
+
+    /**
+     * Forgets the cached legal moves after the board was changed by a move, an undo or a restart, and starts
+     * analyzing the new position.
+     *
+     * @param listener called on the EDT with the analysis, or null
+     */
+    private void positionChanged(Consumer<Analysis> listener) {
+        legalMoveCache.clear();
+        analyzer.analyze(session.getBoard(), listener);
+    }
 
+    /**
+     * Informs the players about the position reached by the last move, once its background analysis is done.
+     *
+     * @param analysis the analysis of the position for the player to move
+     */
+    private void onMoveAnalyzed(Analysis analysis) {
+        if (analysis.isFor(session.getBoard()) && informGameEnd(analysis)) {
+            boardPanel.drawBoard(session.getBoard());
         }
     }
 
@@ -354,25 +391,26 @@ public class Chess {
      */
     public void dealWithClickOverPiece(PiecePanel piecePanel) {
         if (selectPiece == null) {
-            BasePiece expectedPiece = chessboard.getPiece(piecePanel.getPosition());
-            if (expectedPiece != null && expectedPiece.getWhitePlayer() == currentPlayerIsWhite) {
+            BasePiece expectedPiece = session.getBoard().getPiece(piecePanel.getPosition());
+            if (expectedPiece != null && expectedPiece.getWhitePlayer() == session.isWhiteToMove()) {
                 selectPiece = expectedPiece;
             }
         } else {
             if (selectPiece.isSamePosition(piecePanel.getPosition())) {
                 // Click twice to cancel selection
                 selectPiece = null;
-            } else if (chessboard.movePiece(selectPiece, piecePanel.getPosition())) {
-                // Move successfully, then cancel selection and switch player
+            } else if (session.applyMove(selectPiece.getPosition(), piecePanel.getPosition())) {
+                // Move successfully, then cancel selection. The session switches player, and the check, checkmate or
+                // stalemate is found by the background analysis.
                 selectPiece = null;
-                currentPlayerIsWhite = !currentPlayerIsWhite;
                 resetCurrentPlayernameOnGUI();
+                positionChanged(this::onMoveAnalyzed);
 
             } else {
                 // Move unsuccessfully, then use new selection if new selection is same player,
                 // otherwise keep the current selection
-                BasePiece expectedPiece = chessboard.getPiece(piecePanel.getPosition());
-                if (expectedPiece != null && expectedPiece.getWhitePlayer() == currentPlayerIsWhite) {
+                BasePiece expectedPiece = session.getBoard().getPiece(piecePanel.getPosition());
+                if (expectedPiece != null && expectedPiece.getWhitePlayer() == session.isWhiteToMove()) {
                     selectPiece = expectedPiece;
                 } else {
                     piecePanel.setIllegal(true);
@@ -388,17 +426,50 @@ public class Chess {
         // Sets current player names on GUI
         String[] playerNames = chessGUI.getControlPanel().getPlayerNames();
         chessGUI.getControlPanel().getCurrentTurnLabel()
-                .setText("Current Turn: " + (currentPlayerIsWhite ? playerNames[0] : playerNames[1]));
+                .setText("Current Turn: " + (session.isWhiteToMove() ? playerNames[0] : playerNames[1]));
         chessGUI.getControlPanel().getCurrentTurnLabel().repaint();
     }
 
 
+    /**
+     * Adds a finished game to the game history on GUI, and stores its moves in the archive if there is one.
+     * Must be called before the board is reset for the next game.
+     *
+     * @param result the result of game
+     */
+    private void addHistory(GameSession.Result result) {
+        if (archive != null) {
+            try {
+                archive.append(session.getBoard(), result == GameSession.Result.WHITE_WIN ? GameArchive.WHITE_WIN
+                        : result == GameSession.Result.BLACK_WIN ? GameArchive.BLACK_WIN : GameArchive.TIE);
+                chessGUI.getControlPanel().refreshHistory();
+                return;
+            } catch (IOException e) {
+                // Falls back to the history of this window only
+                System.err.println("Cannot store game: " + e.getMessage());
+                chessGUI.getControlPanel().setArchive(null);
+                archive = null;
+            }
+        }
+        if (result == GameSession.Result.TIE) {
+            chessGUI.getControlPanel().addHistory(TIE, TIE);
+        } else {
+            boolean whiteWins = result == GameSession.Result.WHITE_WIN;
+            chessGUI.getControlPanel().addHistory(whiteWins ? WIN : LOSE, whiteWins ? LOSE : WIN);
+        }
+    }
+
     protected void setBoard(Board board) {
-        chessboard = board;
+        session.setBoard(board);
+        positionChanged(null);
     }
 
     public Board getBoard() {
-        return chessboard;
+        return session.getBoard();
+    }
+
+    public GameSession getSession() {
+        return session;
     }
 
     public ChessGUI getChessGUI() {
@@ -0,0 +1,169 @@
+package controller;
+
+import model.BasePiece;
+import model.Board;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static model.BasePiece.Position;
+
+/**
+ * GameSession is one game between two players without any user interface. It holds the board, whose turn it is (see
+ * {@link Board#isWhiteToMove()}) and the results of finished games, and takes moves through its methods. A finished game
+ * keeps its final position until {@link #restart()} is called. All methods are synchronized, so a session can be
+ * shared by the threads of a server.
+ */
+public class GameSession {
+
+    /**
+     * The result of a finished game.
+     */
+    public enum Result {
+        WHITE_WIN, BLACK_WIN, TIE
+    }
+
+    /**
+     * The state of game after a move, from the view of the player to move next.
+     */
+    public enum Status {
+        ILLEGAL, IN_PROGRESS, CHECK, CHECKMATE, STALEMATE
+    }
+
+    private final long id;
+    private Board board;
+    private boolean gameOver;
+    private final List<Result> results = new ArrayList<Result>(0);
+
+    public GameSession(long id) {
+        this.id = id;
+        board = Board.createStartingBoard();
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * Moves the piece on original position to target position for the player to move. Fails if the game is over, the
+     * piece does not belong to the player to move, or the move is not legal. A checkmate or stalemate finishes the game
+     * and records its result.
+     *
+     * @param from the position of piece to move
+     * @param to   the target position
+     * @return {@link Status#ILLEGAL} if failed, otherwise the state of game for the opponent
+     */
+    public synchronized Status move(Position from, Position to) {
+        if (!applyMove(from, to)) {
+            return Status.ILLEGAL;
+        }
+        boolean opponentIsWhite = board.isWhiteToMove();
+        if (board.inCheckmate(opponentIsWhite)) {
+            endGame(opponentIsWhite ? Result.BLACK_WIN : Result.WHITE_WIN);
+            return Status.CHECKMATE;
+        }
+        if (board.inStaleMate(opponentIsWhite)) {
+            endGame(Result.TIE);
+            return Status.STALEMATE;
+        }
+        return board.inCheck(opponentIsWhite) ? Status.CHECK : Status.IN_PROGRESS;
+    }
+
+    /**
+     * Moves the piece on original position to target position for the player to move, like
+     * {@link #move(Position, Position)} but without looking for check, checkmate or stalemate. The caller finishes the
+     * game with {@link #endGame(Result)} once it has found out, e.g. by analyzing the position on another thread.
+     *
+     * @param from the position of piece to move
+     * @param to   the target position
+     * @return false if the game is over or the move is not legal for the player to move
+     */
+    public synchronized boolean applyMove(Position from, Position to) {
+        BasePiece piece = board.getPiece(from);
+        return !gameOver && piece != null && piece.getWhitePlayer() == board.isWhiteToMove()
+                && board.movePiece(piece, to);
+    }
+
+    /**
+     * Takes back the last move. Fails if the game is over or no move has been made.
+     *
+     * @return true if a move was taken back
+     */
+    public synchronized boolean undo() {
+        return !gameOver && board.undoMove();
+    }
+
+    /**
+     * Finishes the game because the given player gives up.
+     *
+     * @param isWhitePlayer the player who forfeits
+     * @return false if the game was already over
+     */
+    public synchronized boolean forfeit(boolean isWhitePlayer) {
+        return endGame(isWhitePlayer ? Result.BLACK_WIN : Result.WHITE_WIN);
+    }
+
+    /**
+     * Finishes the game with the given result, unless it is already over.
+     *
+     * @param result the result of game
+     * @return false if the game was already over
+     */
+    public synchronized boolean endGame(Result result) {
+        if (gameOver) {
+            return false;
+        }
+        gameOver = true;
+        results.add(result);
+        return true;
+    }
+
+    /**
+     * Starts a new game. The results of finished games are kept.
+     */
+    public synchronized void restart() {
+        board = Board.createStartingBoard();
+        gameOver = false;
+    }
+
+    public synchronized boolean isGameOver() {
+        return gameOver;
+    }
+
+    public synchronized boolean isWhiteToMove() {
+        return board.isWhiteToMove();
+    }
+
+    /**
+     * Returns the board of current game. The board must not be changed without holding the lock of this session.
+     *
+     * @return the board
+     */
+    public synchronized Board getBoard() {
+        return board;
+    }
+
+    /**
+     * Replaces the current game with the given position, e.g. one set up for analysis.
+     *
+     * @param board the board to play on
+     */
+    public synchronized void setBoard(Board board) {
+        this.board = board;
+        gameOver = false;
+    }
+
+    /**
+     * Returns the results of finished games in order.
+     *
+     * @return the unmodifiable list of results
+     */
+    public synchronized List<Result> getResults() {
+        return Collections.unmodifiableList(new ArrayList<Result>(results));
+    }
+
+    public synchronized Result getLastResult() {
+        return results.isEmpty() ? null : results.get(results.size() - 1);
+    }
+}
@@ -0,0 +1,51 @@
+package controller;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * GameSessionManager hosts many independent {@link GameSession}s in one JVM and finds them by id. Sessions are created
+ * and closed concurrently without a global lock, and a session costs only its board and results, so tens of thousands
+ * of games can be served at once.
+ */
+public class GameSessionManager {
+
+    private final ConcurrentMap<Long, GameSession> sessions = new ConcurrentHashMap<Long, GameSession>();
+    private final AtomicLong nextId = new AtomicLong(1);
+
+    /**
+     * Creates a session with a new game.
+     *
+     * @return the new session
+     */
+    public GameSession create() {
+        GameSession session = new GameSession(nextId.getAndIncrement());
+        sessions.put(session.getId(), session);
+        return session;
+    }
+
+    /**
+     * Returns the session of given id, or null if there is none.
+     *
+     * @param id the id of session
+     * @return the session or null
+     */
+    public GameSession get(long id) {
+        return sessions.get(id);
+    }
+
+    /**
+     * Removes the session of given id.
+     *
+     * @param id the id of session
+     * @return true if the session existed
+     */
+    public boolean close(long id) {
+        return sessions.remove(id) != null;
+    }
+
+    public int size() {
+        return sessions.size();
+    }
+}
@@ -0,0 +1,83 @@
+package controller;
+
+import model.Board;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import static model.BasePiece.Position;
+
+/**
+ * LegalMoveCache keeps the legal moves of the pieces the GUI has asked about, keyed by the position hash of the board
+ * (see {@link Board#getHashKey()}) and the square of the piece, so that repainting the highlighted moves of a selected
+ * piece costs one lookup instead of a move generation with trial moves. It holds at most a fixed number of entries and
+ * drops the least recently used one first.
+ * <p>
+ * The hash key already tells positions apart, but the owner still calls {@link #clear()} whenever the board changes by
+ * a move, an undo or a restart, so that an entry never outlives the position it was made for.
+ */
+public class LegalMoveCache {
+
+    /**
+     * The default number of entries, more than the pieces of a few positions.
+     */
+    public static final int DEFAULT_CAPACITY = 256;
+
+    private final Map<Long, Set<Position>> entries;
+
+    public LegalMoveCache(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        // An access-ordered map iterates from the least recently used entry
+        entries = new LinkedHashMap<Long, Set<Position>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Set<Position>> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached legal moves of the piece on a square, and marks them as recently used.
+     *
+     * @param hashKey  the position hash of board
+     * @param position the square of piece
+     * @return the target positions, or null if not cached
+     */
+    public Set<Position> get(long hashKey, Position position) {
+        return entries.get(key(hashKey, position));
+    }
+
+    /**
+     * Caches the legal moves of the piece on a square, dropping the least recently used entry if the cache is full.
+     *
+     * @param hashKey  the position hash of board
+     * @param position the square of piece
+     * @param moves    the target positions
+     */
+    public void put(long hashKey, Position position, Set<Position> moves) {
+        entries.put(key(hashKey, position), Collections.unmodifiableSet(moves));
+    }
+
+    /**
+     * Drops all entries.
+     */
+    public void clear() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Mixes the square index into the hash key. A Zobrist hash key is uniformly random, so a collision of two keys
+     * is as unlikely as one of two positions.
+     */
+    private static Long key(long hashKey, Position position) {
+        return hashKey ^ (position.getIndex() + 1) * 0x9E3779B97F4A7C15L;
+    }
+}
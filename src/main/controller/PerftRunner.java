@@ -0,0 +1,54 @@
+package controller;
+
+import model.Board;
+
+import java.util.Map;
+
+/**
+ * PerftRunner counts the leaf nodes of the move tree of the starting position (see {@link Board#perft(int)}) and
+ * compares them with the known counts, so that every change of move generation can be checked for correctness and
+ * speed.
+ * <p>
+ * Usage: {@code PerftRunner [maxDepth] [divide]}. Prints the nodes, the nodes per second and whether the count is
+ * right for each depth up to maxDepth (5 by default). With "divide", the counts of each root move at maxDepth are
+ * printed too. Exits with status 1 if any count is wrong.
+ */
+public class PerftRunner {
+
+    /**
+     * The known leaf counts of the starting position including Soldiers and Elephants, indexed by depth.
+     */
+    public static final long[] STARTING_COUNTS = {1L, 16L, 255L, 4854L, 91691L, 2007309L, 43520225L};
+
+    public static void main(String[] args) {
+        int maxDepth = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+        boolean divide = args.length > 1 && args[1].equals("divide");
+
+        boolean allRight = true;
+        System.out.println("depth          nodes           nps   time(ms)  result");
+        for (int depth = 1; depth <= maxDepth; depth++) {
+            Board board = Board.createStartingBoard();
+            long start = System.nanoTime();
+            long nodes = board.perft(depth);
+            long nanos = Math.max(1, System.nanoTime() - start);
+
+            String result = "unknown";
+            if (depth < STARTING_COUNTS.length) {
+                boolean right = nodes == STARTING_COUNTS[depth];
+                allRight &= right;
+                result = right ? "ok" : "expected " + STARTING_COUNTS[depth];
+            }
+            System.out.println(String.format("%5d  %13d  %12d  %9d  %s", depth, nodes, nodes * 1000000000L / nanos
+                    , nanos / 1000000, result));
+        }
+
+        if (divide) {
+            for (Map.Entry<String, Long> entry : Board.createStartingBoard().divide(maxDepth).entrySet()) {
+                System.out.println(entry.getKey() + ": " + entry.getValue());
+            }
+        }
+        if (!allRight) {
+            System.exit(1);
+        }
+    }
+}
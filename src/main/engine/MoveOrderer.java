@@ -0,0 +1,199 @@
+package engine;
+
+import model.AttackMap;
+import model.BasePiece;
+import model.BasePiece.Position;
+import model.Board;
+import model.Evaluator;
+import model.Move;
+import model.MoveList;
+
+import java.util.Arrays;
+
+/**
+ * MoveOrderer ranks the moves of a search node so that the moves most likely to cause a cutoff are searched first,
+ * which lets alpha-beta prune the most. The order is:
+ * <ol>
+ * <li>the hash move, the best move found before for the position,</li>
+ * <li>captures, the most valuable victim first and then the least valuable attacker (MVV-LVA) by
+ * {@link Evaluator#pieceValue(int)},</li>
+ * <li>the two killer moves of the ply, quiet moves that caused a cutoff in a sibling node,</li>
+ * <li>captures that lose material by static exchange, see {@link AttackMap#staticExchange(BasePiece[][], int)},</li>
+ * <li>other quiet moves by their history score, which grows every time the move causes a cutoff anywhere.</li>
+ * </ol>
+ * All tables are primitive arrays: the killers by ply, and the history by player, from and to index of
+ * {@link Position#getIndex()}. Moves are picked one at a time by selection, since a cutoff often comes after the
+ * first few moves and the rest need never be sorted.
+ */
+class MoveOrderer {
+
+    private static final int HASH_MOVE_SCORE = 1 << 30;
+    private static final int CAPTURE_SCORE = 1 << 24;
+    private static final int KILLER_SCORE = 1 << 22;
+
+    /**
+     * The base score of captures that lose material by static exchange, between the killers and the history.
+     */
+    private static final int LOSING_CAPTURE_SCORE = 1 << 21;
+
+    /**
+     * The history score at which all history scores are halved, below {@link #KILLER_SCORE}.
+     */
+    private static final int MAX_HISTORY = 1 << 20;
+
+    private static final int SQUARES = Position.MAX_SIZE * Position.MAX_SIZE;
+
+    /**
+     * The two killer moves of each ply, most recent first, or {@link Move#NONE}.
+     */
+    private final int[][] killers = new int[Searcher.MAX_PLY + 1][2];
+
+    /**
+     * The history scores of quiet moves, indexed by {@link #historyIndex(boolean, int)}.
+     */
+    private final int[] history = new int[2 * SQUARES * SQUARES];
+
+    /**
+     * The scores of the moves of each ply, in the same order as the move list.
+     */
+    private final int[][] scores = new int[Searcher.MAX_PLY + 1][128];
+
+    private final AttackMap exchange = new AttackMap();
+
+    /**
+     * Prepares for a new search: the killers are cleared, and the history is aged so that recent searches count more.
+     */
+    void newSearch() {
+        for (int[] plyKillers : killers) {
+            Arrays.fill(plyKillers, Move.NONE);
+        }
+        ageHistory();
+    }
+
+    private void ageHistory() {
+        for (int i = 0; i < history.length; i++) {
+            history[i] >>= 1;
+        }
+    }
+
+    /**
+     * Scores the moves of a node, to be picked by {@link #nextMove(MoveList, int, int)}.
+     *
+     * @param board    the board, in the position of the moves
+     * @param moves    the legal moves
+     * @param hashMove the move to search first, or {@link Move#NONE}
+     * @param ply      the ply of node
+     */
+    void scoreMoves(Board board, MoveList moves, int hashMove, int ply) {
+        if (scores[ply].length < moves.size()) {
+            scores[ply] = new int[Math.max(moves.size(), scores[ply].length * 2)];
+        }
+        int[] plyScores = scores[ply];
+        BasePiece[][] chessboard = board.getChessBoard();
+        boolean white = board.isWhiteToMove();
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            int score;
+            if (move == hashMove) {
+                score = HASH_MOVE_SCORE;
+            } else if ((move & Move.CAPTURE) != 0) {
+                score = (isLosingCapture(chessboard, move) ? LOSING_CAPTURE_SCORE : CAPTURE_SCORE)
+                        + captureScore(chessboard, move);
+            } else if (move == killers[ply][0]) {
+                score = KILLER_SCORE + 1;
+            } else if (move == killers[ply][1]) {
+                score = KILLER_SCORE;
+            } else {
+                score = history[historyIndex(white, move)];
+            }
+            plyScores[i] = score;
+        }
+    }
+
+    /**
+     * Returns the MVV-LVA score of a capture: the victim's value counts far more than the attacker's.
+     */
+    static int captureScore(BasePiece[][] chessboard, int move) {
+        Position from = Move.getFrom(move);
+        Position to = Move.getTo(move);
+        BasePiece attacker = chessboard[from.getRank()][from.getFile()];
+        BasePiece victim = chessboard[to.getRank()][to.getFile()];
+        return Evaluator.pieceValue(victim.getType()) * 16 - Evaluator.pieceValue(attacker.getType()) / 10;
+    }
+
+    /**
+     * Returns whether a capture loses material by static exchange. Only a capture of a less valuable piece can.
+     */
+    private boolean isLosingCapture(BasePiece[][] chessboard, int move) {
+        Position from = Move.getFrom(move);
+        Position to = Move.getTo(move);
+        return Evaluator.pieceValue(chessboard[to.getRank()][to.getFile()].getType())
+                < Evaluator.pieceValue(chessboard[from.getRank()][from.getFile()].getType())
+                && exchange.staticExchange(chessboard, move) < 0;
+    }
+
+    /**
+     * Moves the best of the moves not yet searched to the given index, and returns it. The moves before the index
+     * must have been picked already.
+     *
+     * @param moves the moves scored by {@link #scoreMoves(Board, MoveList, int, int)}
+     * @param index the number of moves picked so far
+     * @param ply   the ply of node
+     * @return the move at index
+     */
+    int nextMove(MoveList moves, int index, int ply) {
+        int[] plyScores = scores[ply];
+        int best = index;
+        for (int i = index + 1; i < moves.size(); i++) {
+            if (plyScores[i] > plyScores[best]) {
+                best = i;
+            }
+        }
+        int move = moves.get(best);
+        if (best != index) {
+            int score = plyScores[best];
+            moves.set(best, moves.get(index));
+            plyScores[best] = plyScores[index];
+            moves.set(index, move);
+            plyScores[index] = score;
+        }
+        return move;
+    }
+
+    /**
+     * Records a quiet move that caused a beta cutoff, as a killer of the ply and in the history. Captures are ordered
+     * by MVV-LVA and are not recorded.
+     *
+     * @param white whether white made the move
+     * @param move  the move
+     * @param depth the remaining depth of node, deeper cutoffs count more
+     * @param ply   the ply of node
+     */
+    void recordCutoff(boolean white, int move, int depth, int ply) {
+        if ((move & Move.CAPTURE) != 0) {
+            return;
+        }
+        int[] plyKillers = killers[ply];
+        if (plyKillers[0] != move) {
+            plyKillers[1] = plyKillers[0];
+            plyKillers[0] = move;
+        }
+        int index = historyIndex(white, move);
+        history[index] += depth * depth;
+        if (history[index] >= MAX_HISTORY) {
+            ageHistory();
+        }
+    }
+
+    int getKiller(int ply, int slot) {
+        return killers[ply][slot];
+    }
+
+    int getHistory(boolean white, int move) {
+        return history[historyIndex(white, move)];
+    }
+
+    private static int historyIndex(boolean white, int move) {
+        return ((white ? 0 : SQUARES) + Move.getFromIndex(move)) * SQUARES + Move.getToIndex(move);
+    }
+}
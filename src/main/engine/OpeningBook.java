@@ -0,0 +1,169 @@
+package engine;
+
+import model.Board;
+import model.Move;
+import model.MoveList;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * OpeningBook finds prepared moves for the positions of the opening, so that the engine can play them without a
+ * search. A book file is a {@value #HEADER_SIZE}-byte header (magic, version, entry count) followed by entries of
+ * {@value #ENTRY_SIZE} bytes: the Zobrist key of a position (see {@link Board#getHashKey()}), a move packed by
+ * {@link Move} without flags, and a positive weight. The entries are sorted by key, and by weight from the highest for
+ * the same key, so the moves of a position are found by binary search over the memory-mapped file. Looking up a move
+ * reads the mapped buffer directly and allocates nothing.
+ * <p>
+ * Book files are made by {@link OpeningBookBuilder}. All numbers are big-endian.
+ */
+public class OpeningBook implements AutoCloseable {
+
+    static final int MAGIC = 0x4348424B;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 16;
+    static final int ENTRY_SIZE = 16;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int entryCount;
+
+    private OpeningBook(FileChannel channel, MappedByteBuffer buffer, int entryCount) {
+        this.channel = channel;
+        this.buffer = buffer;
+        this.entryCount = entryCount;
+    }
+
+    /**
+     * Opens a book file.
+     *
+     * @param file the book file
+     * @return the book
+     * @throws IOException if the file cannot be read or is not a book file
+     */
+    public static OpeningBook open(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            long size = channel.size();
+            if (size < HEADER_SIZE || size > Integer.MAX_VALUE) {
+                throw new IOException("Not an opening book file: " + file);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            long entryCount = buffer.getLong(8);
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION
+                    || entryCount < 0 || HEADER_SIZE + entryCount * ENTRY_SIZE != size) {
+                throw new IOException("Not an opening book file: " + file);
+            }
+            return new OpeningBook(channel, buffer, (int) entryCount);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public int getEntryCount() {
+        return entryCount;
+    }
+
+    public long getKey(int entry) {
+        return buffer.getLong(HEADER_SIZE + entry * ENTRY_SIZE);
+    }
+
+    public int getMove(int entry) {
+        return buffer.getInt(HEADER_SIZE + entry * ENTRY_SIZE + 8);
+    }
+
+    public int getWeight(int entry) {
+        return buffer.getInt(HEADER_SIZE + entry * ENTRY_SIZE + 12);
+    }
+
+    /**
+     * Returns the first entry of a position.
+     *
+     * @param key the Zobrist key of position
+     * @return the index of the first entry with the key, or -1 if the position is not in the book
+     */
+    public int findFirst(long key) {
+        int low = 0;
+        int high = entryCount;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (getKey(middle) < key) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low < entryCount && getKey(low) == key ? low : -1;
+    }
+
+    /**
+     * Returns the move of a position with the highest weight.
+     *
+     * @param key the Zobrist key of position
+     * @return the packed move without flags, or {@link Move#NONE} if the position is not in the book
+     */
+    public int getBestMove(long key) {
+        int first = findFirst(key);
+        return first < 0 ? Move.NONE : getMove(first);
+    }
+
+    /**
+     * Chooses a move of a position at random, in proportion to the weights.
+     *
+     * @param key    the Zobrist key of position
+     * @param random a random non-negative number
+     * @return the packed move without flags, or {@link Move#NONE} if the position is not in the book
+     */
+    public int chooseMove(long key, int random) {
+        int first = findFirst(key);
+        if (first < 0) {
+            return Move.NONE;
+        }
+        long total = 0;
+        for (int entry = first; entry < entryCount && getKey(entry) == key; entry++) {
+            total += getWeight(entry);
+        }
+        long target = random % total;
+        for (int entry = first; ; entry++) {
+            target -= getWeight(entry);
+            if (target < 0) {
+                return getMove(entry);
+            }
+        }
+    }
+
+    /**
+     * Chooses a book move for the player to move and checks that it is legal, which guards against two positions with
+     * the same key.
+     *
+     * @param board  the board
+     * @param random a random non-negative number, see {@link #chooseMove(long, int)}
+     * @param moves  a list to generate the legal moves into, which is cleared first
+     * @return the legal move with its flags, or {@link Move#NONE} if the position is not in the book
+     */
+    public int findLegalMove(Board board, int random, MoveList moves) {
+        int bookMove = chooseMove(board.getHashKey(), random);
+        if (bookMove == Move.NONE) {
+            return Move.NONE;
+        }
+        moves.clear();
+        board.generateLegalMoves(board.isWhiteToMove(), moves);
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            if (Move.getFromIndex(move) == Move.getFromIndex(bookMove)
+                    && Move.getToIndex(move) == Move.getToIndex(bookMove)) {
+                return move;
+            }
+        }
+        return Move.NONE;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
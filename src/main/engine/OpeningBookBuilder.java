@@ -0,0 +1,176 @@
+package engine;
+
+import archive.GameArchive;
+import model.Board;
+import model.Move;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * OpeningBookBuilder makes an {@link OpeningBook} file from finished games, usually the games of a {@link GameArchive}.
+ * It counts every move played in the first plies of the games, with a weight of 2 for a move of the winner, 1 for a
+ * move of a tied game and 0 for a move of the loser. Moves played in fewer games than the given minimum, and moves
+ * that never scored, are left out of the book.
+ * <pre>
+ * OpeningBookBuilder &lt;archive directory&gt; &lt;book file&gt; [max plies] [min games]
+ * </pre>
+ */
+public class OpeningBookBuilder {
+
+    public static final int DEFAULT_MAX_PLIES = 16;
+    public static final int DEFAULT_MIN_GAMES = 1;
+
+    private final int maxPlies;
+    private final int minGames;
+    private final Board board = Board.createStartingBoard();
+
+    /**
+     * The counts of moves by position key, then by move.
+     */
+    private final Map<Long, Map<Integer, MoveCount>> positions = new HashMap<Long, Map<Integer, MoveCount>>();
+
+    /**
+     * @param maxPlies the number of plies from the start of each game to add
+     * @param minGames the number of games a move must be played in to be in the book
+     */
+    public OpeningBookBuilder(int maxPlies, int minGames) {
+        this.maxPlies = maxPlies;
+        this.minGames = minGames;
+    }
+
+    /**
+     * Adds the first plies of a game played from the starting board.
+     *
+     * @param moves  the legal moves of game, packed by {@link Move}
+     * @param count  the number of moves of game
+     * @param result the result, one of {@link GameArchive#WHITE_WIN}, {@link GameArchive#BLACK_WIN} or
+     *               {@link GameArchive#TIE}
+     */
+    public void addGame(int[] moves, int count, int result) {
+        int plies = Math.min(count, maxPlies);
+        for (int ply = 0; ply < plies; ply++) {
+            boolean white = board.isWhiteToMove();
+            int weight = result == GameArchive.TIE ? 1
+                    : (result == GameArchive.WHITE_WIN) == white ? 2 : 0;
+            Map<Integer, MoveCount> counts = positions.get(board.getHashKey());
+            if (counts == null) {
+                counts = new HashMap<Integer, MoveCount>(4);
+                positions.put(board.getHashKey(), counts);
+            }
+            int move = Move.of(Move.getFromIndex(moves[ply]), Move.getToIndex(moves[ply]), 0);
+            MoveCount moveCount = counts.get(move);
+            if (moveCount == null) {
+                moveCount = new MoveCount();
+                counts.put(move, moveCount);
+            }
+            moveCount.games++;
+            moveCount.weight += weight;
+            board.makeMove(moves[ply]);
+        }
+        for (int ply = 0; ply < plies; ply++) {
+            board.undoMove();
+        }
+    }
+
+    /**
+     * Adds the first plies of every game of an archive.
+     *
+     * @param archive the archive
+     */
+    public void addArchive(GameArchive archive) {
+        int[] moves = new int[maxPlies];
+        long size = archive.size();
+        for (long id = 0; id < size; id++) {
+            int count = Math.min(archive.getMoveCount(id), maxPlies);
+            for (int i = 0; i < count; i++) {
+                moves[i] = archive.getMove(id, i);
+            }
+            addGame(moves, count, archive.getResult(id));
+        }
+    }
+
+    /**
+     * Writes the book file of the games added so far.
+     *
+     * @param file the book file, replaced if it exists
+     * @return the number of entries written
+     * @throws IOException if the file cannot be written
+     */
+    public int write(Path file) throws IOException {
+        List<Entry> entries = new ArrayList<Entry>();
+        for (Map.Entry<Long, Map<Integer, MoveCount>> position : positions.entrySet()) {
+            for (Map.Entry<Integer, MoveCount> move : position.getValue().entrySet()) {
+                MoveCount count = move.getValue();
+                if (count.games >= minGames && count.weight > 0) {
+                    entries.add(new Entry(position.getKey(), move.getKey(), (int) Math.min(count.weight
+                            , Integer.MAX_VALUE)));
+                }
+            }
+        }
+        entries.sort((a, b) -> a.key != b.key ? Long.compare(a.key, b.key)
+                : a.weight != b.weight ? Integer.compare(b.weight, a.weight) : Integer.compare(a.move, b.move));
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE
+                , StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocate(1 << 16);
+            buffer.putInt(OpeningBook.MAGIC).putInt(OpeningBook.VERSION).putLong(entries.size());
+            for (Entry entry : entries) {
+                if (buffer.remaining() < OpeningBook.ENTRY_SIZE) {
+                    writeBuffer(channel, buffer);
+                }
+                buffer.putLong(entry.key).putInt(entry.move).putInt(entry.weight);
+            }
+            writeBuffer(channel, buffer);
+        }
+        return entries.size();
+    }
+
+    private static void writeBuffer(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private static class MoveCount {
+        private long games;
+        private long weight;
+    }
+
+    private static class Entry {
+        private final long key;
+        private final int move;
+        private final int weight;
+
+        private Entry(long key, int move, int weight) {
+            this.key = key;
+            this.move = move;
+            this.weight = weight;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: OpeningBookBuilder <archive directory> <book file> [max plies] [min games]");
+            System.exit(2);
+        }
+        int maxPlies = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_MAX_PLIES;
+        int minGames = args.length > 3 ? Integer.parseInt(args[3]) : DEFAULT_MIN_GAMES;
+        OpeningBookBuilder builder = new OpeningBookBuilder(maxPlies, minGames);
+        try (GameArchive archive = GameArchive.open(Paths.get(args[0]))) {
+            builder.addArchive(archive);
+            System.out.println("Games " + archive.size());
+        }
+        System.out.println("Entries " + builder.write(Paths.get(args[1])));
+    }
+}
@@ -0,0 +1,152 @@
+package engine;
+
+import model.Board;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ParallelSearcher searches one position with several threads in the "lazy SMP" way. Every thread runs an ordinary
+ * {@link Searcher} on its own copy of the board (see {@link Board#copy()}), and the threads only share a
+ * {@link TranspositionTable}, so that a result found by one thread cuts off the search of the others. The calling thread
+ * runs the main searcher on the given board, whose result is returned. The helper threads start at different depths and
+ * are stopped as soon as the main searcher is done.
+ */
+public class ParallelSearcher {
+
+    private final Board board;
+    private final int threadCount;
+    private final TranspositionTable transpositionTable;
+    private final AtomicBoolean sharedStop = new AtomicBoolean();
+    private final Searcher mainSearcher;
+    private Tablebase tablebase;
+
+    /**
+     * The pool of helper threads, or null if the search runs on the calling thread only.
+     */
+    private final ExecutorService helpers;
+
+    public ParallelSearcher(Board board, int threadCount) {
+        this(board, threadCount, new TranspositionTable(TranspositionTable.DEFAULT_SIZE_MB));
+    }
+
+    /**
+     * Creates a searcher with the given number of threads, including the calling thread.
+     *
+     * @param board              the board to search, restored when the search returns
+     * @param threadCount        the number of search threads, at least 1
+     * @param transpositionTable the table shared by all threads
+     */
+    public ParallelSearcher(Board board, int threadCount, TranspositionTable transpositionTable) {
+        if (threadCount < 1) {
+            throw new IllegalArgumentException("Thread count must be positive");
+        }
+        this.board = board;
+        this.threadCount = threadCount;
+        this.transpositionTable = transpositionTable;
+        mainSearcher = new Searcher(board, transpositionTable, sharedStop);
+        if (threadCount > 1) {
+            AtomicInteger threadNumber = new AtomicInteger();
+            helpers = Executors.newFixedThreadPool(threadCount - 1, runnable -> {
+                Thread thread = new Thread(runnable, "search-helper-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        } else {
+            helpers = null;
+        }
+    }
+
+    public int getThreadCount() {
+        return threadCount;
+    }
+
+    public TranspositionTable getTranspositionTable() {
+        return transpositionTable;
+    }
+
+    public void setListener(SearchListener listener) {
+        mainSearcher.setListener(listener);
+    }
+
+    /**
+     * Sets the endgame tablebase of all threads, see {@link Searcher#setTablebase(Tablebase)}.
+     */
+    public void setTablebase(Tablebase tablebase) {
+        this.tablebase = tablebase;
+        mainSearcher.setTablebase(tablebase);
+    }
+
+    /**
+     * Asks a running search to stop as soon as possible. Can be called from any thread.
+     */
+    public void stop() {
+        sharedStop.set(true);
+    }
+
+    /**
+     * Searches the position for the player to move with all threads.
+     *
+     * @param limits the budget of the main searcher
+     * @return the result of the main searcher, with the nodes of all threads
+     */
+    public SearchResult search(SearchLimits limits) {
+        sharedStop.set(false);
+        List<Future<SearchResult>> futures = new ArrayList<Future<SearchResult>>();
+        for (int i = 1; i < threadCount; i++) {
+            Searcher helper = new Searcher(board.copy(), transpositionTable, sharedStop);
+            helper.makeHelper(1 + (i & 1));
+            helper.setTablebase(tablebase);
+            // Helpers are not limited, they search until the main searcher is done
+            futures.add(helpers.submit(() -> helper.search(new SearchLimits(0, 0, 0))));
+        }
+
+        SearchResult result;
+        try {
+            result = mainSearcher.search(limits);
+        } finally {
+            sharedStop.set(true);
+        }
+        long nodes = result.getNodes();
+        for (Future<SearchResult> future : futures) {
+            nodes += waitFor(future).getNodes();
+        }
+        return new SearchResult(result.getBestMove(), result.getScore(), result.getDepth(), nodes
+                , result.getElapsedMillis(), result.getPrincipalVariation());
+    }
+
+    /**
+     * Stops the helper threads. The searcher cannot be used afterwards.
+     */
+    public void shutdown() {
+        stop();
+        if (helpers != null) {
+            helpers.shutdownNow();
+        }
+    }
+
+    private static SearchResult waitFor(Future<SearchResult> future) {
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    return future.get();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Helper search failed", e.getCause());
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package engine;
+
+/**
+ * SearchLimits is the budget of one search. A limit of 0 means unlimited, but at least one limit should be set.
+ */
+public class SearchLimits {
+    /**
+     * The maximum depth of iterative deepening.
+     */
+    private final int maxDepth;
+    /**
+     * The maximum time of search in milliseconds.
+     */
+    private final long moveTimeMillis;
+    /**
+     * The maximum number of visited nodes.
+     */
+    private final long maxNodes;
+
+    public SearchLimits(int maxDepth, long moveTimeMillis, long maxNodes) {
+        this.maxDepth = maxDepth;
+        this.moveTimeMillis = moveTimeMillis;
+        this.maxNodes = maxNodes;
+    }
+
+    public static SearchLimits depth(int maxDepth) {
+        return new SearchLimits(maxDepth, 0, 0);
+    }
+
+    public static SearchLimits moveTime(long moveTimeMillis) {
+        return new SearchLimits(0, moveTimeMillis, 0);
+    }
+
+    public static SearchLimits nodes(long maxNodes) {
+        return new SearchLimits(0, 0, maxNodes);
+    }
+
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    public long getMoveTimeMillis() {
+        return moveTimeMillis;
+    }
+
+    public long getMaxNodes() {
+        return maxNodes;
+    }
+}
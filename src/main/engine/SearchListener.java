@@ -0,0 +1,13 @@
+package engine;
+
+/**
+ * SearchListener is informed of progress during a search.
+ */
+public interface SearchListener {
+    /**
+     * Called after each completed iteration of iterative deepening.
+     *
+     * @param result the result of the iteration
+     */
+    void onIteration(SearchResult result);
+}
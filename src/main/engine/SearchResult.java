@@ -0,0 +1,85 @@
+package engine;
+
+import model.Move;
+
+/**
+ * SearchResult is the outcome of one completed iteration of search.
+ */
+public class SearchResult {
+    private final int bestMove;
+    private final int score;
+    private final int depth;
+    private final long nodes;
+    private final long elapsedMillis;
+    private final int[] principalVariation;
+
+    public SearchResult(int bestMove, int score, int depth, long nodes, long elapsedMillis, int[] principalVariation) {
+        this.bestMove = bestMove;
+        this.score = score;
+        this.depth = depth;
+        this.nodes = nodes;
+        this.elapsedMillis = elapsedMillis;
+        this.principalVariation = principalVariation;
+    }
+
+    /**
+     * Returns the best move packed by {@link Move}, or {@link Move#NONE} if the player has no legal moves.
+     *
+     * @return the best move
+     */
+    public int getBestMove() {
+        return bestMove;
+    }
+
+    /**
+     * Returns the score in centipawns from the view of the player to move. See also {@link Searcher#isMateScore(int)}.
+     *
+     * @return the score
+     */
+    public int getScore() {
+        return score;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public long getNodes() {
+        return nodes;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    /**
+     * Returns the expected line of play starting with the best move.
+     *
+     * @return the packed moves of principal variation
+     */
+    public int[] getPrincipalVariation() {
+        return principalVariation;
+    }
+
+    public long getNodesPerSecond() {
+        return nodes * 1000 / Math.max(1, elapsedMillis);
+    }
+
+    /**
+     * Returns a one-line summary, e.g. "depth 5 score 30 nodes 12000 nps 400000 time 30 pv e2e4 e7e5".
+     */
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        builder.append("depth ").append(depth)
+                .append(" score ").append(score)
+                .append(" nodes ").append(nodes)
+                .append(" nps ").append(getNodesPerSecond())
+                .append(" time ").append(elapsedMillis)
+                .append(" pv");
+        for (int move : principalVariation) {
+            builder.append(' ').append(Move.toNotation(move));
+        }
+        return builder.toString();
+    }
+}
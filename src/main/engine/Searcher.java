@@ -0,0 +1,378 @@
+package engine;
+
+import model.AttackMap;
+import model.Board;
+import model.Evaluator;
+import model.Move;
+import model.MoveList;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Searcher finds the best move on a {@link Board} with negamax alpha-beta search and iterative deepening. The search
+ * deepens one ply at a time until the {@link SearchLimits} are used up, and the result of the last completed iteration
+ * is returned. Moves are made and undone on the given board, which is restored when the search returns.
+ * <p>
+ * Results are stored in a {@link TranspositionTable}, which can be shared with other searchers on other threads.
+ * Moves are searched in the order of a {@link MoveOrderer}. Positions below the root that are in the
+ * {@link Tablebase}, if one is set, are scored exactly without a search.
+ * <p>
+ * At the end of the full-width search a quiescence search follows the captures until the position is quiet, so that
+ * a leaf is never scored in the middle of an exchange (the horizon effect). Captures that lose material by static
+ * exchange evaluation are not searched there, see {@link AttackMap#staticExchange(model.BasePiece[][], int)}.
+ */
+public class Searcher {
+
+    /**
+     * The maximum search depth in plies.
+     */
+    public static final int MAX_PLY = 64;
+
+    /**
+     * The score of a checkmate at the root. A mate in n plies scores MATE_SCORE - n.
+     */
+    public static final int MATE_SCORE = 30000;
+
+    /**
+     * A score larger than any reachable score.
+     */
+    private static final int INFINITY = 32000;
+
+    /**
+     * How often (in nodes) the time budget is checked.
+     */
+    private static final int CHECK_INTERVAL = 1024;
+
+    private final Board board;
+    private final TranspositionTable transpositionTable;
+    private final Evaluator evaluator = new Evaluator();
+    private final MoveOrderer moveOrderer = new MoveOrderer();
+    private final AttackMap exchange = new AttackMap();
+
+    /**
+     * The reusable move list of each ply.
+     */
+    private final MoveList[] moveLists = new MoveList[MAX_PLY + 1];
+
+    /**
+     * The triangular table of principal variations. Row ply holds the best line found from that ply.
+     */
+    private final int[][] pvTable = new int[MAX_PLY + 1][MAX_PLY + 1];
+    private final int[] pvLength = new int[MAX_PLY + 1];
+
+    private SearchListener listener;
+    private volatile boolean stopRequested;
+
+    /**
+     * The endgame tablebase, or null if there is none.
+     */
+    private Tablebase tablebase;
+
+    /**
+     * The reusable piece buffer of tablebase probes.
+     */
+    private final int[] tablebasePieces = new int[Tablebase.MAX_PIECES];
+
+    /**
+     * The stop signal shared by all searchers of one parallel search, see {@link ParallelSearcher}.
+     */
+    private final AtomicBoolean sharedStop;
+
+    /**
+     * Whether this searcher is a helper thread of a parallel search, which only fills the shared transposition table.
+     */
+    private boolean helper;
+
+    /**
+     * The depth of first iteration. Helpers start deeper, so that the threads do not all search the same depth at the
+     * same time.
+     */
+    private int startDepth = 1;
+    private boolean stopped;
+    private long nodes;
+    private long maxNodes;
+    private long deadline;
+
+    public Searcher(Board board) {
+        this(board, new TranspositionTable(TranspositionTable.DEFAULT_SIZE_MB));
+    }
+
+    public Searcher(Board board, TranspositionTable transpositionTable) {
+        this(board, transpositionTable, new AtomicBoolean());
+    }
+
+    Searcher(Board board, TranspositionTable transpositionTable, AtomicBoolean sharedStop) {
+        this.board = board;
+        this.transpositionTable = transpositionTable;
+        this.sharedStop = sharedStop;
+        for (int ply = 0; ply < moveLists.length; ply++) {
+            moveLists[ply] = new MoveList();
+        }
+    }
+
+    public TranspositionTable getTranspositionTable() {
+        return transpositionTable;
+    }
+
+    /**
+     * Makes this searcher a helper of a parallel search, which starts at the given depth and leaves the generation of
+     * transposition table to the main searcher.
+     */
+    void makeHelper(int startDepth) {
+        this.helper = true;
+        this.startDepth = startDepth;
+    }
+
+    public void setListener(SearchListener listener) {
+        this.listener = listener;
+    }
+
+    public void setTablebase(Tablebase tablebase) {
+        this.tablebase = tablebase;
+    }
+
+    /**
+     * Asks a running search to stop as soon as possible. Can be called from any thread.
+     */
+    public void stop() {
+        stopRequested = true;
+    }
+
+    /**
+     * Searches the position for the player to move, see {@link Board#isWhiteToMove()}.
+     *
+     * @param limits the budget of search
+     * @return the result of the deepest completed iteration, or only a legal move with depth 0 if no iteration was
+     * completed
+     */
+    public SearchResult search(SearchLimits limits) {
+        long start = System.currentTimeMillis();
+        stopRequested = false;
+        stopped = false;
+        nodes = 0;
+        maxNodes = limits.getMaxNodes() > 0 ? limits.getMaxNodes() : Long.MAX_VALUE;
+        deadline = limits.getMoveTimeMillis() > 0 ? start + limits.getMoveTimeMillis() : Long.MAX_VALUE;
+        int maxDepth = limits.getMaxDepth() > 0 ? Math.min(limits.getMaxDepth(), MAX_PLY) : MAX_PLY;
+        if (!helper) {
+            transpositionTable.newSearch();
+        }
+        moveOrderer.newSearch();
+
+        SearchResult result = new SearchResult(Move.NONE, 0, 0, 0, 0, new int[0]);
+        for (int depth = Math.min(startDepth, maxDepth); depth <= maxDepth; depth++) {
+            int score = negamax(depth, 0, -INFINITY, INFINITY);
+            if (stopped) {
+                // The unfinished iteration is not trusted, not even the first one
+                break;
+            }
+            int[] pv = Arrays.copyOf(pvTable[0], pvLength[0]);
+            result = new SearchResult(pv.length > 0 ? pv[0] : Move.NONE, score, depth, nodes
+                    , System.currentTimeMillis() - start, pv);
+            if (listener != null) {
+                listener.onIteration(result);
+            }
+            if (stopped || pv.length == 0 || isMateScore(score)) {
+                break;
+            }
+        }
+        int bestMove = result.getBestMove();
+        if (bestMove == Move.NONE) {
+            // Not even the first iteration was completed, so any legal move is better than none
+            MoveList moves = moveLists[0];
+            moves.clear();
+            board.generateLegalMoves(board.isWhiteToMove(), moves);
+            bestMove = moves.isEmpty() ? Move.NONE : moves.get(0);
+        }
+        return new SearchResult(bestMove, result.getScore(), result.getDepth(), nodes
+                , System.currentTimeMillis() - start, result.getPrincipalVariation());
+    }
+
+    /**
+     * Returns the score of position from the view of player to move, searched to the given depth.
+     *
+     * @param depth the remaining depth
+     * @param ply   the distance from root
+     * @param alpha the lower bound of interesting scores
+     * @param beta  the upper bound of interesting scores
+     * @return the score
+     */
+    private int negamax(int depth, int ply, int alpha, int beta) {
+        pvLength[ply] = ply;
+        if (shouldStop()) {
+            return 0;
+        }
+        nodes++;
+        if (tablebase != null && ply > 0 && board.getPieceCount() <= Tablebase.MAX_PIECES) {
+            int result = tablebase.probe(board, tablebasePieces);
+            if (result != Tablebase.UNKNOWN) {
+                return Tablebase.toScore(result, ply);
+            }
+        }
+        if (depth == 0 || ply == MAX_PLY) {
+            return quiesce(ply, alpha, beta);
+        }
+        boolean white = board.isWhiteToMove();
+
+        long key = board.getHashKey();
+        long entry = transpositionTable.probe(key);
+        int hashMove = Move.NONE;
+        if (entry != 0) {
+            hashMove = TranspositionTable.getMove(entry);
+            if (ply > 0 && TranspositionTable.getDepth(entry) >= depth) {
+                int score = scoreFromTable(TranspositionTable.getScore(entry), ply);
+                int bound = TranspositionTable.getBound(entry);
+                if (bound == TranspositionTable.EXACT
+                        || (bound == TranspositionTable.LOWER_BOUND && score >= beta)
+                        || (bound == TranspositionTable.UPPER_BOUND && score <= alpha)) {
+                    return score;
+                }
+            }
+        }
+
+        MoveList moves = moveLists[ply];
+        moves.clear();
+        board.generateLegalMoves(white, moves);
+        if (moves.isEmpty()) {
+            // Checkmate or stalemate
+            return board.inCheck(white) ? -MATE_SCORE + ply : 0;
+        }
+        moveOrderer.scoreMoves(board, moves, ply == 0 ? pvTable[0][0] : hashMove, ply);
+
+        int originalAlpha = alpha;
+        int bestScore = -INFINITY;
+        int bestMove = Move.NONE;
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moveOrderer.nextMove(moves, i, ply);
+            board.makeMove(move);
+            int score = -negamax(depth - 1, ply + 1, -beta, -alpha);
+            board.undoMove();
+            if (stopped) {
+                return 0;
+            }
+            if (score > bestScore) {
+                bestScore = score;
+                bestMove = move;
+                if (score > alpha) {
+                    alpha = score;
+                    updatePrincipalVariation(ply, move);
+                    if (alpha >= beta) {
+                        moveOrderer.recordCutoff(white, move, depth, ply);
+                        break;
+                    }
+                }
+            }
+        }
+        int bound = bestScore >= beta ? TranspositionTable.LOWER_BOUND
+                : bestScore > originalAlpha ? TranspositionTable.EXACT : TranspositionTable.UPPER_BOUND;
+        transpositionTable.store(key, bestMove, scoreToTable(bestScore, ply), depth, bound);
+        return bestScore;
+    }
+
+    /**
+     * Returns the score of position from the view of player to move, searching only captures that do not lose
+     * material. The player to move may also stand pat, i.e. take the static score, since some quiet move is assumed to
+     * be at least as good. Checkmates are not detected here.
+     *
+     * @param ply   the distance from root
+     * @param alpha the lower bound of interesting scores
+     * @param beta  the upper bound of interesting scores
+     * @return the score
+     */
+    private int quiesce(int ply, int alpha, int beta) {
+        pvLength[ply] = ply;
+        if (shouldStop()) {
+            return 0;
+        }
+        boolean white = board.isWhiteToMove();
+        int bestScore = evaluator.evaluate(board, white);
+        if (ply == MAX_PLY || bestScore >= beta) {
+            return bestScore;
+        }
+        alpha = Math.max(alpha, bestScore);
+
+        MoveList moves = moveLists[ply];
+        moves.clear();
+        board.generateLegalCaptures(white, moves);
+        int count = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            if (exchange.staticExchange(board.getChessBoard(), move) >= 0) {
+                moves.set(count++, move);
+            }
+        }
+        moves.truncate(count);
+        moveOrderer.scoreMoves(board, moves, Move.NONE, ply);
+
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moveOrderer.nextMove(moves, i, ply);
+            board.makeMove(move);
+            nodes++;
+            int score = -quiesce(ply + 1, -beta, -alpha);
+            board.undoMove();
+            if (stopped) {
+                return 0;
+            }
+            if (score > bestScore) {
+                bestScore = score;
+                if (score > alpha) {
+                    alpha = score;
+                    if (alpha >= beta) {
+                        break;
+                    }
+                }
+            }
+        }
+        return bestScore;
+    }
+
+    /**
+     * Converts a mate score from distance to root into distance to this node, so that the stored score holds
+     * wherever the position is found again.
+     */
+    private static int scoreToTable(int score, int ply) {
+        if (isMateScore(score)) {
+            return score > 0 ? score + ply : score - ply;
+        }
+        return score;
+    }
+
+    /**
+     * Converts a stored mate score from distance to the node back into distance to root.
+     */
+    private static int scoreFromTable(int score, int ply) {
+        if (isMateScore(score)) {
+            return score > 0 ? score - ply : score + ply;
+        }
+        return score;
+    }
+
+    private void updatePrincipalVariation(int ply, int move) {
+        pvTable[ply][ply] = move;
+        for (int next = ply + 1; next < pvLength[ply + 1]; next++) {
+            pvTable[ply][next] = pvTable[ply + 1][next];
+        }
+        pvLength[ply] = Math.max(pvLength[ply + 1], ply + 1);
+    }
+
+    /**
+     * Returns true if the search must stop because of {@link #stop()} or the limits.
+     */
+    private boolean shouldStop() {
+        if (!stopped && (stopRequested || sharedStop.get() || nodes >= maxNodes
+                || (nodes % CHECK_INTERVAL == 0 && System.currentTimeMillis() >= deadline))) {
+            stopped = true;
+        }
+        return stopped;
+    }
+
+    /**
+     * Returns whether the score means a forced checkmate for either player.
+     *
+     * @param score the score of search
+     * @return true if the score is a mate score
+     */
+    public static boolean isMateScore(int score) {
+        return Math.abs(score) > MATE_SCORE - MAX_PLY;
+    }
+}
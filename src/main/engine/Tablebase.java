@@ -0,0 +1,358 @@
+package engine;
+
+import model.BasePiece;
+import model.Board;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Tablebase holds the exact results of endings with at most {@value #MAX_PIECES} pieces, kings included, as made by
+ * {@link TablebaseGenerator}. A probe finds the result of a position on an 8*8 board in constant time: whether the
+ * player to move wins, loses or draws with best play, and in how many plies the game ends by checkmate.
+ * <p>
+ * Each ending is one file named after its material, e.g. "KQvK.tb" or "KEvKS.tb", with the piece letters of
+ * {@link BasePiece#getNameString()}. Only one of the two colorings of an ending is stored, the one where white has
+ * more pieces, or the higher piece types if both have the same number of pieces; the other is probed with colors and
+ * ranks swapped. A file is a {@value #HEADER_SIZE}-byte header (magic, version, piece count, material key) followed by
+ * one byte per position with white to move, then one byte per position with black to move. A position is indexed by
+ * the square of white king mirrored to files a-d, then the squares of black king, the other white pieces and the other
+ * black pieces in order of type from the highest. A byte is 0 for a draw, or the number of plies to checkmate plus 1;
+ * an odd number of plies is a win for the player to move and an even number a loss. Impossible positions are 0.
+ */
+public class Tablebase {
+
+    /**
+     * The result of a probe for a position that is not in the tablebase.
+     */
+    public static final int UNKNOWN = -1;
+
+    /**
+     * The most pieces of a position in the tablebase, kings included.
+     */
+    public static final int MAX_PIECES = 4;
+
+    public static final String FILE_EXTENSION = ".tb";
+
+    static final int MAGIC = 0x43485442;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 16;
+
+    /**
+     * The piece letters indexed by {@link BasePiece#getType()}.
+     */
+    private static final String LETTERS = "PNBRQKSE";
+
+    /**
+     * The value bytes of each ending by material key, see {@link #materialKey(int, int)}.
+     */
+    private final ByteBuffer[] tables = new ByteBuffer[1 << 16];
+    private int tableCount;
+
+    /**
+     * Maps every tablebase file in the directory.
+     *
+     * @param directory the directory of tablebase files
+     * @return the tablebase
+     * @throws IOException if a file cannot be read or is not a tablebase file
+     */
+    public static Tablebase open(Path directory) throws IOException {
+        Tablebase tablebase = new Tablebase();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + FILE_EXTENSION)) {
+            for (Path file : files) {
+                tablebase.map(file);
+            }
+        }
+        return tablebase;
+    }
+
+    private void map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            int pieceCount = buffer.getInt(8);
+            int key = buffer.getInt(12);
+            if (size < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION
+                    || pieceCount < 3 || pieceCount > MAX_PIECES || key < 0 || key >= tables.length
+                    || size != HEADER_SIZE + 2L * tableSize(pieceCount)) {
+                throw new IOException("Not a tablebase file: " + file);
+            }
+            buffer.position(HEADER_SIZE);
+            if (tables[key] == null) {
+                tableCount++;
+            }
+            tables[key] = buffer.slice();
+        }
+    }
+
+    /**
+     * Returns the number of endings in the tablebase.
+     *
+     * @return the number of endings
+     */
+    public int getTableCount() {
+        return tableCount;
+    }
+
+    /**
+     * Returns the result of the position for the player to move.
+     *
+     * @param board the board
+     * @return the result, see {@link #isWin(int)}, {@link #isLoss(int)} and {@link #getPlies(int)}, or
+     * {@link #UNKNOWN} if the position is not in the tablebase
+     */
+    public int probe(Board board) {
+        return probe(board, new int[MAX_PIECES]);
+    }
+
+    /**
+     * Returns the result of the position for the player to move, like {@link #probe(Board)} but without allocating.
+     * A board with more than {@link #MAX_PIECES} pieces is rejected at once by {@link Board#getPieceCount()}.
+     *
+     * @param board  the board
+     * @param pieces a buffer of at least {@link #MAX_PIECES} ints, one per searcher thread
+     * @return the result, or {@link #UNKNOWN} if the position is not in the tablebase
+     */
+    public int probe(Board board, int[] pieces) {
+        BasePiece[][] chessboard = board.getChessBoard();
+        int count = board.getPieceCount();
+        if (count > MAX_PIECES || chessboard.length != 8 || chessboard[0].length != 8) {
+            return UNKNOWN;
+        }
+        int found = 0;
+        for (int rank = 0; rank < 8 && found < count; rank++) {
+            for (int file = 0; file < 8; file++) {
+                BasePiece piece = chessboard[rank][file];
+                if (piece != null) {
+                    pieces[found++] = pieceCode(piece.getType(), piece.getWhitePlayer(), rank * 8 + file);
+                }
+            }
+        }
+        long location = locate(pieces, count, board.isWhiteToMove());
+        if (location < 0) {
+            return UNKNOWN;
+        }
+        return getResult((int) (location >>> 32), (int) location);
+    }
+
+    /**
+     * Returns the result at an offset of an ending's table, see {@link #locate(int[], int, boolean)}.
+     */
+    int getResult(int materialKey, int offset) {
+        if (materialKey == 0) {
+            // Bare kings
+            return 0;
+        }
+        ByteBuffer table = tables[materialKey];
+        return table == null ? UNKNOWN : table.get(offset) & 0xFF;
+    }
+
+    public static boolean isDraw(int result) {
+        return result == 0;
+    }
+
+    public static boolean isWin(int result) {
+        return result > 0 && (result & 1) == 0;
+    }
+
+    public static boolean isLoss(int result) {
+        return result > 0 && (result & 1) == 1;
+    }
+
+    /**
+     * Returns the number of plies to checkmate of a win or a loss.
+     *
+     * @param result the result of a probe
+     * @return the number of plies
+     */
+    public static int getPlies(int result) {
+        return result - 1;
+    }
+
+    /**
+     * Returns the search score of a result found at the given ply from the root, see {@link Searcher#MATE_SCORE}.
+     * Mates beyond {@link Searcher#MAX_PLY} from the root score just below the mate scores.
+     *
+     * @param result the result of a probe
+     * @param ply    the ply of position from the root
+     * @return the score for the player to move
+     */
+    public static int toScore(int result, int ply) {
+        if (isDraw(result)) {
+            return 0;
+        }
+        int score = Math.max(Searcher.MATE_SCORE - ply - getPlies(result), Searcher.MATE_SCORE - Searcher.MAX_PLY);
+        return isWin(result) ? score : -score;
+    }
+
+    /**
+     * Returns the code of a piece for {@link #locate(int[], int, boolean)}.
+     */
+    static int pieceCode(int type, boolean white, int square) {
+        return square | type << 6 | (white ? 0 : 1 << 9);
+    }
+
+    /**
+     * Returns the number of positions of an ending with the given number of pieces and player to move.
+     */
+    static int tableSize(int pieceCount) {
+        return 32 << (6 * (pieceCount - 1));
+    }
+
+    /**
+     * Returns the key of a side's pieces other than the king, whose types are given from the highest. Sides with more
+     * pieces, then with higher types, have larger keys.
+     */
+    static int sideKey(int count, int firstType, int secondType) {
+        return count * 64 + (count > 0 ? firstType * 8 : 0) + (count > 1 ? secondType : 0);
+    }
+
+    static int materialKey(int whiteSideKey, int blackSideKey) {
+        return whiteSideKey << 8 | blackSideKey;
+    }
+
+    /**
+     * Finds a position in the tablebase layout.
+     *
+     * @param pieces      the codes of pieces, see {@link #pieceCode(int, boolean, int)}, which are reordered
+     * @param count       the number of pieces
+     * @param whiteToMove the player to move
+     * @return the material key of the ending in the high 32 bits and the offset of position in its table in the low 32
+     * bits, or -1 if there are not two kings and at most {@link #MAX_PIECES} pieces
+     */
+    static long locate(int[] pieces, int count, boolean whiteToMove) {
+        if (count < 2 || count > MAX_PIECES) {
+            return -1;
+        }
+        int whiteKing = -1;
+        int blackKing = -1;
+        // The other pieces, at most two
+        int others = 0;
+        int first = 0;
+        int second = 0;
+        for (int i = 0; i < count; i++) {
+            int code = pieces[i];
+            if (type(code) == BasePiece.KING) {
+                if (isWhite(code)) {
+                    whiteKing = square(code);
+                } else {
+                    blackKing = square(code);
+                }
+            } else if (others++ == 0) {
+                first = code;
+            } else {
+                second = code;
+            }
+        }
+        if (whiteKing < 0 || blackKing < 0 || others != count - 2) {
+            return -1;
+        }
+        // Orders the other pieces by color, white first, then by type from the highest
+        if (others == 2 && (isWhite(second) && !isWhite(first)
+                || (isWhite(first) == isWhite(second) && type(second) > type(first)))) {
+            int swap = first;
+            first = second;
+            second = swap;
+        }
+        int whiteCount = (others > 0 && isWhite(first) ? 1 : 0) + (others > 1 && isWhite(second) ? 1 : 0);
+        int whiteSide = sideKey(whiteCount, type(first), type(second));
+        int blackSide = whiteCount == 2 ? sideKey(0, 0, 0)
+                : whiteCount == 1 ? sideKey(others - 1, type(second), 0) : sideKey(others, type(first), type(second));
+        if (whiteSide < blackSide) {
+            // Swaps colors and ranks, so that white has the stronger side
+            int swap = whiteKing ^ 56;
+            whiteKing = blackKing ^ 56;
+            blackKing = swap;
+            first ^= 56 | 1 << 9;
+            second ^= 56 | 1 << 9;
+            if (whiteCount == 1 && others == 2) {
+                swap = first;
+                first = second;
+                second = swap;
+            }
+            swap = whiteSide;
+            whiteSide = blackSide;
+            blackSide = swap;
+            whiteToMove = !whiteToMove;
+        }
+        // Mirrors files, so that white king is on files a-d
+        int mirror = (whiteKing & 4) != 0 ? 7 : 0;
+        int index = ((whiteKing ^ mirror) >>> 3) * 4 + ((whiteKing ^ mirror) & 3);
+        index = index * 64 + (blackKing ^ mirror);
+        if (others > 0) {
+            index = index * 64 + (square(first) ^ mirror);
+        }
+        if (others > 1) {
+            index = index * 64 + (square(second) ^ mirror);
+        }
+        int offset = whiteToMove ? index : tableSize(count) + index;
+        return (long) materialKey(whiteSide, blackSide) << 32 | offset;
+    }
+
+    static int square(int code) {
+        return code & 63;
+    }
+
+    static int type(int code) {
+        return code >>> 6 & 7;
+    }
+
+    static boolean isWhite(int code) {
+        return (code & 1 << 9) == 0;
+    }
+
+    /**
+     * Returns the name of an ending, e.g. "KRvKN".
+     */
+    static String name(int materialKey) {
+        return sideName(materialKey >>> 8) + "v" + sideName(materialKey & 0xFF);
+    }
+
+    private static String sideName(int sideKey) {
+        int count = sideKey / 64;
+        StringBuilder builder = new StringBuilder("K");
+        if (count > 0) {
+            builder.append(LETTERS.charAt(sideKey / 8 % 8));
+        }
+        if (count > 1) {
+            builder.append(LETTERS.charAt(sideKey % 8));
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Returns the material key of an ending name such as "KQvK", in the stored coloring.
+     *
+     * @throws IllegalArgumentException if the name is not an ending of the tablebase
+     */
+    static int parseName(String name) {
+        int split = name.indexOf('v');
+        if (split < 0) {
+            throw new IllegalArgumentException("Bad ending name: " + name);
+        }
+        int white = parseSide(name.substring(0, split), name);
+        int black = parseSide(name.substring(split + 1), name);
+        if (white / 64 + black / 64 + 2 > MAX_PIECES) {
+            throw new IllegalArgumentException("Too many pieces: " + name);
+        }
+        return white >= black ? materialKey(white, black) : materialKey(black, white);
+    }
+
+    private static int parseSide(String side, String name) {
+        if (side.isEmpty() || side.charAt(0) != 'K' || side.length() > 3) {
+            throw new IllegalArgumentException("Bad ending name: " + name);
+        }
+        int first = side.length() > 1 ? LETTERS.indexOf(side.charAt(1)) : 0;
+        int second = side.length() > 2 ? LETTERS.indexOf(side.charAt(2)) : 0;
+        if (first < 0 || second < 0 || first == BasePiece.KING || second == BasePiece.KING) {
+            throw new IllegalArgumentException("Bad ending name: " + name);
+        }
+        return sideKey(side.length() - 1, Math.max(first, second), Math.min(first, second));
+    }
+}
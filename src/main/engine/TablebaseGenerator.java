@@ -0,0 +1,592 @@
+package engine;
+
+import model.BasePiece;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * TablebaseGenerator makes the {@link Tablebase} files of endings by retrograde analysis. A first pass over all
+ * positions of an ending finds the checkmates, counts the moves of every position and looks up the captures in the
+ * smaller endings, which are generated first. Then the results spread backwards one ply at a time: a position that
+ * can move into a loss for the opponent is a win, and a position whose moves all go into wins for the opponent is a
+ * loss. Positions that are never reached this way are draws. Moves are taken from the pieces' own rules through
+ * {@link TablebaseMoves}, so the Soldier and Elephant endings are generated like any other.
+ * <p>
+ * Both passes are split over the given number of threads; the results of each ply are merged by the calling thread.
+ * <pre>
+ * TablebaseGenerator &lt;directory&gt; &lt;threads&gt; &lt;ending|all&gt;...
+ * </pre>
+ * where an ending is named like "KQvK" or "KSvKE", and "all" is every ending of up to {@value Tablebase#MAX_PIECES}
+ * pieces.
+ */
+public class TablebaseGenerator {
+
+    /**
+     * The most plies to checkmate a position can have, see {@link Tablebase}.
+     */
+    static final int MAX_PLIES = 254;
+
+    /**
+     * The number of parts each thread's share of a pass is split into, so that threads finish close together.
+     */
+    private static final int CHUNKS_PER_THREAD = 8;
+
+    private final int threadCount;
+
+    /**
+     * The generated endings by material key, in the order they were generated.
+     */
+    private final Map<Integer, byte[]> tables = new LinkedHashMap<Integer, byte[]>();
+
+    private ExecutorService executor;
+
+    /**
+     * @param threadCount the number of threads to generate with, at least 1
+     */
+    public TablebaseGenerator(int threadCount) {
+        if (threadCount < 1) {
+            throw new IllegalArgumentException("Thread count must be positive");
+        }
+        this.threadCount = threadCount;
+    }
+
+    /**
+     * Generates an ending, and the endings it can turn into by captures, unless they are generated already.
+     *
+     * @param name the name of ending, e.g. "KQvK", in either coloring
+     * @throws IllegalArgumentException if the name is not an ending of 3 or 4 pieces
+     * @throws IllegalStateException    if a position is more than {@value #MAX_PLIES} plies from checkmate
+     */
+    public void generate(String name) {
+        int key = Tablebase.parseName(name);
+        if (pieceCount(key) < 3) {
+            throw new IllegalArgumentException("Too few pieces: " + name);
+        }
+        if (threadCount > 1) {
+            AtomicInteger threadNumber = new AtomicInteger();
+            executor = Executors.newFixedThreadPool(threadCount, runnable -> {
+                Thread thread = new Thread(runnable, "tablebase-generator-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        try {
+            generate(key);
+        } finally {
+            if (executor != null) {
+                executor.shutdownNow();
+                executor = null;
+            }
+        }
+    }
+
+    /**
+     * Returns the names of the endings generated so far.
+     *
+     * @return the names, smaller endings first
+     */
+    public List<String> getEndings() {
+        List<String> names = new ArrayList<String>();
+        for (int key : tables.keySet()) {
+            names.add(Tablebase.name(key));
+        }
+        return names;
+    }
+
+    /**
+     * Writes every ending generated so far to its file in the directory, see {@link Tablebase}.
+     *
+     * @param directory the directory, created if needed
+     * @return the number of files written
+     * @throws IOException if a file cannot be written
+     */
+    public int write(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        for (Map.Entry<Integer, byte[]> table : tables.entrySet()) {
+            int key = table.getKey();
+            Path file = directory.resolve(Tablebase.name(key) + Tablebase.FILE_EXTENSION);
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE
+                    , StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer header = ByteBuffer.allocate(Tablebase.HEADER_SIZE);
+                header.putInt(Tablebase.MAGIC).putInt(Tablebase.VERSION).putInt(pieceCount(key)).putInt(key);
+                header.flip();
+                ByteBuffer values = ByteBuffer.wrap(table.getValue());
+                while (header.hasRemaining() || values.hasRemaining()) {
+                    channel.write(new ByteBuffer[]{header, values});
+                }
+            }
+        }
+        return tables.size();
+    }
+
+    private static int pieceCount(int key) {
+        return 2 + (key >>> 8) / 64 + (key & 0xFF) / 64;
+    }
+
+    /**
+     * Returns the generated values of an ending, or null for the endings of bare kings, which are all draws.
+     */
+    private byte[] generate(int key) {
+        if (pieceCount(key) == 2) {
+            return null;
+        }
+        byte[] values = tables.get(key);
+        if (values == null) {
+            values = new Generation(key).run();
+            tables.put(key, values);
+        }
+        return values;
+    }
+
+    /**
+     * Returns the material key of an ending after the capture of a piece other than a king.
+     *
+     * @param whiteSide   the side key of white
+     * @param blackSide   the side key of black
+     * @param white       whether the captured piece is white
+     * @param firstPiece  whether the captured piece is the first piece of its side
+     */
+    private static int captureKey(int whiteSide, int blackSide, boolean white, boolean firstPiece) {
+        int side = white ? whiteSide : blackSide;
+        int count = side / 64;
+        int remaining = firstPiece ? side % 8 : side / 8 % 8;
+        side = Tablebase.sideKey(count - 1, remaining, 0);
+        if (white) {
+            whiteSide = side;
+        } else {
+            blackSide = side;
+        }
+        return whiteSide >= blackSide ? Tablebase.materialKey(whiteSide, blackSide)
+                : Tablebase.materialKey(blackSide, whiteSide);
+    }
+
+    /**
+     * The generation of one ending. The pieces are numbered in table order: white king, black king, the other white
+     * pieces and the other black pieces. A position is numbered by its offset in the table, see
+     * {@link Tablebase#locate(int[], int, boolean)}.
+     */
+    private final class Generation {
+
+        private final int key;
+        private final int pieceCount;
+        private final int size;
+        private final int[] types;
+        private final boolean[] whites;
+        private final int[] kinds;
+
+        /**
+         * The values of the endings after capturing each piece, null for bare kings.
+         */
+        private final byte[][] captureTables;
+
+        /**
+         * The results, see {@link Tablebase}, which are 0 until found.
+         */
+        private final byte[] values;
+
+        /**
+         * The number of moves of each position whose result is not yet known to be a win for the opponent.
+         */
+        private final byte[] counters;
+
+        /**
+         * The plies to checkmate plus 1 of the longest capture into a win for the opponent, or 0 if there is none.
+         */
+        private final byte[] floors;
+
+        /**
+         * The plies plus 1 of the best result found but not yet settled, or 0 if there is none.
+         */
+        private final byte[] pending;
+
+        /**
+         * The positions with a pending result, by plies.
+         */
+        private final IntList[] buckets = new IntList[MAX_PLIES + 1];
+
+        private final Worker[] workers = new Worker[threadCount];
+
+        private Generation(int key) {
+            this.key = key;
+            pieceCount = pieceCount(key);
+            size = Tablebase.tableSize(pieceCount);
+            types = new int[pieceCount];
+            whites = new boolean[pieceCount];
+            kinds = new int[pieceCount];
+            captureTables = new byte[pieceCount][];
+            int whiteSide = key >>> 8;
+            int blackSide = key & 0xFF;
+            types[0] = BasePiece.KING;
+            whites[0] = true;
+            types[1] = BasePiece.KING;
+            int piece = 2;
+            for (int color = 0; color < 2; color++) {
+                int side = color == 0 ? whiteSide : blackSide;
+                for (int i = 0; i < side / 64; i++, piece++) {
+                    types[piece] = i == 0 ? side / 8 % 8 : side % 8;
+                    whites[piece] = color == 0;
+                    captureTables[piece] = generate(captureKey(whiteSide, blackSide, color == 0, i == 0));
+                }
+            }
+            for (int i = 0; i < pieceCount; i++) {
+                kinds[i] = TablebaseMoves.kind(types[i], whites[i]);
+            }
+            values = new byte[2 * size];
+            counters = new byte[2 * size];
+            floors = new byte[2 * size];
+            pending = new byte[2 * size];
+            for (int i = 0; i < threadCount; i++) {
+                workers[i] = new Worker();
+            }
+        }
+
+        private byte[] run() {
+            runParallel(2 * size, (worker, start, end) -> {
+                for (int position = start; position < end; position++) {
+                    worker.initialize(position);
+                }
+            });
+            for (Worker worker : workers) {
+                IntList found = worker.output;
+                for (int i = 0; i < found.size(); i += 2) {
+                    addCandidate(found.get(i), found.get(i + 1));
+                }
+            }
+
+            IntList settled = new IntList();
+            for (int plies = 0; plies <= MAX_PLIES; plies++) {
+                IntList bucket = buckets[plies];
+                buckets[plies] = null;
+                if (bucket == null) {
+                    continue;
+                }
+                settled.clear();
+                for (int i = 0; i < bucket.size(); i++) {
+                    int position = bucket.get(i);
+                    if (values[position] == 0 && (pending[position] & 0xFF) == plies + 1) {
+                        values[position] = (byte) (plies + 1);
+                        settled.add(position);
+                    }
+                }
+                runParallel(settled.size(), (worker, start, end) -> {
+                    for (int i = start; i < end; i++) {
+                        worker.addPredecessors(settled.get(i));
+                    }
+                });
+                boolean win = (plies & 1) == 1;
+                for (Worker worker : workers) {
+                    IntList predecessors = worker.output;
+                    for (int i = 0; i < predecessors.size(); i++) {
+                        int position = predecessors.get(i);
+                        if (!win) {
+                            // Moving into a loss for the opponent wins
+                            addCandidate(position, plies + 1);
+                        } else if (values[position] == 0 && --counters[position] == 0) {
+                            // Every move goes into a win for the opponent
+                            addCandidate(position, Math.max(plies + 1, floors[position] & 0xFF));
+                        }
+                    }
+                }
+            }
+            return values;
+        }
+
+        private void addCandidate(int position, int plies) {
+            if (values[position] != 0) {
+                return;
+            }
+            if (plies > MAX_PLIES) {
+                throw new IllegalStateException("Checkmate too far in " + Tablebase.name(key));
+            }
+            int current = pending[position] & 0xFF;
+            if (current == 0 || plies + 1 < current) {
+                pending[position] = (byte) (plies + 1);
+                if (buckets[plies] == null) {
+                    buckets[plies] = new IntList();
+                }
+                buckets[plies].add(position);
+            }
+        }
+
+        /**
+         * Runs a task over the numbers from 0 to the total, split into chunks shared out to the workers.
+         */
+        private void runParallel(int total, ChunkTask task) {
+            for (Worker worker : workers) {
+                worker.output.clear();
+            }
+            if (executor == null || total < threadCount * CHUNKS_PER_THREAD) {
+                task.run(workers[0], 0, total);
+                return;
+            }
+            int chunkCount = threadCount * CHUNKS_PER_THREAD;
+            List<Future<?>> futures = new ArrayList<Future<?>>();
+            for (int w = 0; w < threadCount; w++) {
+                Worker worker = workers[w];
+                int first = w;
+                futures.add(executor.submit(() -> {
+                    for (int chunk = first; chunk < chunkCount; chunk += threadCount) {
+                        task.run(worker, (int) ((long) total * chunk / chunkCount)
+                                , (int) ((long) total * (chunk + 1) / chunkCount));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Generation interrupted", e);
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException("Generation failed", e.getCause());
+                }
+            }
+        }
+
+        /**
+         * The scratch state of one thread.
+         */
+        private final class Worker {
+
+            private final int[] squares = new int[pieceCount];
+            private final int[] codes = new int[Tablebase.MAX_PIECES];
+
+            /**
+             * The positions found by the current pass.
+             */
+            private final IntList output = new IntList();
+
+            /**
+             * Places the pieces of a position, and returns their squares as a bitboard, or 0 if two pieces share a
+             * square.
+             */
+            private long decode(int position) {
+                int index = position < size ? position : position - size;
+                long occupancy = 0;
+                for (int i = pieceCount - 1; i >= 0; i--) {
+                    int square = i > 0 ? index & 63 : (index >>> 2) * 8 + (index & 3);
+                    index >>>= 6;
+                    squares[i] = square;
+                    if ((occupancy & 1L << square) != 0) {
+                        return 0;
+                    }
+                    occupancy |= 1L << square;
+                }
+                return occupancy;
+            }
+
+            /**
+             * Returns whether a king is attacked by the opponent pieces other than the excluded one.
+             */
+            private boolean isKingAttacked(boolean white, long occupancy, int excluded) {
+                int king = squares[white ? 0 : 1];
+                for (int i = 0; i < pieceCount; i++) {
+                    if (whites[i] != white && i != excluded
+                            && TablebaseMoves.attacks(kinds[i], squares[i], king, occupancy)) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+
+            /**
+             * Returns the offset of current position in the table with the given player to move.
+             */
+            private int locate(boolean whiteToMove, int excluded) {
+                int count = 0;
+                for (int i = 0; i < pieceCount; i++) {
+                    if (i != excluded) {
+                        codes[count++] = Tablebase.pieceCode(types[i], whites[i], squares[i]);
+                    }
+                }
+                return (int) Tablebase.locate(codes, count, whiteToMove);
+            }
+
+            /**
+             * Finds the checkmates, counts the moves and looks up the captures of a position. Candidate results are
+             * added to the output as pairs of position and plies.
+             */
+            private void initialize(int position) {
+                long occupancy = decode(position);
+                boolean white = position < size;
+                if (occupancy == 0 || isKingAttacked(!white, occupancy, -1)) {
+                    // Impossible position
+                    return;
+                }
+                int legal = 0;
+                int count = 0;
+                int floor = 0;
+                int win = Integer.MAX_VALUE;
+                for (int i = 0; i < pieceCount; i++) {
+                    if (whites[i] != white) {
+                        continue;
+                    }
+                    int kind = kinds[i];
+                    int from = squares[i];
+                    for (long bits = TablebaseMoves.quietTargets(kind, from) & ~occupancy; bits != 0
+                            ; bits &= bits - 1) {
+                        int to = Long.numberOfTrailingZeros(bits);
+                        if ((TablebaseMoves.quietMask(kind, from, to) & occupancy) == 0) {
+                            squares[i] = to;
+                            if (!isKingAttacked(white, occupancy ^ 1L << from ^ 1L << to, -1)) {
+                                legal++;
+                                count++;
+                            }
+                            squares[i] = from;
+                        }
+                    }
+                    for (int j = 2; j < pieceCount; j++) {
+                        int to = squares[j];
+                        if (whites[j] == white || (TablebaseMoves.captureTargets(kind, from) & 1L << to) == 0
+                                || (TablebaseMoves.captureMask(kind, from, to) & occupancy) != 0) {
+                            continue;
+                        }
+                        squares[i] = to;
+                        if (!isKingAttacked(white, occupancy ^ 1L << from, j)) {
+                            legal++;
+                            int value = captureTables[j] == null ? 0 : captureTables[j][locate(!white, j)] & 0xFF;
+                            if (Tablebase.isWin(value)) {
+                                floor = Math.max(floor, value);
+                            } else {
+                                count++;
+                                if (Tablebase.isLoss(value)) {
+                                    win = Math.min(win, value);
+                                }
+                            }
+                        }
+                        squares[i] = from;
+                    }
+                }
+                if (legal == 0) {
+                    if (isKingAttacked(white, occupancy, -1)) {
+                        output.add(position);
+                        output.add(0);
+                    }
+                    return;
+                }
+                counters[position] = (byte) count;
+                floors[position] = (byte) floor;
+                if (win != Integer.MAX_VALUE) {
+                    output.add(position);
+                    output.add(win);
+                } else if (count == 0) {
+                    output.add(position);
+                    output.add(floor);
+                }
+            }
+
+            /**
+             * Adds the positions that move into the given position without a capture to the output.
+             */
+            private void addPredecessors(int position) {
+                long occupancy = decode(position);
+                boolean white = position < size;
+                for (int i = 0; i < pieceCount; i++) {
+                    if (whites[i] == white) {
+                        continue;
+                    }
+                    int kind = kinds[i];
+                    int to = squares[i];
+                    for (long bits = TablebaseMoves.quietSources(kind, to) & ~occupancy; bits != 0
+                            ; bits &= bits - 1) {
+                        int from = Long.numberOfTrailingZeros(bits);
+                        if ((TablebaseMoves.quietMask(kind, from, to) & occupancy) == 0) {
+                            squares[i] = from;
+                            if (!isKingAttacked(white, occupancy ^ 1L << from ^ 1L << to, -1)) {
+                                output.add(locate(!white, -1));
+                            }
+                            squares[i] = to;
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private interface ChunkTask {
+        void run(Generation.Worker worker, int start, int end);
+    }
+
+    /**
+     * A growable list of ints.
+     */
+    private static final class IntList {
+        private int[] values = new int[64];
+        private int size;
+
+        private void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        private int get(int index) {
+            return values[index];
+        }
+
+        private int size() {
+            return size;
+        }
+
+        private void clear() {
+            size = 0;
+        }
+    }
+
+    /**
+     * Returns the names of all endings of up to {@value Tablebase#MAX_PIECES} pieces.
+     */
+    static List<String> allEndings() {
+        List<String> names = new ArrayList<String>();
+        String letters = "PNBRQSE";
+        for (int first = 0; first < letters.length(); first++) {
+            names.add("K" + letters.charAt(first) + "vK");
+        }
+        for (int first = 0; first < letters.length(); first++) {
+            for (int second = 0; second <= first; second++) {
+                names.add("K" + letters.charAt(first) + letters.charAt(second) + "vK");
+                names.add("K" + letters.charAt(first) + "vK" + letters.charAt(second));
+            }
+        }
+        return names;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 3) {
+            System.err.println("Usage: TablebaseGenerator <directory> <threads> <ending|all>...");
+            System.exit(2);
+        }
+        TablebaseGenerator generator = new TablebaseGenerator(Integer.parseInt(args[1]));
+        List<String> names = new ArrayList<String>();
+        for (int i = 2; i < args.length; i++) {
+            if (args[i].equals("all")) {
+                names.addAll(allEndings());
+            } else {
+                names.add(args[i]);
+            }
+        }
+        long start = System.nanoTime();
+        for (String name : names) {
+            generator.generate(name);
+        }
+        System.out.println("Endings " + generator.write(Paths.get(args[0])));
+        System.out.println("Time " + (System.nanoTime() - start) / 1000000 + " ms");
+    }
+}
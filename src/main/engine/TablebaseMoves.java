@@ -0,0 +1,154 @@
+package engine;
+
+import model.BasePiece;
+import model.BasePiece.Position;
+import model.Move;
+import model.MoveList;
+import model.PositionCodec;
+
+/**
+ * TablebaseMoves holds the moves of every piece from every square of an 8*8 board, as bitboards over squares
+ * {@code rank * 8 + file}. The moves are taken once from the rules of the pieces themselves (see
+ * {@link BasePiece#generateMoves(BasePiece[][], MoveList)}) by trying them on a board with one or two other pieces, so
+ * that {@link TablebaseGenerator} plays by exactly the same rules as {@link model.Board} without making boards. A pawn
+ * is taken to be on its first move if it is on its starting rank.
+ * <p>
+ * Each move has a mask of the squares that must be empty for it, e.g. the squares between a rook and its target.
+ */
+final class TablebaseMoves {
+
+    static final int SQUARES = 64;
+
+    /**
+     * The number of piece kinds, see {@link #kind(int, boolean)}.
+     */
+    static final int KINDS = BasePiece.PIECE_TYPES * 2;
+
+    private static final long[][] QUIET_TARGETS = new long[KINDS][SQUARES];
+    private static final long[][] QUIET_SOURCES = new long[KINDS][SQUARES];
+    private static final long[][][] QUIET_MASKS = new long[KINDS][SQUARES][SQUARES];
+    private static final long[][] CAPTURE_TARGETS = new long[KINDS][SQUARES];
+    private static final long[][][] CAPTURE_MASKS = new long[KINDS][SQUARES][SQUARES];
+
+    static {
+        BasePiece[][] chessboard = new BasePiece[8][8];
+        MoveList moves = new MoveList();
+        for (int type = 0; type < BasePiece.PIECE_TYPES; type++) {
+            for (int color = 0; color < 2; color++) {
+                boolean white = color == 0;
+                int kind = kind(type, white);
+                for (int from = 0; from < SQUARES; from++) {
+                    BasePiece piece = PositionCodec.newPiece(type, Position.of(from >>> 3, from & 7), white
+                            , type == BasePiece.PAWN && from >>> 3 == (white ? 1 : 6));
+                    put(chessboard, from, piece);
+                    long quiet = targets(chessboard, piece, moves, false);
+                    QUIET_TARGETS[kind][from] = quiet;
+                    for (long bits = quiet; bits != 0; bits &= bits - 1) {
+                        int to = Long.numberOfTrailingZeros(bits);
+                        QUIET_SOURCES[kind][to] |= 1L << from;
+                        QUIET_MASKS[kind][from][to] = mask(chessboard, piece, moves, from, to, false);
+                    }
+                    for (int to = 0; to < SQUARES; to++) {
+                        if (to == from) {
+                            continue;
+                        }
+                        put(chessboard, to, blocker(to, !white));
+                        if ((targets(chessboard, piece, moves, true) & 1L << to) != 0) {
+                            CAPTURE_TARGETS[kind][from] |= 1L << to;
+                            CAPTURE_MASKS[kind][from][to] = mask(chessboard, piece, moves, from, to, true);
+                        }
+                        put(chessboard, to, null);
+                    }
+                    put(chessboard, from, null);
+                }
+            }
+        }
+    }
+
+    private TablebaseMoves() {
+    }
+
+    /**
+     * Returns the kind of a piece, which indexes the tables.
+     */
+    static int kind(int type, boolean white) {
+        return type * 2 + (white ? 0 : 1);
+    }
+
+    static long quietTargets(int kind, int from) {
+        return QUIET_TARGETS[kind][from];
+    }
+
+    /**
+     * Returns the squares a piece can move from to reach the given square without capturing.
+     */
+    static long quietSources(int kind, int to) {
+        return QUIET_SOURCES[kind][to];
+    }
+
+    static long quietMask(int kind, int from, int to) {
+        return QUIET_MASKS[kind][from][to];
+    }
+
+    static long captureTargets(int kind, int from) {
+        return CAPTURE_TARGETS[kind][from];
+    }
+
+    static long captureMask(int kind, int from, int to) {
+        return CAPTURE_MASKS[kind][from][to];
+    }
+
+    /**
+     * Returns whether a piece attacks the given square, which holds an opponent piece.
+     *
+     * @param occupancy the occupied squares
+     */
+    static boolean attacks(int kind, int from, int target, long occupancy) {
+        return (CAPTURE_TARGETS[kind][from] & 1L << target) != 0
+                && (CAPTURE_MASKS[kind][from][target] & occupancy) == 0;
+    }
+
+    private static void put(BasePiece[][] chessboard, int square, BasePiece piece) {
+        chessboard[square >>> 3][square & 7] = piece;
+    }
+
+    private static BasePiece blocker(int square, boolean white) {
+        return PositionCodec.newPiece(BasePiece.KNIGHT, Position.of(square >>> 3, square & 7), white, false);
+    }
+
+    /**
+     * Returns the targets of the piece's quiet moves or captures on the board.
+     */
+    private static long targets(BasePiece[][] chessboard, BasePiece piece, MoveList moves, boolean captures) {
+        moves.clear();
+        piece.generateMoves(chessboard, moves);
+        long targets = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            if (((move & Move.CAPTURE) != 0) == captures) {
+                Position to = Move.getTo(move);
+                targets |= 1L << (to.getRank() * 8 + to.getFile());
+            }
+        }
+        return targets;
+    }
+
+    /**
+     * Returns the squares where another piece would stop the move.
+     */
+    private static long mask(BasePiece[][] chessboard, BasePiece piece, MoveList moves, int from, int to
+            , boolean capture) {
+        long mask = 0;
+        for (int square = 0; square < SQUARES; square++) {
+            if (square == from || square == to) {
+                continue;
+            }
+            put(chessboard, square, blocker(square, true));
+            if ((targets(chessboard, piece, moves, capture) & 1L << to) == 0) {
+                mask |= 1L << square;
+            }
+            put(chessboard, square, null);
+        }
+        return mask;
+    }
+}
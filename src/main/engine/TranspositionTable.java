@@ -0,0 +1,158 @@
+package engine;
+
+import model.Move;
+
+import java.util.Arrays;
+
+/**
+ * TranspositionTable is a fixed-size hash table of search results keyed by the Zobrist key of a position (see
+ * {@link model.Board#getHashKey()}). The number of entries is a power of two, and each entry is two slots of a
+ * primitive long array: the key XOR the data, and the data. The data packs the best move, score, depth, bound type and
+ * search generation into one long.
+ * <p>
+ * The table is shared by search threads without locks. Two threads writing the same entry at once can leave the key
+ * slot of one write with the data slot of the other, but then the key no longer matches after XOR, so a torn entry is
+ * read as a miss instead of a wrong result.
+ */
+public class TranspositionTable {
+
+    /**
+     * The bound types of a stored score.
+     */
+    public static final int EXACT = 1;
+    public static final int LOWER_BOUND = 2;
+    public static final int UPPER_BOUND = 3;
+
+    /**
+     * The default size of table in megabytes.
+     */
+    public static final int DEFAULT_SIZE_MB = 16;
+
+    private static final int MOVE_BITS = 24;
+    private static final int SCORE_SHIFT = 24;
+    private static final int DEPTH_SHIFT = 40;
+    private static final int BOUND_SHIFT = 48;
+    private static final int GENERATION_SHIFT = 50;
+    private static final long MOVE_MASK = (1L << MOVE_BITS) - 1;
+
+    /**
+     * Two slots per entry: key XOR data, then data.
+     */
+    private final long[] table;
+    private final int indexMask;
+
+    /**
+     * The generation of current search, so that entries of older searches are replaced first.
+     */
+    private volatile int generation;
+
+    /**
+     * Creates a table that uses at most the given memory.
+     *
+     * @param sizeMb the size of table in megabytes
+     */
+    public TranspositionTable(int sizeMb) {
+        long entries = Long.highestOneBit(Math.max(1L, (long) sizeMb * 1024 * 1024 / 16));
+        entries = Math.min(entries, 1L << 29);
+        table = new long[(int) entries * 2];
+        indexMask = (int) entries - 1;
+    }
+
+    public int getEntryCount() {
+        return indexMask + 1;
+    }
+
+    /**
+     * Returns the packed data stored for the key, or 0 if there is none.
+     *
+     * @param key the Zobrist key of position
+     * @return the packed data, see {@link #getMove(long)} and other getters
+     */
+    public long probe(long key) {
+        int index = ((int) key & indexMask) << 1;
+        long data = table[index + 1];
+        if ((table[index] ^ data) == key && data != 0) {
+            return data;
+        }
+        return 0;
+    }
+
+    /**
+     * Stores a search result. An existing entry for another position is only replaced if it is from an older search
+     * or not deeper than the new one.
+     *
+     * @param key   the Zobrist key of position
+     * @param move  the best move packed by {@link Move}, or {@link Move#NONE}
+     * @param score the score, between {@link Short#MIN_VALUE} and {@link Short#MAX_VALUE}
+     * @param depth the searched depth
+     * @param bound the bound type of score
+     */
+    public void store(long key, int move, int score, int depth, int bound) {
+        int index = ((int) key & indexMask) << 1;
+        long oldData = table[index + 1];
+        long oldKey = table[index] ^ oldData;
+        if (oldData != 0 && oldKey != key && getGeneration(oldData) == (generation & 0xFF)
+                && getDepth(oldData) > depth) {
+            return;
+        }
+        if (oldData != 0 && oldKey == key && move == Move.NONE) {
+            // Keeps the known best move of this position
+            move = getMove(oldData);
+        }
+        long data = (move & MOVE_MASK)
+                | ((long) (score & 0xFFFF) << SCORE_SHIFT)
+                | ((long) (depth & 0xFF) << DEPTH_SHIFT)
+                | ((long) bound << BOUND_SHIFT)
+                | ((long) (generation & 0xFF) << GENERATION_SHIFT);
+        table[index] = key ^ data;
+        table[index + 1] = data;
+    }
+
+    /**
+     * Starts a new search, so that entries of previous searches can be replaced.
+     */
+    public void newSearch() {
+        generation++;
+    }
+
+    public void clear() {
+        Arrays.fill(table, 0L);
+    }
+
+    /**
+     * Returns how full the table is in permille, sampled from the first entries.
+     *
+     * @return the used entries per thousand
+     */
+    public int getHashFull() {
+        int samples = Math.min(1000, getEntryCount());
+        int used = 0;
+        for (int i = 0; i < samples; i++) {
+            long data = table[i * 2 + 1];
+            if (data != 0 && getGeneration(data) == (generation & 0xFF)) {
+                used++;
+            }
+        }
+        return used * 1000 / samples;
+    }
+
+    public static int getMove(long data) {
+        return (int) (data & MOVE_MASK);
+    }
+
+    public static int getScore(long data) {
+        return (short) (data >>> SCORE_SHIFT);
+    }
+
+    public static int getDepth(long data) {
+        return (int) (data >>> DEPTH_SHIFT) & 0xFF;
+    }
+
+    public static int getBound(long data) {
+        return (int) (data >>> BOUND_SHIFT) & 0x3;
+    }
+
+    private static int getGeneration(long data) {
+        return (int) (data >>> GENERATION_SHIFT) & 0xFF;
+    }
+}
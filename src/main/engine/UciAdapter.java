@@ -0,0 +1,400 @@
+package engine;
+
+import model.Board;
+import model.Move;
+import model.MoveList;
+import model.PositionCodec;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * UciAdapter lets tools that speak the UCI protocol drive the {@link Board} rules and the {@link ParallelSearcher}
+ * through text commands. Commands are read on the calling thread, while a search runs on its own thread, so that
+ * {@code stop} and {@code isready} are answered during a search. Every completed iteration is reported by an
+ * {@code info} line with the nodes per second.
+ * <p>
+ * Supported commands: {@code uci}, {@code isready}, {@code ucinewgame}, {@code setoption name Threads|Hash value n},
+ * {@code position startpos|fen <position> [moves ...]}, {@code go [depth n] [movetime ms] [nodes n] [infinite]}, {@code stop} and
+ * {@code quit}. Positions are written in the text form of {@link PositionCodec}, and moves in coordinate notation,
+ * see {@link Move#toNotation(int)}.
+ * <p>
+ * With {@code setoption name BookFile value <file>}, positions found in the {@link OpeningBook} are answered with a
+ * book move at once instead of a search, unless the search is {@code infinite}. With
+ * {@code setoption name TablebasePath value <directory>}, the search scores the endings of the {@link Tablebase}
+ * exactly.
+ * <p>
+ * This class only depends on the model and engine packages, so starting it never loads AWT or Swing.
+ */
+public class UciAdapter {
+
+    private static final String NAME = "Chess";
+
+    private final BufferedReader input;
+    private final PrintStream output;
+
+    private Board board = Board.createStartingBoard();
+    private int threadCount = 1;
+    private TranspositionTable transpositionTable = new TranspositionTable(TranspositionTable.DEFAULT_SIZE_MB);
+
+    /**
+     * The opening book, or null if there is none.
+     */
+    private OpeningBook book;
+    private final MoveList bookMoves = new MoveList();
+
+    /**
+     * The endgame tablebase, or null if there is none.
+     */
+    private Tablebase tablebase;
+
+    /**
+     * The running search and its thread, or null if there is no search.
+     */
+    private ParallelSearcher searcher;
+    private Thread searchThread;
+
+    /**
+     * Counted down by {@code stop} for an infinite search, which must not send its best move before then even if it
+     * has finished, or null.
+     */
+    private CountDownLatch stopSignal;
+
+    public UciAdapter(BufferedReader input, PrintStream output) {
+        this.input = input;
+        this.output = output;
+    }
+
+    /**
+     * Reads and executes commands until {@code quit} or the end of input.
+     *
+     * @throws IOException if the input cannot be read
+     */
+    public void run() throws IOException {
+        String line;
+        while ((line = input.readLine()) != null) {
+            if (!execute(line.trim())) {
+                break;
+            }
+        }
+        stopSearch();
+        closeBook();
+    }
+
+    /**
+     * Executes one command.
+     *
+     * @param command the command line
+     * @return false if the adapter should quit
+     */
+    boolean execute(String command) {
+        String[] words = command.split("\\s+");
+        switch (words[0]) {
+            case "uci":
+                send("id name " + NAME);
+                send("id author Chess contributors");
+                send("option name Threads type spin default 1 min 1 max 256");
+                send("option name Hash type spin default " + TranspositionTable.DEFAULT_SIZE_MB + " min 1 max 4096");
+                send("option name BookFile type string default <empty>");
+                send("option name TablebasePath type string default <empty>");
+                send("uciok");
+                break;
+            case "isready":
+                send("readyok");
+                break;
+            case "ucinewgame":
+                waitForSearch();
+                transpositionTable.clear();
+                board = Board.createStartingBoard();
+                break;
+            case "setoption":
+                waitForSearch();
+                setOption(words);
+                break;
+            case "position":
+                waitForSearch();
+                setPosition(words);
+                break;
+            case "go":
+                go(words);
+                break;
+            case "stop":
+                stopSearch();
+                break;
+            case "quit":
+                return false;
+            default:
+                if (!words[0].isEmpty()) {
+                    send("info string unknown command " + words[0]);
+                }
+        }
+        return true;
+    }
+
+    private void setOption(String[] words) {
+        // setoption name <name> value <value>, where a string value may have spaces
+        if (words.length < 5 || !words[1].equals("name") || !words[3].equals("value")) {
+            send("info string bad option");
+            return;
+        }
+        if (words[2].equalsIgnoreCase("BookFile") || words[2].equalsIgnoreCase("TablebasePath")) {
+            StringBuilder file = new StringBuilder(words[4]);
+            for (int i = 5; i < words.length; i++) {
+                file.append(' ').append(words[i]);
+            }
+            if (words[2].equalsIgnoreCase("BookFile")) {
+                setBook(file.toString());
+            } else {
+                setTablebase(file.toString());
+            }
+            return;
+        }
+        try {
+            int value = Integer.parseInt(words[4]);
+            if (words[2].equalsIgnoreCase("Threads")) {
+                threadCount = Math.max(1, value);
+            } else if (words[2].equalsIgnoreCase("Hash")) {
+                transpositionTable = new TranspositionTable(Math.max(1, value));
+            } else {
+                send("info string unknown option " + words[2]);
+            }
+        } catch (NumberFormatException e) {
+            send("info string bad option value " + words[4]);
+        }
+    }
+
+    private void setBook(String file) {
+        closeBook();
+        if (file.isEmpty() || file.equals("<empty>")) {
+            return;
+        }
+        try {
+            book = OpeningBook.open(Paths.get(file));
+        } catch (IOException e) {
+            send("info string cannot open book " + file);
+        }
+    }
+
+    private void setTablebase(String directory) {
+        tablebase = null;
+        if (directory.isEmpty() || directory.equals("<empty>")) {
+            return;
+        }
+        try {
+            tablebase = Tablebase.open(Paths.get(directory));
+        } catch (IOException e) {
+            send("info string cannot open tablebase " + directory);
+        }
+    }
+
+    private void closeBook() {
+        if (book != null) {
+            try {
+                book.close();
+            } catch (IOException e) {
+                // The book is only read, so nothing is lost
+            }
+            book = null;
+        }
+    }
+
+    private void setPosition(String[] words) {
+        int index = 1;
+        if (index < words.length && words[index].equals("startpos")) {
+            board = Board.createStartingBoard();
+            index++;
+        } else if (index + 3 < words.length && words[index].equals("fen")) {
+            // The text form of PositionCodec has three fields
+            try {
+                board = PositionCodec.fromText(words[index + 1] + " " + words[index + 2] + " " + words[index + 3]);
+            } catch (IllegalArgumentException e) {
+                send("info string bad fen");
+                return;
+            }
+            index += 4;
+        } else {
+            send("info string unsupported position");
+            return;
+        }
+        if (index < words.length && words[index].equals("moves")) {
+            MoveList moves = new MoveList();
+            for (index++; index < words.length; index++) {
+                int move = findLegalMove(moves, words[index]);
+                if (move == Move.NONE) {
+                    send("info string illegal move " + words[index]);
+                    return;
+                }
+                board.makeMove(move);
+            }
+        }
+    }
+
+    /**
+     * Returns the legal move with the given notation in current position, or {@link Move#NONE}.
+     */
+    private int findLegalMove(MoveList moves, String notation) {
+        int parsed = Move.fromNotation(notation);
+        if (parsed == Move.NONE) {
+            return Move.NONE;
+        }
+        moves.clear();
+        board.generateLegalMoves(board.isWhiteToMove(), moves);
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            if (Move.getFromIndex(move) == Move.getFromIndex(parsed) && Move.getToIndex(move) == Move.getToIndex(parsed)) {
+                return move;
+            }
+        }
+        return Move.NONE;
+    }
+
+    private void go(String[] words) {
+        waitForSearch();
+        int depth = 0;
+        long moveTime = 0;
+        long nodes = 0;
+        boolean infinite = false;
+        for (String word : words) {
+            infinite |= word.equals("infinite");
+        }
+        if (book != null && !infinite) {
+            int bookMove = book.findLegalMove(board, ThreadLocalRandom.current().nextInt(Integer.MAX_VALUE), bookMoves);
+            if (bookMove != Move.NONE) {
+                send("info string book move");
+                send("bestmove " + Move.toNotation(bookMove));
+                return;
+            }
+        }
+        try {
+            for (int i = 1; i + 1 < words.length; i++) {
+                switch (words[i]) {
+                    case "depth":
+                        depth = Integer.parseInt(words[++i]);
+                        break;
+                    case "movetime":
+                        moveTime = Long.parseLong(words[++i]);
+                        break;
+                    case "nodes":
+                        nodes = Long.parseLong(words[++i]);
+                        break;
+                    default:
+                        break;
+                }
+            }
+        } catch (NumberFormatException e) {
+            send("info string bad go parameter");
+            return;
+        }
+        SearchLimits limits = new SearchLimits(depth, moveTime, nodes);
+        CountDownLatch infiniteStop = infinite ? new CountDownLatch(1) : null;
+        stopSignal = infiniteStop;
+
+        ParallelSearcher parallelSearcher = new ParallelSearcher(board, threadCount, transpositionTable);
+        parallelSearcher.setListener(result -> send("info " + formatInfo(result)));
+        parallelSearcher.setTablebase(tablebase);
+        searcher = parallelSearcher;
+        searchThread = new Thread(() -> {
+            try {
+                SearchResult result = parallelSearcher.search(limits);
+                if (infiniteStop != null) {
+                    // The search ends by itself on a mate or at the maximum depth
+                    awaitStop(infiniteStop);
+                }
+                int bestMove = result.getBestMove();
+                send("bestmove " + (bestMove == Move.NONE ? "0000" : Move.toNotation(bestMove)));
+            } finally {
+                parallelSearcher.shutdown();
+            }
+        }, "uci-search");
+        searchThread.start();
+    }
+
+    /**
+     * Returns the UCI form of an iteration result, e.g. "depth 5 score cp 30 nodes 12000 nps 400000 time 30 pv e2e4".
+     */
+    static String formatInfo(SearchResult result) {
+        StringBuilder builder = new StringBuilder();
+        builder.append("depth ").append(result.getDepth()).append(" score ");
+        int score = result.getScore();
+        if (Searcher.isMateScore(score)) {
+            // Mate in moves of the player to move, negative if the player is mated
+            int plies = Searcher.MATE_SCORE - Math.abs(score);
+            builder.append("mate ").append(score > 0 ? (plies + 1) / 2 : -(plies / 2));
+        } else {
+            builder.append("cp ").append(score);
+        }
+        builder.append(" nodes ").append(result.getNodes())
+                .append(" nps ").append(result.getNodesPerSecond())
+                .append(" time ").append(result.getElapsedMillis())
+                .append(" pv");
+        for (int move : result.getPrincipalVariation()) {
+            builder.append(' ').append(Move.toNotation(move));
+        }
+        return builder.toString();
+    }
+
+    private void stopSearch() {
+        if (stopSignal != null) {
+            stopSignal.countDown();
+        }
+        if (searcher != null) {
+            searcher.stop();
+        }
+        waitForSearch();
+    }
+
+    private static void awaitStop(CountDownLatch stop) {
+        boolean interrupted = false;
+        while (stop.getCount() > 0) {
+            try {
+                stop.await();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Waits until the running search, if any, has sent its best move.
+     */
+    void waitForSearch() {
+        if (searchThread == null) {
+            return;
+        }
+        boolean interrupted = false;
+        while (searchThread.isAlive()) {
+            try {
+                searchThread.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        searchThread = null;
+        searcher = null;
+        stopSignal = null;
+    }
+
+    private void send(String line) {
+        synchronized (output) {
+            output.println(line);
+            output.flush();
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        BufferedReader input = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+        new UciAdapter(input, System.out).run();
+    }
+}
@@ -0,0 +1,327 @@
+package model;
+
+import model.BasePiece.Position;
+
+import java.util.Arrays;
+
+import static model.BasePiece.insideBoundary;
+
+/**
+ * AttackMap answers check queries by looking outwards from the king square ("super-piece" lookup) instead of
+ * asking every opponent piece whether it can reach the king. Only the first piece on each of the eight lines from the
+ * target and the pieces a knight's jump away can attack it, because every other piece class (including the
+ * {@link Elephant}, whose middle square lies on a diagonal) is blocked by the first piece in its way. Each candidate is
+ * confirmed with {@link BasePiece#isValidMove(BasePiece[][], Position)}, so the custom piece rules are followed exactly.
+ * <p>
+ * {@link #compute(BasePiece[][], BasePiece)} also finds the checkers and the pinned pieces of one player once per
+ * position. A move of a piece that is neither the king nor pinned, while the king is not in check, can never leave the
+ * king in check, so it needs no trial move.
+ * <p>
+ * {@link #staticExchange(BasePiece[][], int)} resolves the whole sequence of captures on one position from the same
+ * attack sets, without making any move.
+ */
+public class AttackMap {
+
+    /**
+     * The eight line directions as (rank, file) steps.
+     */
+    private static final int[][] LINES = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}, {1, 1}, {1, -1}, {-1, 1}, {-1, -1}};
+
+    /**
+     * The eight knight jumps as (rank, file) steps.
+     */
+    private static final int[][] JUMPS = {{1, 2}, {2, 1}, {-1, 2}, {-2, 1}, {1, -2}, {2, -1}, {-1, -2}, {-2, -1}};
+
+    /**
+     * The value of a king in an exchange, more than all other pieces together, so that a king never captures on a
+     * defended position.
+     */
+    private static final int KING_EXCHANGE_VALUE = 20000;
+
+    /**
+     * The most captures one exchange can have: every piece on the lines and jumps to the target.
+     */
+    private static final int MAX_EXCHANGE = LINES.length * Position.MAX_SIZE + JUMPS.length;
+
+    /**
+     * Whether the piece on each position index is pinned to its king.
+     */
+    private final boolean[] pinned = new boolean[Position.MAX_SIZE * Position.MAX_SIZE];
+
+    /**
+     * The attackers of an exchange target, one slot for each line and jump, or null.
+     */
+    private final BasePiece[] attackers = new BasePiece[LINES.length + JUMPS.length];
+
+    /**
+     * The pieces lifted off the chessboard during an exchange, to be put back afterwards.
+     */
+    private final BasePiece[] lifted = new BasePiece[MAX_EXCHANGE];
+
+    /**
+     * The material balance after each capture of an exchange, from the view of the player who made it.
+     */
+    private final int[] gains = new int[MAX_EXCHANGE + 1];
+
+    /**
+     * Pieces put on an exchange target while asking whether a piece of the other player can move there, since a piece
+     * cannot capture its own player's piece.
+     */
+    private final BasePiece whiteStandIn = new Pawn(Position.of(0, 0), true);
+    private final BasePiece blackStandIn = new Pawn(Position.of(0, 0), false);
+
+    private BasePiece king;
+    private int checkers;
+    private int liftedCount;
+
+    /**
+     * Computes the checkers and pinned pieces for the owner of the given king.
+     *
+     * @param chessboard the chessboard in use now
+     * @param king       the king of player, or null if the player has no king
+     */
+    public void compute(BasePiece[][] chessboard, BasePiece king) {
+        Arrays.fill(pinned, false);
+        this.king = king;
+        checkers = 0;
+        if (king == null) {
+            return;
+        }
+        Position kingPosition = king.getPosition();
+        checkers = countAttackers(chessboard, kingPosition, !king.getWhitePlayer(), false);
+
+        // A piece is pinned if it is the first piece on a line from the king and the next piece attacks the king
+        // once it is gone.
+        for (int[] line : LINES) {
+            int rank = kingPosition.getRank() + line[0];
+            int file = kingPosition.getFile() + line[1];
+            BasePiece shield = null;
+            for (; insideBoundary(chessboard, rank, file); rank += line[0], file += line[1]) {
+                BasePiece piece = chessboard[rank][file];
+                if (piece == null) {
+                    continue;
+                }
+                if (shield == null) {
+                    if (!king.isSamePlayer(piece)) {
+                        break;
+                    }
+                    shield = piece;
+                } else {
+                    if (!king.isSamePlayer(piece)) {
+                        Position shieldPosition = shield.getPosition();
+                        chessboard[shieldPosition.getRank()][shieldPosition.getFile()] = null;
+                        if (piece.isValidMove(chessboard, kingPosition)) {
+                            pinned[shieldPosition.getIndex()] = true;
+                        }
+                        chessboard[shieldPosition.getRank()][shieldPosition.getFile()] = shield;
+                    }
+                    break;
+                }
+            }
+        }
+    }
+
+    public boolean inCheck() {
+        return checkers > 0;
+    }
+
+    /**
+     * Returns the number of opponent pieces that attack the king.
+     *
+     * @return the number of checkers
+     */
+    public int getCheckers() {
+        return checkers;
+    }
+
+    /**
+     * Returns whether the piece on given position is pinned to its king.
+     *
+     * @param position the position of piece
+     * @return true if the piece is pinned
+     */
+    public boolean isPinned(Position position) {
+        return pinned[position.getIndex()];
+    }
+
+    /**
+     * Returns true if any move of the piece that obeys its piece rules is also legal, i.e. the king is not in check,
+     * and the piece is neither the king nor pinned. Also true if the player has no king.
+     *
+     * @param piece the piece of the player this map was computed for
+     * @return true if the moves of piece need no check test
+     */
+    public boolean isFreeToMove(BasePiece piece) {
+        return king == null || (checkers == 0 && piece != king && !pinned[piece.getPosition().getIndex()]);
+    }
+
+    /**
+     * Returns true if any piece of the given player can move to the target position.
+     *
+     * @param chessboard     the chessboard in use now
+     * @param targetPosition the target position
+     * @param byWhitePlayer  the player of attackers
+     * @return true if the target position is attacked
+     */
+    public static boolean isAttacked(BasePiece[][] chessboard, Position targetPosition, boolean byWhitePlayer) {
+        return countAttackers(chessboard, targetPosition, byWhitePlayer, true) > 0;
+    }
+
+    /**
+     * Returns the static exchange evaluation (SEE) of a move: the material the moving player wins if both players go
+     * on capturing on the target position, each with its least valuable attacker, and each may stop whenever going on
+     * would lose. Pieces behind a capturing piece on the same line join the exchange once it is gone (x-rays). Pins
+     * are ignored.
+     * <p>
+     * No move is made: the capturing pieces are only lifted off the chessboard array while the attack sets are
+     * updated, and put back before this returns, so the hash and scores of {@link Board} are never touched.
+     *
+     * @param chessboard the chessboard in use now
+     * @param move       the move, packed by {@link Move}
+     * @return the material gain in centipawns by {@link Evaluator#pieceValue(int)}, negative if the move loses material
+     */
+    public int staticExchange(BasePiece[][] chessboard, int move) {
+        Position target = Move.getTo(move);
+        Position from = Move.getFrom(move);
+        BasePiece victim = chessboard[target.getRank()][target.getFile()];
+        BasePiece mover = chessboard[from.getRank()][from.getFile()];
+        liftedCount = 0;
+        for (int slot = 0; slot < LINES.length; slot++) {
+            attackers[slot] = lineAttacker(chessboard, target, slot);
+        }
+        for (int slot = 0; slot < JUMPS.length; slot++) {
+            int rank = target.getRank() + JUMPS[slot][0];
+            int file = target.getFile() + JUMPS[slot][1];
+            BasePiece piece = insideBoundary(chessboard, rank, file) ? chessboard[rank][file] : null;
+            attackers[LINES.length + slot] = piece != null && attacks(chessboard, piece, target) ? piece : null;
+        }
+
+        gains[0] = victim == null ? 0 : exchangeValue(victim);
+        int onTarget = exchangeValue(mover);
+        lift(chessboard, mover, target);
+        boolean white = !mover.getWhitePlayer();
+        int depth = 0;
+        while (true) {
+            int slot = leastValuableAttacker(white);
+            if (slot < 0) {
+                break;
+            }
+            depth++;
+            gains[depth] = onTarget - gains[depth - 1];
+            onTarget = exchangeValue(attackers[slot]);
+            lift(chessboard, attackers[slot], target);
+            white = !white;
+        }
+        // Each player chooses between stopping and capturing, from the last capture back to the first
+        for (; depth > 0; depth--) {
+            gains[depth - 1] = -Math.max(-gains[depth - 1], gains[depth]);
+        }
+
+        for (int i = 0; i < liftedCount; i++) {
+            Position position = lifted[i].getPosition();
+            chessboard[position.getRank()][position.getFile()] = lifted[i];
+        }
+        chessboard[target.getRank()][target.getFile()] = victim;
+        return gains[0];
+    }
+
+    /**
+     * Returns the first piece on a line from the target if it can move to the target, or null.
+     */
+    private BasePiece lineAttacker(BasePiece[][] chessboard, Position target, int slot) {
+        int[] line = LINES[slot];
+        int rank = target.getRank() + line[0];
+        int file = target.getFile() + line[1];
+        for (; insideBoundary(chessboard, rank, file); rank += line[0], file += line[1]) {
+            BasePiece piece = chessboard[rank][file];
+            if (piece != null) {
+                return attacks(chessboard, piece, target) ? piece : null;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns whether the piece can move to the target, whichever piece stands there now.
+     */
+    private boolean attacks(BasePiece[][] chessboard, BasePiece piece, Position target) {
+        chessboard[target.getRank()][target.getFile()] = piece.getWhitePlayer() ? blackStandIn : whiteStandIn;
+        return piece.isValidMove(chessboard, target);
+    }
+
+    /**
+     * Lifts a capturing piece off the chessboard, and lets the piece behind it on the same line take its slot.
+     */
+    private void lift(BasePiece[][] chessboard, BasePiece piece, Position target) {
+        Position position = piece.getPosition();
+        chessboard[position.getRank()][position.getFile()] = null;
+        lifted[liftedCount++] = piece;
+        for (int slot = 0; slot < attackers.length; slot++) {
+            if (attackers[slot] == piece) {
+                attackers[slot] = slot < LINES.length ? lineAttacker(chessboard, target, slot) : null;
+                return;
+            }
+        }
+    }
+
+    private int leastValuableAttacker(boolean white) {
+        int best = -1;
+        for (int slot = 0; slot < attackers.length; slot++) {
+            BasePiece piece = attackers[slot];
+            if (piece != null && piece.getWhitePlayer() == white
+                    && (best < 0 || exchangeValue(piece) < exchangeValue(attackers[best]))) {
+                best = slot;
+            }
+        }
+        return best;
+    }
+
+    private static int exchangeValue(BasePiece piece) {
+        return piece.getType() == BasePiece.KING ? KING_EXCHANGE_VALUE : Evaluator.pieceValue(piece.getType());
+    }
+
+    /**
+     * Counts the pieces of given player that can move to the target position.
+     *
+     * @param chessboard     the chessboard in use now
+     * @param targetPosition the target position
+     * @param byWhitePlayer  the player of attackers
+     * @param stopAtFirst    whether to return as soon as one attacker is found
+     * @return the number of attackers
+     */
+    private static int countAttackers(BasePiece[][] chessboard, Position targetPosition, boolean byWhitePlayer
+            , boolean stopAtFirst) {
+        int count = 0;
+        for (int[] line : LINES) {
+            int rank = targetPosition.getRank() + line[0];
+            int file = targetPosition.getFile() + line[1];
+            for (; insideBoundary(chessboard, rank, file); rank += line[0], file += line[1]) {
+                BasePiece piece = chessboard[rank][file];
+                if (piece != null) {
+                    if (piece.getWhitePlayer() == byWhitePlayer && piece.isValidMove(chessboard, targetPosition)) {
+                        if (stopAtFirst) {
+                            return 1;
+                        }
+                        count++;
+                    }
+                    break;
+                }
+            }
+        }
+        for (int[] jump : JUMPS) {
+            int rank = targetPosition.getRank() + jump[0];
+            int file = targetPosition.getFile() + jump[1];
+            if (insideBoundary(chessboard, rank, file)) {
+                BasePiece piece = chessboard[rank][file];
+                if (piece != null && piece.getWhitePlayer() == byWhitePlayer
+                        && piece.isValidMove(chessboard, targetPosition)) {
+                    if (stopAtFirst) {
+                        return 1;
+                    }
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+}
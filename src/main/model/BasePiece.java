@@ -1,7 +1,5 @@
 package model;
 
-import com.sun.istack.internal.Nullable;
-
 import java.util.HashSet;
 
 /**
@@ -11,18 +9,61 @@ import java.util.HashSet;
 public abstract class BasePiece {
 
     /**
-     * Position is a data structure for a pair of rank and file on chess board (or called row and col).
+     * Position is an immutable pair of rank and file on chess board (or called row and col).
      * The left bottom corner on chessboard refers to rank = 0 and file = 0.
+     * Positions inside a {@link #MAX_SIZE} * {@link #MAX_SIZE} board are preallocated and shared, so
+     * {@link #of(int, int)} does not allocate. Two positions are equal if their rank and file are equal.
      */
 
-    public static class Position {
-        private int rank, file;
+    public static final class Position {
+        /**
+         * The maximum height and width of board whose positions are preallocated.
+         */
+        public static final int MAX_SIZE = 16;
+
+        /**
+         * The preallocated positions indexed by {@link #getIndex()}.
+         */
+        private static final Position[] POSITIONS = new Position[MAX_SIZE * MAX_SIZE];
+
+        static {
+            for (int index = 0; index < POSITIONS.length; index++) {
+                POSITIONS[index] = new Position(index / MAX_SIZE, index % MAX_SIZE);
+            }
+        }
+
+        private final int rank, file;
 
         public Position(int rank, int file) {
             this.rank = rank;
             this.file = file;
         }
 
+        /**
+         * Returns the shared position for a given rank and file. Only positions outside the preallocated table are
+         * newly created.
+         *
+         * @param rank the rank of position
+         * @param file the file of position
+         * @return the position
+         */
+        public static Position of(int rank, int file) {
+            if (rank >= 0 && rank < MAX_SIZE && file >= 0 && file < MAX_SIZE) {
+                return POSITIONS[rank * MAX_SIZE + file];
+            }
+            return new Position(rank, file);
+        }
+
+        /**
+         * Returns the shared position for a given index. See also {@link #getIndex()}.
+         *
+         * @param index the index of position
+         * @return the position
+         */
+        public static Position of(int index) {
+            return POSITIONS[index];
+        }
+
         public int getRank() {
             return rank;
         }
@@ -30,8 +71,57 @@ public abstract class BasePiece {
         public int getFile() {
             return file;
         }
+
+        /**
+         * Returns the index of this position in the preallocated table, which is rank * {@link #MAX_SIZE} + file.
+         * The index is only meaningful for positions inside a {@link #MAX_SIZE} * {@link #MAX_SIZE} board.
+         *
+         * @return the index of position
+         */
+        public int getIndex() {
+            return rank * MAX_SIZE + file;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof Position)) {
+                return false;
+            }
+            Position position = (Position) other;
+            return rank == position.rank && file == position.file;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * rank + file;
+        }
+
+        @Override
+        public String toString() {
+            return "(" + rank + ", " + file + ")";
+        }
     }
 
+    /**
+     * Type indices of the piece classes, used to index per-type tables. See {@link #getType()}.
+     */
+    public static final int PAWN = 0;
+    public static final int KNIGHT = 1;
+    public static final int BISHOP = 2;
+    public static final int ROOK = 3;
+    public static final int QUEEN = 4;
+    public static final int KING = 5;
+    public static final int SOLDIER = 6;
+    public static final int ELEPHANT = 7;
+
+    /**
+     * The number of piece types.
+     */
+    public static final int PIECE_TYPES = 8;
+
     /**
      * True if the owner of this piece is white; otherwise black.
      */
@@ -73,7 +163,25 @@ public abstract class BasePiece {
      * @param chessboard the chessboard in use now
      * @return the set of possible position for this piece
      */
-    abstract public HashSet<Position> getPossibleLegalMoves(BasePiece[][] chessboard);
+    public HashSet<Position> getPossibleLegalMoves(BasePiece[][] chessboard) {
+        MoveList moves = new MoveList();
+        generateMoves(chessboard, moves);
+        HashSet<Position> positions = new HashSet<Position>();
+        for (int i = 0; i < moves.size(); i++) {
+            positions.add(Move.getTo(moves.get(i)));
+        }
+        return positions;
+    }
+
+    /**
+     * Appends all possible moves only according to the rule of this piece and the piece is not blocked to the given
+     * list, packed by {@link Move}. Does not check if the move will cause the king in check. Unlike
+     * {@link #getPossibleLegalMoves(BasePiece[][])}, this does not allocate.
+     *
+     * @param chessboard the chessboard in use now
+     * @param moves      the list to append moves to
+     */
+    abstract public void generateMoves(BasePiece[][] chessboard, MoveList moves);
 
     /**
      * Returns whether the move is valid only according to the rule of this piece and the piece is not blocked.
@@ -92,6 +200,14 @@ public abstract class BasePiece {
      */
     abstract public String getNameString();
 
+    /**
+     * Returns the type index of this piece, one of {@link #PAWN}, {@link #KNIGHT}, {@link #BISHOP}, {@link #ROOK},
+     * {@link #QUEEN}, {@link #KING}, {@link #SOLDIER} or {@link #ELEPHANT}.
+     *
+     * @return the type index of the piece
+     */
+    abstract public int getType();
+
     /**
      * Returns whether the move is inside chessboard boundary, the target position is not the current
      * position and the target position is not occupied by a piece with same owner.
@@ -115,6 +231,49 @@ public abstract class BasePiece {
         return true;
     }
 
+    /**
+     * Appends the move to given rank and file if it is inside the chessboard and valid according to
+     * {@link #isValidMove(BasePiece[][], Position)}.
+     *
+     * @param chessboard the chessboard in use now
+     * @param rank       the target rank
+     * @param file       the target file
+     * @param moves      the list to append moves to
+     */
+    protected void addMoveIfValid(BasePiece[][] chessboard, int rank, int file, MoveList moves) {
+        if (insideBoundary(chessboard, rank, file)) {
+            Position targetPosition = Position.of(rank, file);
+            if (isValidMove(chessboard, targetPosition)) {
+                moves.add(Move.of(position, targetPosition, chessboard[rank][file] != null ? Move.CAPTURE : 0));
+            }
+        }
+    }
+
+    /**
+     * Appends the moves along one line from current position until the chessboard boundary or the first piece. The
+     * first piece can be captured if it is owned by opponent.
+     *
+     * @param chessboard the chessboard in use now
+     * @param rankStep   the rank direction (-1, 0 or 1) for each step
+     * @param fileStep   the file direction (-1, 0 or 1) for each step
+     * @param moves      the list to append moves to
+     */
+    protected void addSlidingMoves(BasePiece[][] chessboard, int rankStep, int fileStep, MoveList moves) {
+        int rank = position.getRank() + rankStep;
+        int file = position.getFile() + fileStep;
+        for (; insideBoundary(chessboard, rank, file); rank += rankStep, file += fileStep) {
+            BasePiece piece = chessboard[rank][file];
+            if (piece == null) {
+                moves.add(Move.of(position, Position.of(rank, file), 0));
+            } else {
+                if (!isSamePlayer(piece)) {
+                    moves.add(Move.of(position, Position.of(rank, file), Move.CAPTURE));
+                }
+                return;
+            }
+        }
+    }
+
     /**
      * Returns whether there exists piece on the line from current position towards target position.
      * The line direction can only be horizontal, vertical or diagonal.
@@ -175,7 +334,7 @@ public abstract class BasePiece {
      * @param piece the piece for checking
      * @return true if the given piece has the same author
      */
-    public boolean isSamePlayer(@Nullable BasePiece piece) {
+    public boolean isSamePlayer(BasePiece piece) {
         if (piece == null) {
             return false;
         }
@@ -190,13 +349,19 @@ public abstract class BasePiece {
      * @return true if position is inside the chessboard boundary
      */
     public static boolean insideBoundary(BasePiece[][] chessboard, Position position) {
-        int height = chessboard.length;
-        int width = chessboard[0].length;
-        if (position.getFile() >= height || position.getFile() < 0 ||
-                position.getRank() >= width || position.getRank() < 0) {
-            return false;
-        }
-        return true;
+        return insideBoundary(chessboard, position.getRank(), position.getFile());
+    }
+
+    /**
+     * Returns whether the given rank and file are inside chessboard boundary.
+     *
+     * @param chessboard the chessboard in use now
+     * @param rank       the target rank
+     * @param file       the target file
+     * @return true if rank and file are inside the chessboard boundary
+     */
+    public static boolean insideBoundary(BasePiece[][] chessboard, int rank, int file) {
+        return rank >= 0 && rank < chessboard.length && file >= 0 && file < chessboard[0].length;
     }
 
     public void setNoFirstTime() {
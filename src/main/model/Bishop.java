@@ -1,7 +1,5 @@
 package model;
 
-import java.util.HashSet;
-
 public class Bishop extends BasePiece {
 
     public Bishop(Position position, boolean whitePlayer) {
@@ -11,28 +9,15 @@ public class Bishop extends BasePiece {
         super(position, whitePlayer, firstTime);
     }
 
-    /** See also {@link BasePiece#getPossibleLegalMoves(BasePiece[][])}. */
+    /** See also {@link BasePiece#generateMoves(BasePiece[][], MoveList)}. */
     @Override
-    public HashSet<Position> getPossibleLegalMoves(BasePiece[][] chessboard) {
-        HashSet<Position> moves = new HashSet<Position>();
-        Position position = getPosition();
-
+    public void generateMoves(BasePiece[][] chessboard, MoveList moves) {
         // Add moves in four diagonal directions.
         for (int quadrant = 1; quadrant <= 4; quadrant ++) {
-            int rank = position.getRank();
-            int file = position.getFile();
             int rankGradient = quadrant <= 2 ? 1 : -1;
             int fileGradient = (quadrant == 1 || quadrant == 4) ? 1 : -1;
-            for (; rank < chessboard.length && file < chessboard[0].length && rank >=0 && file >=0 ;
-                    rank += rankGradient, file += fileGradient) {
-                Position newPosition = new Position(rank, file);
-                if (isValidMove(chessboard, newPosition)) {
-                    moves.add(newPosition);
-                }
-            }
+            addSlidingMoves(chessboard, rankGradient, fileGradient, moves);
         }
-
-        return moves;
     }
 
     /** See also {@link BasePiece#isValidMove(BasePiece[][], Position)}. */
@@ -58,12 +43,19 @@ public class Bishop extends BasePiece {
         return "B";
     }
 
+    /**
+     * See also {@link BasePiece#getType()}.
+     */
+    @Override
+    public int getType() {
+        return BISHOP;
+    }
+
     /**
      * See also {@link BasePiece#clonePiece()}.
      */
     @Override
     public Bishop clonePiece() {
-        Position pos = new Position(getPosition().getRank(), getPosition().getFile());
-        return new Bishop(pos, getWhitePlayer(), getFirstTime());
+        return new Bishop(getPosition(), getWhitePlayer(), getFirstTime());
     }
 }
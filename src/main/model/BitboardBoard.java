@@ -0,0 +1,424 @@
+package model;
+
+import model.BasePiece.Position;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Stack;
+
+import static model.BasePiece.*;
+import static model.Bitboards.*;
+
+/**
+ * BitboardBoard is an 8*8 alternative to {@link Board} with the same public API. Pieces are kept in one 64-bit
+ * bitboard per piece type and colour, and all rule queries are answered with the attack masks in {@link Bitboards}
+ * instead of walking the object grid. The piece objects are still kept on their squares so that callers get the same
+ * {@link BasePiece} instances back.
+ */
+public class BitboardBoard {
+
+    /**
+     * The information needed to revert one move.
+     */
+    private static class UndoRecord {
+        private final BasePiece piece;
+        private final BasePiece captured;
+        private final Position from;
+        private final boolean firstTime;
+
+        UndoRecord(BasePiece piece, BasePiece captured, Position from, boolean firstTime) {
+            this.piece = piece;
+            this.captured = captured;
+            this.from = from;
+            this.firstTime = firstTime;
+        }
+    }
+
+    /**
+     * Bitboards of pieces indexed by colour and piece type.
+     */
+    private final long[][] pieces = new long[2][PIECE_TYPES];
+
+    /**
+     * Bitboards of all pieces for each colour.
+     */
+    private final long[] occupancy = new long[2];
+
+    /**
+     * Bitboard of pieces that have not been moved before.
+     */
+    private long unmoved;
+
+    /**
+     * The piece objects on each square.
+     */
+    private final BasePiece[] squares = new BasePiece[SQUARES];
+
+    private final Stack<UndoRecord> moveHistory = new Stack<UndoRecord>();
+
+    /**
+     * Sets a piece on board. Returns true if set successfully. Otherwise, the position of piece
+     * may be out of board boundary, or the position is already occupied by another piece.
+     *
+     * @param piece the piece needs to settle on board
+     * @return true if set successfully.
+     */
+    public boolean setPiece(BasePiece piece) {
+        Position position = piece.getPosition();
+        if (!Bitboards.insideBoundary(position.getRank(), position.getFile())) {
+            return false;
+        }
+        int square = square(position.getRank(), position.getFile());
+        if (squares[square] != null) {
+            return false;
+        }
+        put(piece, square);
+        return true;
+    }
+
+    /**
+     * Gets the piece from board given a position. Returns null if position is out of boundary.
+     *
+     * @param position the given position
+     * @return the piece on position or null
+     */
+    public BasePiece getPiece(Position position) {
+        if (!Bitboards.insideBoundary(position.getRank(), position.getFile())) {
+            return null;
+        }
+        return squares[square(position.getRank(), position.getFile())];
+    }
+
+    /**
+     * Removes the piece from board given a position. Returns true if remove successfully. Otherwise, the position may
+     * be out of board boundary, or there is no piece on the given position.
+     *
+     * @param position the given position
+     * @return true if remove successfully
+     */
+    public boolean removePiece(Position position) {
+        if (getPiece(position) == null) {
+            return false;
+        }
+        take(square(position.getRank(), position.getFile()));
+        return true;
+    }
+
+    /**
+     * Gets the existing pieces on board for a given player
+     *
+     * @param isWhitePlayer the player
+     * @return list of all existing pieces
+     */
+    public List<BasePiece> getPlayerAllPieces(boolean isWhitePlayer) {
+        List<BasePiece> result = new ArrayList<BasePiece>();
+        long own = occupancy[isWhitePlayer ? WHITE : BLACK];
+        while (own != 0) {
+            result.add(squares[Long.numberOfTrailingZeros(own)]);
+            own &= own - 1;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the king on chessboard for a given player.
+     *
+     * @param isWhitePlayer the player
+     * @return the king, or null if the player has no king
+     */
+    public BasePiece getKing(boolean isWhitePlayer) {
+        long king = pieces[isWhitePlayer ? WHITE : BLACK][KING];
+        return king == 0 ? null : squares[Long.numberOfTrailingZeros(king)];
+    }
+
+    /**
+     * Returns true if the piece is moved to target position successfully.
+     *
+     * @param piece          the piece to move
+     * @param targetPosition the target position
+     * @return true if the move is successful
+     */
+    public boolean movePiece(BasePiece piece, Position targetPosition) {
+        int from = squareOf(piece);
+        if (from < 0 || !Bitboards.insideBoundary(targetPosition.getRank(), targetPosition.getFile())) {
+            return false;
+        }
+        int to = square(targetPosition.getRank(), targetPosition.getFile());
+        if ((legalTargets(from) & (1L << to)) == 0) {
+            return false;
+        }
+        UndoRecord record = new UndoRecord(piece, squares[to], piece.getPosition(), piece.getFirstTime());
+        if (record.captured != null) {
+            take(to);
+        }
+        take(from);
+        piece.setPosition(targetPosition);
+        piece.setNoFirstTime();
+        put(piece, to);
+        moveHistory.push(record);
+        return true;
+    }
+
+    /**
+     * Returns true if the undo successfully. Restores the last moved piece and the captured piece, if any.
+     *
+     * @return true if move history is not empty.
+     */
+    public boolean undoMove() {
+        if (moveHistory.isEmpty()) {
+            return false;
+        }
+        UndoRecord record = moveHistory.pop();
+        BasePiece piece = record.piece;
+        int to = square(piece.getPosition().getRank(), piece.getPosition().getFile());
+        take(to);
+        piece.setPosition(record.from);
+        piece.firstTime = record.firstTime;
+        put(piece, square(record.from.getRank(), record.from.getFile()));
+        if (record.captured != null) {
+            put(record.captured, to);
+        }
+        return true;
+    }
+
+    /**
+     * Gets legal moves of a chess piece. Legal means obey piece rules and also chess rules (i.e. not in check)
+     *
+     * @param piece the chess piece
+     * @return a set of legal move positions of piece
+     */
+    public HashSet<Position> getLegalMoves(BasePiece piece) {
+        HashSet<Position> legalMoves = new HashSet<Position>();
+        int from = squareOf(piece);
+        if (from < 0) {
+            return legalMoves;
+        }
+        long targets = legalTargets(from);
+        while (targets != 0) {
+            int to = Long.numberOfTrailingZeros(targets);
+            legalMoves.add(Position.of(Bitboards.rank(to), Bitboards.file(to)));
+            targets &= targets - 1;
+        }
+        return legalMoves;
+    }
+
+    /**
+     * Returns true if the player is in check. A player without king is never in check.
+     *
+     * @param isWhitePlayer the player
+     * @return true if in check
+     */
+    public boolean inCheck(boolean isWhitePlayer) {
+        int colour = isWhitePlayer ? WHITE : BLACK;
+        long king = pieces[colour][KING];
+        return king != 0 && isAttacked(Long.numberOfTrailingZeros(king), 1 - colour);
+    }
+
+    /**
+     * Returns true if the player is in checkmate.
+     *
+     * @param isWhitePlayer the player
+     * @return true if in checkmate
+     */
+    public boolean inCheckmate(boolean isWhitePlayer) {
+        return inCheck(isWhitePlayer) && noLegalMoves(isWhitePlayer);
+    }
+
+    /**
+     * Returns true if the player is in stalemate.
+     *
+     * @param isWhitePlayer the player
+     * @return true if in stalemate
+     */
+    public boolean inStaleMate(boolean isWhitePlayer) {
+        return !inCheck(isWhitePlayer) && noLegalMoves(isWhitePlayer);
+    }
+
+    /**
+     * Returns true if the player has no legal moves.
+     *
+     * @param isWhitePlayer the player
+     * @return true if no legal moves
+     */
+    private boolean noLegalMoves(boolean isWhitePlayer) {
+        long own = occupancy[isWhitePlayer ? WHITE : BLACK];
+        while (own != 0) {
+            if (legalTargets(Long.numberOfTrailingZeros(own)) != 0) {
+                return false;
+            }
+            own &= own - 1;
+        }
+        return true;
+    }
+
+    /**
+     * Returns the target squares of the piece on given square that obey piece rules and do not leave its own king
+     * in check.
+     *
+     * @param from the square of piece
+     * @return the bitboard of legal target squares
+     */
+    private long legalTargets(int from) {
+        BasePiece piece = squares[from];
+        int colour = colourOf(piece);
+        int type = piece.getType();
+        long targets = pseudoLegalTargets(from, colour, type);
+        long legal = 0;
+        while (targets != 0) {
+            int to = Long.numberOfTrailingZeros(targets);
+            if (!leavesKingInCheck(from, to, colour, type)) {
+                legal |= 1L << to;
+            }
+            targets &= targets - 1;
+        }
+        return legal;
+    }
+
+    /**
+     * Returns the target squares of a piece only according to the rule of this piece and the piece is not blocked.
+     * Follows {@link BasePiece#isValidMove(BasePiece[][], Position)} of each piece class.
+     */
+    private long pseudoLegalTargets(int from, int colour, int type) {
+        long own = occupancy[colour];
+        long enemy = occupancy[1 - colour];
+        long occupied = own | enemy;
+        switch (type) {
+            case PAWN: {
+                int step = colour == WHITE ? SIZE : -SIZE;
+                int rank = Bitboards.rank(from);
+                int forwardRank = rank + (colour == WHITE ? 1 : -1);
+                long targets = pawnAttacks(colour, from) & enemy;
+                if (Bitboards.insideBoundary(forwardRank, 0) && (occupied & (1L << (from + step))) == 0) {
+                    targets |= 1L << (from + step);
+                    int doubleRank = forwardRank + (colour == WHITE ? 1 : -1);
+                    if ((unmoved & (1L << from)) != 0 && Bitboards.insideBoundary(doubleRank, 0)
+                            && (occupied & (1L << (from + 2 * step))) == 0) {
+                        targets |= 1L << (from + 2 * step);
+                    }
+                }
+                return targets;
+            }
+            case KNIGHT:
+                return knightAttacks(from) & ~own;
+            case BISHOP:
+                return bishopAttacks(from, occupied) & ~own;
+            case ROOK:
+                return rookAttacks(from, occupied) & ~own;
+            case QUEEN:
+                return queenAttacks(from, occupied) & ~own;
+            case KING:
+                return kingAttacks(from) & ~own;
+            case SOLDIER:
+                return soldierAttacks(colour, from) & ~own;
+            case ELEPHANT: {
+                long candidates = elephantAttacks(from) & ~own;
+                long targets = 0;
+                while (candidates != 0) {
+                    int to = Long.numberOfTrailingZeros(candidates);
+                    if ((occupied & (1L << elephantEye(from, to))) == 0) {
+                        targets |= 1L << to;
+                    }
+                    candidates &= candidates - 1;
+                }
+                return targets;
+            }
+            default:
+                return 0;
+        }
+    }
+
+    /**
+     * Returns true if moving the piece makes its own king in check. Only the bitboards are changed during the test,
+     * and they are restored before return.
+     */
+    private boolean leavesKingInCheck(int from, int to, int colour, int type) {
+        int opponent = 1 - colour;
+        long fromTo = (1L << from) | (1L << to);
+        BasePiece captured = squares[to];
+        int capturedType = captured == null ? -1 : captured.getType();
+
+        pieces[colour][type] ^= fromTo;
+        occupancy[colour] ^= fromTo;
+        if (capturedType >= 0) {
+            pieces[opponent][capturedType] ^= 1L << to;
+            occupancy[opponent] ^= 1L << to;
+        }
+
+        long king = pieces[colour][KING];
+        boolean inCheck = king != 0 && isAttacked(Long.numberOfTrailingZeros(king), opponent);
+
+        pieces[colour][type] ^= fromTo;
+        occupancy[colour] ^= fromTo;
+        if (capturedType >= 0) {
+            pieces[opponent][capturedType] ^= 1L << to;
+            occupancy[opponent] ^= 1L << to;
+        }
+        return inCheck;
+    }
+
+    /**
+     * Returns true if any piece of the given colour can move to the square. The lookups go from the target square
+     * back to the attackers, so only a handful of bitboard operations are needed.
+     *
+     * @param square the target square
+     * @param by     the colour of attackers
+     * @return true if the square is attacked
+     */
+    private boolean isAttacked(int square, int by) {
+        long[] attackers = pieces[by];
+        long occupied = occupancy[WHITE] | occupancy[BLACK];
+        if ((knightAttacks(square) & attackers[KNIGHT]) != 0
+                || (kingAttacks(square) & attackers[KING]) != 0
+                || (pawnAttacks(1 - by, square) & attackers[PAWN]) != 0
+                || (soldierAttackers(by, square) & attackers[SOLDIER]) != 0
+                || (rookAttacks(square, occupied) & (attackers[ROOK] | attackers[QUEEN])) != 0
+                || (bishopAttacks(square, occupied) & (attackers[BISHOP] | attackers[QUEEN])) != 0) {
+            return true;
+        }
+        long elephants = elephantAttacks(square) & attackers[ELEPHANT];
+        while (elephants != 0) {
+            int from = Long.numberOfTrailingZeros(elephants);
+            if ((occupied & (1L << elephantEye(from, square))) == 0) {
+                return true;
+            }
+            elephants &= elephants - 1;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the square of a piece on this board, or -1 if the piece is not on this board.
+     */
+    private int squareOf(BasePiece piece) {
+        Position position = piece.getPosition();
+        if (!Bitboards.insideBoundary(position.getRank(), position.getFile())) {
+            return -1;
+        }
+        int square = square(position.getRank(), position.getFile());
+        return squares[square] == piece ? square : -1;
+    }
+
+    private void put(BasePiece piece, int square) {
+        long bit = 1L << square;
+        int colour = colourOf(piece);
+        squares[square] = piece;
+        pieces[colour][piece.getType()] |= bit;
+        occupancy[colour] |= bit;
+        if (piece.getFirstTime()) {
+            unmoved |= bit;
+        } else {
+            unmoved &= ~bit;
+        }
+    }
+
+    private void take(int square) {
+        long bit = 1L << square;
+        BasePiece piece = squares[square];
+        int colour = colourOf(piece);
+        squares[square] = null;
+        pieces[colour][piece.getType()] &= ~bit;
+        occupancy[colour] &= ~bit;
+        unmoved &= ~bit;
+    }
+}
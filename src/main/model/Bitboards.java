@@ -0,0 +1,252 @@
+package model;
+
+/**
+ * Bitboards holds precomputed attack masks and sliding attack helpers for an 8*8 chessboard. A bitboard is a 64-bit
+ * long where bit (rank * 8 + file) is set if the square is in the set. Square 0 refers to rank = 0 and file = 0.
+ */
+public final class Bitboards {
+
+    /**
+     * The colour indices used by per-colour tables.
+     */
+    public static final int WHITE = 0;
+    public static final int BLACK = 1;
+
+    /**
+     * The width and height of the chessboard supported by bitboards.
+     */
+    public static final int SIZE = 8;
+
+    /**
+     * The number of squares on the chessboard.
+     */
+    public static final int SQUARES = SIZE * SIZE;
+
+    /**
+     * Ray directions as (rank, file) steps. The first four directions increase the square index.
+     */
+    private static final int[][] DIRECTIONS = {{1, 0}, {1, 1}, {0, 1}, {1, -1}, {-1, 0}, {-1, -1}, {0, -1}, {-1, 1}};
+    private static final int NORTH = 0;
+    private static final int NORTH_EAST = 1;
+    private static final int EAST = 2;
+    private static final int NORTH_WEST = 3;
+    private static final int SOUTH = 4;
+    private static final int SOUTH_WEST = 5;
+    private static final int WEST = 6;
+    private static final int SOUTH_EAST = 7;
+
+    private static final long[] KING_ATTACKS = new long[SQUARES];
+    private static final long[] KNIGHT_ATTACKS = new long[SQUARES];
+    private static final long[] ELEPHANT_ATTACKS = new long[SQUARES];
+    private static final long[][] PAWN_ATTACKS = new long[2][SQUARES];
+    private static final long[][] SOLDIER_ATTACKS = new long[2][SQUARES];
+    private static final long[][] SOLDIER_ATTACKERS = new long[2][SQUARES];
+    private static final long[][] RAYS = new long[DIRECTIONS.length][SQUARES];
+
+    static {
+        for (int rank = 0; rank < SIZE; rank++) {
+            for (int file = 0; file < SIZE; file++) {
+                int square = square(rank, file);
+                for (int rankStep = -1; rankStep <= 1; rankStep++) {
+                    for (int fileStep = -1; fileStep <= 1; fileStep++) {
+                        if (rankStep != 0 || fileStep != 0) {
+                            KING_ATTACKS[square] |= bit(rank + rankStep, file + fileStep);
+                        }
+                    }
+                }
+                int[] knightSteps = {1, -1, 2, -2};
+                for (int rankStep : knightSteps) {
+                    for (int fileStep : knightSteps) {
+                        if (Math.abs(rankStep * fileStep) == 2) {
+                            KNIGHT_ATTACKS[square] |= bit(rank + rankStep, file + fileStep);
+                        }
+                    }
+                }
+                for (int rankStep = -2; rankStep <= 2; rankStep += 4) {
+                    for (int fileStep = -2; fileStep <= 2; fileStep += 4) {
+                        ELEPHANT_ATTACKS[square] |= bit(rank + rankStep, file + fileStep);
+                    }
+                }
+                for (int colour = WHITE; colour <= BLACK; colour++) {
+                    int dir = colour == WHITE ? 1 : -1;
+                    PAWN_ATTACKS[colour][square] = bit(rank + dir, file - 1) | bit(rank + dir, file + 1);
+                    SOLDIER_ATTACKS[colour][square] = bit(rank + dir, file);
+                    if (soldierPassedHalfway(colour, rank)) {
+                        SOLDIER_ATTACKS[colour][square] |= bit(rank, file - 1) | bit(rank, file + 1);
+                    }
+                }
+                for (int direction = 0; direction < DIRECTIONS.length; direction++) {
+                    int rankPos = rank + DIRECTIONS[direction][0];
+                    int filePos = file + DIRECTIONS[direction][1];
+                    for (; insideBoundary(rankPos, filePos)
+                            ; rankPos += DIRECTIONS[direction][0], filePos += DIRECTIONS[direction][1]) {
+                        RAYS[direction][square] |= bit(rankPos, filePos);
+                    }
+                }
+            }
+        }
+        // Reverses soldier attacks so that attackers of a square can be found in one lookup.
+        for (int colour = WHITE; colour <= BLACK; colour++) {
+            for (int from = 0; from < SQUARES; from++) {
+                long targets = SOLDIER_ATTACKS[colour][from];
+                while (targets != 0) {
+                    SOLDIER_ATTACKERS[colour][Long.numberOfTrailingZeros(targets)] |= 1L << from;
+                    targets &= targets - 1;
+                }
+            }
+        }
+    }
+
+    private Bitboards() {
+    }
+
+    /**
+     * Returns the square index of a given rank and file.
+     *
+     * @param rank the rank of square
+     * @param file the file of square
+     * @return the square index
+     */
+    public static int square(int rank, int file) {
+        return rank * SIZE + file;
+    }
+
+    public static int rank(int square) {
+        return square / SIZE;
+    }
+
+    public static int file(int square) {
+        return square % SIZE;
+    }
+
+    /**
+     * Returns whether the given rank and file are inside the 8*8 chessboard.
+     *
+     * @param rank the rank of square
+     * @param file the file of square
+     * @return true if the square is on the chessboard
+     */
+    public static boolean insideBoundary(int rank, int file) {
+        return rank >= 0 && rank < SIZE && file >= 0 && file < SIZE;
+    }
+
+    /**
+     * Returns the colour index of a piece's owner.
+     *
+     * @param piece the piece
+     * @return {@link #WHITE} or {@link #BLACK}
+     */
+    public static int colourOf(BasePiece piece) {
+        return piece.getWhitePlayer() ? WHITE : BLACK;
+    }
+
+    /**
+     * Returns whether a soldier of the given colour on the given rank has crossed half of the chessboard and may
+     * move sideways. Follows the rule in {@link Soldier}.
+     *
+     * @param colour the colour of soldier
+     * @param rank   the rank of soldier
+     * @return true if the soldier has passed halfway
+     */
+    public static boolean soldierPassedHalfway(int colour, int rank) {
+        return colour == WHITE ? rank >= SIZE / 2 : rank < SIZE / 2;
+    }
+
+    public static long kingAttacks(int square) {
+        return KING_ATTACKS[square];
+    }
+
+    public static long knightAttacks(int square) {
+        return KNIGHT_ATTACKS[square];
+    }
+
+    /**
+     * Returns the (2, 2) target squares of an elephant, ignoring whether the middle square blocks it.
+     * See also {@link #elephantEye(int, int)}.
+     */
+    public static long elephantAttacks(int square) {
+        return ELEPHANT_ATTACKS[square];
+    }
+
+    /**
+     * Returns the middle square between an elephant and one of its targets. The elephant is blocked if it is occupied.
+     *
+     * @param from the square of elephant
+     * @param to   the target square from {@link #elephantAttacks(int)}
+     * @return the middle square index
+     */
+    public static int elephantEye(int from, int to) {
+        return (from + to) >>> 1;
+    }
+
+    /**
+     * Returns the diagonal capture squares of a pawn of given colour.
+     */
+    public static long pawnAttacks(int colour, int square) {
+        return PAWN_ATTACKS[colour][square];
+    }
+
+    /**
+     * Returns the squares a soldier of given colour can move to or capture on from the given square.
+     */
+    public static long soldierAttacks(int colour, int square) {
+        return SOLDIER_ATTACKS[colour][square];
+    }
+
+    /**
+     * Returns the squares from which a soldier of given colour attacks the given square.
+     */
+    public static long soldierAttackers(int colour, int square) {
+        return SOLDIER_ATTACKERS[colour][square];
+    }
+
+    /**
+     * Returns the squares a rook on given square attacks, stopping at (and including) the first occupied square in
+     * each direction.
+     *
+     * @param square   the square of rook
+     * @param occupied all occupied squares
+     * @return the attacked squares
+     */
+    public static long rookAttacks(int square, long occupied) {
+        return rayAttacks(square, occupied, NORTH) | rayAttacks(square, occupied, EAST)
+                | rayAttacks(square, occupied, SOUTH) | rayAttacks(square, occupied, WEST);
+    }
+
+    /**
+     * Returns the squares a bishop on given square attacks. See also {@link #rookAttacks(int, long)}.
+     */
+    public static long bishopAttacks(int square, long occupied) {
+        return rayAttacks(square, occupied, NORTH_EAST) | rayAttacks(square, occupied, NORTH_WEST)
+                | rayAttacks(square, occupied, SOUTH_EAST) | rayAttacks(square, occupied, SOUTH_WEST);
+    }
+
+    /**
+     * Returns the squares a queen on given square attacks. See also {@link #rookAttacks(int, long)}.
+     */
+    public static long queenAttacks(int square, long occupied) {
+        return rookAttacks(square, occupied) | bishopAttacks(square, occupied);
+    }
+
+    /**
+     * Returns the attacked squares in one direction, cut off behind the nearest blocker.
+     */
+    private static long rayAttacks(int square, long occupied, int direction) {
+        long ray = RAYS[direction][square];
+        long blockers = ray & occupied;
+        if (blockers != 0) {
+            // The first four directions increase the square index, so the nearest blocker is the lowest bit.
+            int blocker = direction < SOUTH
+                    ? Long.numberOfTrailingZeros(blockers) : 63 - Long.numberOfLeadingZeros(blockers);
+            ray ^= RAYS[direction][blocker];
+        }
+        return ray;
+    }
+
+    /**
+     * Returns the bitboard with only the given square set, or an empty bitboard if it is off the chessboard.
+     */
+    private static long bit(int rank, int file) {
+        return insideBoundary(rank, file) ? 1L << square(rank, file) : 0L;
+    }
+}
@@ -4,20 +4,136 @@ import model.BasePiece.Position;
 
 import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Stack;
+import java.util.Map;
 
 import static model.BasePiece.insideBoundary;
 
 public class Board {
+
+    /**
+     * The information needed to revert one move. Records are reused once they are popped, so making moves does not
+     * allocate after the history has grown to the game length.
+     */
+    private static class UndoRecord {
+        private BasePiece piece;
+        private BasePiece captured;
+        private Position from;
+        private Position to;
+        private boolean firstTime;
+        private BasePiece whiteKing;
+        private BasePiece blackKing;
+    }
+
     private BasePiece[][] chessboard;
     private BasePiece whiteKing;
     private BasePiece blackKing;
-    private Stack<BasePiece[][]> boardHistory;
 
+    /**
+     * The undo records of moves made so far. Only the first {@link #historySize} records are in use.
+     */
+    private UndoRecord[] moveHistory;
+    private int historySize;
+
+    /**
+     * Whose turn it is. Switched by every move and undo.
+     */
+    private boolean whiteToMove = true;
+
+    /**
+     * The Zobrist key of current position, updated incrementally. See also {@link Zobrist}.
+     */
+    private long hashKey;
+
+    /**
+     * The material and piece-square score of all pieces from the view of white, packed by {@link Evaluator} and
+     * updated incrementally like the hash key.
+     */
+    private int pieceScore;
+
+    /**
+     * The game phase of the pieces on board, see {@link Evaluator#MAX_PHASE}.
+     */
+    private int phase;
+
+    /**
+     * The number of pieces on board, updated like the phase.
+     */
+    private int pieceCount;
+
+    /**
+     * The reusable buffer for move generation inside rule queries.
+     */
+    private final MoveList moveBuffer = new MoveList();
+
+    /**
+     * The checkers and pinned pieces of the player whose moves are being filtered.
+     */
+    private final AttackMap attackMap = new AttackMap();
+
+    /**
+     * Creates an empty chessboard. The height and width can be at most {@link Position#MAX_SIZE}, so that every
+     * position can be packed into a {@link Move}.
+     *
+     * @param height the number of ranks
+     * @param width  the number of files
+     */
     public Board(int height, int width) {
+        if (height > Position.MAX_SIZE || width > Position.MAX_SIZE) {
+            throw new IllegalArgumentException("Board size is at most " + Position.MAX_SIZE);
+        }
         chessboard = new BasePiece[height][width];
-        boardHistory = new Stack<BasePiece[][]>();
+        moveHistory = new UndoRecord[0];
+    }
+
+    /**
+     * Creates the chessboard of a new game: the standard chess layout, plus a {@link Soldier} and an {@link Elephant}
+     * for each player in front of the pawns at the two sides.
+     *
+     * @return the chessboard at start state
+     */
+    public static Board createStartingBoard() {
+        Board board = new Board(8, 8);
+        for (int side = 0; side < 2; side++) {
+            boolean isWhitePlayer = side == 0;
+            int backRank = isWhitePlayer ? 0 : 7;
+            int pawnRank = isWhitePlayer ? 1 : 6;
+            int specialRank = isWhitePlayer ? 2 : 5;
+            board.setPiece(new Rook(Position.of(backRank, 0), isWhitePlayer));
+            board.setPiece(new Knight(Position.of(backRank, 1), isWhitePlayer));
+            board.setPiece(new Bishop(Position.of(backRank, 2), isWhitePlayer));
+            board.setPiece(new Queen(Position.of(backRank, 3), isWhitePlayer));
+            board.setPiece(new King(Position.of(backRank, 4), isWhitePlayer));
+            board.setPiece(new Bishop(Position.of(backRank, 5), isWhitePlayer));
+            board.setPiece(new Knight(Position.of(backRank, 6), isWhitePlayer));
+            board.setPiece(new Rook(Position.of(backRank, 7), isWhitePlayer));
+            for (int file = 0; file < 8; file++) {
+                board.setPiece(new Pawn(Position.of(pawnRank, file), isWhitePlayer));
+            }
+            board.setPiece(new Soldier(Position.of(specialRank, 0), isWhitePlayer));
+            board.setPiece(new Elephant(Position.of(specialRank, 7), isWhitePlayer));
+        }
+        return board;
+    }
+
+    /**
+     * Deep copy of the current position: every piece is cloned and the turn is kept, but the move history is not, so
+     * the copy cannot undo the moves made before it. A copy can be used by another thread independently.
+     *
+     * @return the new board with same position
+     */
+    public Board copy() {
+        Board board = new Board(chessboard.length, chessboard[0].length);
+        for (BasePiece[] rank : chessboard) {
+            for (BasePiece piece : rank) {
+                if (piece != null) {
+                    board.setPiece(piece.clonePiece());
+                }
+            }
+        }
+        board.setWhiteToMove(whiteToMove);
+        return board;
     }
 
     public BasePiece[][] getChessBoard() {
@@ -37,6 +153,10 @@ public class Board {
         if (insideBoundary(chessboard, position)
                 && chessboard[position.getRank()][position.getFile()] == null) {
             chessboard[position.getRank()][position.getFile()] = piece;
+            hashKey ^= Zobrist.pieceKey(piece);
+            pieceScore += Evaluator.pieceScore(piece, chessboard.length, chessboard[0].length);
+            phase += Evaluator.phaseWeight(piece.getType());
+            pieceCount++;
             if (piece instanceof King) {
                 if (piece.getWhitePlayer()) {
                     whiteKing = piece;
@@ -74,6 +194,11 @@ public class Board {
         if (!insideBoundary(chessboard, position) || chessboard[position.getRank()][position.getFile()] == null) {
             return false;
         }
+        BasePiece piece = chessboard[position.getRank()][position.getFile()];
+        hashKey ^= Zobrist.pieceKey(piece);
+        pieceScore -= Evaluator.pieceScore(piece, chessboard.length, chessboard[0].length);
+        phase -= Evaluator.phaseWeight(piece.getType());
+        pieceCount--;
         chessboard[position.getRank()][position.getFile()] = null;
         return true;
     }
@@ -148,27 +273,207 @@ public class Board {
      */
     public boolean movePiece(BasePiece piece, Position targetPosition) {
         if (piece.isValidMove(chessboard, targetPosition) && !tryMoveIfInCheck(piece, targetPosition)) {
-            boardHistory.push(cloneBoard(chessboard));
-            moveAndSet(piece, targetPosition);
-            piece.setNoFirstTime();
-            // add board history
+            applyMove(piece, targetPosition);
             return true;
         }
         return false;
     }
 
     /**
-     * Returns true if the undo successfully. Sets the current board to previous board.
+     * Makes a packed move without checking it. The move must be legal, e.g. generated by
+     * {@link #generateLegalMoves(boolean, MoveList)} for the current position.
+     *
+     * @param move the packed move
+     */
+    public void makeMove(int move) {
+        Position from = Move.getFrom(move);
+        applyMove(chessboard[from.getRank()][from.getFile()], Move.getTo(move));
+    }
+
+    /**
+     * Moves the piece to target position and records how to undo it.
      *
-     * @return true if boardHistory is not empty.
+     * @param piece          the piece to move
+     * @param targetPosition the target position
+     */
+    private void applyMove(BasePiece piece, Position targetPosition) {
+        if (historySize == moveHistory.length) {
+            UndoRecord[] newHistory = new UndoRecord[Math.max(16, moveHistory.length * 2)];
+            System.arraycopy(moveHistory, 0, newHistory, 0, historySize);
+            moveHistory = newHistory;
+        }
+        UndoRecord record = moveHistory[historySize];
+        if (record == null) {
+            record = new UndoRecord();
+            moveHistory[historySize] = record;
+        }
+        historySize++;
+        record.piece = piece;
+        record.captured = chessboard[targetPosition.getRank()][targetPosition.getFile()];
+        record.from = piece.getPosition();
+        record.to = targetPosition;
+        record.firstTime = piece.getFirstTime();
+        record.whiteKing = whiteKing;
+        record.blackKing = blackKing;
+
+        moveAndSet(piece, targetPosition);
+        if (piece.getFirstTime()) {
+            piece.setNoFirstTime();
+            hashKey ^= Zobrist.unmovedKey(targetPosition);
+        }
+        switchTurn();
+    }
+
+    /**
+     * Returns true if the undo successfully. Moves the last moved piece back and restores the captured piece.
+     *
+     * @return true if move history is not empty.
      */
     public boolean undoMove() {
-        if (boardHistory.size() > 0) {
-            chessboard = boardHistory.pop();
-            return true;
-        } else {
+        if (historySize == 0) {
             return false;
         }
+        UndoRecord record = moveHistory[--historySize];
+        moveAndSet(record.piece, record.from);
+        if (record.firstTime) {
+            record.piece.firstTime = true;
+            hashKey ^= Zobrist.unmovedKey(record.from);
+        }
+        if (record.captured != null) {
+            setPiece(record.captured);
+        }
+        whiteKing = record.whiteKing;
+        blackKing = record.blackKing;
+        switchTurn();
+
+        // Releases the pieces so that the reused record does not keep them alive
+        record.piece = null;
+        record.captured = null;
+        record.whiteKing = null;
+        record.blackKing = null;
+        return true;
+    }
+
+    /**
+     * Returns the number of moves made on this board that can be undone.
+     *
+     * @return the length of move history
+     */
+    public int getMoveCount() {
+        return historySize;
+    }
+
+    /**
+     * Returns a move of the move history, packed by {@link Move} with the {@link Move#CAPTURE} flag if it captured.
+     *
+     * @param index the index of move, from 0 for the first move
+     * @return the packed move
+     */
+    public int getMove(int index) {
+        if (index < 0 || index >= historySize) {
+            throw new IndexOutOfBoundsException("Move " + index + " of " + historySize);
+        }
+        UndoRecord record = moveHistory[index];
+        return Move.of(record.from, record.to, record.captured != null ? Move.CAPTURE : 0);
+    }
+
+    private void switchTurn() {
+        whiteToMove = !whiteToMove;
+        hashKey ^= Zobrist.BLACK_TO_MOVE;
+    }
+
+    /**
+     * Returns whether it is white player's turn. The turn starts with white and is switched by every move and undo.
+     *
+     * @return true if white player moves next
+     */
+    public boolean isWhiteToMove() {
+        return whiteToMove;
+    }
+
+    /**
+     * Sets whose turn it is, e.g. when setting up a position.
+     *
+     * @param whiteToMove true if white player moves next
+     */
+    public void setWhiteToMove(boolean whiteToMove) {
+        if (this.whiteToMove != whiteToMove) {
+            switchTurn();
+        }
+    }
+
+    /**
+     * Returns the Zobrist key of current position, which covers every piece with its type, owner, position and
+     * whether it has been moved before, as well as whose turn it is. The key is updated in O(1) by every change through
+     * this board, so {@link BasePiece#firstTime} must not be changed directly on pieces that are on board.
+     *
+     * @return the 64-bit position key
+     */
+    public long getHashKey() {
+        return hashKey;
+    }
+
+    /**
+     * Computes the Zobrist key of current position from scratch. Always equals {@link #getHashKey()}.
+     *
+     * @return the 64-bit position key
+     */
+    public long computeHashKey() {
+        long key = whiteToMove ? 0 : Zobrist.BLACK_TO_MOVE;
+        for (BasePiece[] rank : chessboard) {
+            for (BasePiece piece : rank) {
+                if (piece != null) {
+                    key ^= Zobrist.pieceKey(piece);
+                }
+            }
+        }
+        return key;
+    }
+
+    /**
+     * Returns the material and piece-square score of all pieces from the view of white, packed by {@link Evaluator}.
+     * Like {@link #getHashKey()}, the score is updated in O(1) by every change through this board.
+     *
+     * @return the packed score
+     */
+    public int getPieceScore() {
+        return pieceScore;
+    }
+
+    /**
+     * Computes the score of {@link #getPieceScore()} from scratch. Always equals {@link #getPieceScore()}.
+     *
+     * @return the packed score
+     */
+    public int computePieceScore() {
+        int score = 0;
+        for (BasePiece[] rank : chessboard) {
+            for (BasePiece piece : rank) {
+                if (piece != null) {
+                    score += Evaluator.pieceScore(piece, chessboard.length, chessboard[0].length);
+                }
+            }
+        }
+        return score;
+    }
+
+    /**
+     * Returns the game phase of the pieces on board, from {@link Evaluator#MAX_PHASE} with all pieces of the starting
+     * board down to 0 with only pawns, soldiers and kings.
+     *
+     * @return the game phase
+     */
+    public int getPhase() {
+        return phase;
+    }
+
+    /**
+     * Returns the number of pieces on board of both players, kings included.
+     *
+     * @return the number of pieces
+     */
+    public int getPieceCount() {
+        return pieceCount;
     }
 
     /**
@@ -179,14 +484,129 @@ public class Board {
      */
     public HashSet<Position> getLegalMoves(BasePiece piece) {
         HashSet<Position> legalMoves = new HashSet<Position>();
-        for (Position pos : piece.getPossibleLegalMoves(chessboard)) {
-            if (!tryMoveIfInCheck(piece, pos)) {
+        attackMap.compute(chessboard, getKing(piece.getWhitePlayer()));
+        moveBuffer.clear();
+        piece.generateMoves(chessboard, moveBuffer);
+        for (int i = 0; i < moveBuffer.size(); i++) {
+            Position pos = Move.getTo(moveBuffer.get(i));
+            if (isLegalMove(piece, pos)) {
                 legalMoves.add(pos);
             }
         }
         return legalMoves;
     }
 
+    /**
+     * Appends all legal moves of a player to the given list, packed by {@link Move}. Legal means obey piece rules and
+     * also chess rules (i.e. not in check). Does not allocate.
+     *
+     * @param isWhitePlayer the player
+     * @param moves         the list to append moves to
+     */
+    public void generateLegalMoves(boolean isWhitePlayer, MoveList moves) {
+        generateLegalMoves(isWhitePlayer, moves, false);
+    }
+
+    /**
+     * Appends the legal captures of a player to the given list, packed by {@link Move}. Quiet moves are dropped before
+     * their legality is tested, so this costs less than filtering {@link #generateLegalMoves(boolean, MoveList)}.
+     *
+     * @param isWhitePlayer the player
+     * @param moves         the list to append captures to
+     */
+    public void generateLegalCaptures(boolean isWhitePlayer, MoveList moves) {
+        generateLegalMoves(isWhitePlayer, moves, true);
+    }
+
+    private void generateLegalMoves(boolean isWhitePlayer, MoveList moves, boolean capturesOnly) {
+        attackMap.compute(chessboard, getKing(isWhitePlayer));
+        for (int rank = 0; rank < chessboard.length; rank++) {
+            for (int file = 0; file < chessboard[0].length; file++) {
+                BasePiece piece = chessboard[rank][file];
+                if (piece != null && piece.getWhitePlayer() == isWhitePlayer) {
+                    int start = moves.size();
+                    piece.generateMoves(chessboard, moves);
+                    boolean free = attackMap.isFreeToMove(piece);
+                    if (free && !capturesOnly) {
+                        continue;
+                    }
+                    // Keeps only the moves that will not make king in check
+                    int end = start;
+                    for (int i = start; i < moves.size(); i++) {
+                        int move = moves.get(i);
+                        if (capturesOnly && (move & Move.CAPTURE) == 0) {
+                            continue;
+                        }
+                        if (free || !tryMoveIfInCheck(piece, Move.getTo(move))) {
+                            moves.set(end++, move);
+                        }
+                    }
+                    moves.truncate(end);
+                }
+            }
+        }
+    }
+
+    /**
+     * Counts the leaf nodes of the legal move tree of given depth from current position, with the player to move
+     * first. Comparing the counts with known values verifies move generation, and timing them measures it.
+     *
+     * @param depth the depth in plies
+     * @return the number of move sequences of given length
+     */
+    public long perft(int depth) {
+        if (depth <= 0) {
+            return 1;
+        }
+        return perft(depth, newMoveLists(depth), 0);
+    }
+
+    /**
+     * Counts the leaf nodes of {@link #perft(int)} for each legal root move, so that a wrong count can be traced to
+     * the move that causes it.
+     *
+     * @param depth the depth in plies including the root move, at least 1
+     * @return the number of leaf nodes per root move in {@link Move#toNotation(int)}, in generation order
+     */
+    public Map<String, Long> divide(int depth) {
+        Map<String, Long> counts = new LinkedHashMap<String, Long>();
+        MoveList[] moveLists = newMoveLists(depth);
+        MoveList moves = moveLists[0];
+        generateLegalMoves(whiteToMove, moves);
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            makeMove(move);
+            counts.put(Move.toNotation(move), depth > 1 ? perft(depth - 1, moveLists, 1) : 1L);
+            undoMove();
+        }
+        return counts;
+    }
+
+    private long perft(int depth, MoveList[] moveLists, int ply) {
+        MoveList moves = moveLists[ply];
+        moves.clear();
+        generateLegalMoves(whiteToMove, moves);
+        if (depth == 1) {
+            // The moves of last ply need not be made
+            return moves.size();
+        }
+        long nodes = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            makeMove(moves.get(i));
+            nodes += perft(depth - 1, moveLists, ply + 1);
+            undoMove();
+        }
+        return nodes;
+    }
+
+    private static MoveList[] newMoveLists(int depth) {
+        MoveList[] moveLists = new MoveList[Math.max(1, depth)];
+        for (int ply = 0; ply < moveLists.length; ply++) {
+            moveLists[ply] = new MoveList();
+        }
+        return moveLists;
+    }
+
     /**
      * Returns the king on chessboard for a given player.
      *
@@ -202,26 +622,26 @@ public class Board {
     }
 
     /**
-     * Returns true if the player is in check.
+     * Returns true if the player is in check. A player without king is never in check.
      *
      * @param isWhitePlayer the player
      * @return true if in check
      */
     public boolean inCheck(boolean isWhitePlayer) {
-        Position kingPosition = getKing(isWhitePlayer).getPosition();
-        for (int rank = 0; rank < chessboard.length; rank++) {
-            for (int file = 0; file < chessboard[0].length; file++) {
-                BasePiece piece = chessboard[rank][file];
-                if (piece != null && piece.getWhitePlayer() != isWhitePlayer) {
-                    // The piece is opponent's
-                    if (piece.isValidMove(chessboard, kingPosition)) {
-                        // The opponent's piece can move to king position
-                        return true;
-                    }
-                }
-            }
-        }
-        return false;
+        BasePiece king = getKing(isWhitePlayer);
+        return king != null && AttackMap.isAttacked(chessboard, king.getPosition(), !isWhitePlayer);
+    }
+
+    /**
+     * Returns true if moving the piece to target position will not make self king in check. The attack map must have
+     * been computed for the owner of the piece. Only the king, pinned pieces and moves out of check need a trial move.
+     *
+     * @param piece          the piece to move
+     * @param targetPosition the target position, valid according to piece rules
+     * @return true if the move is legal
+     */
+    private boolean isLegalMove(BasePiece piece, Position targetPosition) {
+        return attackMap.isFreeToMove(piece) || !tryMoveIfInCheck(piece, targetPosition);
     }
 
     /**
@@ -262,33 +682,21 @@ public class Board {
      */
     private boolean noLegalMoves(boolean isWhitePlayer) {
         // Checks if any valid moves of any pieces can make a move that will not make king in check.
-        for (BasePiece piece : getPlayerAllPieces(isWhitePlayer)) {
-            for (Position position : piece.getPossibleLegalMoves(chessboard)) {
-                if (!tryMoveIfInCheck(piece, position))
-                    return false;
-            }
-        }
-        return true;
-    }
-
-    /**
-     * Deep copy of a chessboard
-     *
-     * @param chessboard the given chessboard
-     * @return the cloned chessboard
-     */
-    private BasePiece[][] cloneBoard(BasePiece[][] chessboard) {
-        BasePiece[][] newBoard = new BasePiece[chessboard.length][chessboard[0].length];
+        attackMap.compute(chessboard, getKing(isWhitePlayer));
         for (int rank = 0; rank < chessboard.length; rank++) {
             for (int file = 0; file < chessboard[0].length; file++) {
-                if (chessboard[rank][file] != null) {
-                    newBoard[rank][file] = chessboard[rank][file].clonePiece();
-                } else {
-                    newBoard[rank][file] = null;
+                BasePiece piece = chessboard[rank][file];
+                if (piece != null && piece.getWhitePlayer() == isWhitePlayer) {
+                    moveBuffer.clear();
+                    piece.generateMoves(chessboard, moveBuffer);
+                    for (int i = 0; i < moveBuffer.size(); i++) {
+                        if (isLegalMove(piece, Move.getTo(moveBuffer.get(i))))
+                            return false;
+                    }
                 }
             }
         }
-        return newBoard;
+        return true;
     }
 
-}
+}
\ No newline at end of file
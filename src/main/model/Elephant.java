@@ -1,7 +1,5 @@
 package model;
 
-import java.util.HashSet;
-
 /**
  * This piece class follows the rule of Chinese Bishop - Soldier. It can only take (2, 2) step towards four directions.
  * Moreover, if the (1, 1) step is not empty, it will be "blocked" and cannot move.
@@ -17,27 +15,18 @@ public class Elephant extends BasePiece {
     }
 
     /**
-     * See also {@link BasePiece#getPossibleLegalMoves(BasePiece[][])}.
+     * See also {@link BasePiece#generateMoves(BasePiece[][], MoveList)}.
      */
     @Override
-    public HashSet<BasePiece.Position> getPossibleLegalMoves(BasePiece[][] chessboard) {
-        HashSet<BasePiece.Position> moves = new HashSet<BasePiece.Position>();
+    public void generateMoves(BasePiece[][] chessboard, MoveList moves) {
         BasePiece.Position position = getPosition();
 
         // Add moves in four diagonal directions.
         for (int quadrant = 1; quadrant <= 4; quadrant++) {
-            int rank = position.getRank();
-            int file = position.getFile();
             int rankGradient = quadrant <= 2 ? 2 : -2;
             int fileGradient = (quadrant == 1 || quadrant == 4) ? 2 : -2;
-
-            Position newPosition = new Position(rank + rankGradient, file + fileGradient);
-            if (isValidMove(chessboard, newPosition)) {
-                moves.add(newPosition);
-            }
-
+            addMoveIfValid(chessboard, position.getRank() + rankGradient, position.getFile() + fileGradient, moves);
         }
-        return moves;
     }
 
     /**
@@ -65,12 +54,19 @@ public class Elephant extends BasePiece {
         return "E";
     }
 
+    /**
+     * See also {@link BasePiece#getType()}.
+     */
+    @Override
+    public int getType() {
+        return ELEPHANT;
+    }
+
     /**
      * See also {@link BasePiece#clonePiece()}.
      */
     @Override
     public Elephant clonePiece() {
-        Position pos = new Position(getPosition().getRank(), getPosition().getFile());
-        return new Elephant(pos, getWhitePlayer(), getFirstTime());
+        return new Elephant(getPosition(), getWhitePlayer(), getFirstTime());
     }
 }
@@ -0,0 +1,252 @@
+package model;
+
+import model.BasePiece.Position;
+
+/**
+ * Evaluator scores a {@link Board} position in centipawns. The score has three terms:
+ * <ul>
+ * <li>material, with a value for each of the eight piece types,</li>
+ * <li>piece-square tables, which reward pieces on good squares of an 8*8 board,</li>
+ * <li>mobility, the number of moves of the pieces that benefit from moving freely.</li>
+ * </ul>
+ * Material and piece-square scores are kept by the board itself and updated in O(1) whenever a piece is set or removed
+ * (see {@link Board#getPieceScore()}), so only mobility is computed per call. Each piece scores one value for the
+ * opening and one for the endgame, packed into one int so that both are summed in one addition; the two are blended by
+ * the game phase, which falls from {@link #MAX_PHASE} to 0 as pieces other than pawns are captured.
+ * <p>
+ * An Evaluator keeps a reusable move buffer, so each thread needs its own.
+ */
+public class Evaluator {
+
+    /**
+     * The phase of a game with all pieces of the starting board.
+     */
+    public static final int MAX_PHASE = 26;
+
+    /**
+     * The material value of each piece type indexed by {@link BasePiece#getType()}.
+     */
+    private static final int[] PIECE_VALUES = {100, 320, 330, 500, 900, 0, 120, 250};
+
+    /**
+     * How much each piece type counts towards the game phase.
+     */
+    private static final int[] PHASE_WEIGHTS = {0, 1, 1, 2, 4, 0, 0, 1};
+
+    /**
+     * The score of each move of a piece, by type. Pawns, kings and soldiers do not count.
+     */
+    private static final int[] MOBILITY_WEIGHTS = {0, 4, 3, 2, 1, 0, 0, 2};
+
+    // The piece-square tables below are written as a board seen by white, with rank 8 at the top
+
+    /**
+     * Pawns cannot be promoted, so a pawn on the last rank is stuck for the rest of the game.
+     */
+    private static final int[] PAWN_TABLE = {
+            -40, -40, -40, -40, -40, -40, -40, -40,
+            10, 10, 15, 20, 20, 15, 10, 10,
+            10, 10, 15, 20, 20, 15, 10, 10,
+            5, 5, 10, 20, 20, 10, 5, 5,
+            0, 0, 5, 20, 20, 5, 0, 0,
+            5, -5, -5, 5, 5, -5, -5, 5,
+            5, 10, 10, -20, -20, 10, 10, 5,
+            0, 0, 0, 0, 0, 0, 0, 0};
+
+    private static final int[] KNIGHT_TABLE = {
+            -50, -40, -30, -30, -30, -30, -40, -50,
+            -40, -20, 0, 0, 0, 0, -20, -40,
+            -30, 0, 10, 15, 15, 10, 0, -30,
+            -30, 5, 15, 20, 20, 15, 5, -30,
+            -30, 0, 15, 20, 20, 15, 0, -30,
+            -30, 5, 10, 15, 15, 10, 5, -30,
+            -40, -20, 0, 5, 5, 0, -20, -40,
+            -50, -40, -30, -30, -30, -30, -40, -50};
+
+    private static final int[] BISHOP_TABLE = {
+            -20, -10, -10, -10, -10, -10, -10, -20,
+            -10, 0, 0, 0, 0, 0, 0, -10,
+            -10, 0, 5, 10, 10, 5, 0, -10,
+            -10, 5, 5, 10, 10, 5, 5, -10,
+            -10, 0, 10, 10, 10, 10, 0, -10,
+            -10, 10, 10, 10, 10, 10, 10, -10,
+            -10, 5, 0, 0, 0, 0, 5, -10,
+            -20, -10, -10, -10, -10, -10, -10, -20};
+
+    private static final int[] ROOK_TABLE = {
+            0, 0, 0, 0, 0, 0, 0, 0,
+            5, 10, 10, 10, 10, 10, 10, 5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            0, 0, 0, 5, 5, 0, 0, 0};
+
+    private static final int[] QUEEN_TABLE = {
+            -20, -10, -10, -5, -5, -10, -10, -20,
+            -10, 0, 0, 0, 0, 0, 0, -10,
+            -10, 0, 5, 5, 5, 5, 0, -10,
+            -5, 0, 5, 5, 5, 5, 0, -5,
+            0, 0, 5, 5, 5, 5, 0, -5,
+            -10, 5, 5, 5, 5, 5, 0, -10,
+            -10, 0, 5, 0, 0, 0, 0, -10,
+            -20, -10, -10, -5, -5, -10, -10, -20};
+
+    /**
+     * There is no castling, so the king is safest staying behind its pawns near a corner.
+     */
+    private static final int[] KING_OPENING_TABLE = {
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -20, -30, -30, -40, -40, -30, -30, -20,
+            -10, -20, -20, -20, -20, -20, -20, -10,
+            20, 20, 0, 0, 0, 0, 20, 20,
+            20, 30, 10, 0, 0, 10, 30, 20};
+
+    /**
+     * In the endgame the king joins the fight from the center.
+     */
+    private static final int[] KING_ENDGAME_TABLE = {
+            -50, -40, -30, -20, -20, -30, -40, -50,
+            -30, -20, -10, 0, 0, -10, -20, -30,
+            -30, -10, 20, 30, 30, 20, -10, -30,
+            -30, -10, 30, 40, 40, 30, -10, -30,
+            -30, -10, 30, 40, 40, 30, -10, -30,
+            -30, -10, 20, 30, 30, 20, -10, -30,
+            -30, -30, 0, 0, 0, 0, -30, -30,
+            -50, -30, -30, -30, -30, -30, -30, -50};
+
+    /**
+     * A soldier gains its sideways moves past the middle of the board, and keeps them on the last rank.
+     */
+    private static final int[] SOLDIER_TABLE = {
+            20, 25, 25, 30, 30, 25, 25, 20,
+            25, 30, 30, 35, 35, 30, 30, 25,
+            20, 25, 25, 30, 30, 25, 25, 20,
+            15, 20, 20, 25, 25, 20, 20, 15,
+            0, 5, 5, 10, 10, 5, 5, 0,
+            0, 0, 5, 5, 5, 5, 0, 0,
+            0, 0, 0, 0, 0, 0, 0, 0,
+            0, 0, 0, 0, 0, 0, 0, 0};
+
+    /**
+     * An elephant jumps two squares diagonally, so it reaches few squares from the edges.
+     */
+    private static final int[] ELEPHANT_TABLE = {
+            -20, -10, -10, -10, -10, -10, -10, -20,
+            -10, -5, 0, 0, 0, 0, -5, -10,
+            -10, 0, 10, 10, 10, 10, 0, -10,
+            -10, 0, 10, 15, 15, 10, 0, -10,
+            -10, 0, 10, 15, 15, 10, 0, -10,
+            -10, 0, 10, 10, 10, 10, 0, -10,
+            -10, -5, 0, 0, 0, 0, -5, -10,
+            -20, -10, -10, -10, -10, -10, -10, -20};
+
+    private static final int[][] OPENING_TABLES = {PAWN_TABLE, KNIGHT_TABLE, BISHOP_TABLE, ROOK_TABLE, QUEEN_TABLE
+            , KING_OPENING_TABLE, SOLDIER_TABLE, ELEPHANT_TABLE};
+    private static final int[][] ENDGAME_TABLES = {PAWN_TABLE, KNIGHT_TABLE, BISHOP_TABLE, ROOK_TABLE, QUEEN_TABLE
+            , KING_ENDGAME_TABLE, SOLDIER_TABLE, ELEPHANT_TABLE};
+
+    private final MoveList moves = new MoveList();
+
+    /**
+     * Returns the score of position from the view of player to move.
+     *
+     * @param board the board
+     * @return the score in centipawns, positive if the player to move is better
+     */
+    public int evaluate(Board board) {
+        return evaluate(board, board.isWhiteToMove());
+    }
+
+    /**
+     * Returns the score of position from the view of the given player.
+     *
+     * @param board the board
+     * @param white the player
+     * @return the score in centipawns, positive if the player is better
+     */
+    public int evaluate(Board board, boolean white) {
+        int pieceScore = board.getPieceScore();
+        int phase = Math.min(board.getPhase(), MAX_PHASE);
+        int score = (openingScore(pieceScore) * phase + endgameScore(pieceScore) * (MAX_PHASE - phase)) / MAX_PHASE;
+        score += mobility(board);
+        return white ? score : -score;
+    }
+
+    /**
+     * Returns the mobility score from the view of white.
+     */
+    private int mobility(Board board) {
+        BasePiece[][] chessboard = board.getChessBoard();
+        int score = 0;
+        for (BasePiece[] rank : chessboard) {
+            for (BasePiece piece : rank) {
+                if (piece != null && MOBILITY_WEIGHTS[piece.getType()] != 0) {
+                    moves.clear();
+                    piece.generateMoves(chessboard, moves);
+                    int value = MOBILITY_WEIGHTS[piece.getType()] * moves.size();
+                    score += piece.getWhitePlayer() ? value : -value;
+                }
+            }
+        }
+        return score;
+    }
+
+    /**
+     * Returns the material value of a piece type.
+     *
+     * @param type the type, see {@link BasePiece#getType()}
+     * @return the value in centipawns, 0 for the king
+     */
+    public static int pieceValue(int type) {
+        return PIECE_VALUES[type];
+    }
+
+    /**
+     * Returns the material and piece-square score of a piece on its current position from the view of white, with
+     * the opening and endgame scores packed into one int. Packed scores can be added and subtracted as ints.
+     * Piece-square tables only apply on an 8*8 board.
+     *
+     * @param piece  the piece
+     * @param height the number of ranks of board
+     * @param width  the number of files of board
+     * @return the packed score
+     */
+    static int pieceScore(BasePiece piece, int height, int width) {
+        int type = piece.getType();
+        int opening = PIECE_VALUES[type];
+        int endgame = opening;
+        if (height == 8 && width == 8) {
+            Position position = piece.getPosition();
+            int rank = piece.getWhitePlayer() ? 7 - position.getRank() : position.getRank();
+            int square = rank * 8 + position.getFile();
+            opening += OPENING_TABLES[type][square];
+            endgame += ENDGAME_TABLES[type][square];
+        }
+        int score = pack(opening, endgame);
+        return piece.getWhitePlayer() ? score : -score;
+    }
+
+    /**
+     * Returns how much a piece type counts towards the game phase.
+     */
+    static int phaseWeight(int type) {
+        return PHASE_WEIGHTS[type];
+    }
+
+    static int pack(int opening, int endgame) {
+        return (endgame << 16) + opening;
+    }
+
+    static int openingScore(int packed) {
+        return (short) packed;
+    }
+
+    static int endgameScore(int packed) {
+        return (packed + 0x8000) >> 16;
+    }
+}
@@ -1,7 +1,5 @@
 package model;
 
-import java.util.HashSet;
-
 public class King extends BasePiece {
 
     public King(Position position, boolean whitePlayer) {
@@ -13,23 +11,18 @@ public class King extends BasePiece {
     }
 
     /**
-     * See also {@link BasePiece#getPossibleLegalMoves(BasePiece[][])}.
+     * See also {@link BasePiece#generateMoves(BasePiece[][], MoveList)}.
      */
     @Override
-    public HashSet<Position> getPossibleLegalMoves(BasePiece[][] chessboard) {
-        HashSet<Position> moves = new HashSet<Position>();
+    public void generateMoves(BasePiece[][] chessboard, MoveList moves) {
         Position position = getPosition();
 
         // Add moves in one step directions.
         for (int rank = -1; rank <= 1; rank++) {
             for (int file = -1; file <= 1; file++) {
-                Position newPosition = new Position(position.getRank() + rank, position.getFile() + file);
-                if (isValidMove(chessboard, newPosition)) {
-                    moves.add(newPosition);
-                }
+                addMoveIfValid(chessboard, position.getRank() + rank, position.getFile() + file, moves);
             }
         }
-        return moves;
     }
 
     /**
@@ -55,12 +48,19 @@ public class King extends BasePiece {
         return "K";
     }
 
+    /**
+     * See also {@link BasePiece#getType()}.
+     */
+    @Override
+    public int getType() {
+        return KING;
+    }
+
     /**
      * See also {@link BasePiece#clonePiece()}.
      */
     @Override
     public King clonePiece() {
-        Position pos = new Position(getPosition().getRank(), getPosition().getFile());
-        return new King(pos, getWhitePlayer(), getFirstTime());
+        return new King(getPosition(), getWhitePlayer(), getFirstTime());
     }
 }
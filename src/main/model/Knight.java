@@ -1,8 +1,10 @@
 package model;
 
-import java.util.HashSet;
-
 public class Knight extends BasePiece {
+    /**
+     * The possible relative distances of rank or file for one move.
+     */
+    private static final int[] POSSIBLE_STEPS = {1, -1, 2, -2};
 
     public Knight(Position position, boolean whitePlayer) {
         super(position, whitePlayer);
@@ -13,25 +15,19 @@ public class Knight extends BasePiece {
     }
 
     /**
-     * See also {@link BasePiece#getPossibleLegalMoves(BasePiece[][])}.
+     * See also {@link BasePiece#generateMoves(BasePiece[][], MoveList)}.
      */
     @Override
-    public HashSet<Position> getPossibleLegalMoves(BasePiece[][] chessboard) {
-        HashSet<Position> moves = new HashSet<Position>();
+    public void generateMoves(BasePiece[][] chessboard, MoveList moves) {
         Position position = getPosition();
-        int[] possiblePos = {1, -1, 2, -2};
-        for (int rank : possiblePos) {
-            for (int file : possiblePos) {
+        for (int rank : POSSIBLE_STEPS) {
+            for (int file : POSSIBLE_STEPS) {
                 if (Math.abs(rank * file) == 2) {
                     // Only eight combinations can meet this requirement.
-                    Position newPosition = new Position(position.getRank() + rank, position.getFile() + file);
-                    if (isValidMove(chessboard, newPosition)) {
-                        moves.add(newPosition);
-                    }
+                    addMoveIfValid(chessboard, position.getRank() + rank, position.getFile() + file, moves);
                 }
             }
         }
-        return moves;
     }
 
     /**
@@ -55,12 +51,19 @@ public class Knight extends BasePiece {
         return "N";
     }
 
+    /**
+     * See also {@link BasePiece#getType()}.
+     */
+    @Override
+    public int getType() {
+        return KNIGHT;
+    }
+
     /**
      * See also {@link BasePiece#clonePiece()}.
      */
     @Override
     public Knight clonePiece() {
-        Position pos = new Position(getPosition().getRank(), getPosition().getFile());
-        return new Knight(pos, getWhitePlayer(), getFirstTime());
+        return new Knight(getPosition(), getWhitePlayer(), getFirstTime());
     }
 }
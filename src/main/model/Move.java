@@ -0,0 +1,145 @@
+package model;
+
+import model.BasePiece.Position;
+
+/**
+ * Move packs a move into a primitive int so that move generation does not allocate. The low 8 bits hold the index of
+ * the target position, the next 8 bits hold the index of the original position (see {@link Position#getIndex()}) and
+ * the remaining bits hold flags such as {@link #CAPTURE}.
+ */
+public final class Move {
+
+    /**
+     * The value that never refers to a move.
+     */
+    public static final int NONE = 0;
+
+    /**
+     * Flag of a move that captures an opponent's piece on the target position.
+     */
+    public static final int CAPTURE = 1 << 16;
+
+    private static final int INDEX_MASK = 0xFF;
+    private static final int FROM_SHIFT = 8;
+    private static final int FLAGS_SHIFT = 16;
+
+    private Move() {
+    }
+
+    /**
+     * Packs a move from one position to another.
+     *
+     * @param from  the original position
+     * @param to    the target position
+     * @param flags the flags of move
+     * @return the packed move
+     */
+    public static int of(Position from, Position to, int flags) {
+        return of(from.getIndex(), to.getIndex(), flags);
+    }
+
+    /**
+     * Packs a move from one position index to another.
+     *
+     * @param fromIndex the index of original position
+     * @param toIndex   the index of target position
+     * @param flags     the flags of move
+     * @return the packed move
+     */
+    public static int of(int fromIndex, int toIndex, int flags) {
+        return flags | (fromIndex << FROM_SHIFT) | toIndex;
+    }
+
+    public static int getFromIndex(int move) {
+        return (move >>> FROM_SHIFT) & INDEX_MASK;
+    }
+
+    public static int getToIndex(int move) {
+        return move & INDEX_MASK;
+    }
+
+    public static Position getFrom(int move) {
+        return Position.of(getFromIndex(move));
+    }
+
+    public static Position getTo(int move) {
+        return Position.of(getToIndex(move));
+    }
+
+    public static int getFlags(int move) {
+        return move & ~((1 << FLAGS_SHIFT) - 1);
+    }
+
+    public static boolean isCapture(int move) {
+        return (move & CAPTURE) != 0;
+    }
+
+    /**
+     * Returns the coordinate notation of a move, e.g. "e2e4". Files are letters from 'a' and ranks count from 1.
+     *
+     * @param move the packed move
+     * @return the notation of move
+     */
+    public static String toNotation(int move) {
+        return toNotation(getFrom(move)) + toNotation(getTo(move));
+    }
+
+    /**
+     * Returns the coordinate notation of a position, e.g. "e2" for rank = 1 and file = 4.
+     *
+     * @param position the position
+     * @return the notation of position
+     */
+    public static String toNotation(Position position) {
+        return (char) ('a' + position.getFile()) + Integer.toString(position.getRank() + 1);
+    }
+
+    /**
+     * Parses the coordinate notation of a move, e.g. "e2e4", as written by {@link #toNotation(int)}. The parsed move
+     * has no flags.
+     *
+     * @param notation the notation of move
+     * @return the packed move, or {@link #NONE} if the notation is not valid
+     */
+    public static int fromNotation(String notation) {
+        if (notation.length() < 4) {
+            return NONE;
+        }
+        int split = 1;
+        while (split < notation.length() && Character.isDigit(notation.charAt(split))) {
+            split++;
+        }
+        Position from = positionFromNotation(notation.substring(0, split));
+        Position to = positionFromNotation(notation.substring(split));
+        if (from == null || to == null) {
+            return NONE;
+        }
+        return of(from, to, 0);
+    }
+
+    /**
+     * Parses the coordinate notation of a position, e.g. "e2", as written by {@link #toNotation(Position)}.
+     *
+     * @param notation the notation of position
+     * @return the position, or null if the notation is not valid
+     */
+    public static Position positionFromNotation(String notation) {
+        if (notation.length() < 2 || notation.length() > 3) {
+            return null;
+        }
+        int file = notation.charAt(0) - 'a';
+        int rank = 0;
+        for (int i = 1; i < notation.length(); i++) {
+            char digit = notation.charAt(i);
+            if (digit < '0' || digit > '9') {
+                return null;
+            }
+            rank = rank * 10 + digit - '0';
+        }
+        rank--;
+        if (file < 0 || file >= Position.MAX_SIZE || rank < 0 || rank >= Position.MAX_SIZE) {
+            return null;
+        }
+        return Position.of(rank, file);
+    }
+}
@@ -0,0 +1,82 @@
+package model;
+
+/**
+ * MoveList is a reusable buffer of packed moves (see {@link Move}) backed by an int array. Callers keep one list per
+ * search ply and {@link #clear()} it instead of allocating new collections. The array only grows when it is full.
+ */
+public class MoveList {
+
+    /**
+     * The default capacity, enough for all moves of one player in usual positions.
+     */
+    private static final int DEFAULT_CAPACITY = 128;
+
+    private int[] moves;
+    private int size;
+
+    public MoveList() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public MoveList(int capacity) {
+        moves = new int[capacity];
+    }
+
+    /**
+     * Appends a move to the end of this list.
+     *
+     * @param move the packed move
+     */
+    public void add(int move) {
+        if (size == moves.length) {
+            int[] newMoves = new int[moves.length * 2];
+            System.arraycopy(moves, 0, newMoves, 0, size);
+            moves = newMoves;
+        }
+        moves[size++] = move;
+    }
+
+    public int get(int index) {
+        return moves[index];
+    }
+
+    public void set(int index, int move) {
+        moves[index] = move;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Removes all moves after the first given number of moves.
+     *
+     * @param newSize the number of moves to keep
+     */
+    public void truncate(int newSize) {
+        size = newSize;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Returns whether this list contains the given move.
+     *
+     * @param move the packed move
+     * @return true if the move is in this list
+     */
+    public boolean contains(int move) {
+        for (int i = 0; i < size; i++) {
+            if (moves[i] == move) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
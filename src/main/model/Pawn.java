@@ -1,9 +1,11 @@
 package model;
 
-import java.util.HashSet;
-
 public class Pawn extends BasePiece {
-
+    /**
+     * All possible relative move directions for white player. Ranks are negated for black player.
+     */
+    private static final int[] RANK_STEPS = {1, 2, 1, 1};
+    private static final int[] FILE_STEPS = {0, 0, -1, 1};
 
     public Pawn(Position position, boolean whitePlayer) {
         super(position, whitePlayer);
@@ -14,31 +16,21 @@ public class Pawn extends BasePiece {
     }
 
     /**
-     * See also {@link BasePiece#getPossibleLegalMoves(BasePiece[][])}.
+     * See also {@link BasePiece#generateMoves(BasePiece[][], MoveList)}.
      */
     @Override
-    public HashSet<Position> getPossibleLegalMoves(BasePiece[][] chessboard) {
-        HashSet<Position> moves = new HashSet<Position>();
+    public void generateMoves(BasePiece[][] chessboard, MoveList moves) {
         Position position = getPosition();
 
         // Gets the rank direction for legal move.
         // White player should go up; black player should go down.
         int dir = getWhitePlayer() ? 1 : -1;
 
-        // Gets all possible relative move directions.
-        Position[] possiblePosDir = {new Position(dir, 0), new Position(2 * dir, 0)
-                , new Position(dir, -1), new Position(dir, 1)};
-
-        for (Position posDis : possiblePosDir) {
-            // Generates a new possible position.
-            Position newPosition = new Position(position.getRank() + posDis.getRank()
-                    , position.getFile() + posDis.getFile());
-            // Check if the new position is valid.
-            if (isValidMove(chessboard, newPosition)) {
-                moves.add(newPosition);
-            }
+        for (int i = 0; i < RANK_STEPS.length; i++) {
+            // Generates a new possible position and checks if it is valid.
+            addMoveIfValid(chessboard, position.getRank() + RANK_STEPS[i] * dir
+                    , position.getFile() + FILE_STEPS[i], moves);
         }
-        return moves;
     }
 
     /**
@@ -85,12 +77,19 @@ public class Pawn extends BasePiece {
         return "P";
     }
 
+    /**
+     * See also {@link BasePiece#getType()}.
+     */
+    @Override
+    public int getType() {
+        return PAWN;
+    }
+
     /**
      * See also {@link BasePiece#clonePiece()}.
      */
     @Override
     public Pawn clonePiece() {
-        Position pos = new Position(getPosition().getRank(), getPosition().getFile());
-        return new Pawn(pos, getWhitePlayer(), getFirstTime());
+        return new Pawn(getPosition(), getWhitePlayer(), getFirstTime());
     }
 }
\ No newline at end of file
@@ -0,0 +1,360 @@
+package model;
+
+import model.BasePiece.Position;
+
+import java.util.Arrays;
+
+/**
+ * PositionCodec writes a {@link Board} position as text or as compact bytes, and reads it back. Both forms keep every
+ * piece with its owner and whether it has moved before ({@link BasePiece#getFirstTime()}), as well as whose turn it is,
+ * so a decoded board has the same {@link Board#getHashKey()} as the encoded one. The move history is not kept.
+ * <p>
+ * The text form extends FEN with the piece letters of {@link BasePiece#getNameString()}, upper case for white and
+ * lower case for black, e.g. the starting position is
+ * <pre>
+ * rnbqkbnr/pppppppp/s6e/8/8/S6E/PPPPPPPP/RNBQKBNR w ffff81000081ffff
+ * </pre>
+ * The ranks are listed from the top, digits count empty positions, "w" or "b" tells the player to move, and the last
+ * field is the hexadecimal bit mask of the positions whose pieces have never moved, bit (rank * width + file), or "-"
+ * if there is none. Boards of any size up to {@link Position#MAX_SIZE} can be written as text.
+ * <p>
+ * The binary form is for 8*8 boards and takes at most {@link #MAX_BINARY_LENGTH} bytes: a 64-bit occupancy mask, then
+ * a bit stream of one bit for the player to move and five bits for each piece in order of position (three bits of
+ * type, one bit of owner and one bit of first time).
+ */
+public final class PositionCodec {
+
+    /**
+     * The maximum length of the binary form in bytes.
+     */
+    public static final int MAX_BINARY_LENGTH = 32;
+
+    /**
+     * The maximum number of pieces the binary form can hold in {@link #MAX_BINARY_LENGTH} bytes.
+     */
+    public static final int MAX_BINARY_PIECES = (MAX_BINARY_LENGTH * 8 - 64 - 1) / 5;
+
+    /**
+     * The letters of white pieces indexed by {@link BasePiece#getType()}.
+     */
+    private static final char[] LETTERS = {'P', 'N', 'B', 'R', 'Q', 'K', 'S', 'E'};
+
+    /**
+     * The piece type of each upper case letter, or -1.
+     */
+    private static final int[] TYPES = new int[128];
+
+    static {
+        Arrays.fill(TYPES, -1);
+        for (int type = 0; type < LETTERS.length; type++) {
+            TYPES[LETTERS[type]] = type;
+        }
+    }
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private PositionCodec() {
+    }
+
+    /**
+     * Returns the text form of the position.
+     *
+     * @param board the board to write
+     * @return the text form
+     */
+    public static String toText(Board board) {
+        StringBuilder builder = new StringBuilder(96);
+        appendText(board, builder);
+        return builder.toString();
+    }
+
+    /**
+     * Appends the text form of the position to the builder, so that many positions can be written without temporary
+     * strings.
+     *
+     * @param board   the board to write
+     * @param builder the builder to append to
+     */
+    public static void appendText(Board board, StringBuilder builder) {
+        BasePiece[][] chessboard = board.getChessBoard();
+        int height = chessboard.length;
+        int width = chessboard[0].length;
+        for (int rank = height - 1; rank >= 0; rank--) {
+            int empty = 0;
+            for (int file = 0; file < width; file++) {
+                BasePiece piece = chessboard[rank][file];
+                if (piece == null) {
+                    empty++;
+                    continue;
+                }
+                if (empty > 0) {
+                    builder.append(empty);
+                    empty = 0;
+                }
+                char letter = LETTERS[piece.getType()];
+                builder.append(piece.getWhitePlayer() ? letter : Character.toLowerCase(letter));
+            }
+            if (empty > 0) {
+                builder.append(empty);
+            }
+            if (rank > 0) {
+                builder.append('/');
+            }
+        }
+        builder.append(board.isWhiteToMove() ? " w " : " b ");
+
+        // The unmoved mask is written from its highest non-zero digit
+        boolean written = false;
+        for (int bit = (height * width + 3) / 4 * 4 - 4; bit >= 0; bit -= 4) {
+            int digit = 0;
+            for (int i = 3; i >= 0; i--) {
+                digit = (digit << 1) | (isUnmoved(chessboard, bit + i, width) ? 1 : 0);
+            }
+            if (digit != 0 || written) {
+                builder.append(HEX_DIGITS[digit]);
+                written = true;
+            }
+        }
+        if (!written) {
+            builder.append('-');
+        }
+    }
+
+    private static boolean isUnmoved(BasePiece[][] chessboard, int bit, int width) {
+        int rank = bit / width;
+        if (rank >= chessboard.length) {
+            return false;
+        }
+        BasePiece piece = chessboard[rank][bit % width];
+        return piece != null && piece.getFirstTime();
+    }
+
+    /**
+     * Reads a position from its text form.
+     *
+     * @param text the text form
+     * @return the new board with the position
+     * @throws IllegalArgumentException if the text is not a valid position
+     */
+    public static Board fromText(CharSequence text) {
+        int length = text.length();
+
+        // Measures the board from the placement field
+        int height = 1;
+        int width = 0;
+        int end = 0;
+        int rankWidth = 0;
+        for (; end < length && text.charAt(end) != ' '; end++) {
+            char c = text.charAt(end);
+            if (c == '/') {
+                height++;
+                width = checkRankWidth(width, rankWidth);
+                rankWidth = 0;
+            } else if (Character.isDigit(c)) {
+                int count = c - '0';
+                while (end + 1 < length && Character.isDigit(text.charAt(end + 1))) {
+                    count = count * 10 + text.charAt(++end) - '0';
+                }
+                rankWidth += count;
+            } else {
+                rankWidth++;
+            }
+        }
+        width = checkRankWidth(width, rankWidth);
+        if (end + 2 >= length || text.charAt(end + 2) != ' ') {
+            throw new IllegalArgumentException("Missing player to move: " + text);
+        }
+        char player = text.charAt(end + 1);
+        if (player != 'w' && player != 'b') {
+            throw new IllegalArgumentException("Bad player to move: " + text);
+        }
+        int maskStart = end + 3;
+        int maskEnd = maskStart;
+        while (maskEnd < length && text.charAt(maskEnd) != ' ') {
+            maskEnd++;
+        }
+        if (maskEnd == maskStart) {
+            throw new IllegalArgumentException("Missing unmoved mask: " + text);
+        }
+        boolean noneUnmoved = text.charAt(maskStart) == '-';
+
+        Board board = new Board(height, width);
+        int rank = height - 1;
+        int file = 0;
+        for (int i = 0; i < end; i++) {
+            char c = text.charAt(i);
+            if (c == '/') {
+                rank--;
+                file = 0;
+            } else if (Character.isDigit(c)) {
+                int count = c - '0';
+                while (Character.isDigit(text.charAt(i + 1))) {
+                    count = count * 10 + text.charAt(++i) - '0';
+                }
+                file += count;
+            } else {
+                int type = c < 128 ? TYPES[Character.toUpperCase(c)] : -1;
+                if (type < 0) {
+                    throw new IllegalArgumentException("Bad piece letter '" + c + "': " + text);
+                }
+                int bit = rank * width + file;
+                boolean unmoved = !noneUnmoved && hexBit(text, maskStart, maskEnd, bit);
+                board.setPiece(newPiece(type, Position.of(rank, file), Character.isUpperCase(c), unmoved));
+                file++;
+            }
+        }
+        board.setWhiteToMove(player == 'w');
+        return board;
+    }
+
+    private static int checkRankWidth(int width, int rankWidth) {
+        if (rankWidth == 0 || (width != 0 && width != rankWidth)) {
+            throw new IllegalArgumentException("Ranks have different widths");
+        }
+        return rankWidth;
+    }
+
+    /**
+     * Returns the given bit of the hexadecimal number between the start index and the end index of text.
+     */
+    private static boolean hexBit(CharSequence text, int start, int end, int bit) {
+        int index = end - 1 - bit / 4;
+        if (index < start) {
+            return false;
+        }
+        int digit = Character.digit(text.charAt(index), 16);
+        if (digit < 0) {
+            throw new IllegalArgumentException("Bad unmoved mask: " + text);
+        }
+        return (digit >>> (bit % 4) & 1) != 0;
+    }
+
+    /**
+     * Writes the binary form of an 8*8 position into the array.
+     *
+     * @param board  the board to write
+     * @param bytes  the array to write to
+     * @param offset the index of first byte
+     * @return the number of bytes written, at most {@link #MAX_BINARY_LENGTH}
+     * @throws IllegalArgumentException if the board is not 8*8 or has more than {@link #MAX_BINARY_PIECES} pieces
+     */
+    public static int toBytes(Board board, byte[] bytes, int offset) {
+        BasePiece[][] chessboard = board.getChessBoard();
+        if (chessboard.length != 8 || chessboard[0].length != 8) {
+            throw new IllegalArgumentException("Binary form is only for 8*8 boards");
+        }
+        long occupancy = 0;
+        for (int square = 0; square < 64; square++) {
+            if (chessboard[square >>> 3][square & 7] != null) {
+                occupancy |= 1L << square;
+            }
+        }
+        int pieces = Long.bitCount(occupancy);
+        if (pieces > MAX_BINARY_PIECES) {
+            throw new IllegalArgumentException("Binary form holds at most " + MAX_BINARY_PIECES + " pieces");
+        }
+        for (int i = 0; i < 8; i++) {
+            bytes[offset + i] = (byte) (occupancy >>> (56 - 8 * i));
+        }
+        int length = binaryLength(pieces);
+        for (int i = 8; i < length; i++) {
+            bytes[offset + i] = 0;
+        }
+
+        int bit = writeBits(bytes, offset + 8, 0, board.isWhiteToMove() ? 0 : 1, 1);
+        for (long rest = occupancy; rest != 0; rest &= rest - 1) {
+            int square = Long.numberOfTrailingZeros(rest);
+            BasePiece piece = chessboard[square >>> 3][square & 7];
+            int code = (piece.getType() << 2) | (piece.getWhitePlayer() ? 0 : 2) | (piece.getFirstTime() ? 1 : 0);
+            bit = writeBits(bytes, offset + 8, bit, code, 5);
+        }
+        return length;
+    }
+
+    /**
+     * Reads an 8*8 position from its binary form.
+     *
+     * @param bytes  the array to read from
+     * @param offset the index of first byte
+     * @return the new board with the position
+     */
+    public static Board fromBytes(byte[] bytes, int offset) {
+        long occupancy = 0;
+        for (int i = 0; i < 8; i++) {
+            occupancy = (occupancy << 8) | (bytes[offset + i] & 0xFF);
+        }
+        Board board = new Board(8, 8);
+        int bit = 1;
+        for (long rest = occupancy; rest != 0; rest &= rest - 1) {
+            int square = Long.numberOfTrailingZeros(rest);
+            int code = readBits(bytes, offset + 8, bit, 5);
+            bit += 5;
+            board.setPiece(newPiece(code >>> 2, Position.of(square >>> 3, square & 7), (code & 2) == 0
+                    , (code & 1) != 0));
+        }
+        board.setWhiteToMove(readBits(bytes, offset + 8, 0, 1) == 0);
+        return board;
+    }
+
+    /**
+     * Returns the length of binary form of a position with the given number of pieces.
+     *
+     * @param pieces the number of pieces
+     * @return the length in bytes
+     */
+    public static int binaryLength(int pieces) {
+        return 8 + (1 + 5 * pieces + 7) / 8;
+    }
+
+    /**
+     * Writes the low bits of value into the bit stream from the highest bit, and returns the next bit index.
+     */
+    private static int writeBits(byte[] bytes, int start, int bit, int value, int count) {
+        for (int i = count - 1; i >= 0; i--, bit++) {
+            if ((value >>> i & 1) != 0) {
+                bytes[start + (bit >>> 3)] |= (byte) (0x80 >>> (bit & 7));
+            }
+        }
+        return bit;
+    }
+
+    private static int readBits(byte[] bytes, int start, int bit, int count) {
+        int value = 0;
+        for (int i = 0; i < count; i++, bit++) {
+            value = (value << 1) | (bytes[start + (bit >>> 3)] >>> (7 - (bit & 7)) & 1);
+        }
+        return value;
+    }
+
+    /**
+     * Creates a piece of the given type, see {@link BasePiece#getType()}.
+     *
+     * @param type        the type of piece
+     * @param position    the position of piece
+     * @param whitePlayer the owner of piece
+     * @param firstTime   whether the piece has never moved
+     * @return the new piece
+     */
+    public static BasePiece newPiece(int type, Position position, boolean whitePlayer, boolean firstTime) {
+        switch (type) {
+            case BasePiece.PAWN:
+                return new Pawn(position, whitePlayer, firstTime);
+            case BasePiece.KNIGHT:
+                return new Knight(position, whitePlayer, firstTime);
+            case BasePiece.BISHOP:
+                return new Bishop(position, whitePlayer, firstTime);
+            case BasePiece.ROOK:
+                return new Rook(position, whitePlayer, firstTime);
+            case BasePiece.QUEEN:
+                return new Queen(position, whitePlayer, firstTime);
+            case BasePiece.KING:
+                return new King(position, whitePlayer, firstTime);
+            case BasePiece.SOLDIER:
+                return new Soldier(position, whitePlayer, firstTime);
+            case BasePiece.ELEPHANT:
+                return new Elephant(position, whitePlayer, firstTime);
+            default:
+                throw new IllegalArgumentException("Unknown piece type " + type);
+        }
+    }
+}
@@ -1,7 +1,5 @@
 package model;
 
-import java.util.HashSet;
-
 public class Queen extends BasePiece {
 
     public Queen(Position position, boolean whitePlayer) {
@@ -13,19 +11,18 @@ public class Queen extends BasePiece {
     }
 
     /**
-     * See also {@link BasePiece#getPossibleLegalMoves(BasePiece[][])}.
+     * See also {@link BasePiece#generateMoves(BasePiece[][], MoveList)}.
      */
     @Override
-    public HashSet<Position> getPossibleLegalMoves(BasePiece[][] chessboard) {
-        HashSet<Position> moves = new HashSet<Position>();
-        Position position = getPosition();
-
+    public void generateMoves(BasePiece[][] chessboard, MoveList moves) {
         // Queen's legal moves are the superset of rook's and bishop's with same position
-        Rook rook = new Rook(position, getWhitePlayer());
-        Bishop bishop = new Bishop(position, getWhitePlayer());
-        moves.addAll(rook.getPossibleLegalMoves(chessboard));
-        moves.addAll(bishop.getPossibleLegalMoves(chessboard));
-        return moves;
+        for (int rankStep = -1; rankStep <= 1; rankStep++) {
+            for (int fileStep = -1; fileStep <= 1; fileStep++) {
+                if (rankStep != 0 || fileStep != 0) {
+                    addSlidingMoves(chessboard, rankStep, fileStep, moves);
+                }
+            }
+        }
     }
 
     /**
@@ -55,12 +52,19 @@ public class Queen extends BasePiece {
         return "Q";
     }
 
+    /**
+     * See also {@link BasePiece#getType()}.
+     */
+    @Override
+    public int getType() {
+        return QUEEN;
+    }
+
     /**
      * See also {@link BasePiece#clonePiece()}.
      */
     @Override
     public Queen clonePiece() {
-        Position pos = new Position(getPosition().getRank(), getPosition().getFile());
-        return new Queen(pos, getWhitePlayer(), getFirstTime());
+        return new Queen(getPosition(), getWhitePlayer(), getFirstTime());
     }
 }
@@ -1,7 +1,5 @@
 package model;
 
-import java.util.HashSet;
-
 public class Rook extends BasePiece {
 
     public Rook(Position position, boolean whitePlayer) {
@@ -13,29 +11,15 @@ public class Rook extends BasePiece {
     }
 
     /**
-     * See also {@link BasePiece#getPossibleLegalMoves(BasePiece[][])}.
+     * See also {@link BasePiece#generateMoves(BasePiece[][], MoveList)}.
      */
     @Override
-    public HashSet<Position> getPossibleLegalMoves(BasePiece[][] chessboard) {
-        HashSet<Position> moves = new HashSet<Position>();
-        Position position = getPosition();
-
-        // Checks all positions in same file
-        for (int rank = 0; rank < chessboard.length; rank++) {
-            Position newPosition = new Position(rank, position.getFile());
-            if (isValidMove(chessboard, newPosition)) {
-                moves.add(newPosition);
-            }
-        }
-
-        // Checks all positions in same rank
-        for (int file = 0; file < chessboard[0].length; file++) {
-            Position newPosition = new Position(position.getRank(), file);
-            if (isValidMove(chessboard, newPosition)) {
-                moves.add(newPosition);
-            }
-        }
-        return moves;
+    public void generateMoves(BasePiece[][] chessboard, MoveList moves) {
+        // Checks all positions in same file and same rank until blocked
+        addSlidingMoves(chessboard, 1, 0, moves);
+        addSlidingMoves(chessboard, -1, 0, moves);
+        addSlidingMoves(chessboard, 0, 1, moves);
+        addSlidingMoves(chessboard, 0, -1, moves);
     }
 
     /**
@@ -63,12 +47,19 @@ public class Rook extends BasePiece {
         return "R";
     }
 
+    /**
+     * See also {@link BasePiece#getType()}.
+     */
+    @Override
+    public int getType() {
+        return ROOK;
+    }
+
     /**
      * See also {@link BasePiece#clonePiece()}.
      */
     @Override
     public Rook clonePiece() {
-        Position pos = new Position(getPosition().getRank(), getPosition().getFile());
-        return new Rook(pos, getWhitePlayer(), getFirstTime());
+        return new Rook(getPosition(), getWhitePlayer(), getFirstTime());
     }
 }
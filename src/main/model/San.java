@@ -0,0 +1,182 @@
+package model;
+
+import model.BasePiece.Position;
+
+/**
+ * San writes and reads moves in standard algebraic notation, as used by PGN files. A move is written as the piece
+ * letter of {@link BasePiece#getNameString()} (none for pawns), the original file, rank or both if another piece of
+ * same type can move to the same position, "x" for a capture, the target position, then "+" for a check or "#" for a
+ * checkmate, e.g. "Nf3", "exd5", "Sxa4+" or "Eb6". The Soldier and Elephant use the letters "S" and "E". There is no
+ * castling, promotion or en passant capture in this game, so there is no notation for them.
+ */
+public final class San {
+
+    private San() {
+    }
+
+    /**
+     * Returns the notation of a legal move of the player to move. The board is unchanged when this returns.
+     *
+     * @param board the board before the move
+     * @param move  the packed move, see {@link Move}
+     * @param moves a list to generate the legal moves into, which is cleared first
+     * @return the notation of move
+     */
+    public static String toSan(Board board, int move, MoveList moves) {
+        Position from = Move.getFrom(move);
+        Position to = Move.getTo(move);
+        BasePiece piece = board.getPiece(from);
+        boolean capture = board.getPiece(to) != null;
+        StringBuilder builder = new StringBuilder(8);
+        if (piece.getType() == BasePiece.PAWN) {
+            if (capture) {
+                builder.append(fileLetter(from.getFile()));
+            }
+        } else {
+            builder.append(piece.getNameString());
+            // Finds other pieces of same type that can move to the same position
+            boolean ambiguous = false;
+            boolean sameFile = false;
+            boolean sameRank = false;
+            moves.clear();
+            board.generateLegalMoves(piece.getWhitePlayer(), moves);
+            for (int i = 0; i < moves.size(); i++) {
+                int other = moves.get(i);
+                Position otherFrom = Move.getFrom(other);
+                if (Move.getToIndex(other) == to.getIndex() && !otherFrom.equals(from)
+                        && board.getPiece(otherFrom).getType() == piece.getType()) {
+                    ambiguous = true;
+                    sameFile |= otherFrom.getFile() == from.getFile();
+                    sameRank |= otherFrom.getRank() == from.getRank();
+                }
+            }
+            if (ambiguous) {
+                if (!sameFile) {
+                    builder.append(fileLetter(from.getFile()));
+                } else if (!sameRank) {
+                    builder.append(from.getRank() + 1);
+                } else {
+                    builder.append(Move.toNotation(from));
+                }
+            }
+        }
+        if (capture) {
+            builder.append('x');
+        }
+        builder.append(Move.toNotation(to));
+
+        boolean opponent = !piece.getWhitePlayer();
+        board.makeMove(move);
+        if (board.inCheckmate(opponent)) {
+            builder.append('#');
+        } else if (board.inCheck(opponent)) {
+            builder.append('+');
+        }
+        board.undoMove();
+        return builder.toString();
+    }
+
+    /**
+     * Parses the notation of a move of the player to move. Check and annotation suffixes such as "+", "#", "!" and "?"
+     * are ignored, and so is a missing or extra "x".
+     *
+     * @param board    the board before the move
+     * @param notation the notation of move
+     * @param moves    a list to generate the legal moves into, which is cleared first
+     * @return the legal move, with the {@link Move#CAPTURE} flag if it captures, or {@link Move#NONE} if the notation is
+     * not valid or does not name exactly one legal move
+     */
+    public static int fromSan(Board board, CharSequence notation, MoveList moves) {
+        int end = notation.length();
+        while (end > 0 && "+#!?".indexOf(notation.charAt(end - 1)) >= 0) {
+            end--;
+        }
+        int start = 0;
+        int type = BasePiece.PAWN;
+        if (end > 0 && Character.isUpperCase(notation.charAt(0))) {
+            type = typeOf(notation.charAt(0));
+            if (type < 0) {
+                return Move.NONE;
+            }
+            start = 1;
+        }
+        // The target position is the last letter and the digits after it
+        int targetStart = end;
+        while (targetStart > start && Character.isDigit(notation.charAt(targetStart - 1))) {
+            targetStart--;
+        }
+        targetStart--;
+        if (targetStart < start || targetStart == end - 1) {
+            return Move.NONE;
+        }
+        Position to = Move.positionFromNotation(notation.subSequence(targetStart, end).toString());
+        if (to == null) {
+            return Move.NONE;
+        }
+        // The rest is an optional original file and rank, and an optional "x"
+        int fromFile = -1;
+        int fromRank = -1;
+        int rankValue = 0;
+        for (int i = start; i < targetStart; i++) {
+            char c = notation.charAt(i);
+            if (c >= 'a' && c <= 'z' && c != 'x' && fromFile < 0 && rankValue == 0) {
+                fromFile = c - 'a';
+            } else if (c >= '0' && c <= '9') {
+                rankValue = rankValue * 10 + c - '0';
+            } else if (c != 'x' || i != targetStart - 1) {
+                return Move.NONE;
+            }
+        }
+        if (rankValue > 0) {
+            fromRank = rankValue - 1;
+        }
+
+        int found = Move.NONE;
+        moves.clear();
+        board.generateLegalMoves(board.isWhiteToMove(), moves);
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            if (Move.getToIndex(move) != to.getIndex()) {
+                continue;
+            }
+            Position from = Move.getFrom(move);
+            if (board.getPiece(from).getType() != type || (fromFile >= 0 && from.getFile() != fromFile)
+                    || (fromRank >= 0 && from.getRank() != fromRank)) {
+                continue;
+            }
+            if (found != Move.NONE) {
+                return Move.NONE;
+            }
+            found = move;
+        }
+        return found;
+    }
+
+    private static char fileLetter(int file) {
+        return (char) ('a' + file);
+    }
+
+    /**
+     * Returns the piece type of an upper case piece letter other than "P", or -1.
+     */
+    private static int typeOf(char letter) {
+        switch (letter) {
+            case 'N':
+                return BasePiece.KNIGHT;
+            case 'B':
+                return BasePiece.BISHOP;
+            case 'R':
+                return BasePiece.ROOK;
+            case 'Q':
+                return BasePiece.QUEEN;
+            case 'K':
+                return BasePiece.KING;
+            case 'S':
+                return BasePiece.SOLDIER;
+            case 'E':
+                return BasePiece.ELEPHANT;
+            default:
+                return -1;
+        }
+    }
+}
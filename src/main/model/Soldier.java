@@ -1,7 +1,5 @@
 package model;
 
-import java.util.HashSet;
-
 /**
  * This piece class follows the rule of Chinese Pawn - Soldier. Before traversing half of the chessboard, it
  * can only move forward one step; after that, it can either move forward or left or right for one step. For
@@ -19,31 +17,22 @@ public class Soldier extends BasePiece {
     }
 
     /**
-     * See also {@link BasePiece#getPossibleLegalMoves(BasePiece[][])}.
+     * See also {@link BasePiece#generateMoves(BasePiece[][], MoveList)}.
      */
     @Override
-    public HashSet<Position> getPossibleLegalMoves(BasePiece[][] chessboard) {
-        HashSet<BasePiece.Position> moves = new HashSet<BasePiece.Position>();
+    public void generateMoves(BasePiece[][] chessboard, MoveList moves) {
         int dir = getWhitePlayer() ? 1 : -1;
         BasePiece.Position position = getPosition();
         int rank = position.getRank();
         int file = position.getFile();
 
-        Position newPosition = new Position(rank + dir, file);
-        if (isValidMove(chessboard, new Position(rank + dir, file))) {
-            moves.add(newPosition);
-        }
+        addMoveIfValid(chessboard, rank + dir, file, moves);
 
         if (isPassedHalfway(position, getWhitePlayer())) {
             for (int fileGradient = -1; fileGradient <= 1; fileGradient += 2) {
-                newPosition = new Position(rank, file + fileGradient);
-                if (isValidMove(chessboard, newPosition)) {
-                    moves.add(newPosition);
-                }
+                addMoveIfValid(chessboard, rank, file + fileGradient, moves);
             }
         }
-
-        return moves;
     }
 
     /**
@@ -81,12 +70,19 @@ public class Soldier extends BasePiece {
         return "S";
     }
 
+    /**
+     * See also {@link BasePiece#getType()}.
+     */
+    @Override
+    public int getType() {
+        return SOLDIER;
+    }
+
     /**
      * See also {@link BasePiece#clonePiece()}.
      */
     @Override
     public Soldier clonePiece() {
-        Position pos = new Position(getPosition().getRank(), getPosition().getFile());
-        return new Soldier(pos, getWhitePlayer(), getFirstTime());
+        return new Soldier(getPosition(), getWhitePlayer(), getFirstTime());
     }
 }
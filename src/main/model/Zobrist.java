@@ -0,0 +1,63 @@
+package model;
+
+import model.BasePiece.Position;
+
+import java.util.SplittableRandom;
+
+/**
+ * Zobrist holds the random keys for hashing a chessboard position into a 64-bit key. The key of a position is the
+ * XOR of the keys of each piece on its position, the key of each position whose piece has not been moved before, and
+ * {@link #BLACK_TO_MOVE} if it is black player's turn. Since XOR is its own inverse, the key can be updated in O(1)
+ * per move. The keys are generated from a fixed seed, so they stay the same across runs.
+ */
+public final class Zobrist {
+
+    /**
+     * The key that is included when it is black player's turn.
+     */
+    public static final long BLACK_TO_MOVE;
+
+    private static final int SQUARES = Position.MAX_SIZE * Position.MAX_SIZE;
+    private static final long[][][] PIECES = new long[2][BasePiece.PIECE_TYPES][SQUARES];
+    private static final long[] UNMOVED = new long[SQUARES];
+
+    static {
+        SplittableRandom random = new SplittableRandom(0x5DEECE66DL);
+        for (long[][] colour : PIECES) {
+            for (long[] type : colour) {
+                for (int index = 0; index < SQUARES; index++) {
+                    type[index] = random.nextLong();
+                }
+            }
+        }
+        for (int index = 0; index < SQUARES; index++) {
+            UNMOVED[index] = random.nextLong();
+        }
+        BLACK_TO_MOVE = random.nextLong();
+    }
+
+    private Zobrist() {
+    }
+
+    /**
+     * Returns the key of a piece on its current position, including whether it has been moved before.
+     *
+     * @param piece the piece
+     * @return the key of piece
+     */
+    public static long pieceKey(BasePiece piece) {
+        int index = piece.getPosition().getIndex();
+        long key = PIECES[piece.getWhitePlayer() ? 0 : 1][piece.getType()][index];
+        return piece.getFirstTime() ? key ^ UNMOVED[index] : key;
+    }
+
+    /**
+     * Returns the key toggled when the piece on given position changes whether it has been moved before.
+     *
+     * @param position the position of piece
+     * @return the key of not moved flag
+     */
+    public static long unmovedKey(Position position) {
+        return UNMOVED[position.getIndex()];
+    }
+}
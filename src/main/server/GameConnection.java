@@ -0,0 +1,121 @@
+package server;
+
+import controller.GameSession;
+import controller.GameSessionManager;
+import model.Move;
+
+import java.io.IOException;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * GameConnection serves the protocol of {@link GameServer} on one blocking socket channel. It runs on its own virtual
+ * thread, and reads into a small fixed buffer, so that an idle connection holds little memory.
+ */
+class GameConnection implements Runnable {
+
+    /**
+     * The longest request line in bytes, including the line break.
+     */
+    private static final int MAX_LINE_LENGTH = 128;
+
+    private final SocketChannel channel;
+    private final GameSessionManager sessionManager;
+    private final ByteBuffer input = ByteBuffer.allocate(MAX_LINE_LENGTH);
+
+    GameConnection(SocketChannel channel, GameSessionManager sessionManager) {
+        this.channel = channel;
+        this.sessionManager = sessionManager;
+    }
+
+    @Override
+    public void run() {
+        GameSession session = sessionManager.create();
+        try {
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            write("hello " + session.getId());
+            String line;
+            while ((line = readLine()) != null) {
+                if (line.equals("quit")) {
+                    write("bye");
+                    break;
+                }
+                write(handle(session, line));
+            }
+        } catch (IOException e) {
+            // The connection is broken, so the game is dropped
+        } finally {
+            sessionManager.close(session.getId());
+            try {
+                channel.close();
+            } catch (IOException e) {
+                // Nothing more can be done with a broken connection
+            }
+        }
+    }
+
+    /**
+     * Handles one request line and returns the answer.
+     */
+    static String handle(GameSession session, String line) {
+        String[] words = line.split(" ");
+        switch (words[0]) {
+            case "move":
+                if (words.length != 2 || Move.fromNotation(words[1]) == Move.NONE) {
+                    return "error bad move";
+                }
+                int move = Move.fromNotation(words[1]);
+                GameSession.Status status = session.move(Move.getFrom(move), Move.getTo(move));
+                return status == GameSession.Status.ILLEGAL ? "illegal" : "ok " + status.name().toLowerCase();
+            case "undo":
+                return session.undo() ? "ok" : "error cannot undo";
+            case "forfeit":
+                if (!session.forfeit(session.isWhiteToMove())) {
+                    return "error game over";
+                }
+                return "ok " + session.getLastResult().name().toLowerCase();
+            case "new":
+                session.restart();
+                return "ok";
+            case "turn":
+                return session.isWhiteToMove() ? "white" : "black";
+            default:
+                return "error unknown command";
+        }
+    }
+
+    /**
+     * Reads one line without the line break, or returns null at the end of stream.
+     */
+    private String readLine() throws IOException {
+        int scanned = 0;
+        while (true) {
+            for (int i = scanned; i < input.position(); i++) {
+                if (input.get(i) == '\n') {
+                    String line = new String(input.array(), 0, i, StandardCharsets.US_ASCII).trim();
+                    // Keeps the bytes after the line for the next read
+                    int remaining = input.position() - i - 1;
+                    System.arraycopy(input.array(), i + 1, input.array(), 0, remaining);
+                    input.position(remaining);
+                    return line;
+                }
+            }
+            scanned = input.position();
+            if (!input.hasRemaining()) {
+                throw new IOException("Line is too long");
+            }
+            if (channel.read(input) < 0) {
+                return null;
+            }
+        }
+    }
+
+    private void write(String line) throws IOException {
+        ByteBuffer output = ByteBuffer.wrap((line + "\n").getBytes(StandardCharsets.US_ASCII));
+        while (output.hasRemaining()) {
+            channel.write(output);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package server;
+
+import controller.GameSessionManager;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.AsynchronousCloseException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * GameServer serves games over TCP with a line-based protocol. Every connection plays one {@link controller.GameSession}
+ * on its own virtual thread, which blocks on NIO socket channels and costs almost nothing while the game is idle, so
+ * one node can keep a very large number of open games.
+ * <p>
+ * The server greets a new connection with {@code hello <session id>}. Each request is one line, answered by one line:
+ * <ul>
+ * <li>{@code move e2e4}: answers {@code ok in_progress}, {@code ok check}, {@code ok checkmate}, {@code ok stalemate}
+ * or {@code illegal}</li>
+ * <li>{@code undo}: answers {@code ok} or {@code error cannot undo}</li>
+ * <li>{@code forfeit}: the player to move gives up, answers {@code ok white_win} or {@code ok black_win}</li>
+ * <li>{@code new}: starts a new game, answers {@code ok}</li>
+ * <li>{@code turn}: answers {@code white} or {@code black}</li>
+ * <li>{@code quit}: answers {@code bye} and closes the connection</li>
+ * </ul>
+ * Anything else is answered by {@code error <reason>}.
+ */
+public class GameServer implements AutoCloseable {
+
+    /**
+     * The maximum number of connections waiting to be accepted.
+     */
+    private static final int BACKLOG = 4096;
+
+    private final GameSessionManager sessionManager;
+    private final AtomicInteger connectionCount = new AtomicInteger();
+    private ServerSocketChannel serverChannel;
+    private Thread acceptor;
+
+    public GameServer(GameSessionManager sessionManager) {
+        this.sessionManager = sessionManager;
+    }
+
+    /**
+     * Starts accepting connections on the given port.
+     *
+     * @param port the port, or 0 for any free port
+     * @return the port bound
+     * @throws IOException if the port cannot be bound
+     */
+    public synchronized int start(int port) throws IOException {
+        if (serverChannel != null) {
+            throw new IllegalStateException("Server is already started");
+        }
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(new InetSocketAddress(port), BACKLOG);
+        acceptor = new Thread(this::acceptConnections, "game-server-acceptor");
+        acceptor.start();
+        return serverChannel.socket().getLocalPort();
+    }
+
+    private void acceptConnections() {
+        while (true) {
+            SocketChannel channel;
+            try {
+                channel = serverChannel.accept();
+            } catch (AsynchronousCloseException e) {
+                // The server is closed
+                return;
+            } catch (IOException e) {
+                if (!serverChannel.isOpen()) {
+                    return;
+                }
+                continue;
+            }
+            connectionCount.incrementAndGet();
+            Thread.ofVirtual().name("game-connection").start(() -> {
+                try {
+                    new GameConnection(channel, sessionManager).run();
+                } finally {
+                    connectionCount.decrementAndGet();
+                }
+            });
+        }
+    }
+
+    /**
+     * Returns the number of open connections.
+     *
+     * @return the number of connections
+     */
+    public int getConnectionCount() {
+        return connectionCount.get();
+    }
+
+    public GameSessionManager getSessionManager() {
+        return sessionManager;
+    }
+
+    /**
+     * Stops accepting connections. Open connections are served until they are closed by the clients.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (serverChannel != null) {
+            serverChannel.close();
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 7777;
+        GameServer server = new GameServer(new GameSessionManager());
+        System.out.println("Game server listening on port " + server.start(port));
+    }
+}
@@ -0,0 +1,179 @@
+package server;
+
+import model.Board;
+import model.Move;
+import model.MoveList;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * LoadGenerator plays random games against a {@link GameServer} to measure it. Every active client plays both sides of
+ * its game on a virtual thread as fast as the server answers, mirroring the game on a local {@link Board} to choose
+ * legal moves, while idle clients only keep their connections open. Prints the moves per second and the latency
+ * percentiles of the move requests.
+ * <p>
+ * Usage: {@code LoadGenerator [host] [port] [activeClients] [seconds] [idleClients]}, by default
+ * {@code localhost 7777 64 10 0}.
+ */
+public class LoadGenerator {
+
+    /**
+     * The longest game played before starting over, so that random games do not go on forever.
+     */
+    private static final int MAX_GAME_PLIES = 200;
+
+    public static void main(String[] args) throws Exception {
+        String host = args.length > 0 ? args[0] : "localhost";
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : 7777;
+        int activeClients = args.length > 2 ? Integer.parseInt(args[2]) : 64;
+        int seconds = args.length > 3 ? Integer.parseInt(args[3]) : 10;
+        int idleClients = args.length > 4 ? Integer.parseInt(args[4]) : 0;
+        InetSocketAddress address = new InetSocketAddress(host, port);
+
+        List<SocketChannel> idleChannels = new ArrayList<SocketChannel>();
+        for (int i = 0; i < idleClients; i++) {
+            idleChannels.add(SocketChannel.open(address));
+        }
+
+        long deadline = System.nanoTime() + seconds * 1000000000L;
+        Client[] clients = new Client[activeClients];
+        CountDownLatch done = new CountDownLatch(activeClients);
+        for (int i = 0; i < activeClients; i++) {
+            clients[i] = new Client(address, deadline, i);
+            Client client = clients[i];
+            Thread.ofVirtual().name("load-client").start(() -> {
+                try {
+                    client.play();
+                } catch (IOException e) {
+                    client.failed = true;
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+        for (SocketChannel channel : idleChannels) {
+            channel.close();
+        }
+
+        int moves = 0;
+        int failures = 0;
+        for (Client client : clients) {
+            moves += client.latencyCount;
+            failures += client.failed ? 1 : 0;
+        }
+        long[] latencies = new long[moves];
+        int offset = 0;
+        for (Client client : clients) {
+            System.arraycopy(client.latencies, 0, latencies, offset, client.latencyCount);
+            offset += client.latencyCount;
+        }
+        Arrays.sort(latencies);
+        System.out.println(String.format("clients %d active, %d idle, %d failed", activeClients, idleClients
+                , failures));
+        System.out.println(String.format("moves %d, %.0f moves/s", moves, moves / (double) seconds));
+        System.out.println(String.format("latency p50 %.3f ms, p99 %.3f ms, max %.3f ms", percentile(latencies, 50)
+                , percentile(latencies, 99), percentile(latencies, 100)));
+    }
+
+    private static double percentile(long[] sortedNanos, int percent) {
+        if (sortedNanos.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.min(sortedNanos.length - 1L, (long) Math.ceil(sortedNanos.length * percent / 100.0) - 1);
+        return sortedNanos[Math.max(0, index)] / 1e6;
+    }
+
+    /**
+     * One active client, playing random legal moves for both players until the deadline.
+     */
+    private static class Client {
+        private final InetSocketAddress address;
+        private final long deadline;
+        private final SplittableRandom random;
+        private final ByteBuffer input = ByteBuffer.allocate(128);
+        private long[] latencies = new long[1024];
+        private int latencyCount;
+        private boolean failed;
+
+        private Client(InetSocketAddress address, long deadline, long seed) {
+            this.address = address;
+            this.deadline = deadline;
+            this.random = new SplittableRandom(seed);
+        }
+
+        private void play() throws IOException {
+            try (SocketChannel channel = SocketChannel.open(address)) {
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                readLine(channel);
+                Board board = Board.createStartingBoard();
+                MoveList moves = new MoveList();
+                int plies = 0;
+                while (System.nanoTime() < deadline) {
+                    moves.clear();
+                    board.generateLegalMoves(board.isWhiteToMove(), moves);
+                    if (moves.isEmpty() || plies == MAX_GAME_PLIES) {
+                        // Starts over when the game is finished
+                        writeLine(channel, "new");
+                        readLine(channel);
+                        board = Board.createStartingBoard();
+                        plies = 0;
+                        continue;
+                    }
+                    int move = moves.get(random.nextInt(moves.size()));
+                    long start = System.nanoTime();
+                    writeLine(channel, "move " + Move.toNotation(move));
+                    String answer = readLine(channel);
+                    recordLatency(System.nanoTime() - start);
+                    if (!answer.startsWith("ok")) {
+                        throw new IOException("Unexpected answer " + answer);
+                    }
+                    board.makeMove(move);
+                    plies++;
+                }
+                writeLine(channel, "quit");
+            }
+        }
+
+        private void recordLatency(long nanos) {
+            if (latencyCount == latencies.length) {
+                latencies = Arrays.copyOf(latencies, latencies.length * 2);
+            }
+            latencies[latencyCount++] = nanos;
+        }
+
+        private void writeLine(SocketChannel channel, String line) throws IOException {
+            ByteBuffer output = ByteBuffer.wrap((line + "\n").getBytes(StandardCharsets.US_ASCII));
+            while (output.hasRemaining()) {
+                channel.write(output);
+            }
+        }
+
+        private String readLine(SocketChannel channel) throws IOException {
+            while (true) {
+                for (int i = 0; i < input.position(); i++) {
+                    if (input.get(i) == '\n') {
+                        String line = new String(input.array(), 0, i, StandardCharsets.US_ASCII);
+                        int remaining = input.position() - i - 1;
+                        System.arraycopy(input.array(), i + 1, input.array(), 0, remaining);
+                        input.position(remaining);
+                        return line;
+                    }
+                }
+                if (!input.hasRemaining() || channel.read(input) < 0) {
+                    throw new IOException("Connection closed");
+                }
+            }
+        }
+    }
+}
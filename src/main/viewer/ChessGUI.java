@@ -7,6 +7,8 @@ import model.Board;
 import javax.imageio.ImageIO;
 import javax.swing.*;
 import javax.swing.border.Border;
+import javax.swing.border.CompoundBorder;
+import javax.swing.border.EmptyBorder;
 import javax.swing.border.LineBorder;
 import java.awt.*;
 import java.awt.event.ActionEvent;
@@ -15,6 +17,8 @@ import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * The GUI for chessboard. GUI tutorial from https://www.youtube.com/watch?v=aHFiRhGnvKE.
@@ -43,12 +47,24 @@ public class ChessGUI {
          */
         private boolean illegalMove = false;
 
+        /**
+         * The label showing the piece image, reused for every piece that stands on this panel.
+         */
+        private final JLabel pieceLabel = new JLabel(EMPTY_ICON);
+
+        /**
+         * The image name of the piece shown now, or null if the panel shows no piece.
+         */
+        private String shownImage;
+
         PiecePanel(int rank, int file) {
             super(new GridBagLayout());
             this.rank = rank;
             this.file = file;
-            this.position = new BasePiece.Position(rank, file);
+            this.position = BasePiece.Position.of(rank, file);
             setPreferredSize(PIECE_PANEL_DIMENSION);
+            setBorder(noBorder);
+            add(pieceLabel);
             assignPieceColor();
             assignPieceImage(chessboard);
 
@@ -67,27 +83,15 @@ public class ChessGUI {
         }
 
         /**
-         * Assign the image icon from static image path {@link ChessGUI#IMG_PATH} to this piece.
+         * Assign the image icon from static image path {@link ChessGUI#IMG_PATH} to this piece. Only a changed piece
+         * repaints the label, and all icons have the same size, so no layout is needed.
          */
         private void assignPieceImage(Board board) {
-            // Clear previous information
-            this.removeAll();
-
-            BasePiece piece = board.getPiece(new BasePiece.Position(rank, file));
-            if (piece != null) {
-                String name = piece.getNameString();
-                String color = piece.getWhitePlayer() ? "W" : "B";
-                try {
-                    BufferedImage image = ImageIO.read(new File(IMG_PATH + color + name + ".png"));
-                    // Sets the scale of image icon
-                    Image dimg = image.getScaledInstance(60, 60,
-                            Image.SCALE_SMOOTH);
-                    JLabel label = new JLabel(new ImageIcon(dimg));
-                    add(label);
-                } catch (IOException e) {
-                    e.printStackTrace();
-                }
-
+            BasePiece piece = board.getPiece(position);
+            String image = piece == null ? null : (piece.getWhitePlayer() ? "W" : "B") + piece.getNameString();
+            if (image == null ? shownImage != null : !image.equals(shownImage)) {
+                shownImage = image;
+                pieceLabel.setIcon(image == null ? EMPTY_ICON : getPieceIcon(image));
             }
         }
 
@@ -99,7 +103,8 @@ public class ChessGUI {
         }
 
         /**
-         * Redraw this panel by new information from board.
+         * Redraw this panel by new information from board. Swing repaints the panel only if its border, color or
+         * image really changed, and all borders have the same insets, so nothing needs to be laid out again.
          */
         public void drawPiece(final Board board) {
             if (chessGame.getSelectPiece() != null && chessGame.getSelectPiece().isSamePosition(position)) {
@@ -112,25 +117,33 @@ public class ChessGUI {
                 // The warning illegal border will only last for some time and then disappears
                 ActionListener taskPerformer = new ActionListener() {
                     public void actionPerformed(ActionEvent evt) {
-                        panel.setBorder(null);
+                        if (panel.getBorder() == illegalBorder) {
+                            panel.setBorder(noBorder);
+                        }
                     }
                 };
-                new Timer(delay, taskPerformer).start();
+                Timer timer = new Timer(delay, taskPerformer);
+                timer.setRepeats(false);
+                timer.start();
             } else {
-                this.setBorder(null);
+                this.setBorder(noBorder);
             }
 
-            assignPieceColor();
-            if (chessGame.getSelectPiece() != null) {
-                for (BasePiece.Position pos : board.getLegalMoves(chessGame.getSelectPiece())) {
-                    if (pos.getFile() == file && pos.getRank() == rank) {
-                        assignLegalMoveColor();
-                    }
-                }
+            // The legal moves come from the background analysis of the position when it is ready
+            if (chessGame.getSelectPiece() != null && chessGame.getLegalMoves(chessGame.getSelectPiece())
+                    .contains(position)) {
+                assignLegalMoveColor();
+            } else {
+                assignPieceColor();
             }
             assignPieceImage(board);
-            validate();
-            repaint();
+        }
+
+        /**
+         * Returns the image name of the piece shown now, e.g. "WK" for the white king, or null if there is none.
+         */
+        public String getShownImage() {
+            return shownImage;
         }
 
         public BasePiece.Position getPosition() {
@@ -160,16 +173,13 @@ public class ChessGUI {
         }
 
         /**
-         * Redraw this panel recursively by new information from board
+         * Redraw this panel by new information from board. The piece panels stay in place, and only the squares that
+         * changed since the last drawing are repainted, see {@link PiecePanel#drawPiece(Board)}.
          */
         public void drawBoard(Board board) {
-            removeAll();
             for (PiecePanel piecePanel : boardPieces) {
                 piecePanel.drawPiece(board);
-                add(piecePanel);
             }
-            validate();
-            repaint();
         }
 
         public ArrayList<PiecePanel> getPiecePanels() {
@@ -200,15 +210,20 @@ public class ChessGUI {
     private Board chessboard;
 
     /**
-     * The border to circle and emphasize the current selected piece
+     * The border to circle and emphasize the current selected piece, padded to the insets of the other borders
      */
-    private Border thickBorder = new LineBorder(Color.WHITE, 2);
+    private Border thickBorder = new CompoundBorder(new LineBorder(Color.WHITE, 2), new EmptyBorder(1, 1, 1, 1));
 
     /**
      * The border to circle and emphasize the illegal move piece
      */
     private Border illegalBorder = new LineBorder(Color.RED, 3);
 
+    /**
+     * The border of the other pieces, so that changing borders never changes the layout
+     */
+    private Border noBorder = new EmptyBorder(3, 3, 3, 3);
+
     /**
      * The dimension of chess frame
      */
@@ -229,6 +244,22 @@ public class ChessGUI {
      */
     private static String IMG_PATH = "img/";
 
+    /**
+     * The size of the image icons of chess pieces
+     */
+    private static final int ICON_SIZE = 60;
+
+    /**
+     * The transparent icon of empty panels, as large as the piece icons
+     */
+    private static final Icon EMPTY_ICON = new ImageIcon(new BufferedImage(ICON_SIZE, ICON_SIZE,
+            BufferedImage.TYPE_INT_ARGB));
+
+    /**
+     * The scaled piece icons loaded so far by image name, which are only used on the Event Dispatch Thread
+     */
+    private static final Map<String, Icon> PIECE_ICONS = new HashMap<String, Icon>();
+
     /**
      * The light brown color for chess table
      */
@@ -249,6 +280,28 @@ public class ChessGUI {
      */
     private static Color DARK_LEGAL_MOVE_COLOR = Color.decode("#f4e5d7");
 
+    /**
+     * Returns the scaled icon of a piece image, read from {@link ChessGUI#IMG_PATH} the first time it is used.
+     *
+     * @param image the image name, the color ("W" or "B") followed by {@link BasePiece#getNameString()}
+     * @return the icon, or an empty icon if the image cannot be read
+     */
+    private static Icon getPieceIcon(String image) {
+        Icon icon = PIECE_ICONS.get(image);
+        if (icon == null) {
+            try {
+                BufferedImage bufferedImage = ImageIO.read(new File(IMG_PATH + image + ".png"));
+                // Sets the scale of image icon
+                icon = new ImageIcon(bufferedImage.getScaledInstance(ICON_SIZE, ICON_SIZE, Image.SCALE_SMOOTH));
+            } catch (IOException e) {
+                e.printStackTrace();
+                icon = EMPTY_ICON;
+            }
+            PIECE_ICONS.put(image, icon);
+        }
+        return icon;
+    }
+
     public ChessGUI(Board board) {
         this.chessFrame = new JFrame("CHESS");
         this.chessboard = board;
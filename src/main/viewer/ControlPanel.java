@@ -1,5 +1,7 @@
 package viewer;
 
+import archive.GameArchive;
+
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
 import javax.swing.table.JTableHeader;
@@ -100,6 +102,26 @@ public class ControlPanel extends JPanel {
         scrollPane.validate();
     }
 
+    /**
+     * Shows the games of an archive in the history table instead of the games added by
+     * {@link #addHistory(String, String)}.
+     *
+     * @param archive the archive of finished games, or null to show the added games
+     */
+    public void setArchive(GameArchive archive) {
+        historyTableModel.setArchive(archive);
+        refreshHistory();
+    }
+
+    /**
+     * Updates the history table after games are appended to the archive
+     */
+    public void refreshHistory() {
+        historyTableModel.fireTableDataChanged();
+        scrollPane.repaint();
+        scrollPane.validate();
+    }
+
     /**
      * The player names on GUI
      *
@@ -150,6 +172,10 @@ public class ControlPanel extends JPanel {
     public static class HistoryTableModel extends DefaultTableModel {
         private ArrayList<Row> values;
         private String[] playerNames = {"White", "Black"};
+        /**
+         * The archive whose games are shown, or null to show the values
+         */
+        private transient GameArchive archive;
 
         HistoryTableModel() {
             this.values = new ArrayList<Row>();
@@ -163,8 +189,15 @@ public class ControlPanel extends JPanel {
             return playerNames;
         }
 
+        public void setArchive(GameArchive archive) {
+            this.archive = archive;
+        }
+
         @Override
         public int getRowCount() {
+            if (archive != null) {
+                return (int) Math.min(archive.size(), Integer.MAX_VALUE);
+            }
             if (this.values == null) {
                 return 0;
             }
@@ -178,6 +211,13 @@ public class ControlPanel extends JPanel {
 
         @Override
         public Object getValueAt(final int row, final int col) {
+            if (archive != null) {
+                int result = archive.getResult(row);
+                if (result == GameArchive.TIE) {
+                    return "Tie";
+                }
+                return (result == GameArchive.WHITE_WIN) == (col == 0) ? "Win" : "Lose";
+            }
             final Row currentRow = this.values.get(row);
             if (col == 0) {
                 return currentRow.getWhiteResult();
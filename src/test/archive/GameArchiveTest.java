@@ -0,0 +1,132 @@
+package archive;
+
+import model.BasePiece;
+import model.Board;
+import model.Move;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class GameArchiveTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static Board playGame() {
+        Board board = Board.createStartingBoard();
+        board.makeMove(Move.of(BasePiece.Position.of(1, 4), BasePiece.Position.of(3, 4), 0));
+        board.makeMove(Move.of(BasePiece.Position.of(6, 3), BasePiece.Position.of(4, 3), 0));
+        board.makeMove(Move.of(BasePiece.Position.of(3, 4), BasePiece.Position.of(4, 3), Move.CAPTURE));
+        return board;
+    }
+
+    @Test
+    public void TestAppendAndRead() throws IOException {
+        Path directory = folder.getRoot().toPath();
+        try (GameArchive archive = GameArchive.open(directory)) {
+            assertEquals(0, archive.size());
+            assertEquals(0, archive.append(playGame(), GameArchive.WHITE_WIN));
+            assertEquals(1, archive.append(new int[0], 0, GameArchive.TIE, 1234L));
+
+            assertEquals(2, archive.size());
+            assertEquals(GameArchive.WHITE_WIN, archive.getResult(0));
+            assertEquals(3, archive.getMoveCount(0));
+            assertEquals(Move.of(BasePiece.Position.of(3, 4), BasePiece.Position.of(4, 3), 0), archive.getMove(0, 2));
+            assertEquals(GameArchive.TIE, archive.getResult(1));
+            assertEquals(0, archive.getMoveCount(1));
+            assertEquals(1234L, archive.getTimestamp(1));
+        }
+    }
+
+    @Test
+    public void TestReplay() throws IOException {
+        Board played = playGame();
+        try (GameArchive archive = GameArchive.open(folder.getRoot().toPath())) {
+            archive.append(played, GameArchive.BLACK_WIN);
+            Board replayed = archive.replay(0);
+            assertEquals(played.getHashKey(), replayed.getHashKey());
+            assertEquals(3, replayed.getMoveCount());
+            assertEquals(Move.CAPTURE, replayed.getMove(2) & Move.CAPTURE);
+        }
+    }
+
+    @Test
+    public void TestReopen() throws IOException {
+        Path directory = folder.getRoot().toPath();
+        try (GameArchive archive = GameArchive.open(directory)) {
+            for (int i = 0; i < 100; i++) {
+                archive.append(playGame(), i % 3);
+            }
+        }
+        try (GameArchive archive = GameArchive.open(directory)) {
+            assertEquals(100, archive.size());
+            assertEquals(2, archive.getResult(98));
+            assertEquals(100, archive.append(new int[0], 0, GameArchive.TIE, 0));
+            assertEquals(GameArchive.TIE, archive.getResult(100));
+        }
+    }
+
+    @Test
+    public void TestOneWriterAtATime() throws IOException {
+        Path directory = folder.getRoot().toPath();
+        try (GameArchive archive = GameArchive.open(directory)) {
+            archive.append(playGame(), GameArchive.WHITE_WIN);
+            try {
+                GameArchive.open(directory);
+                fail();
+            } catch (IOException e) {
+                // Expected, the first archive still has the directory open
+            }
+            assertEquals(1, archive.size());
+        }
+        // Closing releases the lock
+        try (GameArchive archive = GameArchive.open(directory)) {
+            assertEquals(1, archive.size());
+        }
+    }
+
+    @Test
+    public void TestRecoverPartialAppend() throws IOException {
+        Path directory = folder.getRoot().toPath();
+        try (GameArchive archive = GameArchive.open(directory)) {
+            archive.append(playGame(), GameArchive.WHITE_WIN);
+        }
+        // A record without its index entry, and half an index entry, as left by a crash during an append
+        try (FileChannel data = FileChannel.open(directory.resolve(GameArchive.DATA_FILE), StandardOpenOption.APPEND);
+             FileChannel index = FileChannel.open(directory.resolve(GameArchive.INDEX_FILE), StandardOpenOption.APPEND)) {
+            data.write(ByteBuffer.allocate(40));
+            index.write(ByteBuffer.allocate(4));
+        }
+        try (GameArchive archive = GameArchive.open(directory)) {
+            assertEquals(1, archive.size());
+            assertEquals(1, archive.append(playGame(), GameArchive.BLACK_WIN));
+            assertEquals(GameArchive.BLACK_WIN, archive.getResult(1));
+            assertEquals(3, archive.getMoveCount(1));
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void TestOpenNotArchive() throws IOException {
+        Path directory = folder.getRoot().toPath();
+        try (FileChannel data = FileChannel.open(directory.resolve(GameArchive.DATA_FILE), StandardOpenOption.CREATE
+                , StandardOpenOption.WRITE)) {
+            data.write(ByteBuffer.wrap("not an archive file".getBytes()));
+        }
+        GameArchive.open(directory).close();
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void TestGetMissingGame() throws IOException {
+        try (GameArchive archive = GameArchive.open(folder.getRoot().toPath())) {
+            archive.getResult(0);
+        }
+    }
+}
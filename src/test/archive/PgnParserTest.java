@@ -0,0 +1,101 @@
+package archive;
+
+import model.BasePiece.Position;
+import model.Move;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class PgnParserTest {
+
+    private static PgnParser parser(String text) {
+        return new PgnParser(new StringReader(text));
+    }
+
+    @Test
+    public void TestParseGame() throws IOException {
+        PgnParser parser = parser("[Event \"Casual \\\"game\\\"\"]\n[White \"A\"]\n\n"
+                + "1. e4 {best by test} d5 2. exd5 (2. e5 c5) $1 Qxd5 ; the queen comes out\n"
+                + "% escaped line e5\n"
+                + "3. Nc3 1-0\n");
+        PgnGame game = parser.next();
+        assertEquals("Casual \"game\"", game.getTag("Event"));
+        assertEquals("A", game.getTag("White"));
+        assertEquals(5, game.getMoveCount());
+        assertEquals(Move.of(Position.of(1, 4), Position.of(3, 4), 0), game.getMove(0));
+        assertEquals(Move.of(Position.of(3, 4), Position.of(4, 3), Move.CAPTURE), game.getMove(2));
+        assertEquals(Move.of(Position.of(0, 1), Position.of(2, 2), 0), game.getMove(4));
+        assertEquals(PgnGame.WHITE_WIN, game.getResult());
+        assertNull(parser.next());
+        assertEquals(0, parser.getSkippedCount());
+    }
+
+    @Test
+    public void TestMovesWithoutSpaces() throws IOException {
+        PgnGame game = parser("1.e4 e5 2.Nf3 2...Nc6 1/2-1/2").next();
+        assertEquals(4, game.getMoveCount());
+        assertEquals(PgnGame.DRAW, game.getResult());
+    }
+
+    @Test
+    public void TestSkipInvalidGames() throws IOException {
+        PgnParser parser = parser("[Event \"1\"]\n1. e4 e4 2. Nf3 0-1\n\n"
+                + "[Event \"2\"]\n1. O-O *\n\n"
+                + "[Event \"3\"]\n[FEN \"not a position\"]\n1. e4 *\n\n"
+                + "[Event \"4\"]\n1. d4 d5 0-1\n");
+        PgnGame game = parser.next();
+        assertEquals("4", game.getTag("Event"));
+        assertEquals(2, game.getMoveCount());
+        assertEquals(PgnGame.BLACK_WIN, game.getResult());
+        assertNull(parser.next());
+        assertEquals(3, parser.getSkippedCount());
+    }
+
+    @Test
+    public void TestGameWithoutResult() throws IOException {
+        PgnParser parser = parser("[Event \"1\"]\n1. e4 e5\n[Event \"2\"]\n1. d4");
+        PgnGame first = parser.next();
+        assertEquals("1", first.getTag("Event"));
+        assertEquals(2, first.getMoveCount());
+        assertEquals(PgnGame.UNKNOWN, first.getResult());
+        PgnGame second = parser.next();
+        assertEquals("2", second.getTag("Event"));
+        assertEquals(1, second.getMoveCount());
+        assertNull(parser.next());
+    }
+
+    @Test
+    public void TestFenStart() throws IOException {
+        PgnGame game = parser("[FEN \"4k3/8/8/8/8/8/8/R3K3 w -\"]\n1. Ra8+ 1-0").next();
+        assertEquals(false, game.hasStandardStart());
+        assertEquals(1, game.getMoveCount());
+        assertEquals(true, game.replay().inCheck(false));
+    }
+
+    @Test
+    public void TestLongTagsAreCut() throws IOException {
+        StringBuilder text = new StringBuilder("[Event \"");
+        for (int i = 0; i < 10000; i++) {
+            text.append('x');
+        }
+        text.append("\"]\n");
+        for (int i = 0; i < 1000; i++) {
+            text.append("[Tag").append(i).append(" \"v\"]\n");
+        }
+        text.append("1. e4 *");
+        PgnGame game = parser(text.toString()).next();
+        assertEquals(PgnParser.MAX_TAG_LENGTH, game.getTag("Event").length());
+        assertEquals(PgnParser.MAX_TAGS, game.getTagCount());
+        assertEquals(1, game.getMoveCount());
+    }
+
+    @Test
+    public void TestEmpty() throws IOException {
+        assertNull(parser("").next());
+        assertNull(parser("  \n{only a comment}\n").next());
+    }
+}
@@ -0,0 +1,79 @@
+package archive;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class PgnReaderTest {
+
+    /**
+     * Returns a reader of the given number of short games, generated as they are read.
+     */
+    private static Reader games(int count) {
+        return new Reader() {
+            private int game;
+            private StringReader current = new StringReader("");
+
+            @Override
+            public int read(char[] buffer, int offset, int length) {
+                int read = -1;
+                try {
+                    while ((read = current.read(buffer, offset, length)) < 0 && game < count) {
+                        current = new StringReader("[Round \"" + ++game + "\"]\n1. e4 e5 2. Nf3 Nc6 1-0\n\n");
+                    }
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+                return read;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+    }
+
+    @Test
+    public void TestForEach() throws IOException, InterruptedException {
+        List<String> rounds = new ArrayList<String>();
+        try (PgnReader reader = new PgnReader(games(1000), 4)) {
+            assertEquals(1000, reader.forEach(game -> rounds.add(game.getTag("Round"))));
+            assertNull(reader.take());
+            assertEquals(0, reader.getSkippedCount());
+        }
+        assertEquals("1", rounds.get(0));
+        assertEquals("1000", rounds.get(999));
+    }
+
+    @Test
+    public void TestCloseBeforeEnd() throws IOException, InterruptedException {
+        PgnReader reader = new PgnReader(games(1000000), 2);
+        assertEquals("1", reader.take().getTag("Round"));
+        // The parser is waiting for the full queue, and stops when closed
+        reader.close();
+    }
+
+    @Test(expected = IOException.class)
+    public void TestReadFailure() throws IOException, InterruptedException {
+        Reader failing = new Reader() {
+            @Override
+            public int read(char[] buffer, int offset, int length) throws IOException {
+                throw new IOException("disk error");
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        try (PgnReader reader = new PgnReader(failing, 2)) {
+            reader.take();
+        }
+    }
+}
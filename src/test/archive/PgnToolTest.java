@@ -0,0 +1,42 @@
+package archive;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.assertEquals;
+
+public class PgnToolTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void TestImportAndExport() throws IOException, InterruptedException {
+        Path pgn = folder.getRoot().toPath().resolve("in.pgn");
+        Files.write(pgn, ("[Event \"1\"]\n1. e4 e5 2. Nf3 1-0\n\n"
+                + "[Event \"2\"]\n1. d4 *\n\n"
+                + "[Event \"3\"]\n1. d4 d5 1/2-1/2\n").getBytes(StandardCharsets.UTF_8));
+        Path exported = folder.getRoot().toPath().resolve("out.pgn");
+        try (GameArchive archive = GameArchive.open(folder.getRoot().toPath().resolve("archive"))) {
+            // The unfinished game is left out
+            assertEquals(2, PgnTool.importGames(pgn, archive));
+            assertEquals(GameArchive.WHITE_WIN, archive.getResult(0));
+            assertEquals(3, archive.getMoveCount(0));
+            assertEquals(GameArchive.TIE, archive.getResult(1));
+            assertEquals(2, PgnTool.exportGames(archive, exported));
+        }
+        try (PgnReader reader = PgnReader.open(exported, 2)) {
+            PgnGame first = reader.take();
+            assertEquals("1", first.getTag("Round"));
+            assertEquals(3, first.getMoveCount());
+            assertEquals(PgnGame.WHITE_WIN, first.getResult());
+            assertEquals(PgnGame.DRAW, reader.take().getResult());
+            assertEquals(null, reader.take());
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package archive;
+
+import model.Board;
+import model.MoveList;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class PgnWriterTest {
+
+    private static String write(PgnGame... games) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (PgnWriter writer = new PgnWriter(Channels.newChannel(bytes))) {
+            for (PgnGame game : games) {
+                writer.write(game);
+            }
+        }
+        return new String(bytes.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private static PgnGame randomGame(Random random, int plies) {
+        Board board = Board.createStartingBoard();
+        MoveList moves = new MoveList();
+        for (int ply = 0; ply < plies; ply++) {
+            moves.clear();
+            board.generateLegalMoves(board.isWhiteToMove(), moves);
+            if (moves.isEmpty()) {
+                break;
+            }
+            board.makeMove(moves.get(random.nextInt(moves.size())));
+        }
+        return PgnGame.fromBoard(board, PgnGame.DRAW);
+    }
+
+    @Test
+    public void TestWriteGame() throws IOException {
+        Board board = Board.createStartingBoard();
+        PgnGame game = PgnGame.fromBoard(board, PgnGame.UNKNOWN);
+        game.setTag("White", "Alice");
+        game.setTag("Annotator", "Bob \"B\"");
+        game.addMove(new PgnParser(new StringReader("1. e4")).next().getMove(0));
+        assertEquals("[Event \"?\"]\n[Site \"?\"]\n[Date \"?\"]\n[Round \"?\"]\n[White \"Alice\"]\n[Black \"?\"]\n"
+                + "[Result \"*\"]\n[Annotator \"Bob \\\"B\\\"\"]\n\n1. e4 *\n\n", write(game));
+    }
+
+    @Test
+    public void TestLineLength() throws IOException {
+        String text = write(randomGame(new Random(3), 200));
+        for (String line : text.split("\n")) {
+            assertTrue(line, line.length() <= PgnWriter.LINE_LENGTH);
+        }
+    }
+
+    @Test
+    public void TestRoundTrip() throws IOException {
+        Random random = new Random(5);
+        PgnGame[] games = new PgnGame[50];
+        for (int i = 0; i < games.length; i++) {
+            games[i] = randomGame(random, random.nextInt(150));
+        }
+        PgnParser parser = new PgnParser(new StringReader(write(games)));
+        for (PgnGame game : games) {
+            PgnGame parsed = parser.next();
+            assertEquals(game.getMoveCount(), parsed.getMoveCount());
+            for (int i = 0; i < game.getMoveCount(); i++) {
+                assertEquals(game.getMove(i), parsed.getMove(i));
+            }
+            assertEquals(PgnGame.DRAW, parsed.getResult());
+        }
+        assertEquals(null, parser.next());
+        assertEquals(0, parser.getSkippedCount());
+    }
+}
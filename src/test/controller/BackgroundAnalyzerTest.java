@@ -0,0 +1,79 @@
+package controller;
+
+import controller.BackgroundAnalyzer.Analysis;
+import model.*;
+import org.junit.Test;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static model.BasePiece.Position;
+import static org.junit.Assert.*;
+
+public class BackgroundAnalyzerTest {
+
+    @Test
+    public void TestAnalysisOfStartingBoard() {
+        Board board = Board.createStartingBoard();
+        Analysis analysis = Analysis.of(board, true);
+        assertTrue(analysis.isFor(board));
+        assertFalse(analysis.inCheck());
+        assertFalse(analysis.inCheckmate());
+        assertFalse(analysis.inStaleMate());
+        assertEquals(0, analysis.getScore());
+        assertEquals(board.getLegalMoves(board.getPiece(Position.of(0, 1))), analysis.getLegalMoves(Position.of(0, 1)));
+        assertTrue(analysis.getLegalMoves(Position.of(0, 0)).isEmpty());
+        assertTrue(analysis.getLegalMoves(Position.of(4, 4)).isEmpty());
+
+        // Not the player to move
+        assertFalse(Analysis.of(board, false).isFor(board));
+        board.makeMove(Move.of(Position.of(1, 4), Position.of(3, 4), 0));
+        assertFalse(analysis.isFor(board));
+    }
+
+    @Test
+    public void TestCheckmateAndStalemate() {
+        Board board = new Board(8, 8);
+        board.setPiece(new Rook(new Position(2, 1), true));
+        board.setPiece(new Rook(new Position(1, 2), true));
+        board.setPiece(new King(new Position(0, 0), false));
+        assertTrue(Analysis.of(board, false).inStaleMate());
+
+        board.removePiece(new Position(2, 1));
+        board.removePiece(new Position(1, 2));
+        board.setPiece(new Queen(new Position(2, 2), true));
+        board.setPiece(new Rook(new Position(2, 0), true));
+        board.setPiece(new Rook(new Position(0, 2), true));
+        Analysis analysis = Analysis.of(board, false);
+        assertTrue(analysis.inCheck());
+        assertTrue(analysis.inCheckmate());
+        assertFalse(analysis.inStaleMate());
+        assertTrue(analysis.getScore() < -1500);
+    }
+
+    @Test
+    public void TestAnalyzeInBackground() throws InterruptedException {
+        BackgroundAnalyzer analyzer = new BackgroundAnalyzer();
+        BlockingQueue<Analysis> done = new ArrayBlockingQueue<Analysis>(2);
+        Board board = Board.createStartingBoard();
+        analyzer.analyze(board, done::add);
+        // The board can be changed while the snapshot is analyzed, and the older analysis is never reported
+        board.makeMove(Move.of(Position.of(1, 4), Position.of(3, 4), 0));
+        analyzer.analyze(board, done::add);
+
+        Analysis analysis = done.poll(10, TimeUnit.SECONDS);
+        assertNotNull(analysis);
+        assertTrue(analysis.isFor(board));
+        assertFalse(analysis.isWhitePlayer());
+        assertSame(analysis, analyzer.getAnalysis(board));
+        assertEquals(board.getLegalMoves(board.getPiece(Position.of(6, 3))), analysis.getLegalMoves(Position.of(6, 3)));
+        assertNull(done.poll(100, TimeUnit.MILLISECONDS));
+
+        board.undoMove();
+        assertNull(analyzer.getAnalysis(board));
+        analyzer.cancel();
+        board.makeMove(Move.of(Position.of(1, 4), Position.of(3, 4), 0));
+        assertNull(analyzer.getAnalysis(board));
+    }
+}
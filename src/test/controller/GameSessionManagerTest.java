@@ -0,0 +1,48 @@
+package controller;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static model.BasePiece.Position;
+import static org.junit.Assert.*;
+
+public class GameSessionManagerTest {
+
+    @Test
+    public void TestCreateGetClose() {
+        GameSessionManager manager = new GameSessionManager();
+        GameSession first = manager.create();
+        GameSession second = manager.create();
+        assertNotEquals(first.getId(), second.getId());
+        assertSame(first, manager.get(first.getId()));
+        assertEquals(2, manager.size());
+
+        assertTrue(manager.close(first.getId()));
+        assertFalse(manager.close(first.getId()));
+        assertNull(manager.get(first.getId()));
+        assertEquals(1, manager.size());
+    }
+
+    @Test
+    public void TestManyConcurrentSessions() throws InterruptedException {
+        GameSessionManager manager = new GameSessionManager();
+        List<Thread> threads = new ArrayList<Thread>();
+        for (int t = 0; t < 4; t++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 2500; i++) {
+                    GameSession session = manager.create();
+                    assertEquals(GameSession.Status.IN_PROGRESS
+                            , session.move(Position.of(1, 4), Position.of(3, 4)));
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(10000, manager.size());
+    }
+}
@@ -0,0 +1,107 @@
+package controller;
+
+import model.*;
+import org.junit.Test;
+
+import static model.BasePiece.Position;
+import static org.junit.Assert.*;
+
+public class GameSessionTest {
+
+    @Test
+    public void TestMoveAndTurn() {
+        GameSession session = new GameSession(7);
+        assertEquals(7, session.getId());
+        assertTrue(session.isWhiteToMove());
+
+        // Black cannot move first, and illegal moves are refused
+        assertEquals(GameSession.Status.ILLEGAL, session.move(Position.of(6, 4), Position.of(4, 4)));
+        assertEquals(GameSession.Status.ILLEGAL, session.move(Position.of(1, 4), Position.of(4, 4)));
+        assertEquals(GameSession.Status.ILLEGAL, session.move(Position.of(3, 3), Position.of(4, 3)));
+
+        assertEquals(GameSession.Status.IN_PROGRESS, session.move(Position.of(1, 4), Position.of(3, 4)));
+        assertFalse(session.isWhiteToMove());
+        assertTrue(session.getBoard().getPiece(Position.of(3, 4)) instanceof Pawn);
+
+        assertTrue(session.undo());
+        assertTrue(session.isWhiteToMove());
+        assertFalse(session.undo());
+    }
+
+    @Test
+    public void TestCheckmateFinishesGame() {
+        GameSession session = new GameSession(1);
+        Board board = new Board(8, 8);
+        board.setPiece(new King(new Position(0, 6), true));
+        board.setPiece(new Rook(new Position(0, 0), true));
+        board.setPiece(new King(new Position(7, 6), false));
+        for (int file = 5; file <= 7; file++) {
+            board.setPiece(new Pawn(new Position(6, file), false));
+        }
+        session.setBoard(board);
+
+        assertEquals(GameSession.Status.CHECKMATE, session.move(Position.of(0, 0), Position.of(7, 0)));
+        assertTrue(session.isGameOver());
+        assertEquals(GameSession.Result.WHITE_WIN, session.getLastResult());
+
+        // The final position is kept until restart
+        assertEquals(GameSession.Status.ILLEGAL, session.move(Position.of(7, 6), Position.of(7, 7)));
+        assertFalse(session.undo());
+        assertFalse(session.endGame(GameSession.Result.TIE));
+
+        session.restart();
+        assertFalse(session.isGameOver());
+        assertEquals(18, session.getBoard().getPlayerAllPieces(true).size());
+        assertEquals(1, session.getResults().size());
+    }
+
+    @Test
+    public void TestApplyMoveLeavesGameEndToCaller() {
+        GameSession session = new GameSession(2);
+        Board board = new Board(8, 8);
+        board.setPiece(new King(new Position(0, 6), true));
+        board.setPiece(new Rook(new Position(0, 0), true));
+        board.setPiece(new King(new Position(7, 6), false));
+        for (int file = 5; file <= 7; file++) {
+            board.setPiece(new Pawn(new Position(6, file), false));
+        }
+        session.setBoard(board);
+
+        assertFalse(session.applyMove(Position.of(7, 6), Position.of(7, 7)));
+        assertTrue(session.applyMove(Position.of(0, 0), Position.of(7, 0)));
+        assertFalse(session.isWhiteToMove());
+        // The checkmate is not detected, so the game goes on until it is ended
+        assertFalse(session.isGameOver());
+        assertTrue(session.endGame(GameSession.Result.WHITE_WIN));
+        assertFalse(session.applyMove(Position.of(7, 6), Position.of(7, 7)));
+    }
+
+    @Test
+    public void TestCheckAndStalemate() {
+        GameSession session = new GameSession(1);
+        Board board = new Board(8, 8);
+        board.setPiece(new King(new Position(0, 0), true));
+        board.setPiece(new Queen(new Position(2, 1), true));
+        board.setPiece(new King(new Position(7, 7), false));
+        session.setBoard(board);
+        assertEquals(GameSession.Status.CHECK, session.move(Position.of(2, 1), Position.of(2, 7)));
+        assertEquals(GameSession.Status.IN_PROGRESS, session.move(Position.of(7, 7), Position.of(7, 6)));
+        assertEquals(GameSession.Status.IN_PROGRESS, session.move(Position.of(2, 7), Position.of(2, 5)));
+        assertEquals(GameSession.Status.IN_PROGRESS, session.move(Position.of(7, 6), Position.of(7, 7)));
+        assertEquals(GameSession.Status.STALEMATE, session.move(Position.of(2, 5), Position.of(6, 5)));
+        assertEquals(GameSession.Result.TIE, session.getLastResult());
+    }
+
+    @Test
+    public void TestForfeit() {
+        GameSession session = new GameSession(1);
+        assertNull(session.getLastResult());
+        assertTrue(session.forfeit(true));
+        assertFalse(session.forfeit(false));
+        session.restart();
+        assertTrue(session.forfeit(false));
+        assertEquals(2, session.getResults().size());
+        assertEquals(GameSession.Result.BLACK_WIN, session.getResults().get(0));
+        assertEquals(GameSession.Result.WHITE_WIN, session.getResults().get(1));
+    }
+}
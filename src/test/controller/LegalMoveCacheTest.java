@@ -0,0 +1,61 @@
+package controller;
+
+import model.*;
+import org.junit.Test;
+
+import java.util.Set;
+
+import static model.BasePiece.Position;
+import static org.junit.Assert.*;
+
+public class LegalMoveCacheTest {
+
+    @Test
+    public void TestGetAndPut() {
+        LegalMoveCache cache = new LegalMoveCache(LegalMoveCache.DEFAULT_CAPACITY);
+        Board board = Board.createStartingBoard();
+        Position knight = Position.of(0, 1);
+        assertNull(cache.get(board.getHashKey(), knight));
+
+        cache.put(board.getHashKey(), knight, board.getLegalMoves(board.getPiece(knight)));
+        Set<Position> moves = cache.get(board.getHashKey(), knight);
+        assertEquals(board.getLegalMoves(board.getPiece(knight)), moves);
+        assertNull(cache.get(board.getHashKey(), Position.of(0, 6)));
+        try {
+            moves.clear();
+            fail();
+        } catch (UnsupportedOperationException e) {
+            // Expected
+        }
+
+        // Another position does not find the entry
+        board.makeMove(Move.of(Position.of(1, 4), Position.of(3, 4), 0));
+        assertNull(cache.get(board.getHashKey(), knight));
+
+        cache.clear();
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void TestLeastRecentlyUsedDropped() {
+        LegalMoveCache cache = new LegalMoveCache(2);
+        Board board = Board.createStartingBoard();
+        long key = board.getHashKey();
+        for (int file = 0; file < 2; file++) {
+            cache.put(key, Position.of(1, file), board.getLegalMoves(board.getPiece(Position.of(1, file))));
+        }
+        // Using the first entry makes the second the least recently used
+        assertNotNull(cache.get(key, Position.of(1, 0)));
+        cache.put(key, Position.of(1, 2), board.getLegalMoves(board.getPiece(Position.of(1, 2))));
+
+        assertEquals(2, cache.size());
+        assertNotNull(cache.get(key, Position.of(1, 0)));
+        assertNull(cache.get(key, Position.of(1, 1)));
+        assertNotNull(cache.get(key, Position.of(1, 2)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void TestCapacityMustBePositive() {
+        new LegalMoveCache(0);
+    }
+}
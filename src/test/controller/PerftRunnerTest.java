@@ -0,0 +1,59 @@
+package controller;
+
+import model.*;
+import org.junit.Test;
+
+import java.util.Map;
+
+import static model.BasePiece.Position;
+import static org.junit.Assert.assertEquals;
+
+public class PerftRunnerTest {
+
+    @Test
+    public void TestStartingCounts() {
+        Board board = Board.createStartingBoard();
+        long hashKey = board.getHashKey();
+        for (int depth = 0; depth <= 4; depth++) {
+            assertEquals(PerftRunner.STARTING_COUNTS[depth], board.perft(depth));
+        }
+        // The board is restored after counting
+        assertEquals(hashKey, board.getHashKey());
+        assertEquals(hashKey, board.computeHashKey());
+    }
+
+    @Test
+    public void TestDivide() {
+        Board board = Board.createStartingBoard();
+        Map<String, Long> counts = board.divide(3);
+        assertEquals(PerftRunner.STARTING_COUNTS[1], counts.size());
+
+        long total = 0;
+        for (long count : counts.values()) {
+            total += count;
+        }
+        assertEquals(PerftRunner.STARTING_COUNTS[3], total);
+
+        // The a-pawn is blocked by the Soldier, and the Elephant on h3 can only jump forward
+        assertEquals(false, counts.containsKey("a2a3"));
+        assertEquals(true, counts.containsKey("h3f5"));
+        assertEquals(true, counts.containsKey("a3a4"));
+    }
+
+    @Test
+    public void TestSpecialPiecesCounts() {
+        // Counts of a small position checked by hand: the white Soldier on c5 is past halfway and can go forward and
+        // sideways, the Elephant on e1 can jump to c3 and g3, and the king in the corner has three moves.
+        Board board = new Board(8, 8);
+        board.setPiece(new King(new Position(0, 0), true));
+        board.setPiece(new Soldier(new Position(4, 2), true));
+        board.setPiece(new Elephant(new Position(0, 4), true));
+        board.setPiece(new King(new Position(7, 7), false));
+        assertEquals(3 + 3 + 2, board.perft(1));
+
+        Map<String, Long> counts = board.divide(1);
+        assertEquals(true, counts.containsKey("c5c6"));
+        assertEquals(true, counts.containsKey("c5b5"));
+        assertEquals(true, counts.containsKey("e1g3"));
+    }
+}
@@ -0,0 +1,98 @@
+package engine;
+
+import model.*;
+import model.BasePiece.Position;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class MoveOrdererTest {
+    private Board board;
+    private MoveOrderer orderer;
+
+    @Before
+    public void setUp() {
+        board = new Board(8, 8);
+        board.setPiece(new King(Position.of(0, 0), true));
+        board.setPiece(new Queen(Position.of(3, 3), true));
+        board.setPiece(new Pawn(Position.of(3, 5), true));
+        board.setPiece(new King(Position.of(7, 6), false));
+        // The queen can take the rook or the elephant, the pawn can take the elephant
+        board.setPiece(new Rook(Position.of(6, 3), false));
+        board.setPiece(new Elephant(Position.of(4, 4), false));
+        orderer = new MoveOrderer();
+        orderer.newSearch();
+    }
+
+    private static int move(int fromRank, int fromFile, int toRank, int toFile, int flags) {
+        return Move.of(Position.of(fromRank, fromFile), Position.of(toRank, toFile), flags);
+    }
+
+    private int[] order(int hashMove, int ply) {
+        MoveList moves = new MoveList();
+        board.generateLegalMoves(true, moves);
+        orderer.scoreMoves(board, moves, hashMove, ply);
+        int[] ordered = new int[moves.size()];
+        for (int i = 0; i < moves.size(); i++) {
+            ordered[i] = orderer.nextMove(moves, i, ply);
+        }
+        return ordered;
+    }
+
+    @Test
+    public void TestCapturesByMvvLva() {
+        int[] moves = order(Move.NONE, 0);
+        assertEquals(move(3, 3, 6, 3, Move.CAPTURE), moves[0]);
+        assertEquals(move(3, 5, 4, 4, Move.CAPTURE), moves[1]);
+        assertEquals(move(3, 3, 4, 4, Move.CAPTURE), moves[2]);
+        assertEquals(0, moves[3] & Move.CAPTURE);
+    }
+
+    @Test
+    public void TestLosingCapturesAfterKillers() {
+        // The pawn now defends the elephant, so the queen loses material by taking it
+        board.setPiece(new Pawn(Position.of(5, 5), false));
+        int killer = move(3, 3, 2, 2, 0);
+        orderer.recordCutoff(true, killer, 1, 0);
+        int[] moves = order(Move.NONE, 0);
+        assertEquals(move(3, 3, 6, 3, Move.CAPTURE), moves[0]);
+        assertEquals(move(3, 5, 4, 4, Move.CAPTURE), moves[1]);
+        assertEquals(killer, moves[2]);
+        assertEquals(move(3, 3, 4, 4, Move.CAPTURE), moves[3]);
+    }
+
+    @Test
+    public void TestHashMoveFirst() {
+        int hashMove = move(3, 3, 2, 2, 0);
+        int[] moves = order(hashMove, 0);
+        assertEquals(hashMove, moves[0]);
+        assertEquals(move(3, 3, 6, 3, Move.CAPTURE), moves[1]);
+    }
+
+    @Test
+    public void TestKillersAndHistory() {
+        int killer = move(3, 3, 1, 1, 0);
+        int older = move(0, 0, 1, 0, 0);
+        int quiet = move(3, 3, 3, 0, 0);
+        orderer.recordCutoff(true, quiet, 4, 5);
+        orderer.recordCutoff(true, older, 2, 1);
+        orderer.recordCutoff(true, killer, 2, 1);
+        orderer.recordCutoff(true, move(3, 3, 6, 3, Move.CAPTURE), 2, 1);
+
+        assertEquals(killer, orderer.getKiller(1, 0));
+        assertEquals(older, orderer.getKiller(1, 1));
+        assertEquals(16, orderer.getHistory(true, quiet));
+        assertEquals(0, orderer.getHistory(false, quiet));
+
+        int[] moves = order(Move.NONE, 1);
+        assertEquals(killer, moves[3]);
+        assertEquals(older, moves[4]);
+        assertEquals(quiet, moves[5]);
+
+        // A new search forgets the killers and halves the history
+        orderer.newSearch();
+        assertEquals(Move.NONE, orderer.getKiller(1, 0));
+        assertEquals(8, orderer.getHistory(true, quiet));
+    }
+}
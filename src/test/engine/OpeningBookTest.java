@@ -0,0 +1,112 @@
+package engine;
+
+import archive.GameArchive;
+import model.BasePiece.Position;
+import model.Board;
+import model.Move;
+import model.MoveList;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.assertEquals;
+
+public class OpeningBookTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    static final int E4 = Move.of(Position.of(1, 4), Position.of(3, 4), 0);
+    static final int D4 = Move.of(Position.of(1, 3), Position.of(3, 3), 0);
+    static final int E5 = Move.of(Position.of(6, 4), Position.of(4, 4), 0);
+
+    /**
+     * Writes a book where white won two games with e4 and tied one with d4.
+     */
+    static Path writeBook(Path file) throws IOException {
+        OpeningBookBuilder builder = new OpeningBookBuilder(OpeningBookBuilder.DEFAULT_MAX_PLIES, 1);
+        builder.addGame(new int[]{E4, E5}, 2, GameArchive.WHITE_WIN);
+        builder.addGame(new int[]{E4, E5}, 2, GameArchive.WHITE_WIN);
+        builder.addGame(new int[]{D4}, 1, GameArchive.TIE);
+        // The moves of losing black score nothing, so e5 is left out
+        assertEquals(2, builder.write(file));
+        return file;
+    }
+
+    @Test
+    public void TestProbe() throws IOException {
+        long start = Board.createStartingBoard().getHashKey();
+        try (OpeningBook book = OpeningBook.open(writeBook(folder.getRoot().toPath().resolve("book.bin")))) {
+            assertEquals(2, book.getEntryCount());
+            assertEquals(0, book.findFirst(start));
+            assertEquals(E4, book.getBestMove(start));
+            assertEquals(4, book.getWeight(0));
+            assertEquals(1, book.getWeight(1));
+            assertEquals(-1, book.findFirst(start + 1));
+            assertEquals(Move.NONE, book.getBestMove(start + 1));
+            assertEquals(Move.NONE, book.chooseMove(start + 1, 0));
+        }
+    }
+
+    @Test
+    public void TestChooseMoveByWeight() throws IOException {
+        long start = Board.createStartingBoard().getHashKey();
+        try (OpeningBook book = OpeningBook.open(writeBook(folder.getRoot().toPath().resolve("book.bin")))) {
+            // Total weight 5: 0 to 3 choose e4, 4 chooses d4
+            assertEquals(E4, book.chooseMove(start, 0));
+            assertEquals(E4, book.chooseMove(start, 3));
+            assertEquals(D4, book.chooseMove(start, 4));
+            assertEquals(E4, book.chooseMove(start, 5));
+        }
+    }
+
+    @Test
+    public void TestFindLegalMove() throws IOException {
+        MoveList moves = new MoveList();
+        try (OpeningBook book = OpeningBook.open(writeBook(folder.getRoot().toPath().resolve("book.bin")))) {
+            Board board = Board.createStartingBoard();
+            assertEquals(E4, book.findLegalMove(board, 0, moves));
+            board.makeMove(E4);
+            assertEquals(Move.NONE, book.findLegalMove(board, 0, moves));
+        }
+    }
+
+    @Test
+    public void TestBuildFromArchive() throws IOException {
+        Path book = folder.getRoot().toPath().resolve("book.bin");
+        try (GameArchive archive = GameArchive.open(folder.getRoot().toPath().resolve("archive"))) {
+            archive.append(new int[]{E4, E5}, 2, GameArchive.BLACK_WIN, 0);
+            archive.append(new int[]{D4}, 1, GameArchive.BLACK_WIN, 0);
+            archive.append(new int[]{D4}, 1, GameArchive.WHITE_WIN, 0);
+            OpeningBookBuilder builder = new OpeningBookBuilder(OpeningBookBuilder.DEFAULT_MAX_PLIES, 1);
+            builder.addArchive(archive);
+            assertEquals(2, builder.write(book));
+        }
+        Board board = Board.createStartingBoard();
+        try (OpeningBook opened = OpeningBook.open(book)) {
+            assertEquals(D4, opened.getBestMove(board.getHashKey()));
+            board.makeMove(E4);
+            assertEquals(E5, opened.getBestMove(board.getHashKey()));
+        }
+    }
+
+    @Test
+    public void TestMinGames() throws IOException {
+        OpeningBookBuilder builder = new OpeningBookBuilder(1, 2);
+        builder.addGame(new int[]{E4, E5}, 2, GameArchive.WHITE_WIN);
+        builder.addGame(new int[]{E4, E5}, 2, GameArchive.TIE);
+        builder.addGame(new int[]{D4}, 1, GameArchive.WHITE_WIN);
+        // Only the first ply is added, and d4 is in one game only
+        assertEquals(1, builder.write(folder.getRoot().toPath().resolve("book.bin")));
+    }
+
+    @Test(expected = IOException.class)
+    public void TestOpenNotBook() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("book.bin");
+        Files.write(file, new byte[40]);
+        OpeningBook.open(file).close();
+    }
+}
@@ -0,0 +1,55 @@
+package engine;
+
+import model.*;
+import org.junit.Test;
+
+import static model.BasePiece.Position;
+import static org.junit.Assert.*;
+
+public class ParallelSearcherTest {
+
+    @Test
+    public void TestFindMateInOne() {
+        Board board = new Board(8, 8);
+        board.setPiece(new King(new Position(0, 6), true));
+        board.setPiece(new Rook(new Position(0, 0), true));
+        board.setPiece(new King(new Position(7, 6), false));
+        for (int file = 5; file <= 7; file++) {
+            board.setPiece(new Pawn(new Position(6, file), false));
+        }
+        long hashKey = board.getHashKey();
+
+        ParallelSearcher searcher = new ParallelSearcher(board, 3);
+        assertEquals(3, searcher.getThreadCount());
+        SearchResult result = searcher.search(SearchLimits.depth(4));
+        searcher.shutdown();
+
+        assertEquals(Move.of(Position.of(0, 0), Position.of(7, 0), 0), result.getBestMove());
+        assertEquals(Searcher.MATE_SCORE - 1, result.getScore());
+        assertEquals(hashKey, board.getHashKey());
+    }
+
+    @Test
+    public void TestHelpersShareTableAndStop() {
+        Board board = Board.createStartingBoard();
+        long hashKey = board.getHashKey();
+        ParallelSearcher searcher = new ParallelSearcher(board, 4);
+
+        SearchResult result = searcher.search(SearchLimits.depth(3));
+        assertEquals(3, result.getDepth());
+        assertNotEquals(Move.NONE, result.getBestMove());
+        assertNotEquals(0, searcher.getTranspositionTable().probe(hashKey));
+        assertEquals(hashKey, board.getHashKey());
+
+        // The searcher can be used again, and the helpers stop with the main searcher
+        result = searcher.search(SearchLimits.moveTime(50));
+        assertNotEquals(Move.NONE, result.getBestMove());
+        searcher.shutdown();
+        assertEquals(hashKey, board.getHashKey());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void TestInvalidThreadCount() {
+        new ParallelSearcher(new Board(8, 8), 0);
+    }
+}
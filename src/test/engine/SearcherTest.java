@@ -0,0 +1,110 @@
+package engine;
+
+import model.*;
+import org.junit.Test;
+
+import static model.BasePiece.Position;
+import static org.junit.Assert.*;
+
+public class SearcherTest {
+    private Board board;
+
+    @org.junit.Before
+    public void setUp() throws Exception {
+        board = new Board(8, 8);
+    }
+
+    @Test
+    public void TestFindMateInOne() {
+        board.setPiece(new King(new Position(0, 6), true));
+        board.setPiece(new Rook(new Position(0, 0), true));
+        board.setPiece(new King(new Position(7, 6), false));
+        for (int file = 5; file <= 7; file++) {
+            board.setPiece(new Pawn(new Position(6, file), false));
+        }
+        long hashKey = board.getHashKey();
+
+        SearchResult result = new Searcher(board).search(SearchLimits.depth(4));
+
+        assertEquals(Move.of(Position.of(0, 0), Position.of(7, 0), 0), result.getBestMove());
+        assertEquals(Searcher.MATE_SCORE - 1, result.getScore());
+        assertTrue(Searcher.isMateScore(result.getScore()));
+        assertEquals(hashKey, board.getHashKey());
+    }
+
+    @Test
+    public void TestWinMaterial() {
+        board.setPiece(new King(new Position(0, 0), true));
+        board.setPiece(new Knight(new Position(3, 3), true));
+        board.setPiece(new King(new Position(7, 7), false));
+        board.setPiece(new Queen(new Position(5, 4), false));
+        board.setPiece(new Elephant(new Position(4, 1), false));
+
+        SearchResult result = new Searcher(board).search(SearchLimits.depth(3));
+
+        assertEquals(Move.of(Position.of(3, 3), Position.of(5, 4), Move.CAPTURE), result.getBestMove());
+        assertEquals(Move.of(Position.of(3, 3), Position.of(5, 4), Move.CAPTURE), result.getPrincipalVariation()[0]);
+        assertEquals(3, result.getDepth());
+    }
+
+    @Test
+    public void TestQuiescenceSeesRecapture() {
+        board.setPiece(new King(new Position(0, 0), true));
+        board.setPiece(new Queen(new Position(0, 3), true));
+        board.setPiece(new King(new Position(7, 7), false));
+        board.setPiece(new Pawn(new Position(4, 3), false));
+        board.setPiece(new Pawn(new Position(5, 4), false));
+
+        // Even at depth 1 the queen does not take the pawn, since the other pawn takes back
+        SearchResult result = new Searcher(board).search(SearchLimits.depth(1));
+        assertNotEquals(Move.of(Position.of(0, 3), Position.of(4, 3), Move.CAPTURE), result.getBestMove());
+        assertTrue(result.getScore() > 500);
+
+        board.removePiece(new Position(5, 4));
+        result = new Searcher(board).search(SearchLimits.depth(1));
+        assertEquals(Move.of(Position.of(0, 3), Position.of(4, 3), Move.CAPTURE), result.getBestMove());
+    }
+
+    @Test
+    public void TestLimitsAndListener() {
+        board.setPiece(new King(new Position(0, 4), true));
+        board.setPiece(new Queen(new Position(0, 3), true));
+        board.setPiece(new Soldier(new Position(2, 0), true));
+        board.setPiece(new King(new Position(7, 4), false));
+        board.setPiece(new Rook(new Position(7, 0), false));
+
+        Searcher searcher = new Searcher(board);
+        final int[] iterations = {0};
+        searcher.setListener(result -> iterations[0]++);
+        SearchResult result = searcher.search(SearchLimits.nodes(2000));
+
+        assertTrue(result.getNodes() <= 2000);
+        assertNotEquals(Move.NONE, result.getBestMove());
+        assertEquals(result.getDepth(), iterations[0]);
+        assertTrue(result.toString().startsWith("depth "));
+
+        result = searcher.search(SearchLimits.moveTime(50));
+        assertNotEquals(Move.NONE, result.getBestMove());
+        assertTrue(result.getElapsedMillis() < 1000);
+
+        // Not even the first iteration completes, so there is only a legal move, without depth or score
+        iterations[0] = 0;
+        result = searcher.search(SearchLimits.nodes(5));
+        assertEquals(0, iterations[0]);
+        assertEquals(0, result.getDepth());
+        assertNotEquals(Move.NONE, result.getBestMove());
+    }
+
+    @Test
+    public void TestNoLegalMoves() {
+        board.setPiece(new Rook(new Position(2, 1), false));
+        board.setPiece(new Rook(new Position(1, 2), false));
+        board.setPiece(new King(new Position(0, 0), true));
+        board.setPiece(new King(new Position(7, 7), false));
+
+        SearchResult result = new Searcher(board).search(SearchLimits.depth(3));
+
+        assertEquals(Move.NONE, result.getBestMove());
+        assertEquals(0, result.getScore());
+    }
+}
@@ -0,0 +1,63 @@
+package engine;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class TablebaseGeneratorTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void TestGenerateWithSmallerEndings() throws IOException {
+        TablebaseGenerator generator = new TablebaseGenerator(1);
+        generator.generate("KvKS");
+        generator.generate("KSvK");
+        assertEquals(Arrays.asList("KSvK"), generator.getEndings());
+
+        Path directory = folder.getRoot().toPath();
+        assertEquals(1, generator.write(directory));
+        assertEquals(Tablebase.HEADER_SIZE + 2L * Tablebase.tableSize(3)
+                , Files.size(directory.resolve("KSvK" + Tablebase.FILE_EXTENSION)));
+        assertEquals(1, Tablebase.open(directory).getTableCount());
+    }
+
+    @Test
+    public void TestThreadCountDoesNotChangeResults() throws IOException {
+        Path single = folder.newFolder("single").toPath();
+        Path parallel = folder.newFolder("parallel").toPath();
+        TablebaseGenerator generator = new TablebaseGenerator(1);
+        generator.generate("KRvK");
+        generator.write(single);
+        generator = new TablebaseGenerator(3);
+        generator.generate("KRvK");
+        generator.write(parallel);
+
+        String file = "KRvK" + Tablebase.FILE_EXTENSION;
+        assertArrayEquals(Files.readAllBytes(single.resolve(file)), Files.readAllBytes(parallel.resolve(file)));
+    }
+
+    @Test
+    public void TestAllEndings() {
+        // 7 endings of 3 pieces, 28 with both pieces on one side and 28 with one piece on each side
+        assertEquals(63, TablebaseGenerator.allEndings().size());
+        assertTrue(TablebaseGenerator.allEndings().contains("KEvKS") || TablebaseGenerator.allEndings().contains("KSvKE"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void TestRejectsBareKings() {
+        new TablebaseGenerator(1).generate("KvK");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void TestRejectsThreadCount() {
+        new TablebaseGenerator(0);
+    }
+}
@@ -0,0 +1,223 @@
+package engine;
+
+import model.*;
+import model.BasePiece.Position;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class TablebaseTest {
+    @ClassRule
+    public static TemporaryFolder folder = new TemporaryFolder();
+
+    private static final String[] ENDINGS = {"KQvK", "KRvK", "KBvK", "KNvK", "KPvK", "KSvK", "KEvK"};
+
+    private static Tablebase tablebase;
+
+    @BeforeClass
+    public static void generate() throws IOException {
+        // Two threads, so that the passes are split even on one core
+        TablebaseGenerator generator = new TablebaseGenerator(2);
+        for (String name : ENDINGS) {
+            generator.generate(name);
+        }
+        assertEquals(ENDINGS.length, generator.write(folder.getRoot().toPath()));
+        tablebase = Tablebase.open(folder.getRoot().toPath());
+    }
+
+    /**
+     * Returns the longest win of an ending with white to move.
+     */
+    private static int longestWin(String name) {
+        int key = Tablebase.parseName(name);
+        int longest = -1;
+        for (int offset = 0; offset < Tablebase.tableSize(3); offset++) {
+            int result = tablebase.getResult(key, offset);
+            if (Tablebase.isWin(result)) {
+                longest = Math.max(longest, Tablebase.getPlies(result));
+            }
+        }
+        return longest;
+    }
+
+    @Test
+    public void TestLongestMates() {
+        assertEquals(7, tablebase.getTableCount());
+        // Mate in 10 and in 16 moves, as in chess
+        assertEquals(19, longestWin("KQvK"));
+        assertEquals(31, longestWin("KRvK"));
+    }
+
+    @Test
+    public void TestDrawnEndings() {
+        for (String name : new String[]{"KBvK", "KNvK"}) {
+            int key = Tablebase.parseName(name);
+            for (int offset = 0; offset < 2 * Tablebase.tableSize(3); offset++) {
+                assertEquals(0, tablebase.getResult(key, offset));
+            }
+        }
+    }
+
+    @Test
+    public void TestProbe() {
+        Board board = new Board(8, 8);
+        board.setPiece(new King(new Position(5, 2), true));
+        board.setPiece(new Queen(new Position(1, 1), true));
+        board.setPiece(new King(new Position(7, 0), false));
+
+        // Qb7 mates
+        assertEquals(1, Tablebase.getPlies(tablebase.probe(board)));
+        assertTrue(Tablebase.isWin(tablebase.probe(board)));
+
+        board.setWhiteToMove(false);
+        assertTrue(Tablebase.isLoss(tablebase.probe(board)));
+
+        board.setWhiteToMove(true);
+        board.setPiece(new Pawn(new Position(1, 7), true));
+        assertEquals(Tablebase.UNKNOWN, tablebase.probe(board));
+        board.setPiece(new Rook(new Position(2, 7), true));
+        assertEquals(5, board.getPieceCount());
+        assertEquals(Tablebase.UNKNOWN, tablebase.probe(board, new int[Tablebase.MAX_PIECES]));
+        assertEquals(Tablebase.UNKNOWN, tablebase.probe(Board.createStartingBoard()));
+    }
+
+    @Test
+    public void TestProbeWithColorsSwapped() {
+        Board board = new Board(8, 8);
+        board.setPiece(new King(new Position(2, 5), false));
+        board.setPiece(new Queen(new Position(6, 6), false));
+        board.setPiece(new King(new Position(0, 7), true));
+        board.setWhiteToMove(false);
+
+        // The mirror image of the position of TestProbe, where Qg2 mates
+        assertEquals(2, tablebase.probe(board));
+        assertEquals(Searcher.MATE_SCORE - 4, Tablebase.toScore(tablebase.probe(board), 3));
+    }
+
+    @Test
+    public void TestBareKings() {
+        Board board = new Board(8, 8);
+        board.setPiece(new King(new Position(0, 0), true));
+        board.setPiece(new King(new Position(7, 7), false));
+        assertEquals(0, tablebase.probe(board));
+        assertTrue(Tablebase.isDraw(tablebase.probe(board)));
+    }
+
+    /**
+     * Checks random positions of every ending against the moves of {@link Board}: each result must follow from the
+     * results after the legal moves.
+     */
+    @Test
+    public void TestProbeAgreesWithBoard() {
+        Random random = new Random(19);
+        MoveList moves = new MoveList();
+        int[] types = {BasePiece.QUEEN, BasePiece.ROOK, BasePiece.BISHOP, BasePiece.KNIGHT, BasePiece.PAWN
+                , BasePiece.SOLDIER, BasePiece.ELEPHANT};
+        for (int type : types) {
+            int checked = 0;
+            while (checked < 200) {
+                Board board = randomBoard(random, type);
+                if (board == null) {
+                    continue;
+                }
+                checked++;
+                assertEquals(expectedResult(board, moves), tablebase.probe(board));
+            }
+        }
+    }
+
+    private static Board randomBoard(Random random, int type) {
+        int[] squares = new int[3];
+        for (int i = 0; i < 3; i++) {
+            squares[i] = random.nextInt(64);
+            for (int j = 0; j < i; j++) {
+                if (squares[j] == squares[i]) {
+                    return null;
+                }
+            }
+        }
+        boolean white = random.nextBoolean();
+        Board board = new Board(8, 8);
+        board.setPiece(new King(Position.of(squares[0] / 8, squares[0] % 8), true));
+        board.setPiece(new King(Position.of(squares[1] / 8, squares[1] % 8), false));
+        int rank = squares[2] / 8;
+        board.setPiece(PositionCodec.newPiece(type, Position.of(rank, squares[2] % 8), white
+                , type == BasePiece.PAWN && rank == (white ? 1 : 6)));
+        board.setWhiteToMove(random.nextBoolean());
+        return board.inCheck(!board.isWhiteToMove()) ? null : board;
+    }
+
+    private static int expectedResult(Board board, MoveList moves) {
+        boolean white = board.isWhiteToMove();
+        moves.clear();
+        board.generateLegalMoves(white, moves);
+        if (moves.isEmpty()) {
+            return board.inCheck(white) ? 1 : 0;
+        }
+        int shortestWin = Integer.MAX_VALUE;
+        int longestLoss = 0;
+        boolean draw = false;
+        for (int i = 0; i < moves.size(); i++) {
+            board.makeMove(moves.get(i));
+            int result = tablebase.probe(board);
+            board.undoMove();
+            if (Tablebase.isLoss(result)) {
+                shortestWin = Math.min(shortestWin, result + 1);
+            } else if (Tablebase.isWin(result)) {
+                longestLoss = Math.max(longestLoss, result + 1);
+            } else {
+                draw = true;
+            }
+        }
+        return shortestWin != Integer.MAX_VALUE ? shortestWin : draw ? 0 : longestLoss;
+    }
+
+    @Test
+    public void TestSearcherUsesTablebase() {
+        Board board = new Board(8, 8);
+        board.setPiece(new King(new Position(0, 0), true));
+        board.setPiece(new Rook(new Position(3, 3), true));
+        board.setPiece(new King(new Position(4, 4), false));
+        int result = tablebase.probe(board);
+        assertTrue(Tablebase.isWin(result));
+
+        Searcher searcher = new Searcher(board);
+        searcher.setTablebase(tablebase);
+        SearchResult searchResult = searcher.search(SearchLimits.depth(1));
+
+        assertEquals(Searcher.MATE_SCORE - Tablebase.getPlies(result), searchResult.getScore());
+        board.makeMove(searchResult.getBestMove());
+        assertEquals(result - 1, tablebase.probe(board));
+    }
+
+    @Test
+    public void TestEndingNames() {
+        assertEquals(Tablebase.parseName("KQvK"), Tablebase.parseName("KvKQ"));
+        assertEquals("KQvK", Tablebase.name(Tablebase.parseName("KvKQ")));
+        assertEquals("KESvK", Tablebase.name(Tablebase.parseName("KSEvK")));
+        assertEquals("KEvKS", Tablebase.name(Tablebase.parseName("KSvKE")));
+        for (String name : new String[]{"KQK", "QvK", "KXvK", "KQRvKB", "KKvK"}) {
+            try {
+                Tablebase.parseName(name);
+                fail(name);
+            } catch (IllegalArgumentException e) {
+                // Expected
+            }
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void TestOpenRejectsBadFile() throws IOException {
+        Path directory = folder.newFolder("bad").toPath();
+        Files.write(directory.resolve("KQvK" + Tablebase.FILE_EXTENSION), new byte[64]);
+        Tablebase.open(directory);
+    }
+}
@@ -0,0 +1,119 @@
+package engine;
+
+import model.*;
+import org.junit.Test;
+
+import static model.BasePiece.Position;
+import static org.junit.Assert.*;
+
+public class TranspositionTableTest {
+
+    @Test
+    public void TestSizeIsPowerOfTwo() {
+        TranspositionTable table = new TranspositionTable(1);
+        assertEquals(65536, table.getEntryCount());
+        assertEquals(0, table.getEntryCount() & (table.getEntryCount() - 1));
+    }
+
+    @Test
+    public void TestStoreAndProbe() {
+        TranspositionTable table = new TranspositionTable(1);
+        int move = Move.of(Position.of(1, 4), Position.of(3, 4), Move.CAPTURE);
+        long key = 0x123456789ABCDEFL;
+
+        assertEquals(0, table.probe(key));
+        table.store(key, move, -29990, 12, TranspositionTable.LOWER_BOUND);
+        long entry = table.probe(key);
+        assertNotEquals(0, entry);
+        assertEquals(move, TranspositionTable.getMove(entry));
+        assertEquals(-29990, TranspositionTable.getScore(entry));
+        assertEquals(12, TranspositionTable.getDepth(entry));
+        assertEquals(TranspositionTable.LOWER_BOUND, TranspositionTable.getBound(entry));
+
+        // Another key of the same slot is a miss
+        assertEquals(0, table.probe(key + table.getEntryCount()));
+
+        table.clear();
+        assertEquals(0, table.probe(key));
+    }
+
+    @Test
+    public void TestReplacement() {
+        TranspositionTable table = new TranspositionTable(1);
+        long key = 42;
+        long otherKey = key + table.getEntryCount();
+        int move = Move.of(Position.of(0, 0), Position.of(0, 1), 0);
+
+        // A shallower entry of another position does not replace a deeper one of the same search
+        table.store(key, move, 10, 8, TranspositionTable.EXACT);
+        table.store(otherKey, Move.NONE, 20, 2, TranspositionTable.EXACT);
+        assertNotEquals(0, table.probe(key));
+        assertEquals(0, table.probe(otherKey));
+
+        // Storing without a move keeps the known best move
+        table.store(key, Move.NONE, 30, 9, TranspositionTable.UPPER_BOUND);
+        assertEquals(move, TranspositionTable.getMove(table.probe(key)));
+
+        // Entries of older searches are replaced
+        table.newSearch();
+        table.store(otherKey, Move.NONE, 20, 2, TranspositionTable.EXACT);
+        assertEquals(0, table.probe(key));
+        assertEquals(20, TranspositionTable.getScore(table.probe(otherKey)));
+    }
+
+    @Test
+    public void TestConcurrentWritersNeverReadTornEntries() throws InterruptedException {
+        TranspositionTable table = new TranspositionTable(1);
+        int slots = 64;
+        Thread[] threads = new Thread[4];
+        boolean[] failed = {false};
+        for (int t = 0; t < threads.length; t++) {
+            int seed = t;
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 200000; i++) {
+                    // Every key of a thread maps to one of few slots, and its score is derived from the key
+                    long key = (long) (i % slots) + (long) ((i * 31 + seed) % 7 + 1) * table.getEntryCount();
+                    int score = (int) (key % 10007);
+                    table.store(key, Move.NONE, score, i % 32, TranspositionTable.EXACT);
+                    long probeKey = (long) ((i + 1) % slots) + (long) (i % 7 + 1) * table.getEntryCount();
+                    long entry = table.probe(probeKey);
+                    if (entry != 0 && TranspositionTable.getScore(entry) != (int) (probeKey % 10007)) {
+                        failed[0] = true;
+                    }
+                    if (i % 1000 == 0) {
+                        table.newSearch();
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertFalse(failed[0]);
+    }
+
+    @Test
+    public void TestSearchUsesTable() {
+        Board board = new Board(8, 8);
+        board.setPiece(new King(new Position(0, 6), true));
+        board.setPiece(new Rook(new Position(0, 0), true));
+        board.setPiece(new King(new Position(7, 6), false));
+        for (int file = 5; file <= 7; file++) {
+            board.setPiece(new Pawn(new Position(6, file), false));
+        }
+        TranspositionTable table = new TranspositionTable(1);
+        Searcher searcher = new Searcher(board, table);
+        SearchResult result = searcher.search(SearchLimits.depth(3));
+
+        long entry = table.probe(board.getHashKey());
+        assertNotEquals(0, entry);
+        assertEquals(result.getBestMove(), TranspositionTable.getMove(entry));
+        assertEquals(TranspositionTable.EXACT, TranspositionTable.getBound(entry));
+        assertTrue(Searcher.isMateScore(TranspositionTable.getScore(entry)));
+
+        // A second searcher sharing the table finds the same move
+        assertEquals(result.getBestMove(), new Searcher(board, table).search(SearchLimits.depth(3)).getBestMove());
+        assertSame(table, searcher.getTranspositionTable());
+    }
+}
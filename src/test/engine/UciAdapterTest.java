@@ -0,0 +1,157 @@
+package engine;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+
+public class UciAdapterTest {
+    private ByteArrayOutputStream output;
+    private UciAdapter adapter;
+
+    @Before
+    public void setUp() {
+        output = new ByteArrayOutputStream();
+        adapter = new UciAdapter(new BufferedReader(new StringReader("")), new PrintStream(output, true));
+    }
+
+    private String[] lines() {
+        return new String(output.toByteArray(), StandardCharsets.UTF_8).split("\\R");
+    }
+
+    @Test
+    public void TestHandshake() {
+        assertTrue(adapter.execute("uci"));
+        assertTrue(adapter.execute("isready"));
+        assertFalse(adapter.execute("quit"));
+        String[] lines = lines();
+        assertEquals("id name Chess", lines[0]);
+        assertEquals("uciok", lines[lines.length - 2]);
+        assertEquals("readyok", lines[lines.length - 1]);
+    }
+
+    @Test
+    public void TestGoDepthStreamsInfo() {
+        adapter.execute("position startpos moves e2e4 e7e5");
+        adapter.execute("go depth 3");
+        adapter.waitForSearch();
+        String[] lines = lines();
+        assertTrue(lines[0].startsWith("info depth 1 score cp "));
+        assertTrue(lines[0].contains(" nps "));
+        assertTrue(lines[2].startsWith("info depth 3 "));
+        assertTrue(lines[3].startsWith("bestmove "));
+        assertEquals(4, lines.length);
+    }
+
+    @Test
+    public void TestStopInfiniteSearch() throws InterruptedException {
+        adapter.execute("setoption name Threads value 2");
+        adapter.execute("go infinite");
+        // Commands are still answered during the search
+        adapter.execute("isready");
+        Thread.sleep(100);
+        adapter.execute("stop");
+        String[] lines = lines();
+        assertTrue(lines[lines.length - 1].startsWith("bestmove "));
+        boolean ready = false;
+        for (String line : lines) {
+            ready |= line.equals("readyok");
+        }
+        assertTrue(ready);
+    }
+
+    @Test
+    public void TestInfiniteSearchWaitsForStop() throws InterruptedException {
+        // Ra8 mates at once, so the search is done long before the stop
+        adapter.execute("position fen 7k/8/6K1/8/8/8/8/R7 w -");
+        adapter.execute("go infinite");
+        Thread.sleep(300);
+        for (String line : lines()) {
+            assertFalse(line.startsWith("bestmove"));
+        }
+        adapter.execute("stop");
+        String[] lines = lines();
+        assertEquals("bestmove a1a8", lines[lines.length - 1]);
+    }
+
+    @Test
+    public void TestMateScoreAndIllegalMove() {
+        // Fool's mate: black mates in one
+        adapter.execute("position startpos moves f2f3 e7e5 g2g4");
+        adapter.execute("go depth 2");
+        adapter.waitForSearch();
+        String[] lines = lines();
+        assertTrue(lines[lines.length - 2].startsWith("info depth 2 score mate 1 "));
+        assertEquals("bestmove d8h4", lines[lines.length - 1]);
+
+        adapter.execute("position startpos moves e2e5");
+        assertEquals("info string illegal move e2e5", lines()[lines().length - 1]);
+    }
+
+    @Test
+    public void TestPositionFen() {
+        // White rook mates on the back rank
+        adapter.execute("position fen 6k1/5ppp/8/8/8/8/8/R5K1 w - moves a1a2 g8h8");
+        adapter.execute("go depth 2");
+        adapter.waitForSearch();
+        String[] lines = lines();
+        assertEquals("bestmove a2a8", lines[lines.length - 1]);
+
+        adapter.execute("position fen 8/8/x7/8/8/8/8/8 w -");
+        assertEquals("info string bad fen", lines()[lines().length - 1]);
+    }
+
+    @Test
+    public void TestStartsWithoutAwt() throws IOException, InterruptedException {
+        String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        Process process = new ProcessBuilder(java, "-verbose:class", "-cp", System.getProperty("java.class.path")
+                , "engine.UciAdapter").redirectErrorStream(true).start();
+        try (OutputStream stdin = process.getOutputStream()) {
+            stdin.write("uci\nisready\ngo depth 2\nquit\n".getBytes(StandardCharsets.UTF_8));
+        }
+        BufferedReader stdout = new BufferedReader(new InputStreamReader(process.getInputStream()
+                , StandardCharsets.UTF_8));
+        boolean ready = false;
+        String line;
+        while ((line = stdout.readLine()) != null) {
+            assertFalse(line, line.contains("java.awt.") || line.contains("javax.swing."));
+            ready |= line.equals("readyok");
+        }
+        assertEquals(0, process.waitFor());
+        assertTrue(ready);
+    }
+
+    @Test
+    public void TestBookMove() throws IOException {
+        File book = File.createTempFile("book", ".bin");
+        try {
+            OpeningBookTest.writeBook(book.toPath());
+            adapter.execute("setoption name BookFile value " + book.getPath());
+            adapter.execute("position startpos");
+            adapter.execute("go depth 5");
+            adapter.waitForSearch();
+            adapter.execute("position startpos moves e2e4");
+            adapter.execute("go depth 1");
+            adapter.waitForSearch();
+            String[] lines = lines();
+            assertEquals("info string book move", lines[0]);
+            assertTrue(lines[1].equals("bestmove e2e4") || lines[1].equals("bestmove d2d4"));
+            // Out of book, so there is a search
+            assertTrue(lines[2].startsWith("info depth 1 "));
+            assertTrue(lines[3].startsWith("bestmove "));
+            adapter.execute("setoption name BookFile value <empty>");
+        } finally {
+            book.delete();
+        }
+    }
+}
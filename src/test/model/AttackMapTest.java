@@ -0,0 +1,153 @@
+package model;
+
+import org.junit.Test;
+
+import static model.BasePiece.Position;
+import static org.junit.Assert.*;
+
+public class AttackMapTest {
+    private Board board;
+
+    @org.junit.Before
+    public void setUp() throws Exception {
+        board = new Board(8, 8);
+    }
+
+    @Test
+    public void TestIsAttacked() {
+        Position target = new Position(3, 4);
+        board.setPiece(new King(target, true));
+        assertFalse(AttackMap.isAttacked(board.getChessBoard(), target, false));
+
+        board.setPiece(new Knight(new Position(5, 5), false));
+        assertTrue(AttackMap.isAttacked(board.getChessBoard(), target, false));
+        board.removePiece(new Position(5, 5));
+
+        // The rook is blocked by the white pawn
+        board.setPiece(new Rook(new Position(3, 0), false));
+        board.setPiece(new Pawn(new Position(3, 2), true));
+        assertFalse(AttackMap.isAttacked(board.getChessBoard(), target, false));
+        board.removePiece(new Position(3, 2));
+        assertTrue(AttackMap.isAttacked(board.getChessBoard(), target, false));
+    }
+
+    @Test
+    public void TestSoldierAndElephantAttacks() {
+        Position target = new Position(3, 4);
+        board.setPiece(new King(target, true));
+
+        // The black soldier has not passed halfway and cannot move sideways
+        board.setPiece(new Soldier(new Position(4, 3), false));
+        assertFalse(AttackMap.isAttacked(board.getChessBoard(), target, false));
+        board.setPiece(new Soldier(new Position(3, 5), false));
+        assertTrue(AttackMap.isAttacked(board.getChessBoard(), target, false));
+        board.removePiece(new Position(3, 5));
+
+        board.setPiece(new Elephant(new Position(5, 6), false));
+        assertTrue(AttackMap.isAttacked(board.getChessBoard(), target, false));
+        board.setPiece(new Knight(new Position(4, 5), true));
+        assertFalse(AttackMap.isAttacked(board.getChessBoard(), target, false));
+    }
+
+    @Test
+    public void TestPinsAndCheckers() {
+        BasePiece king = new King(new Position(0, 4), true);
+        BasePiece bishop = new Bishop(new Position(1, 4), true);
+        BasePiece knight = new Knight(new Position(1, 5), true);
+        BasePiece pawn = new Pawn(new Position(1, 3), true);
+        board.setPiece(king);
+        board.setPiece(bishop);
+        board.setPiece(knight);
+        board.setPiece(pawn);
+        board.setPiece(new Rook(new Position(6, 4), false));
+        board.setPiece(new Elephant(new Position(2, 6), false));
+
+        AttackMap attackMap = new AttackMap();
+        attackMap.compute(board.getChessBoard(), king);
+        assertFalse(attackMap.inCheck());
+        assertTrue(attackMap.isPinned(bishop.getPosition()));
+        assertTrue(attackMap.isPinned(knight.getPosition()));
+        assertFalse(attackMap.isPinned(pawn.getPosition()));
+        assertTrue(attackMap.isFreeToMove(pawn));
+        assertFalse(attackMap.isFreeToMove(king));
+
+        // The pinned knight cannot move away from the elephant's middle square
+        assertTrue(board.getLegalMoves(knight).isEmpty());
+
+        board.setPiece(new Queen(new Position(0, 0), false));
+        attackMap.compute(board.getChessBoard(), king);
+        assertTrue(attackMap.inCheck());
+        assertEquals(1, attackMap.getCheckers());
+        assertFalse(attackMap.isFreeToMove(pawn));
+        assertTrue(board.getLegalMoves(pawn).isEmpty());
+    }
+
+    @Test
+    public void TestNoKing() {
+        BasePiece rook = new Rook(new Position(0, 0), true);
+        board.setPiece(rook);
+
+        AttackMap attackMap = new AttackMap();
+        attackMap.compute(board.getChessBoard(), null);
+        assertFalse(attackMap.inCheck());
+        assertTrue(attackMap.isFreeToMove(rook));
+        assertFalse(board.inCheck(true));
+        assertEquals(14, board.getLegalMoves(rook).size());
+    }
+
+    private int staticExchange(Position from, Position to) {
+        long hashKey = board.getHashKey();
+        BasePiece victim = board.getPiece(to);
+        int score = new AttackMap().staticExchange(board.getChessBoard(), Move.of(from, to, Move.CAPTURE));
+        // The chessboard is left as it was
+        assertEquals(hashKey, board.getHashKey());
+        assertSame(victim, board.getPiece(to));
+        assertNotNull(board.getPiece(from));
+        return score;
+    }
+
+    @Test
+    public void TestStaticExchange() {
+        Position target = new Position(4, 4);
+        board.setPiece(new Knight(target, false));
+        board.setPiece(new Pawn(new Position(5, 5), false));
+        board.setPiece(new Pawn(new Position(3, 3), true));
+        assertEquals(320 - 100, staticExchange(new Position(3, 3), target));
+
+        board.removePiece(new Position(3, 3));
+        board.setPiece(new Queen(new Position(0, 4), true));
+        assertEquals(320 - 900, staticExchange(new Position(0, 4), target));
+
+        // Kings never capture on a defended position
+        board.removePiece(new Position(0, 4));
+        board.setPiece(new King(new Position(3, 4), true));
+        assertTrue(staticExchange(new Position(3, 4), target) < -1000);
+
+        // Undefended
+        board.removePiece(new Position(5, 5));
+        assertEquals(320, staticExchange(new Position(3, 4), target));
+    }
+
+    @Test
+    public void TestStaticExchangeXRays() {
+        Position target = new Position(4, 4);
+        board.setPiece(new Knight(target, false));
+        board.setPiece(new Rook(new Position(7, 4), false));
+        board.setPiece(new Rook(new Position(1, 4), true));
+        // Black must not take back, as the queen behind the rook takes again
+        board.setPiece(new Queen(new Position(0, 4), true));
+        assertEquals(320, staticExchange(new Position(1, 4), target));
+        board.removePiece(new Position(0, 4));
+        assertEquals(320 - 500, staticExchange(new Position(1, 4), target));
+
+        // The elephant behind the pawn joins once the pawn has captured, so taking back with the queen loses it
+        board.removePiece(new Position(1, 4));
+        board.removePiece(new Position(7, 4));
+        board.setPiece(new Pawn(new Position(5, 5), false));
+        board.setPiece(new Pawn(new Position(3, 3), true));
+        board.setPiece(new Queen(new Position(4, 0), true));
+        assertEquals(320 - 100 + 100, staticExchange(new Position(3, 3), target));
+        board.setPiece(new Elephant(new Position(6, 6), false));
+        assertEquals(320 - 100, staticExchange(new Position(3, 3), target));
+    }
+}
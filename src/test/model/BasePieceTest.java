@@ -36,6 +36,33 @@ public class BasePieceTest {
         assertEquals(3, position.getFile());
     }
 
+    @Test
+    public void testPositionEquality() {
+        Position position = new Position(1, 3);
+        assertEquals(Position.of(1, 3), position);
+        assertEquals(Position.of(1, 3).hashCode(), position.hashCode());
+        assertNotEquals(Position.of(3, 1), position);
+        assertNotEquals(position, null);
+    }
+
+    @Test
+    public void testPositionInterning() {
+        assertSame(Position.of(2, 5), Position.of(2, 5));
+        assertSame(Position.of(2, 5), Position.of(Position.of(2, 5).getIndex()));
+        assertEquals(new Position(-1, 20), Position.of(-1, 20));
+    }
+
+    @Test
+    public void testLegalMovesContains() {
+        BasePiece knight = new Knight(new Position(0, 1), true);
+        board.setPiece(knight);
+        board.setPiece(new King(new Position(0, 4), true));
+
+        HashSet<Position> moves = board.getLegalMoves(knight);
+        assertTrue(moves.contains(new Position(2, 2)));
+        assertFalse(moves.contains(new Position(1, 1)));
+    }
+
     @Test
     public void testIsValidMoveBasicCheckSamePosition() {
         Position position = new Position(3, 3);
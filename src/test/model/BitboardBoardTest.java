@@ -0,0 +1,186 @@
+package model;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+import static model.BasePiece.Position;
+import static org.junit.Assert.*;
+
+public class BitboardBoardTest {
+    private BitboardBoard board;
+
+    @org.junit.Before
+    public void setUp() throws Exception {
+        board = new BitboardBoard();
+    }
+
+    private static List<String> toStrings(HashSet<Position> positions) {
+        List<String> result = new ArrayList<>();
+        for (Position pos : positions) {
+            result.add(pos.getRank() + " " + pos.getFile());
+        }
+        result.sort(null);
+        return result;
+    }
+
+    @Test
+    public void TestSetAndGetPiece() {
+        BasePiece pawn = new Pawn(new Position(10, 4), true);
+        assertFalse(board.setPiece(pawn));
+        assertNull(board.getPiece(new Position(10, 4)));
+
+        Position pawnPosition = new Position(4, 4);
+        pawn = new Pawn(pawnPosition, true);
+        assertTrue(board.setPiece(pawn));
+        assertFalse(board.setPiece(new Rook(pawnPosition, false)));
+        assertEquals(pawn, board.getPiece(pawnPosition));
+        assertTrue(board.removePiece(pawnPosition));
+        assertFalse(board.removePiece(pawnPosition));
+    }
+
+    @Test
+    public void TestMovePieceAndUndo() {
+        BasePiece pawn = new Pawn(new Position(1, 4), true);
+        BasePiece king = new King(new Position(0, 4), true);
+        BasePiece knight = new Knight(new Position(1, 3), false);
+        board.setPiece(pawn);
+        board.setPiece(king);
+        board.setPiece(knight);
+
+        assertFalse(board.movePiece(pawn, new Position(4, 4)));
+        assertTrue(board.movePiece(pawn, new Position(3, 4)));
+        assertFalse(pawn.getFirstTime());
+        assertFalse(board.movePiece(pawn, new Position(5, 4)));
+        assertTrue(board.movePiece(king, new Position(1, 3)));
+        assertNull(board.getPiece(new Position(0, 4)));
+        assertEquals(king, board.getPiece(new Position(1, 3)));
+
+        assertTrue(board.undoMove());
+        assertEquals(knight, board.getPiece(new Position(1, 3)));
+        assertEquals(king, board.getPiece(new Position(0, 4)));
+        assertTrue(board.undoMove());
+        assertEquals(pawn, board.getPiece(new Position(1, 4)));
+        assertTrue(pawn.getFirstTime());
+        assertFalse(board.undoMove());
+    }
+
+    @Test
+    public void TestInCheckMate() {
+        board.setPiece(new Queen(new Position(2, 2), true));
+        board.setPiece(new Rook(new Position(2, 0), true));
+        board.setPiece(new Rook(new Position(0, 2), true));
+        board.setPiece(new King(new Position(0, 0), false));
+
+        assertTrue(board.inCheck(false));
+        assertTrue(board.inCheckmate(false));
+        assertFalse(board.inStaleMate(false));
+        assertFalse(board.inCheck(true));
+    }
+
+    @Test
+    public void TestInStaleMate() {
+        board.setPiece(new Rook(new Position(2, 1), true));
+        board.setPiece(new Rook(new Position(1, 2), true));
+        board.setPiece(new King(new Position(0, 0), false));
+
+        assertTrue(board.inStaleMate(false));
+        assertFalse(board.inCheckmate(false));
+    }
+
+    @Test
+    public void TestElephantAndSoldierAttacks() {
+        BasePiece king = new King(new Position(3, 4), true);
+        BasePiece elephant = new Elephant(new Position(5, 6), false);
+        board.setPiece(king);
+        board.setPiece(elephant);
+        assertTrue(board.inCheck(true));
+
+        // The elephant is blocked by the piece in the middle
+        board.setPiece(new Knight(new Position(4, 5), true));
+        assertFalse(board.inCheck(true));
+
+        // The black soldier has not passed halfway and can only move forward
+        board.setPiece(new Soldier(new Position(4, 3), false));
+        assertFalse(board.inCheck(true));
+
+        // The black soldier has passed halfway and can attack sideways
+        board.setPiece(new Soldier(new Position(3, 3), false));
+        assertTrue(board.inCheck(true));
+    }
+
+    @Test
+    public void TestLegalMovesMatchBoard() {
+        Board reference = new Board(8, 8);
+        List<BasePiece> referencePieces = new ArrayList<>();
+        List<BasePiece> pieces = new ArrayList<>();
+        for (BasePiece piece : startingPieces()) {
+            reference.setPiece(piece);
+            referencePieces.add(piece);
+        }
+        for (BasePiece piece : startingPieces()) {
+            board.setPiece(piece);
+            pieces.add(piece);
+        }
+
+        // Plays the same random game on both boards and compares all legal moves after each move
+        Random random = new Random(242);
+        boolean white = true;
+        for (int ply = 0; ply < 80; ply++) {
+            List<Integer> movable = new ArrayList<>();
+            for (int i = 0; i < pieces.size(); i++) {
+                BasePiece referencePiece = referencePieces.get(i);
+                BasePiece piece = pieces.get(i);
+                if (board.getPiece(piece.getPosition()) != piece) {
+                    // The piece has been captured
+                    continue;
+                }
+                assertEquals(toStrings(reference.getLegalMoves(referencePiece)), toStrings(board.getLegalMoves(piece)));
+                if (piece.getWhitePlayer() == white && !board.getLegalMoves(piece).isEmpty()) {
+                    movable.add(i);
+                }
+            }
+            assertEquals(reference.inCheck(white), board.inCheck(white));
+            assertEquals(reference.inCheckmate(white), board.inCheckmate(white));
+            assertEquals(reference.inStaleMate(white), board.inStaleMate(white));
+            if (movable.isEmpty()) {
+                break;
+            }
+            int index = movable.get(random.nextInt(movable.size()));
+            List<String> targets = toStrings(board.getLegalMoves(pieces.get(index)));
+            String[] target = targets.get(random.nextInt(targets.size())).split(" ");
+            Position position = new Position(Integer.parseInt(target[0]), Integer.parseInt(target[1]));
+            assertTrue(reference.movePiece(referencePieces.get(index), position));
+            assertTrue(board.movePiece(pieces.get(index), position));
+            white = !white;
+        }
+    }
+
+    /**
+     * Returns the pieces of the starting layout in {@link controller.Chess}.
+     */
+    static List<BasePiece> startingPieces() {
+        List<BasePiece> pieces = new ArrayList<>();
+        for (int side = 0; side < 2; side++) {
+            boolean white = side == 0;
+            int backRank = white ? 0 : 7;
+            pieces.add(new Rook(new Position(backRank, 0), white));
+            pieces.add(new Knight(new Position(backRank, 1), white));
+            pieces.add(new Bishop(new Position(backRank, 2), white));
+            pieces.add(new Queen(new Position(backRank, 3), white));
+            pieces.add(new King(new Position(backRank, 4), white));
+            pieces.add(new Bishop(new Position(backRank, 5), white));
+            pieces.add(new Knight(new Position(backRank, 6), white));
+            pieces.add(new Rook(new Position(backRank, 7), white));
+            for (int file = 0; file < 8; file++) {
+                pieces.add(new Pawn(new Position(white ? 1 : 6, file), white));
+            }
+            pieces.add(new Soldier(new Position(white ? 2 : 5, 0), white));
+            pieces.add(new Elephant(new Position(white ? 2 : 5, 7), white));
+        }
+        return pieces;
+    }
+}
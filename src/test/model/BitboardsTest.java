@@ -0,0 +1,56 @@
+package model;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class BitboardsTest {
+
+    @Test
+    public void TestLeaperAttackCounts() {
+        assertEquals(3, Long.bitCount(Bitboards.kingAttacks(Bitboards.square(0, 0))));
+        assertEquals(8, Long.bitCount(Bitboards.kingAttacks(Bitboards.square(4, 4))));
+        assertEquals(2, Long.bitCount(Bitboards.knightAttacks(Bitboards.square(0, 0))));
+        assertEquals(8, Long.bitCount(Bitboards.knightAttacks(Bitboards.square(4, 4))));
+        assertEquals(1, Long.bitCount(Bitboards.elephantAttacks(Bitboards.square(0, 0))));
+        assertEquals(4, Long.bitCount(Bitboards.elephantAttacks(Bitboards.square(4, 4))));
+    }
+
+    @Test
+    public void TestSoldierAttacks() {
+        int white = Bitboards.WHITE;
+        int black = Bitboards.BLACK;
+        assertEquals(1L << Bitboards.square(3, 4), Bitboards.soldierAttacks(white, Bitboards.square(2, 4)));
+        assertEquals(3, Long.bitCount(Bitboards.soldierAttacks(white, Bitboards.square(4, 4))));
+        assertEquals(1, Long.bitCount(Bitboards.soldierAttacks(white, Bitboards.square(7, 0))));
+        assertEquals(3, Long.bitCount(Bitboards.soldierAttacks(black, Bitboards.square(3, 4))));
+        assertEquals(1L << Bitboards.square(4, 4), Bitboards.soldierAttacks(black, Bitboards.square(5, 4)));
+
+        // Attackers of a square are the reverse lookup of attacks
+        long attackers = Bitboards.soldierAttackers(white, Bitboards.square(4, 4));
+        assertEquals((1L << Bitboards.square(3, 4)) | (1L << Bitboards.square(4, 3))
+                | (1L << Bitboards.square(4, 5)), attackers);
+    }
+
+    @Test
+    public void TestSlidingAttacks() {
+        int square = Bitboards.square(3, 3);
+        assertEquals(14, Long.bitCount(Bitboards.rookAttacks(square, 0L)));
+        assertEquals(13, Long.bitCount(Bitboards.bishopAttacks(square, 0L)));
+
+        // Blockers are included in the attacks and cut off the squares behind them
+        long blockers = (1L << Bitboards.square(5, 3)) | (1L << Bitboards.square(3, 1));
+        long attacks = Bitboards.rookAttacks(square, blockers);
+        assertEquals(0L, attacks & (1L << Bitboards.square(6, 3)));
+        assertEquals(0L, attacks & (1L << Bitboards.square(3, 0)));
+        assertEquals(1L << Bitboards.square(5, 3), attacks & (1L << Bitboards.square(5, 3)));
+        assertEquals(11, Long.bitCount(attacks));
+        assertEquals(27, Long.bitCount(Bitboards.queenAttacks(Bitboards.square(4, 4), 0L)));
+    }
+
+    @Test
+    public void TestElephantEye() {
+        assertEquals(Bitboards.square(3, 3), Bitboards.elephantEye(Bitboards.square(2, 2), Bitboards.square(4, 4)));
+        assertEquals(Bitboards.square(3, 5), Bitboards.elephantEye(Bitboards.square(4, 6), Bitboards.square(2, 4)));
+    }
+}
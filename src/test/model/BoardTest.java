@@ -96,6 +96,133 @@ public class BoardTest {
         assertEquals(board.movePiece(pawn, targetPosition), false);
     }
 
+    @Test
+    public void TestGenerateLegalMoves() {
+        BasePiece.Position kingPosition = new BasePiece.Position(0, 0);
+        BasePiece.Position rookPosition = new BasePiece.Position(1, 0);
+        BasePiece king = new King(kingPosition, true);
+        BasePiece rook = new Rook(rookPosition, true);
+        BasePiece queen = new Queen(new BasePiece.Position(7, 0), false);
+        board.setPiece(king);
+        board.setPiece(rook);
+        board.setPiece(queen);
+
+        MoveList moves = new MoveList();
+        board.generateLegalMoves(true, moves);
+
+        // The pinned rook can only move along the file, and the king can move to two squares
+        assertEquals(6 + 2, moves.size());
+        assertEquals(true, moves.contains(Move.of(rookPosition, new BasePiece.Position(7, 0), Move.CAPTURE)));
+        assertEquals(false, moves.contains(Move.of(rookPosition, new BasePiece.Position(1, 1), 0)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void TestBoardTooLarge() {
+        new Board(8, 20);
+    }
+
+    @Test
+    public void TestUndoMove() {
+        BasePiece.Position pawnPosition = new BasePiece.Position(1, 4);
+        BasePiece.Position kingPosition = new BasePiece.Position(0, 4);
+        BasePiece.Position knightPosition = new BasePiece.Position(1, 3);
+        BasePiece pawn = new Pawn(pawnPosition, true);
+        BasePiece king = new King(kingPosition, true);
+        BasePiece knight = new Knight(knightPosition, false);
+        board.setPiece(pawn);
+        board.setPiece(king);
+        board.setPiece(knight);
+
+        assertEquals(board.undoMove(), false);
+        assertEquals(board.movePiece(pawn, new BasePiece.Position(3, 4)), true);
+        assertEquals(board.movePiece(king, knightPosition), true);
+        assertEquals(board.getPiece(kingPosition), null);
+
+        assertEquals(board.undoMove(), true);
+        assertEquals(board.getPiece(knightPosition), knight);
+        assertEquals(board.getPiece(kingPosition), king);
+        assertEquals(king.getPosition(), kingPosition);
+        assertEquals(board.getKing(true), king);
+        assertEquals(king.getFirstTime(), true);
+
+        assertEquals(board.undoMove(), true);
+        assertEquals(board.getPiece(pawnPosition), pawn);
+        assertEquals(board.getPiece(new BasePiece.Position(3, 4)), null);
+        assertEquals(pawn.getFirstTime(), true);
+        assertEquals(board.undoMove(), false);
+    }
+
+    @Test
+    public void TestMakeMove() {
+        BasePiece.Position pawnPosition = new BasePiece.Position(1, 4);
+        BasePiece pawn = new Pawn(pawnPosition, true);
+        board.setPiece(pawn);
+        board.setPiece(new King(new BasePiece.Position(0, 0), true));
+
+        board.makeMove(Move.of(pawnPosition, new BasePiece.Position(3, 4), 0));
+        assertEquals(board.getPiece(new BasePiece.Position(3, 4)), pawn);
+        assertEquals(pawn.getFirstTime(), false);
+        assertEquals(board.undoMove(), true);
+        assertEquals(board.getPiece(pawnPosition), pawn);
+    }
+
+    @Test
+    public void TestHashKey() {
+        BasePiece.Position pawnPosition = new BasePiece.Position(1, 4);
+        BasePiece.Position knightPosition = new BasePiece.Position(0, 1);
+        BasePiece pawn = new Pawn(pawnPosition, true);
+        BasePiece knight = new Knight(knightPosition, true);
+        BasePiece king = new King(new BasePiece.Position(0, 4), true);
+        BasePiece blackKnight = new Knight(new BasePiece.Position(7, 1), false);
+        board.setPiece(pawn);
+        board.setPiece(knight);
+        board.setPiece(king);
+        board.setPiece(blackKnight);
+        long start = board.getHashKey();
+        assertEquals(board.computeHashKey(), start);
+
+        board.movePiece(pawn, new BasePiece.Position(2, 4));
+        board.movePiece(blackKnight, new BasePiece.Position(5, 2));
+        board.movePiece(knight, new BasePiece.Position(2, 2));
+        long afterPawnFirst = board.getHashKey();
+        assertEquals(board.computeHashKey(), afterPawnFirst);
+        assertEquals(board.isWhiteToMove(), false);
+
+        board.undoMove();
+        board.undoMove();
+        board.undoMove();
+        assertEquals(board.getHashKey(), start);
+        assertEquals(board.isWhiteToMove(), true);
+
+        // The same position reached by another move order has the same key
+        board.movePiece(knight, new BasePiece.Position(2, 2));
+        board.movePiece(blackKnight, new BasePiece.Position(5, 2));
+        board.movePiece(pawn, new BasePiece.Position(2, 4));
+        assertEquals(board.getHashKey(), afterPawnFirst);
+
+        board.undoMove();
+        board.undoMove();
+        board.undoMove();
+        assertEquals(board.getHashKey(), start);
+
+        // A piece that has been moved before differs from one that has not
+        board.movePiece(knight, new BasePiece.Position(2, 2));
+        board.movePiece(blackKnight, new BasePiece.Position(5, 2));
+        board.movePiece(knight, knightPosition);
+        board.movePiece(blackKnight, new BasePiece.Position(7, 1));
+        assertEquals(board.getHashKey() == start, false);
+        assertEquals(board.computeHashKey(), board.getHashKey());
+        board.undoMove();
+        board.undoMove();
+        board.undoMove();
+        board.undoMove();
+        assertEquals(board.getHashKey(), start);
+
+        board.setWhiteToMove(false);
+        assertEquals(board.getHashKey() == start, false);
+        assertEquals(board.computeHashKey(), board.getHashKey());
+    }
+
     @Test
     public void TestGetKingNull() {
         assertEquals(board.getKing(true), null);
@@ -161,4 +288,58 @@ public class BoardTest {
 
         assertEquals(board.inStaleMate(false), false);
     }
+
+    @Test
+    public void TestStartingBoard() {
+        Board start = Board.createStartingBoard();
+        assertEquals(18, start.getPlayerAllPieces(true).size());
+        assertEquals(18, start.getPlayerAllPieces(false).size());
+        assertEquals(true, start.getPiece(new BasePiece.Position(2, 0)) instanceof Soldier);
+        assertEquals(true, start.getPiece(new BasePiece.Position(5, 7)) instanceof Elephant);
+        assertEquals(new BasePiece.Position(7, 4), start.getKing(false).getPosition());
+        assertEquals(true, start.isWhiteToMove());
+    }
+
+    @Test
+    public void TestCopy() {
+        Board start = Board.createStartingBoard();
+        start.makeMove(Move.of(BasePiece.Position.of(1, 4), BasePiece.Position.of(3, 4), 0));
+        Board copy = start.copy();
+
+        assertEquals(start.getHashKey(), copy.getHashKey());
+        assertEquals(false, copy.isWhiteToMove());
+        assertEquals(false, copy.getPiece(BasePiece.Position.of(3, 4)).getFirstTime());
+        assertEquals(false, copy.undoMove());
+
+        // Pieces are not shared, so moves on the copy do not change the original
+        BasePiece copyPawn = copy.getPiece(BasePiece.Position.of(6, 4));
+        assertEquals(false, copyPawn == start.getPiece(BasePiece.Position.of(6, 4)));
+        assertEquals(true, copy.movePiece(copyPawn, BasePiece.Position.of(4, 4)));
+        assertEquals(true, start.getPiece(BasePiece.Position.of(6, 4)).getFirstTime());
+        assertEquals(null, start.getPiece(BasePiece.Position.of(4, 4)));
+        assertEquals(copy.computeHashKey(), copy.getHashKey());
+    }
+
+    @Test
+    public void TestGetMove() {
+        Board start = Board.createStartingBoard();
+        int first = Move.of(BasePiece.Position.of(1, 4), BasePiece.Position.of(3, 4), 0);
+        int second = Move.of(BasePiece.Position.of(6, 3), BasePiece.Position.of(4, 3), 0);
+        int capture = Move.of(BasePiece.Position.of(3, 4), BasePiece.Position.of(4, 3), Move.CAPTURE);
+        start.makeMove(first);
+        start.makeMove(second);
+        start.makeMove(capture);
+
+        assertEquals(3, start.getMoveCount());
+        assertEquals(first, start.getMove(0));
+        assertEquals(second, start.getMove(1));
+        assertEquals(capture, start.getMove(2));
+        assertEquals(true, start.undoMove());
+        assertEquals(2, start.getMoveCount());
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void TestGetMoveOutOfRange() {
+        board.getMove(0);
+    }
 }
@@ -0,0 +1,153 @@
+package model;
+
+import model.BasePiece.Position;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class EvaluatorTest {
+    private final Evaluator evaluator = new Evaluator();
+
+    @Test
+    public void TestStartingBoardIsEven() {
+        Board board = Board.createStartingBoard();
+        assertEquals(Evaluator.MAX_PHASE, board.getPhase());
+        assertEquals(0, evaluator.evaluate(board));
+        assertEquals(0, evaluator.evaluate(board, false));
+    }
+
+    @Test
+    public void TestPackedScores() {
+        for (int opening : new int[]{-5000, -1, 0, 1, 4370}) {
+            for (int endgame : new int[]{-5000, -1, 0, 1, 4370}) {
+                int packed = Evaluator.pack(opening, endgame);
+                assertEquals(opening, Evaluator.openingScore(packed));
+                assertEquals(endgame, Evaluator.endgameScore(packed));
+                assertEquals(Evaluator.pack(opening - 120, endgame + 250), packed + Evaluator.pack(-120, 250));
+            }
+        }
+    }
+
+    @Test
+    public void TestIncrementalScore() {
+        Random random = new Random(20);
+        MoveList moves = new MoveList();
+        Board board = Board.createStartingBoard();
+        int start = board.getPieceScore();
+        int plies = 0;
+        for (; plies < 80; plies++) {
+            moves.clear();
+            board.generateLegalMoves(board.isWhiteToMove(), moves);
+            if (moves.isEmpty()) {
+                break;
+            }
+            board.makeMove(moves.get(random.nextInt(moves.size())));
+            assertEquals(board.computePieceScore(), board.getPieceScore());
+        }
+        for (; plies > 0; plies--) {
+            board.undoMove();
+            assertEquals(board.computePieceScore(), board.getPieceScore());
+        }
+        assertEquals(start, board.getPieceScore());
+        assertEquals(Evaluator.MAX_PHASE, board.getPhase());
+        assertEquals(countPieces(board), board.getPieceCount());
+
+        BasePiece knight = board.getPiece(Position.of(0, 1));
+        assertTrue(board.movePiece(knight, Position.of(2, 2)));
+        assertEquals(board.computePieceScore(), board.getPieceScore());
+        board.removePiece(Position.of(7, 3));
+        assertEquals(board.computePieceScore(), board.getPieceScore());
+        assertEquals(Evaluator.MAX_PHASE - 4, board.getPhase());
+        assertEquals(countPieces(board), board.getPieceCount());
+    }
+
+    private static int countPieces(Board board) {
+        int count = 0;
+        for (BasePiece[] rank : board.getChessBoard()) {
+            for (BasePiece piece : rank) {
+                count += piece != null ? 1 : 0;
+            }
+        }
+        return count;
+    }
+
+    @Test
+    public void TestMaterial() {
+        Board board = Board.createStartingBoard();
+        board.removePiece(Position.of(7, 3));
+        int score = evaluator.evaluate(board, true);
+        assertTrue(score > 800);
+        assertEquals(-score, evaluator.evaluate(board, false));
+
+        assertEquals(120, Evaluator.pieceValue(BasePiece.SOLDIER));
+        assertEquals(250, Evaluator.pieceValue(BasePiece.ELEPHANT));
+        assertEquals(0, Evaluator.pieceValue(BasePiece.KING));
+    }
+
+    @Test
+    public void TestMirroredPositionsScoreTheSame() {
+        Board board = new Board(8, 8);
+        board.setPiece(new King(Position.of(0, 6), true));
+        board.setPiece(new Rook(Position.of(3, 2), true));
+        board.setPiece(new Soldier(Position.of(4, 5), true));
+        board.setPiece(new King(Position.of(6, 1), false));
+        board.setPiece(new Elephant(Position.of(5, 4), false));
+
+        Board mirror = new Board(8, 8);
+        for (BasePiece[] rank : board.getChessBoard()) {
+            for (BasePiece piece : rank) {
+                if (piece != null) {
+                    Position position = piece.getPosition();
+                    mirror.setPiece(PositionCodec.newPiece(piece.getType()
+                            , Position.of(7 - position.getRank(), position.getFile()), !piece.getWhitePlayer(), false));
+                }
+            }
+        }
+        mirror.setWhiteToMove(false);
+
+        assertEquals(evaluator.evaluate(board), evaluator.evaluate(mirror));
+        assertEquals(-board.getPieceScore(), mirror.getPieceScore());
+    }
+
+    @Test
+    public void TestKingCentralizedInEndgame() {
+        Board center = new Board(8, 8);
+        center.setPiece(new King(Position.of(3, 3), true));
+        center.setPiece(new King(Position.of(7, 7), false));
+        Board corner = new Board(8, 8);
+        corner.setPiece(new King(Position.of(0, 0), true));
+        corner.setPiece(new King(Position.of(7, 7), false));
+
+        assertEquals(0, center.getPhase());
+        assertTrue(evaluator.evaluate(center) > evaluator.evaluate(corner));
+    }
+
+    @Test
+    public void TestMobility() {
+        Board free = new Board(8, 8);
+        Board blocked = new Board(8, 8);
+        for (Board board : new Board[]{free, blocked}) {
+            board.setPiece(new King(Position.of(0, 0), true));
+            board.setPiece(new Rook(Position.of(3, 3), true));
+            board.setPiece(new King(Position.of(7, 7), false));
+        }
+        // Pawns of the same piece-square score, which hem the rook in on one board only
+        free.setPiece(new Pawn(Position.of(4, 0), true));
+        free.setPiece(new Pawn(Position.of(4, 1), true));
+        blocked.setPiece(new Pawn(Position.of(3, 2), true));
+        blocked.setPiece(new Pawn(Position.of(3, 5), true));
+
+        assertEquals(free.getPieceScore(), blocked.getPieceScore());
+        assertTrue(evaluator.evaluate(free) > evaluator.evaluate(blocked));
+    }
+
+    @Test
+    public void TestOtherBoardSizes() {
+        Board board = new Board(6, 10);
+        board.setPiece(new Queen(Position.of(2, 7), true));
+        board.setPiece(new Elephant(Position.of(4, 1), false));
+        assertEquals(Evaluator.pack(900 - 250, 900 - 250), board.getPieceScore());
+    }
+}
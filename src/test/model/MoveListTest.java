@@ -0,0 +1,79 @@
+package model;
+
+import org.junit.Test;
+
+import static model.BasePiece.Position;
+import static org.junit.Assert.*;
+
+public class MoveListTest {
+
+    @Test
+    public void TestPackMove() {
+        int move = Move.of(Position.of(1, 2), Position.of(3, 4), Move.CAPTURE);
+        assertEquals(Position.of(1, 2), Move.getFrom(move));
+        assertEquals(Position.of(3, 4), Move.getTo(move));
+        assertTrue(Move.isCapture(move));
+        assertEquals(Move.CAPTURE, Move.getFlags(move));
+        assertFalse(Move.isCapture(Move.of(Position.of(1, 2), Position.of(3, 4), 0)));
+        assertNotEquals(Move.NONE, Move.of(Position.of(0, 0), Position.of(0, 1), 0));
+    }
+
+    @Test
+    public void TestNotation() {
+        assertEquals("e2e4", Move.toNotation(Move.of(Position.of(1, 4), Position.of(3, 4), 0)));
+        assertEquals("a1h8", Move.toNotation(Move.of(Position.of(0, 0), Position.of(7, 7), Move.CAPTURE)));
+        assertEquals("c10", Move.toNotation(Position.of(9, 2)));
+    }
+
+    @Test
+    public void TestFromNotation() {
+        assertEquals(Move.of(Position.of(1, 4), Position.of(3, 4), 0), Move.fromNotation("e2e4"));
+        assertEquals(Move.of(Position.of(9, 2), Position.of(0, 15), 0), Move.fromNotation("c10p1"));
+        assertEquals(Position.of(15, 0), Move.positionFromNotation("a16"));
+        assertEquals(Move.NONE, Move.fromNotation("e2"));
+        assertEquals(Move.NONE, Move.fromNotation("e2e"));
+        assertEquals(Move.NONE, Move.fromNotation("e0e4"));
+        assertEquals(Move.NONE, Move.fromNotation("z2e4"));
+        assertEquals(Move.NONE, Move.fromNotation("e2e4x"));
+        assertEquals(Move.NONE, Move.fromNotation(""));
+        assertNull(Move.positionFromNotation("a17"));
+    }
+
+    @Test
+    public void TestAddAndGrow() {
+        MoveList moves = new MoveList(2);
+        assertTrue(moves.isEmpty());
+        for (int i = 0; i < 10; i++) {
+            moves.add(i);
+        }
+        assertEquals(10, moves.size());
+        assertEquals(7, moves.get(7));
+        assertTrue(moves.contains(9));
+        assertFalse(moves.contains(10));
+
+        moves.set(0, 42);
+        assertEquals(42, moves.get(0));
+        moves.truncate(3);
+        assertEquals(3, moves.size());
+        assertFalse(moves.contains(9));
+        moves.clear();
+        assertTrue(moves.isEmpty());
+    }
+
+    @Test
+    public void TestGenerateMoves() {
+        Board board = new Board(8, 8);
+        BasePiece queen = new Queen(Position.of(0, 3), true);
+        board.setPiece(queen);
+        board.setPiece(new Pawn(Position.of(1, 3), true));
+        board.setPiece(new Rook(Position.of(0, 0), false));
+
+        MoveList moves = new MoveList();
+        queen.generateMoves(board.getChessBoard(), moves);
+
+        // Three squares towards the rook including capture, four squares to the right and seven on diagonals
+        assertEquals(3 + 4 + 3 + 4, moves.size());
+        assertTrue(moves.contains(Move.of(Position.of(0, 3), Position.of(0, 0), Move.CAPTURE)));
+        assertTrue(moves.contains(Move.of(Position.of(0, 3), Position.of(3, 0), 0)));
+    }
+}
@@ -0,0 +1,95 @@
+package model;
+
+import org.junit.Test;
+
+import static model.BasePiece.Position;
+import static org.junit.Assert.*;
+
+public class PositionCodecTest {
+    private static final String START = "rnbqkbnr/pppppppp/s6e/8/8/S6E/PPPPPPPP/RNBQKBNR w ffff81000081ffff";
+
+    @Test
+    public void TestStartingText() {
+        Board board = Board.createStartingBoard();
+        assertEquals(START, PositionCodec.toText(board));
+        assertEquals(board.getHashKey(), PositionCodec.fromText(START).getHashKey());
+    }
+
+    @Test
+    public void TestTextKeepsTurnAndFirstTime() {
+        Board board = Board.createStartingBoard();
+        board.makeMove(Move.of(Position.of(1, 4), Position.of(3, 4), 0));
+        board.makeMove(Move.of(Position.of(5, 7), Position.of(3, 5), 0));
+        String text = PositionCodec.toText(board);
+        assertEquals("rnbqkbnr/pppppppp/s7/8/4Pe2/S6E/PPPP1PPP/RNBQKBNR w ffff01000081efff", text);
+
+        Board decoded = PositionCodec.fromText(text);
+        assertEquals(board.getHashKey(), decoded.getHashKey());
+        assertTrue(decoded.isWhiteToMove());
+        assertFalse(decoded.getPiece(Position.of(3, 4)).getFirstTime());
+        assertTrue(decoded.getPiece(Position.of(3, 5)) instanceof Elephant);
+        assertFalse(decoded.getPiece(Position.of(3, 5)).getWhitePlayer());
+        assertEquals(PositionCodec.toText(board), PositionCodec.toText(decoded));
+    }
+
+    @Test
+    public void TestTextOtherSizes() {
+        Board board = new Board(10, 12);
+        board.setPiece(new King(new Position(0, 11), true, false));
+        board.setPiece(new Soldier(new Position(9, 0), false));
+        board.setWhiteToMove(false);
+        String text = PositionCodec.toText(board);
+        assertEquals("s11/12/12/12/12/12/12/12/12/11K b 1" + "000000000000000000000000000", text);
+
+        Board decoded = PositionCodec.fromText(text);
+        assertEquals(10, decoded.getChessBoard().length);
+        assertEquals(12, decoded.getChessBoard()[0].length);
+        assertEquals(board.getHashKey(), decoded.getHashKey());
+    }
+
+    @Test
+    public void TestBadText() {
+        String[] bad = {"8/8/8/8/8/8/8/8 - w", "8/7 w -", "8/8/8/8/8/8/8/7x w -", "8/8/8/8/8/8/8/8 x -", "8/8/8/8/8/8/8/8 w"
+                , "8/8/8/8/8/8/8/K7 w g"};
+        for (String text : bad) {
+            try {
+                PositionCodec.fromText(text);
+                fail(text);
+            } catch (IllegalArgumentException e) {
+                // Expected
+            }
+        }
+    }
+
+    @Test
+    public void TestBinaryRoundTrip() {
+        Board board = Board.createStartingBoard();
+        byte[] bytes = new byte[PositionCodec.MAX_BINARY_LENGTH + 3];
+        int length = PositionCodec.toBytes(board, bytes, 3);
+        assertEquals(PositionCodec.binaryLength(36), length);
+        assertTrue(length <= PositionCodec.MAX_BINARY_LENGTH);
+        assertEquals(board.getHashKey(), PositionCodec.fromBytes(bytes, 3).getHashKey());
+
+        // Random games keep the same key after a round trip
+        MoveList moves = new MoveList();
+        java.util.Random random = new java.util.Random(42);
+        for (int ply = 0; ply < 60; ply++) {
+            moves.clear();
+            board.generateLegalMoves(board.isWhiteToMove(), moves);
+            if (moves.isEmpty()) {
+                break;
+            }
+            board.makeMove(moves.get(random.nextInt(moves.size())));
+            PositionCodec.toBytes(board, bytes, 0);
+            Board decoded = PositionCodec.fromBytes(bytes, 0);
+            assertEquals(board.getHashKey(), decoded.getHashKey());
+            assertEquals(PositionCodec.toText(board), PositionCodec.toText(decoded));
+            assertEquals(board.getHashKey(), PositionCodec.fromText(PositionCodec.toText(board)).getHashKey());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void TestBinaryOnlyForStandardSize() {
+        PositionCodec.toBytes(new Board(10, 10), new byte[PositionCodec.MAX_BINARY_LENGTH], 0);
+    }
+}
@@ -0,0 +1,87 @@
+package model;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static model.BasePiece.Position;
+import static org.junit.Assert.assertEquals;
+
+public class SanTest {
+    private final MoveList moves = new MoveList();
+
+    @Test
+    public void TestToSan() {
+        Board board = Board.createStartingBoard();
+        assertEquals("e4", San.toSan(board, Move.of(Position.of(1, 4), Position.of(3, 4), 0), moves));
+        assertEquals("Nf3", San.toSan(board, Move.of(Position.of(0, 6), Position.of(2, 5), 0), moves));
+        // The board is unchanged
+        assertEquals(board.computeHashKey(), board.getHashKey());
+        assertEquals(0, board.getMoveCount());
+    }
+
+    @Test
+    public void TestToSanCaptureAndCheck() {
+        Board board = new Board(8, 8);
+        board.setPiece(new King(Position.of(0, 0), true));
+        board.setPiece(new King(Position.of(7, 7), false));
+        board.setPiece(new Rook(Position.of(0, 6), true));
+        board.setPiece(new Pawn(Position.of(5, 6), false));
+        board.setPiece(new Pawn(Position.of(4, 5), true));
+        int capture = Move.of(Position.of(0, 6), Position.of(5, 6), Move.CAPTURE);
+        assertEquals("Rxg6", San.toSan(board, capture, moves));
+        assertEquals("fxg6", San.toSan(board, Move.of(Position.of(4, 5), Position.of(5, 6), Move.CAPTURE), moves));
+        assertEquals("Rh1+", San.toSan(board, Move.of(Position.of(0, 6), Position.of(0, 7), 0), moves));
+    }
+
+    @Test
+    public void TestToSanDisambiguation() {
+        Board board = new Board(8, 8);
+        board.setPiece(new King(Position.of(0, 4), true));
+        board.setPiece(new King(Position.of(7, 4), false));
+        board.setPiece(new Knight(Position.of(0, 1), true));
+        board.setPiece(new Knight(Position.of(0, 5), true));
+        board.setPiece(new Knight(Position.of(4, 1), true));
+        // The knights on b1 and f1 both reach d2, on different files
+        assertEquals("Nbd2", San.toSan(board, Move.of(Position.of(0, 1), Position.of(1, 3), 0), moves));
+        // The knights on b1 and b5 both reach c3, on the same file
+        assertEquals("N1c3", San.toSan(board, Move.of(Position.of(0, 1), Position.of(2, 2), 0), moves));
+        assertEquals("Nbd2", San.toSan(board, San.fromSan(board, "Nbd2", moves), moves));
+        assertEquals(Move.of(Position.of(4, 1), Position.of(2, 2), 0), San.fromSan(board, "N5c3", moves));
+        assertEquals(Move.NONE, San.fromSan(board, "Nc3", moves));
+    }
+
+    @Test
+    public void TestFromSan() {
+        Board board = Board.createStartingBoard();
+        assertEquals(Move.of(Position.of(1, 4), Position.of(3, 4), 0), San.fromSan(board, "e4", moves));
+        assertEquals(Move.of(Position.of(0, 6), Position.of(2, 5), 0), San.fromSan(board, "Nf3!?", moves));
+        assertEquals(Move.of(Position.of(0, 6), Position.of(2, 5), 0), San.fromSan(board, "Ng1f3", moves));
+        assertEquals(Move.NONE, San.fromSan(board, "e5", moves));
+        assertEquals(Move.NONE, San.fromSan(board, "O-O", moves));
+        assertEquals(Move.NONE, San.fromSan(board, "Xe4", moves));
+        assertEquals(Move.NONE, San.fromSan(board, "", moves));
+        assertEquals(Move.NONE, San.fromSan(board, "e", moves));
+    }
+
+    @Test
+    public void TestRoundTripRandomGames() {
+        Random random = new Random(17);
+        MoveList legal = new MoveList();
+        for (int game = 0; game < 20; game++) {
+            Board board = Board.createStartingBoard();
+            for (int ply = 0; ply < 60; ply++) {
+                legal.clear();
+                board.generateLegalMoves(board.isWhiteToMove(), legal);
+                if (legal.isEmpty()) {
+                    break;
+                }
+                for (int i = 0; i < legal.size(); i++) {
+                    String san = San.toSan(board, legal.get(i), moves);
+                    assertEquals(san, legal.get(i), San.fromSan(board, san, moves));
+                }
+                board.makeMove(legal.get(random.nextInt(legal.size())));
+            }
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package server;
+
+import controller.GameSession;
+import controller.GameSessionManager;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+
+public class GameServerTest {
+    private GameServer server;
+    private int port;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new GameServer(new GameSessionManager());
+        port = server.start(0);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.close();
+    }
+
+    @Test
+    public void TestPlayOverSocket() throws IOException {
+        try (Socket socket = new Socket("localhost", port)) {
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream()
+                    , StandardCharsets.US_ASCII));
+            PrintWriter out = new PrintWriter(socket.getOutputStream(), true);
+
+            String hello = in.readLine();
+            assertTrue(hello.startsWith("hello "));
+            long id = Long.parseLong(hello.substring("hello ".length()));
+            assertNotNull(server.getSessionManager().get(id));
+
+            out.println("move e2e4");
+            assertEquals("ok in_progress", in.readLine());
+            out.println("turn");
+            assertEquals("black", in.readLine());
+            out.println("move e4e5");
+            assertEquals("illegal", in.readLine());
+            out.println("move e9");
+            assertEquals("error bad move", in.readLine());
+            out.println("undo");
+            assertEquals("ok", in.readLine());
+            out.println("forfeit");
+            assertEquals("ok black_win", in.readLine());
+            out.println("forfeit");
+            assertEquals("error game over", in.readLine());
+            out.println("new");
+            assertEquals("ok", in.readLine());
+            out.println("castle");
+            assertEquals("error unknown command", in.readLine());
+            out.println("quit");
+            assertEquals("bye", in.readLine());
+            assertNull(in.readLine());
+        }
+    }
+
+    @Test
+    public void TestManyConnections() throws Exception {
+        Socket[] sockets = new Socket[200];
+        for (int i = 0; i < sockets.length; i++) {
+            sockets[i] = new Socket("localhost", port);
+            new BufferedReader(new InputStreamReader(sockets[i].getInputStream())).readLine();
+        }
+        assertEquals(sockets.length, server.getConnectionCount());
+        assertEquals(sockets.length, server.getSessionManager().size());
+        for (Socket socket : sockets) {
+            socket.close();
+        }
+        // Sessions are dropped when their connections close
+        long deadline = System.currentTimeMillis() + 5000;
+        while (server.getSessionManager().size() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, server.getSessionManager().size());
+    }
+
+    @Test
+    public void TestHandleCheckmate() {
+        GameSession session = new GameSession(1);
+        String[] foolsMate = {"f2f3", "e7e5", "g2g4"};
+        for (String move : foolsMate) {
+            assertEquals("ok in_progress", GameConnection.handle(session, "move " + move));
+        }
+        assertEquals("ok checkmate", GameConnection.handle(session, "move d8h4"));
+        assertEquals("illegal", GameConnection.handle(session, "move a2a3"));
+    }
+}
@@ -8,8 +8,10 @@ import javax.swing.*;
 import java.awt.*;
 import java.awt.event.InputEvent;
 import java.io.IOException;
+import java.util.ArrayList;
 
-import static org.junit.Assert.assertEquals;
+import static model.BasePiece.Position;
+import static org.junit.Assert.*;
 
 public class ChessGUITest {
 
@@ -18,4 +20,25 @@ public class ChessGUITest {
         Chess chess = new Chess();
         chess.initialize();
     }
+
+    @Test
+    public void TestDrawBoardKeepsPanels() throws IOException {
+        Chess chess = new Chess();
+        chess.initialize();
+        ChessGUI.BoardPanel boardPanel = chess.getChessGUI().getChessPanel();
+        Component[] components = boardPanel.getComponents();
+        ArrayList<ChessGUI.PiecePanel> piecePanels = boardPanel.getPiecePanels();
+        // The panels are listed from the top left, rank 8 first
+        ChessGUI.PiecePanel from = piecePanels.get(6 * 8 + 4);
+        ChessGUI.PiecePanel to = piecePanels.get(4 * 8 + 4);
+        assertEquals("WP", from.getShownImage());
+        assertNull(to.getShownImage());
+
+        chess.getSession().move(Position.of(1, 4), Position.of(3, 4));
+        boardPanel.drawBoard(chess.getBoard());
+
+        assertArrayEquals(components, boardPanel.getComponents());
+        assertNull(from.getShownImage());
+        assertEquals("WP", to.getShownImage());
+    }
 }